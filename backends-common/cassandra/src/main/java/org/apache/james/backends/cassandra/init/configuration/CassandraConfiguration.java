@@ -42,6 +42,8 @@ public class CassandraConfiguration {
     public static final float DEFAULT_MAILBOX_READ_REPAIR = 0.1f;
     public static final float DEFAULT_MAX_MAILBOX_COUNTERS_READ_REPAIR_CHANCE = 0.1f;
     public static final float DEFAULT_ONE_HUNDRED_MAILBOX_COUNTERS_READ_REPAIR_CHANCE = 0.01f;
+    public static final int DEFAULT_MAILBOX_COUNTERS_WRITE_BEHIND_DELAY = 0;
+    public static final int DEFAULT_MAILBOX_COUNTERS_WRITE_BEHIND_MAX_PENDING = 1000;
     public static final int DEFAULT_EXPUNGE_BATCH_SIZE = 50;
     public static final int DEFAULT_UPDATE_FLAGS_BATCH_SIZE = 20;
     public static final int DEFAULT_FLAGS_UPDATE_MESSAGE_MAX_RETRY = 1000;
@@ -61,6 +63,8 @@ public class CassandraConfiguration {
     private static final String MAILBOX_READ_REPAIR = "mailbox.read.repair.chance";
     private static final String MAILBOX_MAX_COUNTERS_READ_REPAIR = "mailbox.counters.read.repair.chance.max";
     private static final String MAILBOX_ONE_HUNDRED_COUNTERS_READ_REPAIR = "mailbox.counters.read.repair.chance.one.hundred";
+    private static final String MAILBOX_COUNTERS_WRITE_BEHIND_DELAY = "mailbox.counters.write.behind.delay";
+    private static final String MAILBOX_COUNTERS_WRITE_BEHIND_MAX_PENDING = "mailbox.counters.write.behind.max.pending";
     private static final String MAILBOX_MAX_RETRY_ACL = "mailbox.max.retry.acl";
     private static final String MAILBOX_MAX_RETRY_MODSEQ = "mailbox.max.retry.modseq";
     private static final String MAILBOX_MAX_RETRY_UID = "mailbox.max.retry.uid";
@@ -94,6 +98,8 @@ public class CassandraConfiguration {
         private Optional<Float> mailboxReadRepair = Optional.empty();
         private Optional<Float> mailboxCountersReadRepairMax = Optional.empty();
         private Optional<Float> mailboxCountersReadRepairChanceOneHundred = Optional.empty();
+        private Optional<Integer> mailboxCountersWriteBehindDelay = Optional.empty();
+        private Optional<Integer> mailboxCountersWriteBehindMaxPending = Optional.empty();
 
         public Builder messageReadChunkSize(int value) {
             Preconditions.checkArgument(value > 0, "messageReadChunkSize needs to be strictly positive");
@@ -237,6 +243,28 @@ public class CassandraConfiguration {
             return this;
         }
 
+        public Builder mailboxCountersWriteBehindDelay(int value) {
+            Preconditions.checkArgument(value >= 0, "mailboxCountersWriteBehindDelay needs to be positive");
+            this.mailboxCountersWriteBehindDelay = Optional.of(value);
+            return this;
+        }
+
+        public Builder mailboxCountersWriteBehindMaxPending(int value) {
+            Preconditions.checkArgument(value > 0, "mailboxCountersWriteBehindMaxPending needs to be strictly positive");
+            this.mailboxCountersWriteBehindMaxPending = Optional.of(value);
+            return this;
+        }
+
+        public Builder mailboxCountersWriteBehindDelay(Optional<Integer> value) {
+            value.ifPresent(this::mailboxCountersWriteBehindDelay);
+            return this;
+        }
+
+        public Builder mailboxCountersWriteBehindMaxPending(Optional<Integer> value) {
+            value.ifPresent(this::mailboxCountersWriteBehindMaxPending);
+            return this;
+        }
+
         public Builder mailboxReadRepair(Optional<Float> value) {
             value.ifPresent(this::mailboxReadRepair);
             return this;
@@ -300,7 +328,9 @@ public class CassandraConfiguration {
                 consistencyLevelLightweightTransaction,
                 mailboxReadRepair.orElse(DEFAULT_MAILBOX_READ_REPAIR),
                 mailboxCountersReadRepairMax.orElse(DEFAULT_MAX_MAILBOX_COUNTERS_READ_REPAIR_CHANCE),
-                mailboxCountersReadRepairChanceOneHundred.orElse(DEFAULT_ONE_HUNDRED_MAILBOX_COUNTERS_READ_REPAIR_CHANCE));
+                mailboxCountersReadRepairChanceOneHundred.orElse(DEFAULT_ONE_HUNDRED_MAILBOX_COUNTERS_READ_REPAIR_CHANCE),
+                mailboxCountersWriteBehindDelay.orElse(DEFAULT_MAILBOX_COUNTERS_WRITE_BEHIND_DELAY),
+                mailboxCountersWriteBehindMaxPending.orElse(DEFAULT_MAILBOX_COUNTERS_WRITE_BEHIND_MAX_PENDING));
         }
     }
 
@@ -342,6 +372,10 @@ public class CassandraConfiguration {
                 propertiesConfiguration.getFloat(MAILBOX_MAX_COUNTERS_READ_REPAIR, null)))
             .mailboxCountersReadRepairChanceOneHundred(Optional.ofNullable(
                 propertiesConfiguration.getFloat(MAILBOX_ONE_HUNDRED_COUNTERS_READ_REPAIR, null)))
+            .mailboxCountersWriteBehindDelay(Optional.ofNullable(
+                propertiesConfiguration.getInteger(MAILBOX_COUNTERS_WRITE_BEHIND_DELAY, null)))
+            .mailboxCountersWriteBehindMaxPending(Optional.ofNullable(
+                propertiesConfiguration.getInteger(MAILBOX_COUNTERS_WRITE_BEHIND_MAX_PENDING, null)))
             .build();
     }
 
@@ -361,6 +395,8 @@ public class CassandraConfiguration {
     private final float mailboxReadRepair;
     private final float mailboxCountersReadRepairChanceMax;
     private final float mailboxCountersReadRepairChanceOneHundred;
+    private final int mailboxCountersWriteBehindDelay;
+    private final int mailboxCountersWriteBehindMaxPending;
 
     @VisibleForTesting
     CassandraConfiguration(int aclMaxRetry, int messageReadChunkSize, int expungeChunkSize,
@@ -369,7 +405,8 @@ public class CassandraConfiguration {
                            int blobPartSize, final int attachmentV2MigrationReadTimeout, int messageAttachmentIdsReadTimeout,
                            String consistencyLevelRegular, String consistencyLevelLightweightTransaction,
                            float mailboxReadRepair, float mailboxCountersReadRepairChanceMax,
-                           float mailboxCountersReadRepairChanceOneHundred) {
+                           float mailboxCountersReadRepairChanceOneHundred, int mailboxCountersWriteBehindDelay,
+                           int mailboxCountersWriteBehindMaxPending) {
         this.aclMaxRetry = aclMaxRetry;
         this.messageReadChunkSize = messageReadChunkSize;
         this.expungeChunkSize = expungeChunkSize;
@@ -386,6 +423,8 @@ public class CassandraConfiguration {
         this.mailboxReadRepair = mailboxReadRepair;
         this.mailboxCountersReadRepairChanceMax = mailboxCountersReadRepairChanceMax;
         this.mailboxCountersReadRepairChanceOneHundred = mailboxCountersReadRepairChanceOneHundred;
+        this.mailboxCountersWriteBehindDelay = mailboxCountersWriteBehindDelay;
+        this.mailboxCountersWriteBehindMaxPending = mailboxCountersWriteBehindMaxPending;
     }
 
     public float getMailboxReadRepair() {
@@ -452,6 +491,14 @@ public class CassandraConfiguration {
         return mailboxCountersReadRepairChanceOneHundred;
     }
 
+    public int getMailboxCountersWriteBehindDelay() {
+        return mailboxCountersWriteBehindDelay;
+    }
+
+    public int getMailboxCountersWriteBehindMaxPending() {
+        return mailboxCountersWriteBehindMaxPending;
+    }
+
     @Override
     public final boolean equals(Object o) {
         if (o instanceof CassandraConfiguration) {
@@ -467,6 +514,8 @@ public class CassandraConfiguration {
                 && Objects.equals(this.mailboxReadRepair, that.mailboxReadRepair)
                 && Objects.equals(this.mailboxCountersReadRepairChanceMax, that.mailboxCountersReadRepairChanceMax)
                 && Objects.equals(this.mailboxCountersReadRepairChanceOneHundred, that.mailboxCountersReadRepairChanceOneHundred)
+                && Objects.equals(this.mailboxCountersWriteBehindDelay, that.mailboxCountersWriteBehindDelay)
+                && Objects.equals(this.mailboxCountersWriteBehindMaxPending, that.mailboxCountersWriteBehindMaxPending)
                 && Objects.equals(this.fetchNextPageInAdvanceRow, that.fetchNextPageInAdvanceRow)
                 && Objects.equals(this.blobPartSize, that.blobPartSize)
                 && Objects.equals(this.attachmentV2MigrationReadTimeout, that.attachmentV2MigrationReadTimeout)
@@ -483,7 +532,8 @@ public class CassandraConfiguration {
             flagsUpdateMessageMaxRetry, modSeqMaxRetry, uidMaxRetry, fetchNextPageInAdvanceRow,
             mailboxCountersReadRepairChanceOneHundred, mailboxCountersReadRepairChanceMax,
             blobPartSize, attachmentV2MigrationReadTimeout, messageAttachmentIdsReadTimeout,
-            consistencyLevelRegular, consistencyLevelLightweightTransaction, mailboxReadRepair);
+            consistencyLevelRegular, consistencyLevelLightweightTransaction, mailboxReadRepair,
+            mailboxCountersWriteBehindDelay, mailboxCountersWriteBehindMaxPending);
     }
 
     @Override
@@ -499,6 +549,8 @@ public class CassandraConfiguration {
             .add("mailboxReadRepair", mailboxReadRepair)
             .add("mailboxCountersReadRepairChanceOneHundred", mailboxCountersReadRepairChanceOneHundred)
             .add("mailboxCountersReadRepairChanceMax", mailboxCountersReadRepairChanceMax)
+            .add("mailboxCountersWriteBehindDelay", mailboxCountersWriteBehindDelay)
+            .add("mailboxCountersWriteBehindMaxPending", mailboxCountersWriteBehindMaxPending)
             .add("uidMaxRetry", uidMaxRetry)
             .add("blobPartSize", blobPartSize)
             .add("attachmentV2MigrationReadTimeout", attachmentV2MigrationReadTimeout)
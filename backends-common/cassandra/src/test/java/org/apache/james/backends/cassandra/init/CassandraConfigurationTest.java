@@ -196,6 +196,29 @@ class CassandraConfigurationTest {
                 .isInstanceOf(IllegalArgumentException.class);
     }
 
+    @Test
+    void mailboxCountersWriteBehindDelayShouldThrowOnNegativeValue() {
+        assertThatThrownBy(() -> CassandraConfiguration.builder()
+                .mailboxCountersWriteBehindDelay(-1))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void mailboxCountersWriteBehindDelayShouldAcceptZero() {
+        assertThat(CassandraConfiguration.builder()
+                .mailboxCountersWriteBehindDelay(0)
+                .build()
+                .getMailboxCountersWriteBehindDelay())
+            .isZero();
+    }
+
+    @Test
+    void mailboxCountersWriteBehindMaxPendingShouldThrowOnZero() {
+        assertThatThrownBy(() -> CassandraConfiguration.builder()
+                .mailboxCountersWriteBehindMaxPending(0))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
     @Test
     void builderShouldCreateTheRightObject() {
         int aclMaxRetry = 1;
@@ -211,6 +234,8 @@ class CassandraConfigurationTest {
         int messageAttachmentIdReadTimeout = 12;
         String consistencyLevelRegular = "LOCAL_QUORUM";
         String consistencyLevelLightweightTransaction = "LOCAL_SERIAL";
+        int mailboxCountersWriteBehindDelay = 13;
+        int mailboxCountersWriteBehindMaxPending = 14;
 
         CassandraConfiguration configuration = CassandraConfiguration.builder()
             .aclMaxRetry(aclMaxRetry)
@@ -226,6 +251,8 @@ class CassandraConfigurationTest {
             .messageAttachmentIdsReadTimeout(messageAttachmentIdReadTimeout)
             .consistencyLevelRegular(consistencyLevelRegular)
             .consistencyLevelLightweightTransaction(consistencyLevelLightweightTransaction)
+            .mailboxCountersWriteBehindDelay(mailboxCountersWriteBehindDelay)
+            .mailboxCountersWriteBehindMaxPending(mailboxCountersWriteBehindMaxPending)
             .build();
 
         SoftAssertions.assertSoftly(softly -> {
@@ -242,6 +269,8 @@ class CassandraConfigurationTest {
             softly.assertThat(configuration.getMessageAttachmentIdsReadTimeout()).isEqualTo(messageAttachmentIdReadTimeout);
             softly.assertThat(configuration.getConsistencyLevelRegular()).isEqualTo(consistencyLevelRegular);
             softly.assertThat(configuration.getConsistencyLevelLightweightTransaction()).isEqualTo(consistencyLevelLightweightTransaction);
+            softly.assertThat(configuration.getMailboxCountersWriteBehindDelay()).isEqualTo(mailboxCountersWriteBehindDelay);
+            softly.assertThat(configuration.getMailboxCountersWriteBehindMaxPending()).isEqualTo(mailboxCountersWriteBehindMaxPending);
         });
     }
 
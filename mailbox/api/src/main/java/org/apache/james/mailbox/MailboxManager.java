@@ -90,7 +90,11 @@ public interface MailboxManager extends RequestAware, RightManager, MailboxAnnot
     boolean hasCapability(MailboxCapabilities capability);
 
     enum MessageCapabilities {
-        UniqueID
+        UniqueID,
+        /**
+         * {@link MessageManager#readFullContent} only reads the requested octets from the storage
+         */
+        RangedFullContentRead
     }
 
     EnumSet<MessageCapabilities> getSupportedMessageCapabilities();
@@ -310,6 +310,14 @@ public interface MessageManager {
 
     AppendResult appendMessage(AppendCommand appendCommand, MailboxSession session) throws MailboxException;
 
+    /**
+     * Appends several messages to this mailbox at once: quota is checked once for all of them, their UIDs are
+     * allocated together and a single event is dispatched.
+     *
+     * @return the results in the order of the given commands
+     */
+    List<AppendResult> appendMessages(List<AppendCommand> appendCommands, MailboxSession session) throws MailboxException;
+
     /**
      * Gets messages in the given range. The messages may get fetched under
      * the-hood in batches so the caller should check if
@@ -326,6 +334,14 @@ public interface MessageManager {
 
     Publisher<ComposedMessageIdWithMetaData> listMessagesMetadata(MessageRange set, MailboxSession session);
 
+    /**
+     * Reads at most <code>numberOfOctets</code> octets of the full content of a message, starting at
+     * <code>firstOctet</code>, without loading the rest of its content when the underlying storage allows it.
+     *
+     * @return the requested octets, fewer if the message ends before, or an empty publisher if the message is not found
+     */
+    Publisher<byte[]> readFullContent(MessageUid uid, long firstOctet, long numberOfOctets, MailboxSession session);
+
     /**
      * Return the underlying {@link Mailbox}
      */
@@ -0,0 +1,53 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.events;
+
+/**
+ * Single key on which the events invalidating node-local mailbox caches are dispatched, namely
+ * {@link MailboxListener.MailboxRenamed}, {@link MailboxListener.MailboxDeletion} and
+ * {@link MailboxListener.MailboxACLUpdated}.
+ *
+ * Caches register once on this key rather than on the {@link MailboxIdRegistrationKey} of each cached mailbox, which
+ * would also deliver them the message events of these mailboxes.
+ */
+public class MailboxInvalidationRegistrationKey implements RegistrationKey {
+    public static final MailboxInvalidationRegistrationKey INSTANCE = new MailboxInvalidationRegistrationKey();
+    private static final String VALUE = "mailboxes";
+
+    public static class Factory implements RegistrationKey.Factory {
+        @Override
+        public Class<? extends RegistrationKey> forClass() {
+            return MailboxInvalidationRegistrationKey.class;
+        }
+
+        @Override
+        public RegistrationKey fromString(String asString) {
+            return INSTANCE;
+        }
+    }
+
+    private MailboxInvalidationRegistrationKey() {
+    }
+
+    @Override
+    public String asString() {
+        return VALUE;
+    }
+}
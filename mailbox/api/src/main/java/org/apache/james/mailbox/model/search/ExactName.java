@@ -38,6 +38,12 @@ public class ExactName implements MailboxNameExpression {
         return name.equals(mailboxName);
     }
 
+    @Override
+    public boolean isPrefixMatch(String namePrefix) {
+        Preconditions.checkNotNull(namePrefix);
+        return name.startsWith(namePrefix);
+    }
+
     @Override
     public String getCombinedName() {
         return name;
@@ -39,6 +39,19 @@ public interface MailboxNameExpression {
      */
     boolean isExpressionMatch(String name);
 
+    /**
+     * Could a name starting with the given prefix be a match for this expression?
+     *
+     * This allows to skip whole sub-trees of mailboxes. Implementations may answer true when unsure.
+     *
+     * @param namePrefix
+     *            beginning of the names to be matched
+     * @return false if no name starting with the given prefix matches this expression
+     */
+    default boolean isPrefixMatch(String namePrefix) {
+        return true;
+    }
+
     /**
      * Get combined name formed by adding the expression to the base using the
      * given hierarchy delimiter. Note that the wildcards are retained in the
@@ -22,6 +22,7 @@ package org.apache.james.mailbox.model.search;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.StringTokenizer;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public class PrefixedRegex implements MailboxNameExpression {
@@ -53,6 +54,25 @@ public class PrefixedRegex implements MailboxNameExpression {
         }
     }
 
+    @Override
+    public boolean isPrefixMatch(String namePrefix) {
+        if (namePrefix.length() <= prefix.length()) {
+            return prefix.startsWith(namePrefix);
+        }
+        return namePrefix.startsWith(prefix)
+            && regexPrefixMatching(namePrefix.substring(prefix.length()));
+    }
+
+    private boolean regexPrefixMatching(String namePrefix) {
+        if (isWild()) {
+            Matcher matcher = pattern.matcher(namePrefix);
+            // Not matching only because the input ended: a longer name might match
+            return matcher.matches() || matcher.hitEnd();
+        } else {
+            return regex.startsWith(namePrefix);
+        }
+    }
+
     @Override
     public MailboxNameExpression includeChildren() {
         return new PrefixedRegex(prefix, regex + "*", pathDelimiter);
@@ -37,6 +37,12 @@ public class PrefixedWildcard implements MailboxNameExpression {
         return name.startsWith(prefix);
     }
 
+    @Override
+    public boolean isPrefixMatch(String namePrefix) {
+        return namePrefix.startsWith(prefix)
+            || prefix.startsWith(namePrefix);
+    }
+
     @Override
     public String getCombinedName() {
         return prefix + FREEWILDCARD;
@@ -32,6 +32,8 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.List;
@@ -40,6 +42,7 @@ import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 
 import javax.mail.Flags;
+import javax.mail.util.SharedByteArrayInputStream;
 
 import org.apache.james.core.Username;
 import org.apache.james.core.quota.QuotaCountLimit;
@@ -812,6 +815,46 @@ public abstract class MailboxManagerTest<T extends MailboxManager> {
                 .satisfies(event -> assertThat(event.getUids()).hasSize(1));
         }
 
+        @Test
+        void appendingMessagesShouldFireASingleAddedEvent() throws Exception {
+            Mono.from(retrieveEventBus(mailboxManager).register(listener, new MailboxIdRegistrationKey(inboxId))).block();
+            List<MessageManager.AppendResult> results = inboxManager.appendMessages(ImmutableList.of(
+                    MessageManager.AppendCommand.builder().build(message),
+                    MessageManager.AppendCommand.builder().build(message)),
+                session);
+
+            assertThat(listener.getEvents())
+                .filteredOn(event -> event instanceof MailboxListener.Added)
+                .hasSize(1)
+                .extracting(event -> (MailboxListener.Added) event)
+                .element(0)
+                .satisfies(event -> assertThat(event.getMailboxId()).isEqualTo(inboxId))
+                .satisfies(event -> assertThat(event.getUids()).containsOnly(
+                    results.get(0).getId().getUid(),
+                    results.get(1).getId().getUid()));
+        }
+
+        @Test
+        void appendingMessagesShouldFireASingleQuotaUpdateEvent() throws Exception {
+            assumeTrue(mailboxManager.hasCapability(MailboxCapabilities.Quota));
+            retrieveEventBus(mailboxManager).register(listener);
+
+            inboxManager.appendMessages(ImmutableList.of(
+                    MessageManager.AppendCommand.builder().build(message),
+                    MessageManager.AppendCommand.builder().build(message)),
+                session);
+
+            assertThat(listener.getEvents())
+                .filteredOn(event -> event instanceof MailboxListener.QuotaUsageUpdatedEvent)
+                .hasSize(1)
+                .extracting(event -> (MailboxListener.QuotaUsageUpdatedEvent) event)
+                .element(0)
+                .satisfies(event -> assertThat(event.getCountQuota()).isEqualTo(Quota.<QuotaCountLimit, QuotaCountUsage>builder()
+                    .used(QuotaCountUsage.count(2))
+                    .computedLimit(QuotaCountLimit.unlimited())
+                    .build()));
+        }
+
         @Test
         void expungeMessageShouldFireExpungedEvent() throws Exception {
             inboxManager.appendMessage(MessageManager.AppendCommand.builder().build(message), session);
@@ -2774,6 +2817,54 @@ public abstract class MailboxManagerTest<T extends MailboxManager> {
                 }));
         }
 
+        @Test
+        void appendMessageShouldStoreOnlyTheSliceOfASharedStream() throws Exception {
+            String prefix = "a APPEND INBOX {23}\r\n";
+            String content = "Subject: test\r\n\r\nbody\r\n";
+            byte[] request = (prefix + content + "\r\n").getBytes(StandardCharsets.US_ASCII);
+            byte[] message = content.getBytes(StandardCharsets.US_ASCII);
+            InputStream literal = new SharedByteArrayInputStream(request).newStream(prefix.length(), prefix.length() + message.length);
+
+            ComposedMessageId composeId = inboxManager.appendMessage(AppendCommand.builder().build(literal), session).getId();
+
+            MessageResult result = inboxManager.getMessages(MessageRange.one(composeId.getUid()), FetchGroup.FULL_CONTENT, session).next();
+            assertThat(result.getSize()).isEqualTo(message.length);
+            assertThat(result.getFullContent().getInputStream()).hasSameContentAs(new ByteArrayInputStream(message));
+        }
+
+        @Test
+        void appendMessagesShouldReturnResultsInTheOrderOfTheCommands() throws Exception {
+            List<MessageManager.AppendResult> results = inboxManager.appendMessages(ImmutableList.of(
+                    AppendCommand.builder().withFlags(new Flags(Flags.Flag.SEEN)).build("Subject: first\r\n\r\nbody\r\n"),
+                    AppendCommand.builder().withFlags(new Flags(Flags.Flag.FLAGGED)).build("Subject: second\r\n\r\nbody\r\n")),
+                session);
+
+            assertThat(results).hasSize(2);
+            assertThat(results.get(0).getId().getUid()).isLessThan(results.get(1).getId().getUid());
+            MessageResult first = inboxManager.getMessages(MessageRange.one(results.get(0).getId().getUid()), FetchGroup.MINIMAL, session).next();
+            MessageResult second = inboxManager.getMessages(MessageRange.one(results.get(1).getId().getUid()), FetchGroup.MINIMAL, session).next();
+            assertThat(first.getFlags().contains(Flags.Flag.SEEN)).isTrue();
+            assertThat(second.getFlags().contains(Flags.Flag.FLAGGED)).isTrue();
+        }
+
+        @Test
+        void appendMessagesShouldUpdateCounters() throws Exception {
+            inboxManager.appendMessages(ImmutableList.of(
+                    AppendCommand.builder().withFlags(new Flags(Flags.Flag.SEEN)).build("Subject: first\r\n\r\nbody\r\n"),
+                    AppendCommand.builder().build("Subject: second\r\n\r\nbody\r\n"),
+                    AppendCommand.builder().build("Subject: third\r\n\r\nbody\r\n")),
+                session);
+
+            MailboxCounters counters = inboxManager.getMailboxCounters(session);
+            assertThat(counters.getCount()).isEqualTo(3);
+            assertThat(counters.getUnseen()).isEqualTo(2);
+        }
+
+        @Test
+        void appendMessagesShouldAcceptNoMessage() throws Exception {
+            assertThat(inboxManager.appendMessages(ImmutableList.of(), session)).isEmpty();
+        }
+
         @Test
         void listMessagesMetadataShouldNotReturnDeletedMessage() throws Exception {
             inboxManager.appendMessage(AppendCommand.builder()
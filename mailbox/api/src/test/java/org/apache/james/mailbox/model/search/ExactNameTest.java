@@ -71,4 +71,17 @@ public class ExactNameTest {
             .isInstanceOf(NullPointerException.class);
     }
 
-}
\ No newline at end of file
+    @Test
+    void isPrefixMatchShouldReturnTrueWhenStartOfTheName() {
+        ExactName exactName = new ExactName("archive.2019");
+
+        assertThat(exactName.isPrefixMatch("archive.")).isTrue();
+    }
+
+    @Test
+    void isPrefixMatchShouldReturnFalseWhenNotStartOfTheName() {
+        ExactName exactName = new ExactName("archive.2019");
+
+        assertThat(exactName.isPrefixMatch("inbox.")).isFalse();
+    }
+}
@@ -1064,4 +1064,60 @@ class PrefixedRegexTest {
 
         assertThat(actual).isTrue();
     }
-}
\ No newline at end of file
+
+    @Test
+    void isPrefixMatchShouldReturnTrueWhenPartOfThePrefix() {
+        PrefixedRegex testee = new PrefixedRegex(PREFIX, "%", PATH_DELIMITER);
+
+        assertThat(testee.isPrefixMatch("na")).isTrue();
+    }
+
+    @Test
+    void isPrefixMatchShouldReturnFalseWhenNotPartOfThePrefix() {
+        PrefixedRegex testee = new PrefixedRegex(PREFIX, "%", PATH_DELIMITER);
+
+        assertThat(testee.isPrefixMatch("no")).isFalse();
+    }
+
+    @Test
+    void isPrefixMatchShouldReturnTrueWhenLocalWildcardMayMatchLongerNames() {
+        PrefixedRegex testee = new PrefixedRegex(EMPTY_PREFIX, "%.%", PATH_DELIMITER);
+
+        assertThat(testee.isPrefixMatch("archive.")).isTrue();
+    }
+
+    @Test
+    void isPrefixMatchShouldReturnFalseWhenLocalWildcardCanNotMatchDeeperNames() {
+        PrefixedRegex testee = new PrefixedRegex(EMPTY_PREFIX, "%", PATH_DELIMITER);
+
+        assertThat(testee.isPrefixMatch("archive.")).isFalse();
+    }
+
+    @Test
+    void isPrefixMatchShouldReturnTrueWhenFreeWildcard() {
+        PrefixedRegex testee = new PrefixedRegex(EMPTY_PREFIX, "*", PATH_DELIMITER);
+
+        assertThat(testee.isPrefixMatch("archive.2019.")).isTrue();
+    }
+
+    @Test
+    void isPrefixMatchShouldReturnTrueWhenStartOfALiteralRegex() {
+        PrefixedRegex testee = new PrefixedRegex(EMPTY_PREFIX, "archive%", PATH_DELIMITER);
+
+        assertThat(testee.isPrefixMatch("arch")).isTrue();
+    }
+
+    @Test
+    void isPrefixMatchShouldReturnFalseWhenNotStartOfALiteralRegex() {
+        PrefixedRegex testee = new PrefixedRegex(EMPTY_PREFIX, "archive%", PATH_DELIMITER);
+
+        assertThat(testee.isPrefixMatch("inbox.")).isFalse();
+    }
+
+    @Test
+    void isPrefixMatchShouldReturnTrueWhenStartOfANonWildRegex() {
+        PrefixedRegex testee = new PrefixedRegex(EMPTY_PREFIX, "archive.2019", PATH_DELIMITER);
+
+        assertThat(testee.isPrefixMatch("archive.")).isTrue();
+    }
+}
@@ -76,4 +76,25 @@ public class PrefixedWildcardTest {
         assertThatThrownBy(() -> new PrefixedWildcard(NAME).isExpressionMatch(null))
             .isInstanceOf(NullPointerException.class);
     }
-}
\ No newline at end of file
+
+    @Test
+    void isPrefixMatchShouldReturnTrueWhenStartingWithThePrefix() {
+        PrefixedWildcard testee = new PrefixedWildcard("archive");
+
+        assertThat(testee.isPrefixMatch("archive.2019.")).isTrue();
+    }
+
+    @Test
+    void isPrefixMatchShouldReturnTrueWhenStartOfThePrefix() {
+        PrefixedWildcard testee = new PrefixedWildcard("archive");
+
+        assertThat(testee.isPrefixMatch("arch")).isTrue();
+    }
+
+    @Test
+    void isPrefixMatchShouldReturnFalseWhenUnrelatedToThePrefix() {
+        PrefixedWildcard testee = new PrefixedWildcard("archive");
+
+        assertThat(testee.isPrefixMatch("inbox.")).isFalse();
+    }
+}
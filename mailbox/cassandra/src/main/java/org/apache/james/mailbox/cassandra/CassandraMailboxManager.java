@@ -51,7 +51,7 @@ public class CassandraMailboxManager extends StoreMailboxManager {
         MailboxCapabilities.Annotation,
         MailboxCapabilities.ACL,
         MailboxCapabilities.Quota);
-    public static final EnumSet<MessageCapabilities> MESSAGE_CAPABILITIES = EnumSet.of(MessageCapabilities.UniqueID);
+    public static final EnumSet<MessageCapabilities> MESSAGE_CAPABILITIES = EnumSet.of(MessageCapabilities.UniqueID, MessageCapabilities.RangedFullContentRead);
 
     private final MailboxPathLocker locker;
     private final CassandraMailboxSessionMapperFactory mapperFactory;
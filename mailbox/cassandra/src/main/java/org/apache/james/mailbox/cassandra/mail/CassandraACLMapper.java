@@ -27,6 +27,9 @@ import static com.datastax.driver.core.querybuilder.QueryBuilder.set;
 import static com.datastax.driver.core.querybuilder.QueryBuilder.update;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 import javax.inject.Inject;
@@ -39,9 +42,14 @@ import org.apache.james.mailbox.cassandra.ids.CassandraId;
 import org.apache.james.mailbox.cassandra.json.MailboxACLJsonConverter;
 import org.apache.james.mailbox.cassandra.table.CassandraACLTable;
 import org.apache.james.mailbox.cassandra.table.CassandraMailboxTable;
+import org.apache.james.mailbox.events.Event;
+import org.apache.james.mailbox.events.EventBus;
+import org.apache.james.mailbox.events.MailboxListener;
 import org.apache.james.mailbox.exception.MailboxException;
 import org.apache.james.mailbox.exception.UnsupportedRightException;
 import org.apache.james.mailbox.model.MailboxACL;
+import org.apache.james.mailbox.model.MailboxId;
+import org.apache.james.mailbox.store.event.InvalidationRegistration;
 import org.apache.james.util.FunctionalUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -52,13 +60,38 @@ import com.datastax.driver.core.Row;
 import com.datastax.driver.core.Session;
 import com.datastax.driver.core.querybuilder.QueryBuilder;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 
 import reactor.core.publisher.Mono;
 
+/**
+ * Stores the ACL of each mailbox.
+ *
+ * ACLs are read on each mailbox lookup, hence for each mailbox of a LIST. They are cached on each node, until changed
+ * through this node or until a {@link MailboxListener.MailboxACLUpdated} event tells that another node changed them.
+ */
 public class CassandraACLMapper {
     public static final int INITIAL_VALUE = 0;
     private static final Logger LOG = LoggerFactory.getLogger(CassandraACLMapper.class);
     private static final String OLD_VERSION = "oldVersion";
+    private static final long CACHE_MAXIMUM_SIZE = 10000;
+    private static final Duration CACHE_TTL = Duration.ofMinutes(5);
+
+    private class InvalidationListener implements MailboxListener {
+        @Override
+        public boolean isHandling(Event event) {
+            return event instanceof MailboxACLUpdated
+                || event instanceof MailboxDeletion;
+        }
+
+        @Override
+        public void event(Event event) {
+            if (event instanceof MailboxEvent) {
+                cache.invalidate(((MailboxEvent) event).getMailboxId());
+            }
+        }
+    }
 
     private final CassandraAsyncExecutor executor;
     private final int maxAclRetry;
@@ -68,10 +101,13 @@ public class CassandraACLMapper {
     private final PreparedStatement readStatement;
     private final PreparedStatement deleteStatement;
     private final ConsistencyLevel consistencyLevel;
+    private final Cache<MailboxId, Optional<MailboxACL>> cache;
+    private final InvalidationRegistration registration;
 
     @Inject
     public CassandraACLMapper(Session session, CassandraUserMailboxRightsDAO userMailboxRightsDAO,
-                              CassandraConfiguration cassandraConfiguration, CassandraConsistenciesConfiguration consistenciesConfiguration) {
+                              CassandraConfiguration cassandraConfiguration, CassandraConsistenciesConfiguration consistenciesConfiguration,
+                              EventBus eventBus) {
         this.executor = new CassandraAsyncExecutor(session);
         this.maxAclRetry = cassandraConfiguration.getAclMaxRetry();
         this.consistencyLevel = consistenciesConfiguration.getLightweightTransaction();
@@ -80,6 +116,11 @@ public class CassandraACLMapper {
         this.readStatement = prepareReadStatement(session);
         this.deleteStatement = prepareDelete(session);
         this.userMailboxRightsDAO = userMailboxRightsDAO;
+        this.cache = CacheBuilder.newBuilder()
+            .maximumSize(CACHE_MAXIMUM_SIZE)
+            .expireAfterWrite(CACHE_TTL.toMillis(), TimeUnit.MILLISECONDS)
+            .build();
+        this.registration = new InvalidationRegistration(eventBus, new InvalidationListener());
     }
 
     private PreparedStatement prepareDelete(Session session) {
@@ -115,8 +156,18 @@ public class CassandraACLMapper {
     }
 
     public Mono<MailboxACL> getACL(CassandraId cassandraId) {
-        return getStoredACLRow(cassandraId)
-            .map(row -> getAcl(cassandraId, row));
+        return Mono.defer(() -> Optional.ofNullable(cache.getIfPresent(cassandraId))
+            .map(acl -> Mono.justOrEmpty(acl))
+            .orElseGet(() -> loadACL(cassandraId)));
+    }
+
+    private Mono<MailboxACL> loadACL(CassandraId cassandraId) {
+        return registration.ensureRegistered()
+            .then(Mono.defer(() -> getStoredACLRow(cassandraId)))
+            .map(row -> Optional.of(getAcl(cassandraId, row)))
+            .defaultIfEmpty(Optional.empty())
+            .doOnNext(acl -> cache.put(cassandraId, acl))
+            .flatMap(Mono::justOrEmpty);
     }
 
     private MailboxACL getAcl(CassandraId cassandraId, Row row) {
@@ -129,14 +180,16 @@ public class CassandraACLMapper {
         .flatMap(replacement -> updateAcl(cassandraId, aclWithVersion -> aclWithVersion.apply(command), replacement))
             .flatMap(aclDiff -> userMailboxRightsDAO.update(cassandraId, aclDiff)
             .thenReturn(aclDiff))
-            .switchIfEmpty(Mono.error(new MailboxException("Unable to update ACL")));
+            .switchIfEmpty(Mono.error(new MailboxException("Unable to update ACL")))
+            .doFinally(any -> cache.invalidate(cassandraId));
     }
 
     public Mono<ACLDiff> setACL(CassandraId cassandraId, MailboxACL mailboxACL) {
         return updateAcl(cassandraId, acl -> new ACLWithVersion(acl.version, mailboxACL), mailboxACL)
             .flatMap(aclDiff -> userMailboxRightsDAO.update(cassandraId, aclDiff)
             .thenReturn(aclDiff))
-            .switchIfEmpty(Mono.defer(() -> Mono.error(new MailboxException("Unable to update ACL"))));
+            .switchIfEmpty(Mono.defer(() -> Mono.error(new MailboxException("Unable to update ACL"))))
+            .doFinally(any -> cache.invalidate(cassandraId));
     }
 
     private Mono<ACLDiff> updateAcl(CassandraId cassandraId, Function<ACLWithVersion, ACLWithVersion> aclTransformation, MailboxACL replacement) {
@@ -171,7 +224,8 @@ public class CassandraACLMapper {
     public Mono<Void> delete(CassandraId cassandraId) {
         return executor.executeVoid(
             deleteStatement.bind()
-                .setUUID(CassandraACLTable.ID, cassandraId.asUuid()));
+                .setUUID(CassandraACLTable.ID, cassandraId.asUuid()))
+            .doFinally(any -> cache.invalidate(cassandraId));
     }
 
     private Mono<MailboxACL> insertACL(CassandraId cassandraId, MailboxACL acl) {
@@ -30,17 +30,22 @@ import static org.apache.james.mailbox.cassandra.table.CassandraDeletedMessageTa
 import static org.apache.james.mailbox.cassandra.table.CassandraDeletedMessageTable.TABLE_NAME;
 import static org.apache.james.mailbox.cassandra.table.CassandraDeletedMessageTable.UID;
 
+import java.util.List;
+
 import javax.inject.Inject;
 
 import org.apache.james.backends.cassandra.utils.CassandraAsyncExecutor;
 import org.apache.james.backends.cassandra.utils.CassandraUtils;
 import org.apache.james.mailbox.MessageUid;
 import org.apache.james.mailbox.cassandra.ids.CassandraId;
+import org.apache.james.mailbox.cassandra.mail.utils.SinglePartitionBatches;
 import org.apache.james.mailbox.model.MessageRange;
 
+import com.datastax.driver.core.BoundStatement;
 import com.datastax.driver.core.PreparedStatement;
 import com.datastax.driver.core.ResultSet;
 import com.datastax.driver.core.Session;
+import com.github.steveash.guavate.Guavate;
 import com.google.common.annotations.VisibleForTesting;
 
 import reactor.core.publisher.Flux;
@@ -127,16 +132,29 @@ public class CassandraDeletedMessageDAO {
     }
 
     public Mono<Void> addDeleted(CassandraId cassandraId, MessageUid uid) {
-        return cassandraAsyncExecutor.executeVoid(
-            addStatement.bind()
-                .setUUID(MAILBOX_ID, cassandraId.asUuid())
-                .setLong(UID, uid.asLong()));
+        return cassandraAsyncExecutor.executeVoid(bindWithUid(cassandraId, uid, addStatement));
+    }
+
+    public Mono<Void> addDeleted(CassandraId cassandraId, List<MessageUid> uids) {
+        return SinglePartitionBatches.execute(cassandraAsyncExecutor, uids.stream()
+            .map(uid -> bindWithUid(cassandraId, uid, addStatement))
+            .collect(Guavate.toImmutableList()));
     }
 
     public Mono<Void> removeDeleted(CassandraId cassandraId, MessageUid uid) {
-        return cassandraAsyncExecutor.executeVoid(deleteStatement.bind()
+        return cassandraAsyncExecutor.executeVoid(bindWithUid(cassandraId, uid, deleteStatement));
+    }
+
+    public Mono<Void> removeDeleted(CassandraId cassandraId, List<MessageUid> uids) {
+        return SinglePartitionBatches.execute(cassandraAsyncExecutor, uids.stream()
+            .map(uid -> bindWithUid(cassandraId, uid, deleteStatement))
+            .collect(Guavate.toImmutableList()));
+    }
+
+    private BoundStatement bindWithUid(CassandraId cassandraId, MessageUid uid, PreparedStatement statement) {
+        return statement.bind()
             .setUUID(MAILBOX_ID, cassandraId.asUuid())
-            .setLong(UID, uid.asLong()));
+            .setLong(UID, uid.asLong());
     }
 
     public Mono<Void> removeAll(CassandraId cassandraId) {
@@ -29,14 +29,19 @@ import static org.apache.james.mailbox.cassandra.table.CassandraFirstUnseenTable
 import static org.apache.james.mailbox.cassandra.table.CassandraFirstUnseenTable.TABLE_NAME;
 import static org.apache.james.mailbox.cassandra.table.CassandraFirstUnseenTable.UID;
 
+import java.util.List;
+
 import javax.inject.Inject;
 
 import org.apache.james.backends.cassandra.utils.CassandraAsyncExecutor;
 import org.apache.james.mailbox.MessageUid;
 import org.apache.james.mailbox.cassandra.ids.CassandraId;
+import org.apache.james.mailbox.cassandra.mail.utils.SinglePartitionBatches;
 
+import com.datastax.driver.core.BoundStatement;
 import com.datastax.driver.core.PreparedStatement;
 import com.datastax.driver.core.Session;
+import com.github.steveash.guavate.Guavate;
 
 import reactor.core.publisher.Mono;
 
@@ -84,16 +89,29 @@ public class CassandraFirstUnseenDAO {
     }
 
     public Mono<Void> addUnread(CassandraId cassandraId, MessageUid uid) {
-        return cassandraAsyncExecutor.executeVoid(
-            addStatement.bind()
-                .setUUID(MAILBOX_ID, cassandraId.asUuid())
-                .setLong(UID, uid.asLong()));
+        return cassandraAsyncExecutor.executeVoid(bindWithUid(cassandraId, uid, addStatement));
+    }
+
+    public Mono<Void> addUnread(CassandraId cassandraId, List<MessageUid> uids) {
+        return SinglePartitionBatches.execute(cassandraAsyncExecutor, uids.stream()
+            .map(uid -> bindWithUid(cassandraId, uid, addStatement))
+            .collect(Guavate.toImmutableList()));
     }
 
     public Mono<Void> removeUnread(CassandraId cassandraId, MessageUid uid) {
-        return cassandraAsyncExecutor.executeVoid(deleteStatement.bind()
+        return cassandraAsyncExecutor.executeVoid(bindWithUid(cassandraId, uid, deleteStatement));
+    }
+
+    public Mono<Void> removeUnread(CassandraId cassandraId, List<MessageUid> uids) {
+        return SinglePartitionBatches.execute(cassandraAsyncExecutor, uids.stream()
+            .map(uid -> bindWithUid(cassandraId, uid, deleteStatement))
+            .collect(Guavate.toImmutableList()));
+    }
+
+    private BoundStatement bindWithUid(CassandraId cassandraId, MessageUid uid, PreparedStatement statement) {
+        return statement.bind()
             .setUUID(MAILBOX_ID, cassandraId.asUuid())
-            .setLong(UID, uid.asLong()));
+            .setLong(UID, uid.asLong());
     }
 
     public Mono<Void> removeAll(CassandraId cassandraId) {
@@ -21,6 +21,7 @@ package org.apache.james.mailbox.cassandra.mail;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 import javax.inject.Inject;
 import javax.mail.Flags;
@@ -114,6 +115,21 @@ public class CassandraIndexTableHandler {
             .then();
     }
 
+    public Mono<Void> updateIndexOnAdd(Collection<MailboxMessage> messages, CassandraId mailboxId) {
+        return Flux.mergeDelayError(Queues.XS_BUFFER_SIZE,
+                Flux.fromIterable(messages)
+                    .flatMap(message -> checkDeletedOnAdd(mailboxId, message.createFlags(), message.getUid())),
+                Flux.fromIterable(messages)
+                    .flatMap(message -> updateFirstUnseenOnAdd(mailboxId, message.createFlags(), message.getUid())),
+                Flux.fromIterable(messages)
+                    .flatMap(message -> addRecentOnSave(mailboxId, message)),
+                incrementCountersOnSave(mailboxId, messages),
+                applicableFlagDAO.updateApplicableFlags(mailboxId, messages.stream()
+                    .flatMap(message -> Stream.of(message.createFlags().getUserFlags()))
+                    .collect(Guavate.toImmutableSet())))
+            .then();
+    }
+
     public Mono<Void> updateIndexOnFlagsUpdate(CassandraId mailboxId, UpdatedFlags updatedFlags) {
         return updateIndexOnFlagsUpdate(mailboxId, ImmutableList.of(updatedFlags));
     }
@@ -136,19 +152,22 @@ public class CassandraIndexTableHandler {
     }
 
     private Mono<Void> updateDeletedOnFlagsUpdate(CassandraId mailboxId, List<UpdatedFlags> updatedFlags) {
-        return Flux.fromIterable(updatedFlags)
-            .concatMap(flags -> updateDeletedOnFlagsUpdate(mailboxId, flags))
-            .then();
+        return deletedMessageDAO.addDeleted(mailboxId, uidsModifiedToSet(updatedFlags, Flags.Flag.DELETED))
+            .then(deletedMessageDAO.removeDeleted(mailboxId, uidsModifiedToUnset(updatedFlags, Flags.Flag.DELETED)));
     }
 
-    private Mono<Void> updateDeletedOnFlagsUpdate(CassandraId mailboxId, UpdatedFlags updatedFlags) {
-        if (updatedFlags.isModifiedToSet(Flags.Flag.DELETED)) {
-            return deletedMessageDAO.addDeleted(mailboxId, updatedFlags.getUid());
-        } else if (updatedFlags.isModifiedToUnset(Flags.Flag.DELETED)) {
-            return deletedMessageDAO.removeDeleted(mailboxId, updatedFlags.getUid());
-        } else {
-            return Mono.empty();
-        }
+    private List<MessageUid> uidsModifiedToSet(List<UpdatedFlags> updatedFlags, Flags.Flag flag) {
+        return updatedFlags.stream()
+            .filter(flags -> flags.isModifiedToSet(flag))
+            .map(UpdatedFlags::getUid)
+            .collect(Guavate.toImmutableList());
+    }
+
+    private List<MessageUid> uidsModifiedToUnset(List<UpdatedFlags> updatedFlags, Flags.Flag flag) {
+        return updatedFlags.stream()
+            .filter(flags -> flags.isModifiedToUnset(flag))
+            .map(UpdatedFlags::getUid)
+            .collect(Guavate.toImmutableList());
     }
 
     private Mono<Void> decrementCountersOnDelete(CassandraId mailboxId, Flags flags) {
@@ -178,6 +197,19 @@ public class CassandraIndexTableHandler {
         return mailboxCounterDAO.incrementUnseenAndCount(mailboxId);
     }
 
+    private Mono<Void> incrementCountersOnSave(CassandraId mailboxId, Collection<MailboxMessage> messages) {
+        long unseenCount = messages.stream()
+            .map(MailboxMessage::createFlags)
+            .filter(flags -> !flags.contains(Flags.Flag.SEEN))
+            .count();
+
+        return mailboxCounterDAO.add(MailboxCounters.builder()
+            .mailboxId(mailboxId)
+            .count(messages.size())
+            .unseen(unseenCount)
+            .build());
+    }
+
     private Mono<Void> addRecentOnSave(CassandraId mailboxId, MailboxMessage message) {
         if (message.createFlags().contains(Flags.Flag.RECENT)) {
             return mailboxRecentDAO.addToRecent(mailboxId, message.getUid());
@@ -209,19 +241,8 @@ public class CassandraIndexTableHandler {
     }
 
     private Mono<Void> manageRecentOnFlagsUpdate(CassandraId mailboxId, List<UpdatedFlags> updatedFlags) {
-        return Flux.fromIterable(updatedFlags)
-            .concatMap(flags -> manageRecentOnFlagsUpdate(mailboxId, flags))
-            .then();
-    }
-
-    private Mono<Void> manageRecentOnFlagsUpdate(CassandraId mailboxId, UpdatedFlags updatedFlags) {
-        if (updatedFlags.isModifiedToUnset(Flags.Flag.RECENT)) {
-            return mailboxRecentDAO.removeFromRecent(mailboxId, updatedFlags.getUid());
-        }
-        if (updatedFlags.isModifiedToSet(Flags.Flag.RECENT)) {
-            return mailboxRecentDAO.addToRecent(mailboxId, updatedFlags.getUid());
-        }
-        return Mono.empty();
+        return mailboxRecentDAO.removeFromRecent(mailboxId, uidsModifiedToUnset(updatedFlags, Flags.Flag.RECENT))
+            .then(mailboxRecentDAO.addToRecent(mailboxId, uidsModifiedToSet(updatedFlags, Flags.Flag.RECENT)));
     }
 
     private Mono<Void> updateFirstUnseenOnAdd(CassandraId mailboxId, Flags flags, MessageUid uid) {
@@ -247,18 +268,7 @@ public class CassandraIndexTableHandler {
     }
 
     private Mono<Void> updateFirstUnseenOnFlagsUpdate(CassandraId mailboxId, List<UpdatedFlags> updatedFlags) {
-        return Flux.fromIterable(updatedFlags)
-            .concatMap(flags -> updateFirstUnseenOnFlagsUpdate(mailboxId, flags))
-            .then();
-    }
-
-    private Mono<Void> updateFirstUnseenOnFlagsUpdate(CassandraId mailboxId, UpdatedFlags updatedFlags) {
-        if (updatedFlags.isModifiedToUnset(Flags.Flag.SEEN)) {
-            return firstUnseenDAO.addUnread(mailboxId, updatedFlags.getUid());
-        }
-        if (updatedFlags.isModifiedToSet(Flags.Flag.SEEN)) {
-            return firstUnseenDAO.removeUnread(mailboxId, updatedFlags.getUid());
-        }
-        return Mono.empty();
+        return firstUnseenDAO.addUnread(mailboxId, uidsModifiedToUnset(updatedFlags, Flags.Flag.SEEN))
+            .then(firstUnseenDAO.removeUnread(mailboxId, uidsModifiedToSet(updatedFlags, Flags.Flag.SEEN)));
     }
 }
@@ -30,22 +30,33 @@ import static org.apache.james.mailbox.cassandra.table.CassandraMailboxCountersT
 import static org.apache.james.mailbox.cassandra.table.CassandraMailboxCountersTable.TABLE_NAME;
 import static org.apache.james.mailbox.cassandra.table.CassandraMailboxCountersTable.UNSEEN;
 
+import java.util.Collection;
+import java.util.Optional;
+import java.util.function.Function;
+
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 
+import org.apache.james.backends.cassandra.init.configuration.CassandraConfiguration;
 import org.apache.james.backends.cassandra.utils.CassandraAsyncExecutor;
 import org.apache.james.mailbox.cassandra.ids.CassandraId;
 import org.apache.james.mailbox.model.Mailbox;
 import org.apache.james.mailbox.model.MailboxCounters;
+import org.apache.james.metrics.api.GaugeRegistry;
+import org.apache.james.metrics.api.MetricFactory;
 
 import com.datastax.driver.core.BoundStatement;
 import com.datastax.driver.core.PreparedStatement;
 import com.datastax.driver.core.Session;
 import com.datastax.driver.core.querybuilder.Assignment;
 import com.datastax.driver.core.querybuilder.QueryBuilder;
+import com.google.common.annotations.VisibleForTesting;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 public class CassandraMailboxCounterDAO {
+    private static final int READ_CONCURRENCY = 16;
 
     private final CassandraAsyncExecutor cassandraAsyncExecutor;
     private final PreparedStatement readStatement;
@@ -58,9 +69,21 @@ public class CassandraMailboxCounterDAO {
     private final PreparedStatement incrementUnseenAndCountStatement;
     private final PreparedStatement decrementUnseenAndCountStatement;
     private final PreparedStatement deleteStatement;
+    private final Optional<CassandraMailboxCounterWriteBehind> writeBehind;
 
     @Inject
+    public CassandraMailboxCounterDAO(Session session, CassandraConfiguration cassandraConfiguration,
+                                      MetricFactory metricFactory, GaugeRegistry gaugeRegistry) {
+        this(session, writer -> CassandraMailboxCounterWriteBehind.create(writer, cassandraConfiguration, metricFactory, gaugeRegistry));
+    }
+
+    @VisibleForTesting
     public CassandraMailboxCounterDAO(Session session) {
+        this(session, writer -> Optional.empty());
+    }
+
+    @VisibleForTesting
+    CassandraMailboxCounterDAO(Session session, Function<CassandraMailboxCounterWriteBehind.CountersWriter, Optional<CassandraMailboxCounterWriteBehind>> writeBehindFactory) {
         cassandraAsyncExecutor = new CassandraAsyncExecutor(session);
         readStatement = createReadStatement(session);
         incrementMessageCountStatement = updateMailboxStatement(session, incr(COUNT));
@@ -85,6 +108,12 @@ public class CassandraMailboxCounterDAO {
             .where(eq(MAILBOX_ID, bindMarker(MAILBOX_ID))));
         deleteStatement = session.prepare(QueryBuilder.delete().from(TABLE_NAME)
             .where(eq(MAILBOX_ID, bindMarker(MAILBOX_ID))));
+        writeBehind = writeBehindFactory.apply(this::addToStoredCounters);
+    }
+
+    @PreDestroy
+    public void close() {
+        writeBehind.ifPresent(CassandraMailboxCounterWriteBehind::close);
     }
 
     private PreparedStatement createReadStatement(Session session) {
@@ -102,10 +131,22 @@ public class CassandraMailboxCounterDAO {
     }
 
     public Mono<Void> delete(CassandraId mailboxId) {
-        return cassandraAsyncExecutor.executeVoid(bindWithMailbox(mailboxId, deleteStatement));
+        return writeBehind.map(aggregator -> aggregator.discard(mailboxId))
+            .orElse(Mono.empty())
+            .then(cassandraAsyncExecutor.executeVoid(bindWithMailbox(mailboxId, deleteStatement)));
     }
 
+    /**
+     * When write-behind is enabled, updates of this node not yet written are included in the returned counters.
+     */
     public Mono<MailboxCounters> retrieveMailboxCounters(CassandraId mailboxId) {
+        return retrieveStoredMailboxCounters(mailboxId)
+            .map(Optional::of)
+            .defaultIfEmpty(Optional.empty())
+            .flatMap(storedCounters -> Mono.justOrEmpty(withPendingUpdates(mailboxId, storedCounters)));
+    }
+
+    private Mono<MailboxCounters> retrieveStoredMailboxCounters(CassandraId mailboxId) {
         return cassandraAsyncExecutor.executeSingleRow(bindWithMailbox(mailboxId, readStatement))
             .map(row ->  MailboxCounters.builder()
                 .mailboxId(mailboxId)
@@ -114,20 +155,43 @@ public class CassandraMailboxCounterDAO {
                 .build());
     }
 
+    private Optional<MailboxCounters> withPendingUpdates(CassandraId mailboxId, Optional<MailboxCounters> storedCounters) {
+        return writeBehind.flatMap(aggregator -> aggregator.pendingDelta(mailboxId))
+            .map(delta -> delta.applyTo(storedCounters.orElse(emptyCounters(mailboxId))))
+            .or(() -> storedCounters);
+    }
+
+    /**
+     * Reads the counters of the given mailboxes concurrently, one partition read per mailbox, with a bounded
+     * concurrency. Mailboxes without counters are reported with zero counters. No ordering is guaranteed.
+     */
+    public Flux<MailboxCounters> retrieveMailboxCounters(Collection<CassandraId> mailboxIds) {
+        return Flux.fromIterable(mailboxIds)
+            .flatMap(mailboxId -> retrieveMailboxCounters(mailboxId)
+                .defaultIfEmpty(emptyCounters(mailboxId)), READ_CONCURRENCY);
+    }
+
     public Mono<Void> resetCounters(MailboxCounters counters) {
         CassandraId mailboxId = (CassandraId) counters.getMailboxId();
 
-        return retrieveMailboxCounters(mailboxId)
+        return flushPendingUpdates()
+            .then(retrieveStoredMailboxCounters(mailboxId))
             .defaultIfEmpty(emptyCounters(mailboxId))
             .flatMap(storedCounters -> {
                 if (storedCounters.equals(counters)) {
                     return Mono.empty();
                 }
-                return remove(storedCounters)
-                    .then(add(counters));
+                return addToStoredCounters(mailboxId,
+                    counters.getCount() - storedCounters.getCount(),
+                    counters.getUnseen() - storedCounters.getUnseen());
             });
     }
 
+    private Mono<Void> flushPendingUpdates() {
+        return writeBehind.map(CassandraMailboxCounterWriteBehind::flush)
+            .orElse(Mono.empty());
+    }
+
     private MailboxCounters emptyCounters(CassandraId mailboxId) {
         return MailboxCounters.builder()
             .mailboxId(mailboxId)
@@ -138,18 +202,27 @@ public class CassandraMailboxCounterDAO {
 
     public Mono<Void> add(MailboxCounters counters) {
         CassandraId mailboxId = (CassandraId) counters.getMailboxId();
-        return cassandraAsyncExecutor.executeVoid(
-            bindWithMailbox(mailboxId, addToCounters)
-                .setLong(COUNT, counters.getCount())
-                .setLong(UNSEEN, counters.getUnseen()));
+        return writeBehind.map(aggregator -> aggregator.add(mailboxId, counters.getCount(), counters.getUnseen()))
+            .orElseGet(() -> cassandraAsyncExecutor.executeVoid(
+                bindWithMailbox(mailboxId, addToCounters)
+                    .setLong(COUNT, counters.getCount())
+                    .setLong(UNSEEN, counters.getUnseen())));
     }
 
     public Mono<Void> remove(MailboxCounters counters) {
         CassandraId mailboxId = (CassandraId) counters.getMailboxId();
+        return writeBehind.map(aggregator -> aggregator.add(mailboxId, -counters.getCount(), -counters.getUnseen()))
+            .orElseGet(() -> cassandraAsyncExecutor.executeVoid(
+                bindWithMailbox(mailboxId, removeToCounters)
+                    .setLong(COUNT, counters.getCount())
+                    .setLong(UNSEEN, counters.getUnseen())));
+    }
+
+    private Mono<Void> addToStoredCounters(CassandraId mailboxId, long count, long unseen) {
         return cassandraAsyncExecutor.executeVoid(
-            bindWithMailbox(mailboxId, removeToCounters)
-                .setLong(COUNT, counters.getCount())
-                .setLong(UNSEEN, counters.getUnseen()));
+            bindWithMailbox(mailboxId, addToCounters)
+                .setLong(COUNT, count)
+                .setLong(UNSEEN, unseen));
     }
 
     public Mono<Long> countMessagesInMailbox(Mailbox mailbox) {
@@ -159,39 +232,44 @@ public class CassandraMailboxCounterDAO {
     }
 
     public Mono<Long> countMessagesInMailbox(CassandraId cassandraId) {
-        return cassandraAsyncExecutor.executeSingleRow(bindWithMailbox(cassandraId, readStatement))
-            .map(row -> row.getLong(COUNT));
+        return retrieveMailboxCounters(cassandraId)
+            .map(MailboxCounters::getCount);
     }
 
     public Mono<Long> countUnseenMessagesInMailbox(Mailbox mailbox) {
         CassandraId mailboxId = (CassandraId) mailbox.getMailboxId();
 
-        return cassandraAsyncExecutor.executeSingleRow(bindWithMailbox(mailboxId, readStatement))
-            .map(row -> row.getLong(UNSEEN));
+        return retrieveMailboxCounters(mailboxId)
+            .map(MailboxCounters::getUnseen);
     }
 
     public Mono<Void> decrementCount(CassandraId mailboxId) {
-        return cassandraAsyncExecutor.executeVoid(bindWithMailbox(mailboxId, decrementMessageCountStatement));
+        return update(mailboxId, decrementMessageCountStatement, -1, 0);
     }
 
     public Mono<Void> incrementCount(CassandraId mailboxId) {
-        return cassandraAsyncExecutor.executeVoid(bindWithMailbox(mailboxId, incrementMessageCountStatement));
+        return update(mailboxId, incrementMessageCountStatement, 1, 0);
     }
 
     public Mono<Void> decrementUnseen(CassandraId mailboxId) {
-        return cassandraAsyncExecutor.executeVoid(bindWithMailbox(mailboxId, decrementUnseenCountStatement));
+        return update(mailboxId, decrementUnseenCountStatement, 0, -1);
     }
 
     public Mono<Void> incrementUnseen(CassandraId mailboxId) {
-        return cassandraAsyncExecutor.executeVoid(bindWithMailbox(mailboxId, incrementUnseenCountStatement));
+        return update(mailboxId, incrementUnseenCountStatement, 0, 1);
     }
 
     public Mono<Void> decrementUnseenAndCount(CassandraId mailboxId) {
-        return cassandraAsyncExecutor.executeVoid(bindWithMailbox(mailboxId, decrementUnseenAndCountStatement));
+        return update(mailboxId, decrementUnseenAndCountStatement, -1, -1);
     }
 
     public Mono<Void> incrementUnseenAndCount(CassandraId mailboxId) {
-        return cassandraAsyncExecutor.executeVoid(bindWithMailbox(mailboxId, incrementUnseenAndCountStatement));
+        return update(mailboxId, incrementUnseenAndCountStatement, 1, 1);
+    }
+
+    private Mono<Void> update(CassandraId mailboxId, PreparedStatement statement, long countDelta, long unseenDelta) {
+        return writeBehind.map(aggregator -> aggregator.add(mailboxId, countDelta, unseenDelta))
+            .orElseGet(() -> cassandraAsyncExecutor.executeVoid(bindWithMailbox(mailboxId, statement)));
     }
 
     private BoundStatement bindWithMailbox(CassandraId mailboxId, PreparedStatement statement) {
@@ -0,0 +1,276 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.cassandra.mail;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.james.backends.cassandra.init.configuration.CassandraConfiguration;
+import org.apache.james.mailbox.cassandra.ids.CassandraId;
+import org.apache.james.mailbox.model.MailboxCounters;
+import org.apache.james.metrics.api.GaugeRegistry;
+import org.apache.james.metrics.api.Metric;
+import org.apache.james.metrics.api.MetricFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableList;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Node-local write-behind buffer for mailbox counter updates.
+ *
+ * Updates of the counters of a mailbox are summed in memory and written as a single counter mutation, either
+ * periodically, once too many mailboxes have pending updates, or upon shutdown. This avoids one counter mutation per
+ * message on the partition of a mailbox receiving many messages.
+ *
+ * Pending updates are only visible to reads done on this node, and are lost if the node crashes: counters read repair
+ * and the counters recomputation task are then needed to correct them.
+ */
+class CassandraMailboxCounterWriteBehind {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CassandraMailboxCounterWriteBehind.class);
+    private static final int CLOSE_MAX_FLUSH_ATTEMPTS = 10;
+    private static final Duration CLOSE_FLUSH_RETRY_DELAY = Duration.ofMillis(100);
+
+    @FunctionalInterface
+    interface CountersWriter {
+        Mono<Void> add(CassandraId mailboxId, long count, long unseen);
+    }
+
+    static class Delta {
+        private final long count;
+        private final long unseen;
+        private final Instant since;
+
+        Delta(long count, long unseen, Instant since) {
+            this.count = count;
+            this.unseen = unseen;
+            this.since = since;
+        }
+
+        Delta merge(Delta other) {
+            return new Delta(count + other.count, unseen + other.unseen, min(since, other.since));
+        }
+
+        private Instant min(Instant a, Instant b) {
+            if (a.isBefore(b)) {
+                return a;
+            }
+            return b;
+        }
+
+        MailboxCounters applyTo(MailboxCounters counters) {
+            return MailboxCounters.builder()
+                .mailboxId(counters.getMailboxId())
+                .count(counters.getCount() + count)
+                .unseen(counters.getUnseen() + unseen)
+                .build();
+        }
+    }
+
+    static Optional<CassandraMailboxCounterWriteBehind> create(CountersWriter writer, CassandraConfiguration configuration,
+                                                              MetricFactory metricFactory, GaugeRegistry gaugeRegistry) {
+        if (configuration.getMailboxCountersWriteBehindDelay() == 0) {
+            return Optional.empty();
+        }
+        return Optional.of(new CassandraMailboxCounterWriteBehind(writer,
+            Duration.ofMillis(configuration.getMailboxCountersWriteBehindDelay()),
+            configuration.getMailboxCountersWriteBehindMaxPending(),
+            metricFactory, gaugeRegistry, Clock.systemUTC()));
+    }
+
+    /**
+     * Updates of a mailbox being written. Its completion is shared, so that discarding the updates of a mailbox can wait
+     * for their write, and the write is not done twice.
+     */
+    private class InFlightWrite {
+        private final CassandraId mailboxId;
+        private final Delta delta;
+        private final Mono<Void> completion;
+
+        InFlightWrite(CassandraId mailboxId, Delta delta) {
+            this.mailboxId = mailboxId;
+            this.delta = delta;
+            this.completion = Mono.defer(() -> write(this)).cache();
+        }
+    }
+
+    private final CountersWriter writer;
+    private final int maxPending;
+    private final MetricFactory metricFactory;
+    private final Metric coalescedUpdates;
+    private final Clock clock;
+    private final ConcurrentHashMap<CassandraId, Delta> pending;
+    private final ConcurrentHashMap<CassandraId, InFlightWrite> inFlight;
+    private final AtomicBoolean flushing;
+    private final Disposable periodicFlush;
+
+    CassandraMailboxCounterWriteBehind(CountersWriter writer, Duration delay, int maxPending,
+                                       MetricFactory metricFactory, GaugeRegistry gaugeRegistry, Clock clock) {
+        this.writer = writer;
+        this.maxPending = maxPending;
+        this.metricFactory = metricFactory;
+        this.coalescedUpdates = metricFactory.generate("mailbox.counters.write.behind.coalesced");
+        this.clock = clock;
+        this.pending = new ConcurrentHashMap<>();
+        this.inFlight = new ConcurrentHashMap<>();
+        this.flushing = new AtomicBoolean(false);
+
+        gaugeRegistry
+            .register("mailbox.counters.write.behind.pending", pending::size)
+            .register("mailbox.counters.write.behind.lag", this::lagInMillis);
+
+        this.periodicFlush = Flux.interval(delay, Schedulers.elastic())
+            .subscribe(tick -> triggerFlush());
+    }
+
+    Mono<Void> add(CassandraId mailboxId, long count, long unseen) {
+        return Mono.fromRunnable(() -> {
+            pending.merge(mailboxId, new Delta(count, unseen, clock.instant()), Delta::merge);
+            coalescedUpdates.increment();
+            if (pending.size() >= maxPending) {
+                triggerFlush();
+            }
+        });
+    }
+
+    /**
+     * Flushes are run on their own, so that neither the caller adding updates nor the end of the periodic flush upon
+     * close interrupt them.
+     */
+    private void triggerFlush() {
+        flush()
+            .subscribeOn(Schedulers.elastic())
+            .subscribe();
+    }
+
+    /**
+     * Updates not yet acknowledged by Cassandra. A flush happening concurrently can make them transiently counted twice.
+     */
+    Optional<Delta> pendingDelta(CassandraId mailboxId) {
+        Optional<Delta> inFlightDelta = Optional.ofNullable(inFlight.get(mailboxId))
+            .map(write -> write.delta);
+        return Optional.ofNullable(pending.get(mailboxId))
+            .map(delta -> inFlightDelta
+                .map(delta::merge)
+                .orElse(delta))
+            .or(() -> inFlightDelta);
+    }
+
+    /**
+     * Drops the updates of a mailbox. Updates being written are no longer retried, and the returned Mono completes once
+     * their write ended, so that deleting the counters afterwards is not undone by it.
+     */
+    Mono<Void> discard(CassandraId mailboxId) {
+        return Mono.defer(() -> {
+            pending.remove(mailboxId);
+            return Optional.ofNullable(inFlight.remove(mailboxId))
+                .map(write -> write.completion)
+                .orElse(Mono.empty());
+        });
+    }
+
+    /**
+     * Writes all pending updates. Only one flush runs at a time: when a flush is already running, this returns
+     * immediately and updates added meanwhile are written by the next flush.
+     */
+    Mono<Void> flush() {
+        return Mono.defer(() -> {
+            if (pending.isEmpty() || !flushing.compareAndSet(false, true)) {
+                return Mono.empty();
+            }
+            List<InFlightWrite> writes = drainPending();
+            return Flux.from(metricFactory.decoratePublisherWithTimerMetric("mailbox.counters.write.behind.flush",
+                    Flux.fromIterable(writes)
+                        .concatMap(write -> write.completion)))
+                .then()
+                .doFinally(any -> flushing.set(false));
+        });
+    }
+
+    /**
+     * Updates of a mailbox are moved atomically from the pending ones to the ones being written, so that they stay
+     * visible to {@link #pendingDelta(CassandraId)}.
+     */
+    private List<InFlightWrite> drainPending() {
+        ImmutableList.Builder<InFlightWrite> drained = ImmutableList.builder();
+        pending.keySet().forEach(mailboxId -> pending.computeIfPresent(mailboxId, (id, delta) -> {
+            InFlightWrite write = new InFlightWrite(id, delta);
+            inFlight.put(id, write);
+            drained.add(write);
+            return null;
+        }));
+        return drained.build();
+    }
+
+    private Mono<Void> write(InFlightWrite write) {
+        if (write.delta.count == 0 && write.delta.unseen == 0) {
+            return Mono.fromRunnable(() -> inFlight.remove(write.mailboxId, write));
+        }
+        return writer.add(write.mailboxId, write.delta.count, write.delta.unseen)
+            .doOnSuccess(any -> inFlight.remove(write.mailboxId, write))
+            .onErrorResume(e -> {
+                LOGGER.warn("Failed writing pending counters updates of mailbox {}, they will be retried", write.mailboxId.serialize(), e);
+                inFlight.computeIfPresent(write.mailboxId, (id, current) -> {
+                    if (current != write) {
+                        return current;
+                    }
+                    pending.merge(id, write.delta, Delta::merge);
+                    return null;
+                });
+                return Mono.empty();
+            });
+    }
+
+    private long lagInMillis() {
+        return pending.values()
+            .stream()
+            .map(delta -> delta.since)
+            .min(Instant::compareTo)
+            .map(since -> Duration.between(since, clock.instant()).toMillis())
+            .orElse(0L);
+    }
+
+    private boolean isIdle() {
+        return pending.isEmpty() && !flushing.get();
+    }
+
+    void close() {
+        periodicFlush.dispose();
+        Mono.defer(this::flush)
+            .then(Mono.fromCallable(this::isIdle))
+            .filter(idle -> idle)
+            .repeatWhenEmpty(CLOSE_MAX_FLUSH_ATTEMPTS, attempts -> attempts.delayElements(CLOSE_FLUSH_RETRY_DELAY))
+            .onErrorResume(e -> {
+                LOGGER.error("Counters updates of {} mailboxes could not be written upon shutdown", pending.size(), e);
+                return Mono.empty();
+            })
+            .block();
+    }
+}
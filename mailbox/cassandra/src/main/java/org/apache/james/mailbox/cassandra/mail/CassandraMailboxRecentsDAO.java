@@ -24,18 +24,22 @@ import static com.datastax.driver.core.querybuilder.QueryBuilder.eq;
 import static com.datastax.driver.core.querybuilder.QueryBuilder.insertInto;
 import static com.datastax.driver.core.querybuilder.QueryBuilder.select;
 
+import java.util.List;
+
 import javax.inject.Inject;
 
 import org.apache.james.backends.cassandra.utils.CassandraAsyncExecutor;
 import org.apache.james.backends.cassandra.utils.CassandraUtils;
 import org.apache.james.mailbox.MessageUid;
 import org.apache.james.mailbox.cassandra.ids.CassandraId;
+import org.apache.james.mailbox.cassandra.mail.utils.SinglePartitionBatches;
 import org.apache.james.mailbox.cassandra.table.CassandraMailboxRecentsTable;
 
 import com.datastax.driver.core.BoundStatement;
 import com.datastax.driver.core.PreparedStatement;
 import com.datastax.driver.core.Session;
 import com.datastax.driver.core.querybuilder.QueryBuilder;
+import com.github.steveash.guavate.Guavate;
 import com.google.common.annotations.VisibleForTesting;
 
 import reactor.core.publisher.Flux;
@@ -107,9 +111,18 @@ public class CassandraMailboxRecentsDAO {
     }
 
     public Mono<Void> removeFromRecent(CassandraId mailboxId, MessageUid messageUid) {
-        return cassandraAsyncExecutor.executeVoid(deleteStatement.bind()
-            .setUUID(CassandraMailboxRecentsTable.MAILBOX_ID, mailboxId.asUuid())
-            .setLong(CassandraMailboxRecentsTable.RECENT_MESSAGE_UID, messageUid.asLong()));
+        return cassandraAsyncExecutor.executeVoid(bindWithUid(mailboxId, messageUid, deleteStatement));
+    }
+
+    public Mono<Void> removeFromRecent(CassandraId mailboxId, List<MessageUid> messageUids) {
+        return SinglePartitionBatches.execute(cassandraAsyncExecutor, messageUids.stream()
+            .map(messageUid -> bindWithUid(mailboxId, messageUid, deleteStatement))
+            .collect(Guavate.toImmutableList()));
+    }
+
+    private BoundStatement bindWithUid(CassandraId mailboxId, MessageUid messageUid, PreparedStatement statement) {
+        return bindWithMailbox(mailboxId, statement)
+            .setLong(CassandraMailboxRecentsTable.RECENT_MESSAGE_UID, messageUid.asLong());
     }
 
     public Mono<Void> delete(CassandraId mailboxId) {
@@ -118,8 +131,12 @@ public class CassandraMailboxRecentsDAO {
     }
 
     public Mono<Void> addToRecent(CassandraId mailboxId, MessageUid messageUid) {
-        return cassandraAsyncExecutor.executeVoid(addStatement.bind()
-            .setUUID(CassandraMailboxRecentsTable.MAILBOX_ID, mailboxId.asUuid())
-            .setLong(CassandraMailboxRecentsTable.RECENT_MESSAGE_UID, messageUid.asLong()));
+        return cassandraAsyncExecutor.executeVoid(bindWithUid(mailboxId, messageUid, addStatement));
+    }
+
+    public Mono<Void> addToRecent(CassandraId mailboxId, List<MessageUid> messageUids) {
+        return SinglePartitionBatches.execute(cassandraAsyncExecutor, messageUids.stream()
+            .map(messageUid -> bindWithUid(mailboxId, messageUid, addStatement))
+            .collect(Guavate.toImmutableList()));
     }
 }
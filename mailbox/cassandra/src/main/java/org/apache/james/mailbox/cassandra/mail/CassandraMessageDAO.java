@@ -38,6 +38,7 @@ import static org.apache.james.mailbox.cassandra.table.CassandraMessageV2Table.T
 import static org.apache.james.mailbox.cassandra.table.CassandraMessageV2Table.TEXTUAL_LINE_COUNT;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -52,6 +53,7 @@ import org.apache.james.backends.cassandra.init.configuration.CassandraConsisten
 import org.apache.james.backends.cassandra.utils.CassandraAsyncExecutor;
 import org.apache.james.blob.api.BlobId;
 import org.apache.james.blob.api.BlobStore;
+import org.apache.james.blob.api.ByteRange;
 import org.apache.james.mailbox.cassandra.ids.CassandraMessageId;
 import org.apache.james.mailbox.cassandra.table.CassandraMessageV2Table;
 import org.apache.james.mailbox.cassandra.table.CassandraMessageV2Table.Attachments;
@@ -74,6 +76,7 @@ import com.datastax.driver.core.Row;
 import com.datastax.driver.core.Session;
 import com.datastax.driver.core.UDTValue;
 import com.datastax.driver.core.querybuilder.QueryBuilder;
+import com.github.fge.lambdas.Throwing;
 import com.github.steveash.guavate.Guavate;
 import com.google.common.collect.ImmutableList;
 import com.google.common.primitives.Bytes;
@@ -147,9 +150,11 @@ public class CassandraMessageDAO {
     private Mono<Tuple2<BlobId, BlobId>> saveContent(MailboxMessage message) throws MailboxException {
         try {
             byte[] headerContent = IOUtils.toByteArray(message.getHeaderContent());
-            byte[] bodyContent = IOUtils.toByteArray(message.getBodyContent());
 
-            Mono<BlobId> bodyFuture = Mono.from(blobStore.save(blobStore.getDefaultBucketName(), bodyContent, LOW_COST));
+            // The body is streamed to the blob store rather than buffered in memory: it can be arbitrarily large
+            Mono<BlobId> bodyFuture = Mono.using(message::getBodyContent,
+                bodyContent -> Mono.from(blobStore.save(blobStore.getDefaultBucketName(), bodyContent, LOW_COST)),
+                Throwing.consumer(InputStream::close));
             Mono<BlobId> headerFuture = Mono.from(blobStore.save(blobStore.getDefaultBucketName(), headerContent, SIZE_BASED));
 
             return headerFuture.zipWith(bodyFuture);
@@ -211,6 +216,17 @@ public class CassandraMessageDAO {
                 .flatMap(resultSet -> message(resultSet, cassandraMessageId, fetchType));
     }
 
+    /**
+     * Reads the given range of the full content of a message, out of the header and body blobs it spans.
+     */
+    public Mono<byte[]> retrieveFullContent(CassandraMessageId cassandraMessageId, ByteRange range) {
+        return retrieveRow(cassandraMessageId)
+            .filter(resultSet -> !resultSet.isExhausted())
+            .map(ResultSet::one)
+            .flatMap(row -> getFullContent(retrieveBlobId(HEADER_CONTENT, row), retrieveBlobId(BODY_CONTENT, row),
+                row.getInt(BODY_START_OCTET), range));
+    }
+
     private Mono<ResultSet> retrieveRow(CassandraMessageId messageId) {
         return cassandraAsyncExecutor.execute(select
             .bind()
@@ -300,6 +316,24 @@ public class CassandraMessageDAO {
             .zipWith(getContent(bodyId), Bytes::concat);
     }
 
+    private Mono<byte[]> getFullContent(BlobId headerId, BlobId bodyId, int bodyStartOctet, ByteRange range) {
+        Mono<byte[]> headerContent = Mono.just(EMPTY_BYTE_ARRAY);
+        if (range.getOffset() < bodyStartOctet) {
+            long headerEnd = Math.min(range.getEnd(), bodyStartOctet);
+            headerContent = getContent(headerId, range.getOffset(), headerEnd - range.getOffset());
+        }
+        Mono<byte[]> bodyContent = Mono.just(EMPTY_BYTE_ARRAY);
+        if (range.getEnd() > bodyStartOctet) {
+            long bodyOffset = Math.max(range.getOffset(), bodyStartOctet);
+            bodyContent = getContent(bodyId, bodyOffset - bodyStartOctet, range.getEnd() - bodyOffset);
+        }
+        return headerContent.zipWith(bodyContent, Bytes::concat);
+    }
+
+    private Mono<byte[]> getContent(BlobId blobId, long offset, long length) {
+        return Mono.from(blobStore.readBytes(blobStore.getDefaultBucketName(), blobId, offset, length));
+    }
+
     private Mono<byte[]> getContent(BlobId blobId) {
         return Mono.from(blobStore.readBytes(blobStore.getDefaultBucketName(), blobId));
     }
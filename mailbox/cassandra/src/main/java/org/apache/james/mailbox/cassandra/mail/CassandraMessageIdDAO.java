@@ -42,6 +42,7 @@ import static org.apache.james.mailbox.cassandra.table.Flag.USER;
 import static org.apache.james.mailbox.cassandra.table.Flag.USER_FLAGS;
 import static org.apache.james.mailbox.cassandra.table.MessageIdToImapUid.MOD_SEQ;
 
+import java.util.List;
 import java.util.Optional;
 
 import javax.inject.Inject;
@@ -54,15 +55,19 @@ import org.apache.james.mailbox.ModSeq;
 import org.apache.james.mailbox.cassandra.ids.CassandraId;
 import org.apache.james.mailbox.cassandra.ids.CassandraMessageId;
 import org.apache.james.mailbox.cassandra.ids.CassandraMessageId.Factory;
+import org.apache.james.mailbox.cassandra.mail.utils.SinglePartitionBatches;
 import org.apache.james.mailbox.model.ComposedMessageId;
 import org.apache.james.mailbox.model.ComposedMessageIdWithMetaData;
 import org.apache.james.mailbox.model.MessageRange;
+import org.apache.james.mailbox.model.UpdatedFlags;
 import org.apache.james.util.streams.Limit;
 
+import com.datastax.driver.core.BoundStatement;
 import com.datastax.driver.core.PreparedStatement;
 import com.datastax.driver.core.Row;
 import com.datastax.driver.core.Session;
 import com.datastax.driver.core.querybuilder.QueryBuilder;
+import com.github.steveash.guavate.Guavate;
 import com.google.common.collect.ImmutableSet;
 
 import reactor.core.publisher.Flux;
@@ -226,9 +231,19 @@ public class CassandraMessageIdDAO {
 
     public Mono<Void> updateMetadata(ComposedMessageIdWithMetaData composedMessageIdWithMetaData) {
         ComposedMessageId composedMessageId = composedMessageIdWithMetaData.getComposedMessageId();
-        Flags flags = composedMessageIdWithMetaData.getFlags();
-        return cassandraAsyncExecutor.executeVoid(update.bind()
-                .setLong(MOD_SEQ, composedMessageIdWithMetaData.getModSeq().asLong())
+        return cassandraAsyncExecutor.executeVoid(bindUpdate((CassandraId) composedMessageId.getMailboxId(),
+            composedMessageId.getUid(), composedMessageIdWithMetaData.getModSeq(), composedMessageIdWithMetaData.getFlags()));
+    }
+
+    public Mono<Void> updateMetadata(CassandraId mailboxId, List<UpdatedFlags> updatedFlags) {
+        return SinglePartitionBatches.execute(cassandraAsyncExecutor, updatedFlags.stream()
+            .map(flags -> bindUpdate(mailboxId, flags.getUid(), flags.getModSeq(), flags.getNewFlags()))
+            .collect(Guavate.toImmutableList()));
+    }
+
+    private BoundStatement bindUpdate(CassandraId mailboxId, MessageUid uid, ModSeq modSeq, Flags flags) {
+        return update.bind()
+                .setLong(MOD_SEQ, modSeq.asLong())
                 .setBool(ANSWERED, flags.contains(Flag.ANSWERED))
                 .setBool(DELETED, flags.contains(Flag.DELETED))
                 .setBool(DRAFT, flags.contains(Flag.DRAFT))
@@ -237,8 +252,8 @@ public class CassandraMessageIdDAO {
                 .setBool(SEEN, flags.contains(Flag.SEEN))
                 .setBool(USER, flags.contains(Flag.USER))
                 .setSet(USER_FLAGS, ImmutableSet.copyOf(flags.getUserFlags()))
-                .setUUID(MAILBOX_ID, ((CassandraId) composedMessageId.getMailboxId()).asUuid())
-                .setLong(IMAP_UID, composedMessageId.getUid().asLong()));
+                .setUUID(MAILBOX_ID, mailboxId.asUuid())
+                .setLong(IMAP_UID, uid.asLong());
     }
 
     public Mono<Optional<ComposedMessageIdWithMetaData>> retrieve(CassandraId mailboxId, MessageUid uid) {
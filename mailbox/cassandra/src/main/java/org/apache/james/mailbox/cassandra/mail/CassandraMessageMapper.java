@@ -21,18 +21,21 @@ package org.apache.james.mailbox.cassandra.mail;
 
 import java.security.SecureRandom;
 import java.time.Duration;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import javax.mail.Flags;
 import javax.mail.Flags.Flag;
 
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.james.backends.cassandra.init.configuration.CassandraConfiguration;
+import org.apache.james.blob.api.ByteRange;
 import org.apache.james.mailbox.ApplicableFlagBuilder;
 import org.apache.james.mailbox.FlagsBuilder;
 import org.apache.james.mailbox.MessageManager.FlagsUpdateMode;
@@ -42,11 +45,13 @@ import org.apache.james.mailbox.cassandra.ids.CassandraId;
 import org.apache.james.mailbox.cassandra.ids.CassandraMessageId;
 import org.apache.james.mailbox.cassandra.mail.task.RecomputeMailboxCountersService;
 import org.apache.james.mailbox.cassandra.mail.utils.FlagsUpdateStageResult;
+import org.apache.james.mailbox.cassandra.mail.utils.SinglePartitionBatches;
 import org.apache.james.mailbox.exception.MailboxException;
 import org.apache.james.mailbox.model.ComposedMessageId;
 import org.apache.james.mailbox.model.ComposedMessageIdWithMetaData;
 import org.apache.james.mailbox.model.Mailbox;
 import org.apache.james.mailbox.model.MailboxCounters;
+import org.apache.james.mailbox.model.MailboxId;
 import org.apache.james.mailbox.model.MessageMetaData;
 import org.apache.james.mailbox.model.MessageRange;
 import org.apache.james.mailbox.model.UpdatedFlags;
@@ -74,6 +79,7 @@ public class CassandraMessageMapper implements MessageMapper {
     private static final int MAX_RETRY = 5;
     private static final Duration MIN_RETRY_BACKOFF = Duration.ofMillis(10);
     private static final Duration MAX_RETRY_BACKOFF = Duration.ofMillis(1000);
+    private static final int ADD_CONCURRENCY = 8;
 
     private final CassandraModSeqProvider modSeqProvider;
     private final CassandraUidProvider uidProvider;
@@ -137,16 +143,34 @@ public class CassandraMessageMapper implements MessageMapper {
     public Mono<MailboxCounters> getMailboxCountersReactive(Mailbox mailbox) {
         CassandraId mailboxId = (CassandraId) mailbox.getMailboxId();
         return readMailboxCounters(mailboxId)
-            .flatMap(counters -> {
-                if (!counters.isValid()) {
-                    return fixCounters(mailbox)
-                        .then(readMailboxCounters(mailboxId));
-                }
-                return Mono.just(counters);
-            })
+            .flatMap(counters -> fixCountersIfInvalid(mailbox, counters))
             .doOnNext(counters -> readRepair(mailbox, counters));
     }
 
+    @Override
+    public Flux<MailboxCounters> getMailboxCounters(Collection<Mailbox> mailboxes) {
+        Map<MailboxId, Mailbox> mailboxesById = mailboxes.stream()
+            .collect(Collectors.toMap(Mailbox::getMailboxId, Function.identity(), (a, b) -> a));
+        List<CassandraId> mailboxIds = mailboxesById.keySet().stream()
+            .map(CassandraId.class::cast)
+            .collect(Guavate.toImmutableList());
+
+        return mailboxCounterDAO.retrieveMailboxCounters(mailboxIds)
+            .flatMap(counters -> {
+                Mailbox mailbox = mailboxesById.get(counters.getMailboxId());
+                return fixCountersIfInvalid(mailbox, counters)
+                    .doOnNext(fixedCounters -> readRepair(mailbox, fixedCounters));
+            });
+    }
+
+    private Mono<MailboxCounters> fixCountersIfInvalid(Mailbox mailbox, MailboxCounters counters) {
+        if (!counters.isValid()) {
+            return fixCounters(mailbox)
+                .then(readMailboxCounters((CassandraId) mailbox.getMailboxId()));
+        }
+        return Mono.just(counters);
+    }
+
     public Mono<MailboxCounters> readMailboxCounters(CassandraId mailboxId) {
         return mailboxCounterDAO.retrieveMailboxCounters(mailboxId)
             .defaultIfEmpty(MailboxCounters.builder()
@@ -228,6 +252,16 @@ public class CassandraMessageMapper implements MessageMapper {
             .sort(Comparator.comparing(MailboxMessage::getUid));
     }
 
+    @Override
+    public Mono<byte[]> readFullContent(Mailbox mailbox, MessageUid uid, long firstOctet, long numberOfOctets) {
+        CassandraId mailboxId = (CassandraId) mailbox.getMailboxId();
+
+        return messageIdDAO.retrieve(mailboxId, uid)
+            .handle(ReactorUtils.publishIfPresent())
+            .flatMap(id -> messageDAO.retrieveFullContent((CassandraMessageId) id.getComposedMessageId().getMessageId(),
+                ByteRange.of(firstOctet, numberOfOctets)));
+    }
+
     private Mono<MailboxMessage> retrieveMessage(ComposedMessageIdWithMetaData messageId, FetchType fetchType) {
         return messageDAO.retrieveMessage(messageId, fetchType)
             .flatMap(messageRepresentation -> attachmentLoader.addAttachmentToMessage(Pair.of(messageId, messageRepresentation), fetchType));
@@ -309,6 +343,42 @@ public class CassandraMessageMapper implements MessageMapper {
             .map(MailboxMessage::metaData));
     }
 
+    /**
+     * Uids and mod-sequences of the messages are reserved with a single compare-and-set each, and mailbox indexes
+     * (counters, applicable flags...) are updated once for all the messages.
+     */
+    @Override
+    public List<MessageMetaData> addAll(Mailbox mailbox, List<MailboxMessage> messages) throws MailboxException {
+        if (messages.isEmpty()) {
+            return ImmutableList.of();
+        }
+        CassandraId mailboxId = (CassandraId) mailbox.getMailboxId();
+
+        return block(addUidsAndModseqs(messages, mailboxId)
+            .flatMap(messageWithUidAndModSeq -> messageDAO.save(messageWithUidAndModSeq)
+                .then(insertIdsWithoutIndexes(messageWithUidAndModSeq, mailboxId)), ADD_CONCURRENCY)
+            .then(indexTableHandler.updateIndexOnAdd(messages, mailboxId))
+            .then(Mono.fromCallable(() -> messages.stream()
+                .map(MailboxMessage::metaData)
+                .collect(Guavate.toImmutableList()))));
+    }
+
+    private Flux<MailboxMessage> addUidsAndModseqs(List<MailboxMessage> messages, CassandraId mailboxId) {
+        Mono<List<MessageUid>> messageUidsMono = uidProvider.nextUids(mailboxId, messages.size())
+            .collectList();
+        Mono<List<ModSeq>> modSeqsMono = modSeqProvider.nextModSeqs(mailboxId, messages.size())
+            .collectList();
+
+        return Mono.zip(messageUidsMono, modSeqsMono)
+            .flatMapIterable(tuple -> {
+                for (int i = 0; i < messages.size(); i++) {
+                    messages.get(i).setUid(tuple.getT1().get(i));
+                    messages.get(i).setModSeq(tuple.getT2().get(i));
+                }
+                return messages;
+            });
+    }
+
     private Mono<MailboxMessage> addUidAndModseq(MailboxMessage message, CassandraId mailboxId) {
         Mono<MessageUid> messageUidMono = uidProvider
             .nextUid(mailboxId)
@@ -393,10 +463,26 @@ public class CassandraMessageMapper implements MessageMapper {
         return computeNewModSeq(mailboxId)
             .flatMapMany(newModSeq -> toBeUpdated
             .concatMap(metadata -> tryFlagsUpdate(flagsUpdateCalculator, newModSeq, metadata)))
+            .buffer(SinglePartitionBatches.MAX_BATCH_SIZE)
+            .concatMap(results -> updateMessageIdsForUpdatesResult(mailboxId, results))
             .reduce(FlagsUpdateStageResult.none(), FlagsUpdateStageResult::merge)
             .flatMap(result -> updateIndexesForUpdatesResult(mailboxId, result));
     }
 
+    /**
+     * messageIdTable is written for each chunk of updates applied to imapUidTable, rather than once the whole stage
+     * completed, to shorten the time during which both tables disagree.
+     */
+    private Mono<FlagsUpdateStageResult> updateMessageIdsForUpdatesResult(CassandraId mailboxId, List<FlagsUpdateStageResult> results) {
+        FlagsUpdateStageResult result = results.stream()
+            .reduce(FlagsUpdateStageResult.none(), FlagsUpdateStageResult::merge);
+        return messageIdDAO.updateMetadata(mailboxId, result.getSucceeded()
+                .stream()
+                .filter(UpdatedFlags::flagsChanged)
+                .collect(Guavate.toImmutableList()))
+            .thenReturn(result);
+    }
+
     private Mono<ModSeq> computeNewModSeq(CassandraId mailboxId) {
         return modSeqProvider.nextModSeq(mailboxId)
             .switchIfEmpty(ReactorUtils.executeAndEmpty(() -> new RuntimeException("ModSeq generation failed for mailbox " + mailboxId.asUuid())));
@@ -450,12 +536,23 @@ public class CassandraMessageMapper implements MessageMapper {
             .thenEmpty(insertIds(message, mailboxId));
     }
 
+    private Mono<Void> insertIdsWithoutIndexes(MailboxMessage message, CassandraId mailboxId) {
+        ComposedMessageIdWithMetaData composedMessageIdWithMetaData = toComposedMessageIdWithMetaData(message, mailboxId);
+        return imapUidDAO.insert(composedMessageIdWithMetaData)
+            .then(messageIdDAO.insert(composedMessageIdWithMetaData)
+                .retryWhen(Retry.backoff(MAX_RETRY, MIN_RETRY_BACKOFF).maxBackoff(MAX_RETRY_BACKOFF)));
+    }
+
+    private ComposedMessageIdWithMetaData toComposedMessageIdWithMetaData(MailboxMessage message, CassandraId mailboxId) {
+        return ComposedMessageIdWithMetaData.builder()
+            .composedMessageId(new ComposedMessageId(mailboxId, message.getMessageId(), message.getUid()))
+            .flags(message.createFlags())
+            .modSeq(message.getModSeq())
+            .build();
+    }
+
     private Mono<Void> insertIds(MailboxMessage message, CassandraId mailboxId) {
-        ComposedMessageIdWithMetaData composedMessageIdWithMetaData = ComposedMessageIdWithMetaData.builder()
-                .composedMessageId(new ComposedMessageId(mailboxId, message.getMessageId(), message.getUid()))
-                .flags(message.createFlags())
-                .modSeq(message.getModSeq())
-                .build();
+        ComposedMessageIdWithMetaData composedMessageIdWithMetaData = toComposedMessageIdWithMetaData(message, mailboxId);
         return imapUidDAO.insert(composedMessageIdWithMetaData)
             .then(Flux.merge(
                 messageIdDAO.insert(composedMessageIdWithMetaData)
@@ -479,6 +576,11 @@ public class CassandraMessageMapper implements MessageMapper {
         }
 
         return updateFlags(oldMetaData, newFlags, newModSeq)
+            .onErrorResume(e -> {
+                LOGGER.warn("Failed updating flags of message {} in mailbox {}, it will be retried",
+                    oldMetaData.getComposedMessageId().getUid(), oldMetaData.getComposedMessageId().getMailboxId(), e);
+                return Mono.just(false);
+            })
             .map(success -> {
                 if (success) {
                     return FlagsUpdateStageResult.success(UpdatedFlags.builder()
@@ -503,13 +605,6 @@ public class CassandraMessageMapper implements MessageMapper {
                 .modSeq(newModSeq)
                 .flags(newFlags)
                 .build();
-        return imapUidDAO.updateMetadata(newMetadata, oldMetadata.getModSeq())
-            .flatMap(success -> {
-                if (success) {
-                    return messageIdDAO.updateMetadata(newMetadata).thenReturn(true);
-                } else {
-                    return Mono.just(false);
-                }
-            });
+        return imapUidDAO.updateMetadata(newMetadata, oldMetadata.getModSeq());
     }
 }
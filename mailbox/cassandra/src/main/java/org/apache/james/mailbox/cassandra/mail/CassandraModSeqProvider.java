@@ -34,6 +34,7 @@ import java.time.Duration;
 import java.util.Optional;
 import java.util.concurrent.CompletionException;
 import java.util.function.Supplier;
+import java.util.stream.LongStream;
 
 import javax.inject.Inject;
 
@@ -42,6 +43,7 @@ import org.apache.james.backends.cassandra.init.configuration.CassandraConsisten
 import org.apache.james.backends.cassandra.utils.CassandraAsyncExecutor;
 import org.apache.james.mailbox.ModSeq;
 import org.apache.james.mailbox.cassandra.ids.CassandraId;
+import org.apache.james.mailbox.cassandra.mail.utils.CoalescingRangeAllocator;
 import org.apache.james.mailbox.exception.MailboxException;
 import org.apache.james.mailbox.model.Mailbox;
 import org.apache.james.mailbox.model.MailboxId;
@@ -50,7 +52,10 @@ import org.apache.james.mailbox.store.mail.ModSeqProvider;
 import com.datastax.driver.core.ConsistencyLevel;
 import com.datastax.driver.core.PreparedStatement;
 import com.datastax.driver.core.Session;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 import reactor.util.retry.Retry;
@@ -89,6 +94,7 @@ public class CassandraModSeqProvider implements ModSeqProvider {
     private final PreparedStatement update;
     private final PreparedStatement insert;
     private final ConsistencyLevel consistencyLevel;
+    private final CoalescingRangeAllocator allocator;
 
     @Inject
     public CassandraModSeqProvider(Session session, CassandraConfiguration cassandraConfiguration,
@@ -99,6 +105,8 @@ public class CassandraModSeqProvider implements ModSeqProvider {
         this.insert = prepareInsert(session);
         this.update = prepareUpdate(session);
         this.select = prepareSelect(session);
+        this.allocator = new CoalescingRangeAllocator((mailboxId, count) -> reserveModSeqs(mailboxId, count)
+            .map(ModSeq::asLong));
     }
 
     private PreparedStatement prepareInsert(Session session) {
@@ -156,8 +164,8 @@ public class CassandraModSeqProvider implements ModSeqProvider {
             .map(maybeRow -> maybeRow.map(row -> ModSeq.of(row.getLong(NEXT_MODSEQ))));
     }
 
-    private Mono<ModSeq> tryInsertModSeq(CassandraId mailboxId, ModSeq modSeq) {
-        ModSeq nextModSeq = modSeq.next();
+    private Mono<ModSeq> tryInsertModSeq(CassandraId mailboxId, int count) {
+        ModSeq nextModSeq = ModSeq.of(Math.addExact(ModSeq.first().asLong(), count));
         return cassandraAsyncExecutor.executeReturnApplied(
             insert.bind()
                 .setUUID(MAILBOX_ID, mailboxId.asUuid())
@@ -166,8 +174,8 @@ public class CassandraModSeqProvider implements ModSeqProvider {
             .handle(publishIfPresent());
     }
 
-    private Mono<ModSeq> tryUpdateModSeq(CassandraId mailboxId, ModSeq modSeq) {
-        ModSeq nextModSeq = modSeq.next();
+    private Mono<ModSeq> tryUpdateModSeq(CassandraId mailboxId, ModSeq modSeq, int count) {
+        ModSeq nextModSeq = ModSeq.of(Math.addExact(modSeq.asLong(), count));
         return cassandraAsyncExecutor.executeReturnApplied(
             update.bind()
                 .setUUID(MAILBOX_ID, mailboxId.asUuid())
@@ -184,13 +192,34 @@ public class CassandraModSeqProvider implements ModSeqProvider {
         return Optional.empty();
     }
 
+    /**
+     * Concurrent calls for the same mailbox are served by a single compare-and-set, reserving as many mod-sequences
+     * as there are pending calls.
+     */
     public Mono<ModSeq> nextModSeq(CassandraId mailboxId) {
+        return allocator.next(mailboxId)
+            .map(ModSeq::of);
+    }
+
+    /**
+     * Reserves <code>count</code> consecutive mod-sequences with a single compare-and-set.
+     */
+    public Flux<ModSeq> nextModSeqs(CassandraId mailboxId, int count) {
+        Preconditions.checkArgument(count > 0, "'count' needs to be strictly positive");
+
+        return reserveModSeqs(mailboxId, count)
+            .flatMapIterable(highestModSeq -> LongStream.rangeClosed(highestModSeq.asLong() - count + 1, highestModSeq.asLong())
+                .mapToObj(ModSeq::of)
+                .collect(ImmutableList.toImmutableList()));
+    }
+
+    private Mono<ModSeq> reserveModSeqs(CassandraId mailboxId, int count) {
         Duration firstBackoff = Duration.ofMillis(10);
 
         return findHighestModSeq(mailboxId)
             .flatMap(maybeHighestModSeq -> maybeHighestModSeq
-                        .map(highestModSeq -> tryUpdateModSeq(mailboxId, highestModSeq))
-                        .orElseGet(() -> tryInsertModSeq(mailboxId, ModSeq.first())))
+                        .map(highestModSeq -> tryUpdateModSeq(mailboxId, highestModSeq, count))
+                        .orElseGet(() -> tryInsertModSeq(mailboxId, count)))
             .single()
             .retryWhen(Retry.backoff(maxModSeqRetries, firstBackoff).scheduler(Schedulers.elastic()));
     }
@@ -32,6 +32,7 @@ import static org.apache.james.util.ReactorUtils.publishIfPresent;
 
 import java.time.Duration;
 import java.util.Optional;
+import java.util.stream.LongStream;
 
 import javax.inject.Inject;
 
@@ -40,6 +41,7 @@ import org.apache.james.backends.cassandra.init.configuration.CassandraConsisten
 import org.apache.james.backends.cassandra.utils.CassandraAsyncExecutor;
 import org.apache.james.mailbox.MessageUid;
 import org.apache.james.mailbox.cassandra.ids.CassandraId;
+import org.apache.james.mailbox.cassandra.mail.utils.CoalescingRangeAllocator;
 import org.apache.james.mailbox.exception.MailboxException;
 import org.apache.james.mailbox.model.Mailbox;
 import org.apache.james.mailbox.model.MailboxId;
@@ -48,7 +50,10 @@ import org.apache.james.mailbox.store.mail.UidProvider;
 import com.datastax.driver.core.ConsistencyLevel;
 import com.datastax.driver.core.PreparedStatement;
 import com.datastax.driver.core.Session;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 import reactor.util.retry.Retry;
@@ -62,6 +67,7 @@ public class CassandraUidProvider implements UidProvider {
     private final PreparedStatement updateStatement;
     private final PreparedStatement selectStatement;
     private final ConsistencyLevel consistencyLevel;
+    private final CoalescingRangeAllocator allocator;
 
     @Inject
     public CassandraUidProvider(Session session, CassandraConfiguration cassandraConfiguration,
@@ -72,6 +78,8 @@ public class CassandraUidProvider implements UidProvider {
         this.selectStatement = prepareSelect(session);
         this.updateStatement = prepareUpdate(session);
         this.insertStatement = prepareInsert(session);
+        this.allocator = new CoalescingRangeAllocator((mailboxId, count) -> reserveUids(mailboxId, count)
+            .map(MessageUid::asLong));
     }
 
     private PreparedStatement prepareSelect(Session session) {
@@ -89,7 +97,7 @@ public class CassandraUidProvider implements UidProvider {
 
     private PreparedStatement prepareInsert(Session session) {
         return session.prepare(insertInto(TABLE_NAME)
-            .value(NEXT_UID, MessageUid.MIN_VALUE.asLong())
+            .value(NEXT_UID, bindMarker(NEXT_UID))
             .value(MAILBOX_ID, bindMarker(MAILBOX_ID))
             .ifNotExists());
     }
@@ -107,13 +115,34 @@ public class CassandraUidProvider implements UidProvider {
             .orElseThrow(() -> new MailboxException("Error during Uid update"));
     }
 
+    /**
+     * Concurrent calls for the same mailbox are served by a single compare-and-set, reserving as many uids as
+     * there are pending calls.
+     */
     public Mono<MessageUid> nextUid(CassandraId cassandraId) {
+        return allocator.next(cassandraId)
+            .map(MessageUid::of);
+    }
+
+    /**
+     * Reserves <code>count</code> consecutive uids with a single compare-and-set.
+     */
+    public Flux<MessageUid> nextUids(CassandraId cassandraId, int count) {
+        Preconditions.checkArgument(count > 0, "'count' needs to be strictly positive");
+
+        return reserveUids(cassandraId, count)
+            .flatMapIterable(highestUid -> LongStream.rangeClosed(highestUid.asLong() - count + 1, highestUid.asLong())
+                .mapToObj(MessageUid::of)
+                .collect(ImmutableList.toImmutableList()));
+    }
+
+    private Mono<MessageUid> reserveUids(CassandraId cassandraId, int count) {
         Mono<MessageUid> updateUid = findHighestUid(cassandraId)
-            .flatMap(messageUid -> tryUpdateUid(cassandraId, messageUid));
+            .flatMap(messageUid -> tryUpdateUid(cassandraId, messageUid, count));
 
         Duration firstBackoff = Duration.ofMillis(10);
         return updateUid
-            .switchIfEmpty(tryInsert(cassandraId))
+            .switchIfEmpty(tryInsert(cassandraId, count))
             .switchIfEmpty(updateUid)
             .single()
             .retryWhen(Retry.backoff(maxUidRetries, firstBackoff).scheduler(Schedulers.elastic()));
@@ -133,8 +162,8 @@ public class CassandraUidProvider implements UidProvider {
             .map(row -> MessageUid.of(row.getLong(NEXT_UID)));
     }
 
-    private Mono<MessageUid> tryUpdateUid(CassandraId mailboxId, MessageUid uid) {
-        MessageUid nextUid = uid.next();
+    private Mono<MessageUid> tryUpdateUid(CassandraId mailboxId, MessageUid uid, int count) {
+        MessageUid nextUid = MessageUid.of(Math.addExact(uid.asLong(), count));
         return executor.executeReturnApplied(
                 updateStatement.bind()
                         .setUUID(MAILBOX_ID, mailboxId.asUuid())
@@ -144,11 +173,13 @@ public class CassandraUidProvider implements UidProvider {
                 .handle(publishIfPresent());
     }
 
-    private Mono<MessageUid> tryInsert(CassandraId mailboxId) {
+    private Mono<MessageUid> tryInsert(CassandraId mailboxId, int count) {
+        MessageUid highestUid = MessageUid.of(MessageUid.MIN_VALUE.asLong() + count - 1);
         return executor.executeReturnApplied(
             insertStatement.bind()
-                .setUUID(MAILBOX_ID, mailboxId.asUuid()))
-            .map(success -> successToUid(MessageUid.MIN_VALUE, success))
+                .setUUID(MAILBOX_ID, mailboxId.asUuid())
+                .setLong(NEXT_UID, highestUid.asLong()))
+            .map(success -> successToUid(highestUid, success))
             .handle(publishIfPresent());
     }
 
@@ -0,0 +1,52 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.cassandra.mail.utils;
+
+import java.util.List;
+
+import org.apache.james.backends.cassandra.utils.CassandraAsyncExecutor;
+
+import com.datastax.driver.core.BatchStatement;
+import com.datastax.driver.core.Statement;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Executes statements targeting the same partition as unlogged batches.
+ *
+ * A single partition batch is applied by the replicas as a single mutation, saving a round trip per statement. It must
+ * not be used for statements spanning several partitions, which would put the burden of the batch on the coordinator.
+ * Batches are bounded so that they stay below the batch size warning threshold of Cassandra.
+ */
+public class SinglePartitionBatches {
+    public static final int MAX_BATCH_SIZE = 32;
+
+    public static Mono<Void> execute(CassandraAsyncExecutor executor, List<? extends Statement> statements) {
+        if (statements.size() == 1) {
+            return executor.executeVoid(statements.get(0));
+        }
+        return Flux.fromIterable(statements)
+            .buffer(MAX_BATCH_SIZE)
+            .concatMap(batch -> executor.executeVoid(new BatchStatement(BatchStatement.Type.UNLOGGED)
+                .addAll(batch)))
+            .then();
+    }
+}
@@ -48,6 +48,7 @@ import org.apache.james.mailbox.cassandra.mail.CassandraUserMailboxRightsDAO;
 import org.apache.james.mailbox.cassandra.mail.task.RecomputeMailboxCountersService;
 import org.apache.james.mailbox.cassandra.modules.CassandraSubscriptionModule;
 import org.apache.james.mailbox.store.StoreSubscriptionManager;
+import org.apache.james.mailbox.store.mail.MailboxCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.extension.RegisterExtension;
 
@@ -90,6 +91,7 @@ class CassandraSubscriptionManagerTest implements SubscriptionManagerContract {
         CassandraModSeqProvider modSeqProvider = null;
         CassandraSchemaVersionManager versionManager = null;
         RecomputeMailboxCountersService recomputeMailboxCountersService = null;
+        MailboxCache mailboxCache = null;
 
         subscriptionManager = new StoreSubscriptionManager(
             new CassandraMailboxSessionMapperFactory(
@@ -117,6 +119,7 @@ class CassandraSubscriptionManagerTest implements SubscriptionManagerContract {
                 versionManager,
                 recomputeMailboxCountersService,
                 CassandraUtils.WITH_DEFAULT_CONFIGURATION,
-                CassandraConfiguration.DEFAULT_CONFIGURATION));
+                CassandraConfiguration.DEFAULT_CONFIGURATION,
+                mailboxCache));
     }
 }
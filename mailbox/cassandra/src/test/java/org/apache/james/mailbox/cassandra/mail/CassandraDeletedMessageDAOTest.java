@@ -24,17 +24,22 @@ import static org.assertj.core.api.Assertions.assertThatCode;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.LongStream;
 
 import org.apache.james.backends.cassandra.CassandraCluster;
 import org.apache.james.backends.cassandra.CassandraClusterExtension;
 import org.apache.james.mailbox.MessageUid;
 import org.apache.james.mailbox.cassandra.ids.CassandraId;
+import org.apache.james.mailbox.cassandra.mail.utils.SinglePartitionBatches;
 import org.apache.james.mailbox.cassandra.modules.CassandraDeletedMessageModule;
 import org.apache.james.mailbox.model.MessageRange;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 
+import com.github.steveash.guavate.Guavate;
+import com.google.common.collect.ImmutableList;
+
 class CassandraDeletedMessageDAOTest {
     private static final CassandraId MAILBOX_ID = CassandraId.of(UUID.fromString("110e8400-e29b-11d4-a716-446655440000"));
     private static final MessageUid UID_1 = MessageUid.of(1);
@@ -149,6 +154,54 @@ class CassandraDeletedMessageDAOTest {
         assertThat(result).isEmpty();
     }
 
+    @Test
+    void addDeletedShouldAddAllSpecifiedUIDs() {
+        testee.addDeleted(MAILBOX_ID, ImmutableList.of(UID_1, UID_2, UID_3)).block();
+
+        List<MessageUid> result = testee
+            .retrieveDeletedMessage(MAILBOX_ID, MessageRange.all())
+            .collectList()
+            .block();
+
+        assertThat(result).containsExactly(UID_1, UID_2, UID_3);
+    }
+
+    @Test
+    void addDeletedShouldAddMoreUIDsThanABatchCanHold() {
+        List<MessageUid> uids = LongStream.rangeClosed(1, SinglePartitionBatches.MAX_BATCH_SIZE * 2 + 1)
+            .mapToObj(MessageUid::of)
+            .collect(Guavate.toImmutableList());
+
+        testee.addDeleted(MAILBOX_ID, uids).block();
+
+        List<MessageUid> result = testee
+            .retrieveDeletedMessage(MAILBOX_ID, MessageRange.all())
+            .collectList()
+            .block();
+
+        assertThat(result).containsExactlyElementsOf(uids);
+    }
+
+    @Test
+    void removeDeletedShouldRemoveAllSpecifiedUIDs() {
+        addMessageForRetrieveTest();
+
+        testee.removeDeleted(MAILBOX_ID, ImmutableList.of(UID_1, UID_3, UID_8)).block();
+
+        List<MessageUid> result = testee
+            .retrieveDeletedMessage(MAILBOX_ID, MessageRange.all())
+            .collectList()
+            .block();
+
+        assertThat(result).containsExactly(UID_2, UID_4, UID_7);
+    }
+
+    @Test
+    void removeDeletedShouldNotThrowWhenNoUIDs() {
+        assertThatCode(() -> testee.removeDeleted(MAILBOX_ID, ImmutableList.of()).block())
+            .doesNotThrowAnyException();
+    }
+
     private void addMessageForRetrieveTest() {
         testee.addDeleted(MAILBOX_ID, UID_1).block();
         testee.addDeleted(MAILBOX_ID, UID_2).block();
@@ -35,6 +35,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 
+import com.google.common.collect.ImmutableList;
+
 class CassandraMailboxCounterDAOTest {
     private static final UidValidity UID_VALIDITY = UidValidity.of(15);
     private static final CassandraId MAILBOX_ID = CassandraId.timeBased();
@@ -67,6 +69,42 @@ class CassandraMailboxCounterDAOTest {
         assertThat(testee.retrieveMailboxCounters(MAILBOX_ID).hasElement().block()).isFalse();
     }
 
+    @Test
+    void retrieveMailboxCountersShouldReturnCountersOfAllMailboxes() {
+        CassandraId otherMailboxId = CassandraId.timeBased();
+        testee.incrementUnseenAndCount(MAILBOX_ID).block();
+        testee.incrementCount(otherMailboxId).block();
+
+        assertThat(testee.retrieveMailboxCounters(ImmutableList.of(MAILBOX_ID, otherMailboxId)).collectList().block())
+            .containsOnly(
+                MailboxCounters.builder()
+                    .mailboxId(MAILBOX_ID)
+                    .count(1)
+                    .unseen(1)
+                    .build(),
+                MailboxCounters.builder()
+                    .mailboxId(otherMailboxId)
+                    .count(1)
+                    .unseen(0)
+                    .build());
+    }
+
+    @Test
+    void retrieveMailboxCountersShouldReturnZeroCountersWhenAbsent() {
+        assertThat(testee.retrieveMailboxCounters(ImmutableList.of(MAILBOX_ID)).collectList().block())
+            .containsOnly(MailboxCounters.builder()
+                .mailboxId(MAILBOX_ID)
+                .count(0)
+                .unseen(0)
+                .build());
+    }
+
+    @Test
+    void retrieveMailboxCountersShouldReturnEmptyWhenNoMailboxes() {
+        assertThat(testee.retrieveMailboxCounters(ImmutableList.of()).collectList().block())
+            .isEmpty();
+    }
+
     @Test
     void incrementCountShouldAddOneWhenAbsent() {
         testee.incrementCount(MAILBOX_ID).block();
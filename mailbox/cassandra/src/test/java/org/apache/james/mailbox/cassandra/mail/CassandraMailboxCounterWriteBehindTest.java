@@ -0,0 +1,217 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.cassandra.mail;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.james.backends.cassandra.CassandraCluster;
+import org.apache.james.backends.cassandra.CassandraClusterExtension;
+import org.apache.james.mailbox.cassandra.ids.CassandraId;
+import org.apache.james.mailbox.cassandra.modules.CassandraMailboxCounterModule;
+import org.apache.james.mailbox.model.MailboxCounters;
+import org.apache.james.metrics.api.NoopGaugeRegistry;
+import org.apache.james.metrics.tests.RecordingMetricFactory;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+
+class CassandraMailboxCounterWriteBehindTest {
+    private static final CassandraId MAILBOX_ID = CassandraId.timeBased();
+    private static final CassandraId OTHER_MAILBOX_ID = CassandraId.timeBased();
+    private static final Duration NEVER = Duration.ofHours(1);
+    private static final int MAX_PENDING = 2;
+
+    @RegisterExtension
+    static CassandraClusterExtension cassandraCluster = new CassandraClusterExtension(CassandraMailboxCounterModule.MODULE);
+
+    private CassandraMailboxCounterDAO testee;
+    private CassandraMailboxCounterDAO storedCounters;
+
+    @BeforeEach
+    void setUp(CassandraCluster cassandra) {
+        testee = new CassandraMailboxCounterDAO(cassandra.getConf(),
+            writer -> Optional.of(new CassandraMailboxCounterWriteBehind(writer, NEVER, MAX_PENDING,
+                new RecordingMetricFactory(), new NoopGaugeRegistry(), Clock.systemUTC())));
+        storedCounters = new CassandraMailboxCounterDAO(cassandra.getConf());
+    }
+
+    @AfterEach
+    void tearDown() {
+        testee.close();
+    }
+
+    @Test
+    void updatesShouldNotBeWrittenBeforeFlush() {
+        testee.incrementUnseenAndCount(MAILBOX_ID).block();
+
+        assertThat(storedCounters.retrieveMailboxCounters(MAILBOX_ID).blockOptional())
+            .isEmpty();
+    }
+
+    @Test
+    void retrieveMailboxCountersShouldIncludePendingUpdates() {
+        testee.incrementUnseenAndCount(MAILBOX_ID).block();
+        testee.incrementCount(MAILBOX_ID).block();
+        testee.decrementUnseen(MAILBOX_ID).block();
+
+        assertThat(testee.retrieveMailboxCounters(MAILBOX_ID).block())
+            .isEqualTo(MailboxCounters.builder()
+                .mailboxId(MAILBOX_ID)
+                .count(2)
+                .unseen(0)
+                .build());
+    }
+
+    @Test
+    void countMessagesInMailboxShouldIncludePendingUpdates() {
+        testee.incrementCount(MAILBOX_ID).block();
+        testee.incrementCount(MAILBOX_ID).block();
+
+        assertThat(testee.countMessagesInMailbox(MAILBOX_ID).block())
+            .isEqualTo(2);
+    }
+
+    @Test
+    void closeShouldWriteAggregatedUpdates() {
+        testee.incrementUnseenAndCount(MAILBOX_ID).block();
+        testee.incrementUnseenAndCount(MAILBOX_ID).block();
+        testee.incrementCount(MAILBOX_ID).block();
+
+        testee.close();
+
+        assertThat(storedCounters.retrieveMailboxCounters(MAILBOX_ID).block())
+            .isEqualTo(MailboxCounters.builder()
+                .mailboxId(MAILBOX_ID)
+                .count(3)
+                .unseen(2)
+                .build());
+    }
+
+    @Test
+    void updatesShouldBeWrittenWhenTooManyPendingMailboxes() {
+        testee.incrementCount(MAILBOX_ID).block();
+        testee.incrementCount(OTHER_MAILBOX_ID).block();
+
+        Awaitility.await()
+            .pollInterval(10, MILLISECONDS)
+            .atMost(1, SECONDS)
+            .untilAsserted(() -> {
+                assertThat(storedCounters.countMessagesInMailbox(MAILBOX_ID).block())
+                    .isEqualTo(1);
+                assertThat(storedCounters.countMessagesInMailbox(OTHER_MAILBOX_ID).block())
+                    .isEqualTo(1);
+            });
+    }
+
+    @Test
+    void retrieveMailboxCountersShouldNotCountTwiceWrittenUpdates() {
+        testee.incrementCount(MAILBOX_ID).block();
+        testee.incrementCount(OTHER_MAILBOX_ID).block();
+
+        Awaitility.await()
+            .pollInterval(10, MILLISECONDS)
+            .atMost(1, SECONDS)
+            .untilAsserted(() -> assertThat(storedCounters.countMessagesInMailbox(MAILBOX_ID).block())
+                .isEqualTo(1));
+        assertThat(testee.countMessagesInMailbox(MAILBOX_ID).block())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void deleteShouldDiscardPendingUpdates() {
+        testee.incrementUnseenAndCount(MAILBOX_ID).block();
+
+        testee.delete(MAILBOX_ID).block();
+        testee.close();
+
+        assertThat(storedCounters.retrieveMailboxCounters(MAILBOX_ID).blockOptional())
+            .isEmpty();
+    }
+
+    @Test
+    void resetCountersShouldTakePendingUpdatesIntoAccount() {
+        testee.incrementUnseenAndCount(MAILBOX_ID).block();
+        MailboxCounters expected = MailboxCounters.builder()
+            .mailboxId(MAILBOX_ID)
+            .count(5)
+            .unseen(3)
+            .build();
+
+        testee.resetCounters(expected).block();
+        testee.close();
+
+        assertThat(storedCounters.retrieveMailboxCounters(MAILBOX_ID).block())
+            .isEqualTo(expected);
+    }
+
+    @Test
+    void discardShouldWaitForUpdatesBeingWritten() {
+        MonoProcessor<Void> writeAllowed = MonoProcessor.create();
+        AtomicLong written = new AtomicLong();
+        CassandraMailboxCounterWriteBehind writeBehind = new CassandraMailboxCounterWriteBehind(
+            (mailboxId, count, unseen) -> writeAllowed.then(Mono.fromRunnable(() -> written.addAndGet(count))),
+            NEVER, MAX_PENDING, new RecordingMetricFactory(), new NoopGaugeRegistry(), Clock.systemUTC());
+        writeBehind.add(MAILBOX_ID, 1, 1).block();
+        writeBehind.flush().subscribe();
+
+        AtomicBoolean discarded = new AtomicBoolean(false);
+        writeBehind.discard(MAILBOX_ID).doOnTerminate(() -> discarded.set(true)).subscribe();
+        assertThat(discarded).isFalse();
+
+        writeAllowed.onComplete();
+        writeBehind.close();
+
+        assertThat(discarded).isTrue();
+        assertThat(written).hasValue(1);
+        assertThat(writeBehind.pendingDelta(MAILBOX_ID)).isEmpty();
+    }
+
+    @Test
+    void discardShouldNotRetryFailedUpdatesBeingWritten() {
+        MonoProcessor<Void> writeAllowed = MonoProcessor.create();
+        AtomicLong attempts = new AtomicLong();
+        CassandraMailboxCounterWriteBehind writeBehind = new CassandraMailboxCounterWriteBehind(
+            (mailboxId, count, unseen) -> writeAllowed.then(Mono.fromRunnable(attempts::incrementAndGet))
+                .then(Mono.error(new RuntimeException())),
+            NEVER, MAX_PENDING, new RecordingMetricFactory(), new NoopGaugeRegistry(), Clock.systemUTC());
+        writeBehind.add(MAILBOX_ID, 1, 1).block();
+        writeBehind.flush().subscribe();
+
+        writeBehind.discard(MAILBOX_ID).subscribe();
+        writeAllowed.onComplete();
+        writeBehind.close();
+
+        assertThat(attempts).hasValue(1);
+        assertThat(writeBehind.pendingDelta(MAILBOX_ID)).isEmpty();
+    }
+}
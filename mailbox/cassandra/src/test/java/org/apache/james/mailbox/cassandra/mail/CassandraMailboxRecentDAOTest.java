@@ -22,17 +22,22 @@ package org.apache.james.mailbox.cassandra.mail;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
 
+import java.util.List;
 import java.util.stream.IntStream;
 
 import org.apache.james.backends.cassandra.CassandraCluster;
 import org.apache.james.backends.cassandra.CassandraClusterExtension;
 import org.apache.james.mailbox.MessageUid;
 import org.apache.james.mailbox.cassandra.ids.CassandraId;
+import org.apache.james.mailbox.cassandra.mail.utils.SinglePartitionBatches;
 import org.apache.james.mailbox.cassandra.modules.CassandraMailboxRecentsModule;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 
+import com.github.steveash.guavate.Guavate;
+import com.google.common.collect.ImmutableList;
+
 class CassandraMailboxRecentDAOTest {
     private static final MessageUid UID1 = MessageUid.of(36L);
     private static final MessageUid UID2 = MessageUid.of(37L);
@@ -142,6 +147,39 @@ class CassandraMailboxRecentDAOTest {
             .containsOnly(UID1);
     }
 
+    @Test
+    void addToRecentShouldAddAllUidsWhenSeveralBatches() {
+        List<MessageUid> uids = IntStream.range(0, SinglePartitionBatches.MAX_BATCH_SIZE * 2 + 1)
+            .mapToObj(i -> MessageUid.of(i + 1))
+            .collect(Guavate.toImmutableList());
+
+        testee.addToRecent(CASSANDRA_ID, uids).block();
+
+        assertThat(testee.getRecentMessageUidsInMailbox(CASSANDRA_ID)
+                .collectList()
+                .block())
+            .containsOnlyElementsOf(uids)
+            .hasSize(uids.size());
+    }
+
+    @Test
+    void removeFromRecentShouldRemoveOnlySuppliedUids() {
+        testee.addToRecent(CASSANDRA_ID, ImmutableList.of(UID1, UID2)).block();
+
+        testee.removeFromRecent(CASSANDRA_ID, ImmutableList.of(UID1)).block();
+
+        assertThat(testee.getRecentMessageUidsInMailbox(CASSANDRA_ID)
+                .collectList()
+                .block())
+            .containsOnly(UID2);
+    }
+
+    @Test
+    void addToRecentShouldNotFailWhenNoUids() {
+        assertThatCode(() -> testee.addToRecent(CASSANDRA_ID, ImmutableList.of()).block())
+            .doesNotThrowAnyException();
+    }
+
     @Test
     void getRecentMessageUidsInMailboxShouldNotTimeoutWhenOverPagingLimit() {
         int pageSize = 5000;
@@ -20,7 +20,9 @@ package org.apache.james.mailbox.cassandra.mail;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.LongStream;
 
 import javax.mail.Flags;
 import javax.mail.Flags.Flag;
@@ -33,15 +35,20 @@ import org.apache.james.mailbox.MessageUid;
 import org.apache.james.mailbox.ModSeq;
 import org.apache.james.mailbox.cassandra.ids.CassandraId;
 import org.apache.james.mailbox.cassandra.ids.CassandraMessageId;
+import org.apache.james.mailbox.cassandra.mail.utils.SinglePartitionBatches;
 import org.apache.james.mailbox.cassandra.modules.CassandraMessageModule;
 import org.apache.james.mailbox.model.ComposedMessageId;
 import org.apache.james.mailbox.model.ComposedMessageIdWithMetaData;
 import org.apache.james.mailbox.model.MessageRange;
+import org.apache.james.mailbox.model.UpdatedFlags;
 import org.apache.james.util.streams.Limit;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 
+import com.github.steveash.guavate.Guavate;
+import com.google.common.collect.ImmutableList;
+
 import reactor.core.publisher.Flux;
 
 class CassandraMessageIdDAOTest {
@@ -357,6 +364,66 @@ class CassandraMessageIdDAOTest {
         assertThat(message.get()).isEqualTo(expectedComposedMessageId);
     }
 
+    @Test
+    void updateMetadataShouldUpdateAllSpecifiedMessages() {
+        CassandraId mailboxId = CassandraId.timeBased();
+        List<MessageUid> uids = LongStream.rangeClosed(1, SinglePartitionBatches.MAX_BATCH_SIZE * 2 + 1)
+            .mapToObj(MessageUid::of)
+            .collect(Guavate.toImmutableList());
+        Flux.fromIterable(uids)
+            .concatMap(uid -> testee.insert(ComposedMessageIdWithMetaData.builder()
+                .composedMessageId(new ComposedMessageId(mailboxId, messageIdFactory.generate(), uid))
+                .flags(new Flags())
+                .modSeq(ModSeq.of(1))
+                .build()))
+            .blockLast();
+
+        testee.updateMetadata(mailboxId, uids.stream()
+                .map(uid -> UpdatedFlags.builder()
+                    .uid(uid)
+                    .modSeq(ModSeq.of(2))
+                    .oldFlags(new Flags())
+                    .newFlags(new Flags(Flag.SEEN))
+                    .build())
+                .collect(Guavate.toImmutableList()))
+            .block();
+
+        assertThat(testee.retrieveMessages(mailboxId, MessageRange.all(), Limit.unlimited()).collectList().block())
+            .hasSize(uids.size())
+            .allSatisfy(message -> {
+                assertThat(message.getFlags()).isEqualTo(new Flags(Flag.SEEN));
+                assertThat(message.getModSeq()).isEqualTo(ModSeq.of(2));
+            });
+    }
+
+    @Test
+    void updateMetadataShouldNotUpdateOtherMessages() {
+        CassandraId mailboxId = CassandraId.timeBased();
+        ComposedMessageIdWithMetaData message1 = ComposedMessageIdWithMetaData.builder()
+            .composedMessageId(new ComposedMessageId(mailboxId, messageIdFactory.generate(), MessageUid.of(1)))
+            .flags(new Flags())
+            .modSeq(ModSeq.of(1))
+            .build();
+        ComposedMessageIdWithMetaData message2 = ComposedMessageIdWithMetaData.builder()
+            .composedMessageId(new ComposedMessageId(mailboxId, messageIdFactory.generate(), MessageUid.of(2)))
+            .flags(new Flags())
+            .modSeq(ModSeq.of(1))
+            .build();
+        testee.insert(message1).block();
+        testee.insert(message2).block();
+
+        testee.updateMetadata(mailboxId, ImmutableList.of(UpdatedFlags.builder()
+                .uid(MessageUid.of(1))
+                .modSeq(ModSeq.of(2))
+                .oldFlags(new Flags())
+                .newFlags(new Flags(Flag.SEEN))
+                .build()))
+            .block();
+
+        assertThat(testee.retrieve(mailboxId, MessageUid.of(2)).block())
+            .contains(message2);
+    }
+
     @Test
     void retrieveShouldRetrieveWhenKeyMatches() {
         CassandraMessageId messageId = messageIdFactory.generate();
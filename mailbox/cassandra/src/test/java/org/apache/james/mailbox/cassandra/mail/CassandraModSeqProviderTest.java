@@ -50,6 +50,7 @@ import org.junit.jupiter.api.extension.RegisterExtension;
 
 import com.datastax.driver.core.querybuilder.QueryBuilder;
 import com.github.fge.lambdas.Throwing;
+import com.google.common.collect.ImmutableList;
 
 import reactor.core.scheduler.Schedulers;
 
@@ -118,7 +119,12 @@ class CassandraModSeqProviderTest {
         CompletableFuture<ModSeq> operation1 = modSeqProvider.nextModSeq(CASSANDRA_ID)
             .subscribeOn(Schedulers.elastic())
             .toFuture();
-        CompletableFuture<ModSeq> operation2 = modSeqProvider.nextModSeq(CASSANDRA_ID)
+        // Calls from a same provider are coalesced: simulate a concurrent insert from another James node
+        CassandraModSeqProvider otherNodeModSeqProvider = new CassandraModSeqProvider(
+            cassandra.getConf(),
+            CassandraConfiguration.DEFAULT_CONFIGURATION,
+            cassandraCluster.getCassandraConsistenciesConfiguration());
+        CompletableFuture<ModSeq> operation2 = otherNodeModSeqProvider.nextModSeq(CASSANDRA_ID)
             .subscribeOn(Schedulers.elastic())
             .toFuture();
 
@@ -153,4 +159,70 @@ class CassandraModSeqProviderTest {
 
         assertThat(modSeqs).hasSize(100);
     }
+
+    @Test
+    void nextModSeqShouldNotLeaveGapsWhenParallelCalls() throws ExecutionException, InterruptedException {
+        ConcurrentSkipListSet<ModSeq> modSeqs = new ConcurrentSkipListSet<>();
+        ConcurrentTestRunner.builder()
+            .operation(
+                (threadNumber, step) -> modSeqs.add(modSeqProvider.nextModSeq(mailbox)))
+            .threadCount(10)
+            .operationCount(10)
+            .runSuccessfullyWithin(Duration.ofMinutes(1));
+
+        assertThat(modSeqs).containsExactlyElementsOf(LongStream.rangeClosed(1, 100)
+            .mapToObj(ModSeq::of)
+            .collect(ImmutableList.toImmutableList()));
+    }
+
+    @Test
+    void nextModSeqShouldGenerateUniqueValuesWhenParallelCallsOnSeveralNodes(CassandraCluster cassandra) throws ExecutionException, InterruptedException {
+        CassandraModSeqProvider otherNodeModSeqProvider = new CassandraModSeqProvider(
+            cassandra.getConf(),
+            CassandraConfiguration.DEFAULT_CONFIGURATION,
+            cassandraCluster.getCassandraConsistenciesConfiguration());
+
+        ConcurrentSkipListSet<ModSeq> modSeqs = new ConcurrentSkipListSet<>();
+        ConcurrentTestRunner.builder()
+            .operation((threadNumber, step) -> {
+                if (threadNumber % 2 == 0) {
+                    modSeqs.add(modSeqProvider.nextModSeq(mailbox));
+                } else {
+                    modSeqs.add(otherNodeModSeqProvider.nextModSeq(mailbox));
+                }
+            })
+            .threadCount(10)
+            .operationCount(10)
+            .runSuccessfullyWithin(Duration.ofMinutes(1));
+
+        assertThat(modSeqs).hasSize(100);
+    }
+
+    @Test
+    void nextModSeqsShouldReturnConsecutiveModSeqs() throws Exception {
+        modSeqProvider.nextModSeq(mailbox);
+
+        assertThat(modSeqProvider.nextModSeqs(CASSANDRA_ID, 3).collectList().block())
+            .containsExactly(ModSeq.of(2), ModSeq.of(3), ModSeq.of(4));
+    }
+
+    @Test
+    void nextModSeqsShouldWorkOnEmptyMailbox() {
+        assertThat(modSeqProvider.nextModSeqs(CASSANDRA_ID, 3).collectList().block())
+            .containsExactly(ModSeq.of(1), ModSeq.of(2), ModSeq.of(3));
+    }
+
+    @Test
+    void highestModSeqShouldReturnTheLastModSeqReservedByNextModSeqs() throws Exception {
+        modSeqProvider.nextModSeqs(CASSANDRA_ID, 5).blockLast();
+
+        assertThat(modSeqProvider.highestModSeq(mailbox)).isEqualTo(ModSeq.of(5));
+    }
+
+    @Test
+    void nextModSeqShouldFollowModSeqsReservedByNextModSeqs() throws Exception {
+        modSeqProvider.nextModSeqs(CASSANDRA_ID, 5).blockLast();
+
+        assertThat(modSeqProvider.nextModSeq(mailbox)).isEqualTo(ModSeq.of(6));
+    }
 }
@@ -19,6 +19,7 @@
 package org.apache.james.mailbox.cassandra.mail;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import java.time.Duration;
 import java.util.Optional;
@@ -42,6 +43,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 
 import com.github.fge.lambdas.Throwing;
+import com.google.common.collect.ImmutableList;
 
 class CassandraUidProviderTest {
     private static final CassandraId CASSANDRA_ID = new CassandraId.Factory().fromString("e22b3ac0-a80b-11e7-bb00-777268d65503");
@@ -99,4 +101,75 @@ class CassandraUidProviderTest {
 
         assertThat(messageUids).hasSize(nbEntries);
     }
+
+    @Test
+    void nextUidShouldNotLeaveGapsWhenParallelCalls() throws ExecutionException, InterruptedException {
+        ConcurrentSkipListSet<MessageUid> messageUids = new ConcurrentSkipListSet<>();
+        ConcurrentTestRunner.builder()
+            .operation((threadNumber, step) -> messageUids.add(uidProvider.nextUid(mailbox)))
+            .threadCount(10)
+            .operationCount(10)
+            .runSuccessfullyWithin(Duration.ofMinutes(1));
+
+        assertThat(messageUids).containsExactlyElementsOf(LongStream.rangeClosed(1, 100)
+            .mapToObj(MessageUid::of)
+            .collect(ImmutableList.toImmutableList()));
+    }
+
+    @Test
+    void nextUidShouldGenerateUniqueValuesWhenParallelCallsOnSeveralNodes(CassandraCluster cassandra) throws ExecutionException, InterruptedException {
+        CassandraUidProvider otherNodeUidProvider = new CassandraUidProvider(
+            cassandra.getConf(),
+            CassandraConfiguration.DEFAULT_CONFIGURATION,
+            cassandraCluster.getCassandraConsistenciesConfiguration());
+
+        ConcurrentSkipListSet<MessageUid> messageUids = new ConcurrentSkipListSet<>();
+        ConcurrentTestRunner.builder()
+            .operation((threadNumber, step) -> {
+                if (threadNumber % 2 == 0) {
+                    messageUids.add(uidProvider.nextUid(mailbox));
+                } else {
+                    messageUids.add(otherNodeUidProvider.nextUid(mailbox));
+                }
+            })
+            .threadCount(10)
+            .operationCount(10)
+            .runSuccessfullyWithin(Duration.ofMinutes(1));
+
+        assertThat(messageUids).hasSize(100);
+    }
+
+    @Test
+    void nextUidsShouldReturnConsecutiveUids() throws Exception {
+        uidProvider.nextUid(mailbox);
+
+        assertThat(uidProvider.nextUids(CASSANDRA_ID, 3).collectList().block())
+            .containsExactly(MessageUid.of(2), MessageUid.of(3), MessageUid.of(4));
+    }
+
+    @Test
+    void nextUidsShouldWorkOnEmptyMailbox() {
+        assertThat(uidProvider.nextUids(CASSANDRA_ID, 3).collectList().block())
+            .containsExactly(MessageUid.of(1), MessageUid.of(2), MessageUid.of(3));
+    }
+
+    @Test
+    void nextUidsShouldThrowWhenCountIsNotPositive() {
+        assertThatThrownBy(() -> uidProvider.nextUids(CASSANDRA_ID, 0))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void lastUidShouldReturnTheLastUidReservedByNextUids() {
+        uidProvider.nextUids(CASSANDRA_ID, 5).blockLast();
+
+        assertThat(uidProvider.lastUid(mailbox)).contains(MessageUid.of(5));
+    }
+
+    @Test
+    void nextUidShouldFollowUidsReservedByNextUids() throws Exception {
+        uidProvider.nextUids(CASSANDRA_ID, 5).blockLast();
+
+        assertThat(uidProvider.nextUid(mailbox)).isEqualTo(MessageUid.of(6));
+    }
 }
@@ -0,0 +1,109 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.cassandra.mail.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import org.apache.james.mailbox.cassandra.ids.CassandraId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class CoalescingRangeAllocatorTest {
+    private static final CassandraId MAILBOX_ID = CassandraId.timeBased();
+    private static final CassandraId OTHER_MAILBOX_ID = CassandraId.timeBased();
+
+    private AtomicLong highest;
+    private AtomicInteger reservationCount;
+    private CoalescingRangeAllocator testee;
+
+    @BeforeEach
+    void setUp() {
+        highest = new AtomicLong(0);
+        reservationCount = new AtomicInteger(0);
+        testee = new CoalescingRangeAllocator((mailboxId, count) -> Mono.fromCallable(() -> {
+                reservationCount.incrementAndGet();
+                return highest.addAndGet(count);
+            })
+            .delayElement(Duration.ofMillis(50)));
+    }
+
+    @Test
+    void nextShouldReturnConsecutiveValues() {
+        assertThat(testee.next(MAILBOX_ID).block()).isEqualTo(1L);
+        assertThat(testee.next(MAILBOX_ID).block()).isEqualTo(2L);
+    }
+
+    @Test
+    void concurrentCallsShouldShareReservations() {
+        List<Long> values = Flux.range(0, 100)
+            .flatMap(any -> testee.next(MAILBOX_ID))
+            .collectList()
+            .block();
+
+        assertThat(values).containsExactlyInAnyOrderElementsOf(LongStream.rangeClosed(1, 100)
+            .boxed()
+            .collect(ImmutableList.toImmutableList()));
+        assertThat(reservationCount.get()).isLessThan(100);
+    }
+
+    @Test
+    void callsOnDistinctMailboxesShouldNotShareReservations() {
+        Flux.merge(testee.next(MAILBOX_ID), testee.next(OTHER_MAILBOX_ID))
+            .blockLast();
+
+        assertThat(reservationCount.get()).isEqualTo(2);
+    }
+
+    @Test
+    void nextShouldPropagateReservationFailures() {
+        CoalescingRangeAllocator failingAllocator = new CoalescingRangeAllocator((mailboxId, count) ->
+            Mono.error(new RuntimeException()));
+
+        assertThatThrownBy(() -> failingAllocator.next(MAILBOX_ID).block())
+            .isInstanceOf(RuntimeException.class);
+    }
+
+    @Test
+    void nextShouldSucceedAfterAReservationFailure() {
+        AtomicInteger attempts = new AtomicInteger(0);
+        CoalescingRangeAllocator allocator = new CoalescingRangeAllocator((mailboxId, count) -> {
+            if (attempts.getAndIncrement() == 0) {
+                return Mono.error(new RuntimeException());
+            }
+            return Mono.just((long) count);
+        });
+
+        assertThatThrownBy(() -> allocator.next(MAILBOX_ID).block())
+            .isInstanceOf(RuntimeException.class);
+        assertThat(allocator.next(MAILBOX_ID).block()).isEqualTo(1L);
+    }
+}
@@ -28,7 +28,14 @@ import org.apache.james.blob.api.BlobStore;
 import org.apache.james.blob.api.HashBlobId;
 import org.apache.james.blob.cassandra.CassandraBlobStoreFactory;
 import org.apache.james.mailbox.cassandra.ids.CassandraMessageId;
+import org.apache.james.mailbox.events.EventBus;
+import org.apache.james.mailbox.events.EventBusTestFixture;
+import org.apache.james.mailbox.events.InVMEventBus;
+import org.apache.james.mailbox.events.MemoryEventDeadLetters;
+import org.apache.james.mailbox.events.delivery.InVmEventDelivery;
 import org.apache.james.mailbox.model.MessageId;
+import org.apache.james.metrics.api.MetricFactory;
+import org.apache.james.metrics.tests.RecordingMetricFactory;
 
 import com.datastax.driver.core.Session;
 import com.google.inject.Guice;
@@ -63,6 +70,9 @@ public class GuiceUtils {
             binder -> binder.bind(Session.class).toInstance(session),
             binder -> binder.bind(CassandraTypesProvider.class).toInstance(typesProvider),
             binder -> binder.bind(CassandraConfiguration.class).toInstance(configuration),
+            binder -> binder.bind(MetricFactory.class).toInstance(new RecordingMetricFactory()),
+            binder -> binder.bind(EventBus.class).toInstance(new InVMEventBus(new InVmEventDelivery(new RecordingMetricFactory()),
+                EventBusTestFixture.RETRY_BACKOFF_CONFIGURATION, new MemoryEventDeadLetters())),
             binder -> binder.bind(CassandraConsistenciesConfiguration.class)
                 .toInstance(CassandraConsistenciesConfiguration.fromConfiguration(configuration)));
     }
@@ -73,7 +73,8 @@ class RoutingKeyConverterTest {
 
     private RoutingKeyConverter testee = RoutingKeyConverter.forFactories(
         new TestRegistrationKey.Factory(),
-        new MailboxIdRegistrationKey.Factory(new TestId.Factory()));
+        new MailboxIdRegistrationKey.Factory(new TestId.Factory()),
+        new MailboxInvalidationRegistrationKey.Factory());
 
     @Test
     void toRoutingKeyShouldTransformAKeyIntoAString() {
@@ -87,6 +88,14 @@ class RoutingKeyConverterTest {
             .isEqualTo(REGISTRATION_KEY_1);
     }
 
+    @Test
+    void toRegistrationKeyShouldReturnTheMailboxInvalidationKey() {
+        String routingKey = RoutingKeyConverter.RoutingKey.of(MailboxInvalidationRegistrationKey.INSTANCE).asString();
+
+        assertThat(testee.toRegistrationKey(routingKey))
+            .isSameAs(MailboxInvalidationRegistrationKey.INSTANCE);
+    }
+
     @Test
     void toRoutingKeyShouldAcceptSeparator() {
         assertThat(RoutingKeyConverter.RoutingKey.of(new TestRegistrationKey("a:b")).asString())
@@ -19,51 +19,104 @@
 
 package org.apache.james.mailbox.store;
 
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+import javax.inject.Inject;
+
 import org.apache.commons.lang3.NotImplementedException;
 import org.apache.james.mailbox.MailboxPathLocker;
 import org.apache.james.mailbox.exception.MailboxException;
 import org.apache.james.mailbox.model.MailboxPath;
+import org.apache.james.metrics.api.MetricFactory;
+import org.apache.james.metrics.api.TimeMetric;
+
+import com.google.common.annotations.VisibleForTesting;
 
 /**
  * {@link MailboxPathLocker} implementation which helps to synchronize the access the
  * same MailboxPath. This is done using one {@link ReentrantReadWriteLock}
  * per {@link MailboxPath} so its only usable in a single JVM.
+ *
+ * The locks are counted by the executions holding or waiting for them, and are
+ * discarded once the last one is done: only the paths being accessed are kept in memory.
  */
 public final class JVMMailboxPathLocker implements MailboxPathLocker {
-    private final ConcurrentHashMap<MailboxPath, ReadWriteLock> paths = new ConcurrentHashMap<>();
+    static final String READ_LOCK_WAIT_METRIC_NAME = "mailboxPathReadLockWait";
+    static final String WRITE_LOCK_WAIT_METRIC_NAME = "mailboxPathWriteLockWait";
+
+    private static class PathLock {
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private int users = 0;
+    }
+
+    private final ConcurrentHashMap<MailboxPath, PathLock> paths = new ConcurrentHashMap<>();
+    private final Optional<MetricFactory> metricFactory;
+
+    public JVMMailboxPathLocker() {
+        this(Optional.empty());
+    }
+
+    @Inject
+    public JVMMailboxPathLocker(MetricFactory metricFactory) {
+        this(Optional.of(metricFactory));
+    }
+
+    private JVMMailboxPathLocker(Optional<MetricFactory> metricFactory) {
+        this.metricFactory = metricFactory;
+    }
 
     @Override
     public <T> T executeWithLock(MailboxPath path, LockAwareExecution<T> execution, LockType writeLock) throws MailboxException {
+        PathLock pathLock = retain(path);
         try {
-            lock(path, writeLock);
-            return execution.execute();
+            Lock lock = getLock(pathLock.lock, writeLock);
+            acquire(lock, writeLock);
+            try {
+                return execution.execute();
+            } finally {
+                lock.unlock();
+            }
         } finally {
-            unlock(path, writeLock);
+            release(path);
         }
     }
 
-    private void lock(MailboxPath path, LockType lockType) {
-        ReadWriteLock lock = paths.get(path);
-        if (lock == null) {
-            lock = new ReentrantReadWriteLock();
-            ReadWriteLock storedLock = paths.putIfAbsent(path, lock);
-            if (storedLock != null) {
-                lock = storedLock;
+    private PathLock retain(MailboxPath path) {
+        return paths.compute(path, (key, pathLock) -> {
+            PathLock retained = Optional.ofNullable(pathLock).orElseGet(PathLock::new);
+            retained.users++;
+            return retained;
+        });
+    }
+
+    private void release(MailboxPath path) {
+        paths.computeIfPresent(path, (key, pathLock) -> {
+            pathLock.users--;
+            if (pathLock.users == 0) {
+                return null;
             }
-        }
-        getLock(lock, lockType).lock();
+            return pathLock;
+        });
     }
 
-    private void unlock(MailboxPath path, LockType lockType) {
-        ReadWriteLock lock = paths.get(path);
+    private void acquire(Lock lock, LockType lockType) {
+        Optional<TimeMetric> waitTime = metricFactory.map(factory -> factory.timer(waitMetricName(lockType)));
+        lock.lock();
+        waitTime.ifPresent(TimeMetric::stopAndPublish);
+    }
 
-        if (lock != null) {
-            getLock(lock, lockType).unlock();
+    private String waitMetricName(LockType lockType) {
+        switch (lockType) {
+            case Write:
+                return WRITE_LOCK_WAIT_METRIC_NAME;
+            case Read:
+                return READ_LOCK_WAIT_METRIC_NAME;
+            default:
+                throw new NotImplementedException("Unsupported lock tuype " + lockType);
         }
     }
 
@@ -77,4 +130,9 @@ public final class JVMMailboxPathLocker implements MailboxPathLocker {
                 throw new NotImplementedException("Unsupported lock tuype " + lockType);
         }
     }
+
+    @VisibleForTesting
+    int lockedPathCount() {
+        return paths.size();
+    }
 }
@@ -0,0 +1,124 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.store;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.apache.james.mailbox.model.Mailbox;
+import org.apache.james.mailbox.model.MailboxPath;
+import org.apache.james.mailbox.model.search.MailboxNameExpression;
+import org.apache.james.mailbox.model.search.MailboxQuery;
+
+import com.google.common.base.Splitter;
+
+/**
+ * Hierarchy of the mailboxes returned by a LIST, indexed by name part.
+ *
+ * Matching a {@link MailboxQuery} walks down the hierarchy and skips the sub-trees the expression can not match,
+ * and telling whether a mailbox has children is a single lookup, instead of comparing every pair of mailboxes.
+ */
+class MailboxTree {
+    private static class Node {
+        private final String name;
+        private final Map<String, Node> children;
+        private final List<Mailbox> mailboxes;
+
+        Node(String name) {
+            this.name = name;
+            this.children = new HashMap<>();
+            this.mailboxes = new ArrayList<>(1);
+        }
+
+        Node child(String part, char delimiter) {
+            return children.computeIfAbsent(part, key -> new Node(childName(key, delimiter)));
+        }
+
+        private String childName(String part, char delimiter) {
+            if (name.isEmpty()) {
+                return part;
+            }
+            return name + delimiter + part;
+        }
+
+        Stream<Mailbox> matching(MailboxNameExpression expression, char delimiter) {
+            Stream<Mailbox> matchingMailboxes = mailboxes.stream()
+                .filter(mailbox -> expression.isExpressionMatch(name));
+            if (!name.isEmpty() && !expression.isPrefixMatch(name + delimiter)) {
+                return matchingMailboxes;
+            }
+            return Stream.concat(matchingMailboxes,
+                children.values().stream()
+                    .flatMap(child -> child.matching(expression, delimiter)));
+        }
+    }
+
+    static MailboxTree of(Collection<Mailbox> mailboxes, char delimiter) {
+        MailboxTree tree = new MailboxTree(delimiter);
+        mailboxes.forEach(tree::add);
+        return tree;
+    }
+
+    private final char delimiter;
+    private final Map<MailboxPath, Node> roots;
+
+    private MailboxTree(char delimiter) {
+        this.delimiter = delimiter;
+        this.roots = new HashMap<>();
+    }
+
+    private void add(Mailbox mailbox) {
+        Node node = roots.computeIfAbsent(rootPath(mailbox), path -> new Node(""));
+        for (String part : Splitter.on(delimiter).split(mailbox.getName())) {
+            node = node.child(part, delimiter);
+        }
+        node.mailboxes.add(mailbox);
+    }
+
+    Stream<Mailbox> matching(MailboxQuery query) {
+        return roots.entrySet().stream()
+            .filter(root -> query.getNamespace().map(namespace -> namespace.equals(root.getKey().getNamespace())).orElse(true))
+            .filter(root -> query.getUser().map(user -> user.equals(root.getKey().getUser())).orElse(true))
+            .flatMap(root -> root.getValue().matching(query.getMailboxNameExpression(), delimiter));
+    }
+
+    boolean hasChildren(Mailbox mailbox) {
+        return find(mailbox)
+            .map(node -> !node.children.isEmpty())
+            .orElse(false);
+    }
+
+    private Optional<Node> find(Mailbox mailbox) {
+        Optional<Node> node = Optional.ofNullable(roots.get(rootPath(mailbox)));
+        for (String part : Splitter.on(delimiter).split(mailbox.getName())) {
+            node = node.map(parent -> parent.children.get(part));
+        }
+        return node;
+    }
+
+    private MailboxPath rootPath(Mailbox mailbox) {
+        return new MailboxPath(mailbox.getNamespace(), mailbox.getUser(), "");
+    }
+}
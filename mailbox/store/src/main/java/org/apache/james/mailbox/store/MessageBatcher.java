@@ -24,8 +24,6 @@ import java.util.List;
 import org.apache.james.mailbox.exception.MailboxException;
 import org.apache.james.mailbox.model.MessageRange;
 
-import com.github.fge.lambdas.Throwing;
-import com.github.steveash.guavate.Guavate;
 import com.google.common.base.Preconditions;
 
 public class MessageBatcher {
@@ -47,13 +45,17 @@ public class MessageBatcher {
         return batchSize;
     }
 
+    /**
+     * Ranges returned by consecutive batches are merged when contiguous.
+     */
     public List<MessageRange> batchMessages(MessageRange set, BatchedOperation batchedOperation) throws MailboxException {
         if (batchSize > 0) {
-            return set.split(batchSize)
-                .stream()
-                .flatMap(Throwing.function(range -> batchedOperation.execute(range)
-                                                                    .stream()))
-                .collect(Guavate.toImmutableList());
+            MessageRangeAccumulator result = new MessageRangeAccumulator();
+            for (MessageRange range : set.split(batchSize)) {
+                batchedOperation.execute(range)
+                    .forEach(result::add);
+            }
+            return result.toRanges();
         } else {
             return batchedOperation.execute(set);
         }
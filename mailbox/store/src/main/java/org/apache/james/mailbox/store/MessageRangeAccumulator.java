@@ -0,0 +1,90 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.store;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.james.mailbox.MessageUid;
+import org.apache.james.mailbox.model.MessageRange;
+
+import com.github.steveash.guavate.Guavate;
+
+/**
+ * Accumulates uids as they come, merging them into sorted, non-overlapping ranges.
+ *
+ * Copying or moving many messages usually allocates consecutive uids: the result stays a few ranges long whatever
+ * the number of messages.
+ */
+class MessageRangeAccumulator {
+    private final TreeMap<Long, Long> uidToByUidFrom;
+
+    MessageRangeAccumulator() {
+        this.uidToByUidFrom = new TreeMap<>();
+    }
+
+    void add(MessageUid uid) {
+        add(uid.asLong(), uid.asLong());
+    }
+
+    void add(MessageRange range) {
+        add(range.getUidFrom().asLong(), range.getUidTo().asLong());
+    }
+
+    void addAll(Iterable<MessageUid> uids) {
+        uids.forEach(this::add);
+    }
+
+    private void add(long from, long to) {
+        long mergedFrom = from;
+        long mergedTo = to;
+
+        Map.Entry<Long, Long> previous = uidToByUidFrom.floorEntry(from);
+        if (previous != null && previous.getValue() >= from - 1) {
+            mergedFrom = previous.getKey();
+            mergedTo = Math.max(mergedTo, previous.getValue());
+            uidToByUidFrom.remove(previous.getKey());
+        }
+
+        Map.Entry<Long, Long> next = uidToByUidFrom.ceilingEntry(mergedFrom);
+        while (next != null && next.getKey() <= mergedTo + 1) {
+            mergedTo = Math.max(mergedTo, next.getValue());
+            uidToByUidFrom.remove(next.getKey());
+            next = uidToByUidFrom.ceilingEntry(mergedFrom);
+        }
+
+        uidToByUidFrom.put(mergedFrom, mergedTo);
+    }
+
+    List<MessageRange> toRanges() {
+        return uidToByUidFrom.entrySet()
+            .stream()
+            .map(entry -> toRange(entry.getKey(), entry.getValue()))
+            .collect(Guavate.toImmutableList());
+    }
+
+    private MessageRange toRange(long from, long to) {
+        if (from == to) {
+            return MessageUid.of(from).toRange();
+        }
+        return MessageRange.range(MessageUid.of(from), MessageUid.of(to));
+    }
+}
@@ -26,6 +26,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import javax.mail.Flags;
 
@@ -43,6 +44,7 @@ import org.apache.james.mailbox.model.MessageResult;
 import org.apache.james.mailbox.model.MimeDescriptor;
 import org.apache.james.mailbox.model.MimePath;
 import org.apache.james.mailbox.store.mail.model.MailboxMessage;
+import org.apache.james.mailbox.store.mail.model.impl.PropertyBuilder;
 import org.apache.james.mailbox.store.streaming.InputStreamContent;
 import org.apache.james.mailbox.store.streaming.InputStreamContent.Type;
 import org.apache.james.mime4j.MimeException;
@@ -277,7 +279,11 @@ public class MessageResultImpl implements MessageResult {
         if (mimeDescriptor == null) {
             try {
                 if (isComposite(message.getMediaType())) {
-                    mimeDescriptor = MimeDescriptorImpl.build(getFullContent().getInputStream());
+                    Optional<MimeDescriptor> storedDescriptor = MimeDescriptorCodec.decode(
+                        new PropertyBuilder(message.getProperties()).getMimeStructure(), getHeaders());
+                    mimeDescriptor = storedDescriptor.isPresent()
+                        ? storedDescriptor.get()
+                        : MimeDescriptorImpl.build(getFullContent().getInputStream());
                 } else {
                     mimeDescriptor = new LazyMimeDescriptor(this, message);
                 }
@@ -296,7 +302,7 @@ public class MessageResultImpl implements MessageResult {
      * @return true when the type is composite,
      * false otherwise
      */
-    private boolean isComposite(String mediaType) {
+    static boolean isComposite(String mediaType) {
         return "message".equalsIgnoreCase(mediaType) || "multipart".equalsIgnoreCase(mediaType);
     }
     
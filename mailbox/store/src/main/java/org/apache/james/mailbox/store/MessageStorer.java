@@ -42,16 +42,63 @@ import org.apache.james.mailbox.store.mail.model.impl.PropertyBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.github.steveash.guavate.Guavate;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Streams;
 
 public interface MessageStorer {
+    class MessageToStore {
+        private final Date internalDate;
+        private final int size;
+        private final int bodyStartOctet;
+        private final SharedInputStream content;
+        private final Flags flags;
+        private final PropertyBuilder propertyBuilder;
+
+        public MessageToStore(Date internalDate, int size, int bodyStartOctet, SharedInputStream content, Flags flags, PropertyBuilder propertyBuilder) {
+            this.internalDate = internalDate;
+            this.size = size;
+            this.bodyStartOctet = bodyStartOctet;
+            this.content = content;
+            this.flags = flags;
+            this.propertyBuilder = propertyBuilder;
+        }
+
+        public Date getInternalDate() {
+            return internalDate;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public int getBodyStartOctet() {
+            return bodyStartOctet;
+        }
+
+        public SharedInputStream getContent() {
+            return content;
+        }
+
+        public Flags getFlags() {
+            return flags;
+        }
+
+        public PropertyBuilder getPropertyBuilder() {
+            return propertyBuilder;
+        }
+    }
+
     /**
-     * If supported by the underlying implementation, this method will parse the messageContent to retrieve associated
-     * attachments and will store them.
+     * If supported by the underlying implementation, this method will parse the content of the messages to retrieve
+     * associated attachments and will store them.
+     *
+     * Otherwize an empty optional will be returned on the right side of the pairs.
      *
-     * Otherwize an empty optional will be returned on the right side of the pair.
+     * The messages are stored at once, see {@link MessageMapper#addAll(Mailbox, List)}, and the results are in the
+     * order of the given messages.
      */
-    Pair<MessageMetaData, Optional<List<MessageAttachmentMetadata>>> appendMessageToStore(Mailbox mailbox, Date internalDate, int size, int bodyStartOctet, SharedInputStream content, Flags flags, PropertyBuilder propertyBuilder, MailboxSession session) throws MailboxException;
+    List<Pair<MessageMetaData, Optional<List<MessageAttachmentMetadata>>>> appendMessagesToStore(Mailbox mailbox, List<MessageToStore> messages, MailboxSession session) throws MailboxException;
 
     /**
      * MessageStorer parsing, storing and returning AttachmentMetadata
@@ -80,15 +127,23 @@ public interface MessageStorer {
         }
 
         @Override
-        public Pair<MessageMetaData, Optional<List<MessageAttachmentMetadata>>> appendMessageToStore(Mailbox mailbox, Date internalDate, int size, int bodyStartOctet, SharedInputStream content, Flags flags, PropertyBuilder propertyBuilder, MailboxSession session) throws MailboxException {
+        public List<Pair<MessageMetaData, Optional<List<MessageAttachmentMetadata>>>> appendMessagesToStore(Mailbox mailbox, List<MessageToStore> messages, MailboxSession session) throws MailboxException {
             MessageMapper messageMapper = mapperFactory.getMessageMapper(session);
-            MessageId messageId = messageIdFactory.generate();
 
-            return mapperFactory.getMessageMapper(session).execute(() -> {
-                List<MessageAttachmentMetadata> attachments = storeAttachments(messageId, content, session);
-                MailboxMessage message = messageFactory.createMessage(messageId, mailbox, internalDate, size, bodyStartOctet, content, flags, propertyBuilder, attachments);
-                MessageMetaData metadata = messageMapper.add(mailbox, message);
-                return Pair.of(metadata, Optional.of(attachments));
+            return messageMapper.execute(() -> {
+                ImmutableList.Builder<MailboxMessage> mailboxMessages = ImmutableList.builder();
+                ImmutableList.Builder<List<MessageAttachmentMetadata>> attachments = ImmutableList.builder();
+                for (MessageToStore message : messages) {
+                    MessageId messageId = messageIdFactory.generate();
+                    List<MessageAttachmentMetadata> messageAttachments = storeAttachments(messageId, message.getContent(), session);
+                    mailboxMessages.add(messageFactory.createMessage(messageId, mailbox, message.getInternalDate(), message.getSize(),
+                        message.getBodyStartOctet(), message.getContent(), message.getFlags(), message.getPropertyBuilder(), messageAttachments));
+                    attachments.add(messageAttachments);
+                }
+                List<MessageMetaData> metaData = messageMapper.addAll(mailbox, mailboxMessages.build());
+                return Streams.zip(metaData.stream(), attachments.build().stream(),
+                        (messageMetaData, messageAttachments) -> Pair.of(messageMetaData, Optional.of(messageAttachments)))
+                    .collect(Guavate.toImmutableList());
             });
         }
 
@@ -125,14 +180,19 @@ public interface MessageStorer {
         }
 
         @Override
-        public Pair<MessageMetaData, Optional<List<MessageAttachmentMetadata>>> appendMessageToStore(Mailbox mailbox, Date internalDate, int size, int bodyStartOctet, SharedInputStream content, Flags flags, PropertyBuilder propertyBuilder, MailboxSession session) throws MailboxException {
+        public List<Pair<MessageMetaData, Optional<List<MessageAttachmentMetadata>>>> appendMessagesToStore(Mailbox mailbox, List<MessageToStore> messages, MailboxSession session) throws MailboxException {
             MessageMapper messageMapper = mapperFactory.getMessageMapper(session);
-            MessageId messageId = messageIdFactory.generate();
 
-            return mapperFactory.getMessageMapper(session).execute(() -> {
-                MailboxMessage message = messageFactory.createMessage(messageId, mailbox, internalDate, size, bodyStartOctet, content, flags, propertyBuilder, ImmutableList.of());
-                MessageMetaData metadata = messageMapper.add(mailbox, message);
-                return Pair.of(metadata, Optional.empty());
+            return messageMapper.execute(() -> {
+                ImmutableList.Builder<MailboxMessage> mailboxMessages = ImmutableList.builder();
+                for (MessageToStore message : messages) {
+                    mailboxMessages.add(messageFactory.createMessage(messageIdFactory.generate(), mailbox, message.getInternalDate(), message.getSize(),
+                        message.getBodyStartOctet(), message.getContent(), message.getFlags(), message.getPropertyBuilder(), ImmutableList.of()));
+                }
+                return messageMapper.addAll(mailbox, mailboxMessages.build())
+                    .stream()
+                    .map(metaData -> Pair.of(metaData, Optional.<List<MessageAttachmentMetadata>>empty()))
+                    .collect(Guavate.toImmutableList());
             });
         }
     }
@@ -0,0 +1,350 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.store;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.apache.james.mailbox.exception.MailboxException;
+import org.apache.james.mailbox.model.Header;
+import org.apache.james.mailbox.model.Headers;
+import org.apache.james.mailbox.model.MimeDescriptor;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Compact binary encoding of the {@link MimeDescriptor} tree of a composite message.
+ *
+ * It is computed once upon append and stored as message properties, so that BODY and BODYSTRUCTURE can be
+ * answered without reading and parsing the full content. Headers of the top level entity are not encoded:
+ * they are the ones of the message.
+ *
+ * The encoded form is split into chunks fitting a property value. As properties are read along with the metadata
+ * of the message, whatever the fetch type, structures spanning more than a few chunks are not encoded: the
+ * descriptor of such messages is computed from their content.
+ */
+public class MimeDescriptorCodec {
+    private static final byte VERSION = 1;
+    private static final int CHUNK_LENGTH = 1000;
+    private static final int MAX_CHUNKS = 8;
+    private static final int NULL_LENGTH = -1;
+
+    /**
+     * @return the chunks of the encoded descriptor, or empty if the structure is too large to be stored
+     */
+    public static Optional<List<String>> encode(MimeDescriptor descriptor) throws MailboxException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            writeDescriptor(out, descriptor, false);
+        } catch (IOException e) {
+            throw new MailboxException("Unable to encode the MIME structure", e);
+        }
+        String encoded = Base64.getEncoder().encodeToString(bytes.toByteArray());
+        if (encoded.length() > CHUNK_LENGTH * MAX_CHUNKS) {
+            return Optional.empty();
+        }
+        return Optional.of(Splitter.fixedLength(CHUNK_LENGTH).splitToList(encoded));
+    }
+
+    /**
+     * @param chunks the encoded descriptor, as returned by {@link #encode(MimeDescriptor)}
+     * @param headers the headers of the message
+     * @return the decoded descriptor, or empty when no structure was stored
+     */
+    public static Optional<MimeDescriptor> decode(List<String> chunks, Headers headers) throws MailboxException {
+        if (chunks.isEmpty()) {
+            return Optional.empty();
+        }
+        byte[] bytes = Base64.getDecoder().decode(String.join("", chunks));
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            byte version = in.readByte();
+            if (version != VERSION) {
+                return Optional.empty();
+            }
+            return Optional.of(new TopLevelMimeDescriptor(readDescriptor(in), headers));
+        } catch (IOException e) {
+            throw new MailboxException("Unable to decode the MIME structure", e);
+        }
+    }
+
+    private static void writeDescriptor(DataOutputStream out, MimeDescriptor descriptor, boolean withHeaders) throws IOException, MailboxException {
+        writeString(out, descriptor.getMimeType());
+        writeString(out, descriptor.getMimeSubType());
+        writeString(out, descriptor.getContentID());
+        writeString(out, descriptor.getContentDescription());
+        writeString(out, descriptor.getContentLocation());
+        writeString(out, descriptor.getContentMD5());
+        writeString(out, descriptor.getTransferContentEncoding());
+        writeString(out, descriptor.getDisposition());
+        out.writeLong(descriptor.getBodyOctets());
+        out.writeLong(descriptor.getLines());
+        writeMap(out, descriptor.contentTypeParameters());
+        writeMap(out, descriptor.getDispositionParams());
+        writeList(out, descriptor.getLanguages());
+        writeHeaders(out, withHeaders ? ImmutableList.copyOf(descriptor.headers()) : ImmutableList.of());
+
+        List<MimeDescriptor> parts = ImmutableList.copyOf(descriptor.parts());
+        out.writeInt(parts.size());
+        for (MimeDescriptor part : parts) {
+            writeDescriptor(out, part, true);
+        }
+
+        MimeDescriptor embeddedMessage = descriptor.embeddedMessage();
+        out.writeBoolean(embeddedMessage != null);
+        if (embeddedMessage != null) {
+            writeDescriptor(out, embeddedMessage, true);
+        }
+    }
+
+    private static MimeDescriptorImpl readDescriptor(DataInputStream in) throws IOException {
+        String type = readString(in);
+        String subType = readString(in);
+        String contentId = readString(in);
+        String contentDescription = readString(in);
+        String location = readString(in);
+        String md5 = readString(in);
+        String transferEncoding = readString(in);
+        String disposition = readString(in);
+        long bodyOctets = in.readLong();
+        long lines = in.readLong();
+        Map<String, String> contentTypeParameters = readMap(in);
+        Map<String, String> dispositionParams = readMap(in);
+        List<String> languages = readList(in);
+        Collection<Header> headers = readHeaders(in);
+
+        int partCount = in.readInt();
+        Collection<MimeDescriptor> parts = new ArrayList<>(partCount);
+        for (int i = 0; i < partCount; i++) {
+            parts.add(readDescriptor(in));
+        }
+
+        MimeDescriptor embeddedMessage = null;
+        if (in.readBoolean()) {
+            embeddedMessage = readDescriptor(in);
+        }
+
+        return new MimeDescriptorImpl(bodyOctets, contentDescription, contentId, lines, subType, type,
+            transferEncoding, headers, contentTypeParameters, languages, disposition, dispositionParams,
+            embeddedMessage, parts, location, md5);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(NULL_LENGTH);
+            return;
+        }
+        byte[] bytes = value.getBytes(UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    private static void writeMap(DataOutputStream out, Map<String, String> map) throws IOException {
+        if (map == null) {
+            out.writeInt(NULL_LENGTH);
+            return;
+        }
+        out.writeInt(map.size());
+        for (Map.Entry<String, String> entry : map.entrySet()) {
+            writeString(out, entry.getKey());
+            writeString(out, entry.getValue());
+        }
+    }
+
+    private static Map<String, String> readMap(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        if (size == NULL_LENGTH) {
+            return null;
+        }
+        Map<String, String> map = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            map.put(readString(in), readString(in));
+        }
+        return map;
+    }
+
+    private static void writeList(DataOutputStream out, List<String> list) throws IOException {
+        if (list == null) {
+            out.writeInt(NULL_LENGTH);
+            return;
+        }
+        out.writeInt(list.size());
+        for (String value : list) {
+            writeString(out, value);
+        }
+    }
+
+    private static List<String> readList(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        if (size == NULL_LENGTH) {
+            return null;
+        }
+        List<String> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(readString(in));
+        }
+        return list;
+    }
+
+    private static void writeHeaders(DataOutputStream out, List<Header> headers) throws IOException {
+        out.writeInt(headers.size());
+        for (Header header : headers) {
+            writeString(out, header.getName());
+            writeString(out, header.getValue());
+        }
+    }
+
+    private static Collection<Header> readHeaders(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        Collection<Header> headers = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            headers.add(new Header(readString(in), readString(in)));
+        }
+        return headers;
+    }
+
+    /**
+     * Decoded structure whose headers are the ones of the message.
+     */
+    private static class TopLevelMimeDescriptor implements MimeDescriptor {
+        private final MimeDescriptor structure;
+        private final Headers headers;
+
+        private TopLevelMimeDescriptor(MimeDescriptor structure, Headers headers) {
+            this.structure = structure;
+            this.headers = headers;
+        }
+
+        @Override
+        public Iterator<Header> headers() throws MailboxException {
+            return headers.headers();
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return headers.getInputStream();
+        }
+
+        @Override
+        public long size() throws MailboxException {
+            return headers.size();
+        }
+
+        @Override
+        public String getMimeType() {
+            return structure.getMimeType();
+        }
+
+        @Override
+        public String getMimeSubType() {
+            return structure.getMimeSubType();
+        }
+
+        @Override
+        public String getContentID() {
+            return structure.getContentID();
+        }
+
+        @Override
+        public String getContentDescription() {
+            return structure.getContentDescription();
+        }
+
+        @Override
+        public String getContentLocation() {
+            return structure.getContentLocation();
+        }
+
+        @Override
+        public String getContentMD5() {
+            return structure.getContentMD5();
+        }
+
+        @Override
+        public String getTransferContentEncoding() {
+            return structure.getTransferContentEncoding();
+        }
+
+        @Override
+        public List<String> getLanguages() {
+            return structure.getLanguages();
+        }
+
+        @Override
+        public String getDisposition() {
+            return structure.getDisposition();
+        }
+
+        @Override
+        public Map<String, String> getDispositionParams() {
+            return structure.getDispositionParams();
+        }
+
+        @Override
+        public long getLines() {
+            return structure.getLines();
+        }
+
+        @Override
+        public long getBodyOctets() {
+            return structure.getBodyOctets();
+        }
+
+        @Override
+        public Iterator<MimeDescriptor> parts() {
+            return structure.parts();
+        }
+
+        @Override
+        public MimeDescriptor embeddedMessage() {
+            return structure.embeddedMessage();
+        }
+
+        @Override
+        public Map<String, String> contentTypeParameters() {
+            return structure.contentTypeParameters();
+        }
+    }
+}
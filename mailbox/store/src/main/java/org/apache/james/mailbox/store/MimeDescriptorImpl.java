@@ -189,7 +189,7 @@ public class MimeDescriptorImpl implements MimeDescriptor {
     private final String location;
     private final String md5;
 
-    private MimeDescriptorImpl(long bodyOctets,
+    MimeDescriptorImpl(long bodyOctets,
                                String contentDescription, String contentId,
                                long lines, String subType, String type,
                                String transferEncoding, Collection<Header> headers,
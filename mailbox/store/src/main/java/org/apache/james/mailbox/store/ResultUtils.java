@@ -34,6 +34,7 @@ import org.apache.james.mailbox.model.MessageResult;
 import org.apache.james.mailbox.model.MimePath;
 import org.apache.james.mailbox.model.PartContentDescriptor;
 import org.apache.james.mailbox.store.mail.model.MailboxMessage;
+import org.apache.james.mailbox.store.mail.model.impl.PropertyBuilder;
 import org.apache.james.mailbox.store.streaming.PartContentBuilder;
 import org.apache.james.mime4j.MimeException;
 import org.apache.james.mime4j.parser.AbstractContentHandler;
@@ -111,6 +112,18 @@ public class ResultUtils {
         }
     }
 
+    /**
+     * The MIME descriptor of composite messages whose structure was not stored upon append is computed from their
+     * full content, which is not retrieved for the {@link FetchGroup.Profile#MIME_DESCRIPTOR} profile.
+     *
+     * @return true when the given message needs to be retrieved with its full content
+     */
+    public static boolean needsFullContentForMimeDescriptor(MailboxMessage message, FetchGroup fetchGroup) {
+        return fetchGroup.profiles().contains(FetchGroup.Profile.MIME_DESCRIPTOR)
+            && MessageResultImpl.isComposite(message.getMediaType())
+            && new PropertyBuilder(message.getProperties()).getMimeStructure().isEmpty();
+    }
+
     @VisibleForTesting
     static boolean haveValidContent(FetchGroup fetchGroup) {
         EnumSet<FetchGroup.Profile> supportedGroups = EnumSet.of(
@@ -27,6 +27,7 @@ import java.time.Duration;
 import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Function;
@@ -47,6 +48,7 @@ import org.apache.james.mailbox.MetadataWithMailboxId;
 import org.apache.james.mailbox.SessionProvider;
 import org.apache.james.mailbox.events.EventBus;
 import org.apache.james.mailbox.events.MailboxIdRegistrationKey;
+import org.apache.james.mailbox.events.MailboxInvalidationRegistrationKey;
 import org.apache.james.mailbox.exception.InboxAlreadyCreated;
 import org.apache.james.mailbox.exception.InsufficientRightsException;
 import org.apache.james.mailbox.exception.MailboxException;
@@ -459,7 +461,7 @@ public class StoreMailboxManager implements MailboxManager {
                             .quotaCount(QuotaCountUsage.count(quotaRootWithMessageCount.getT2()))
                             .quotaSize(QuotaSizeUsage.size(totalSize))
                             .build(),
-                        new MailboxIdRegistrationKey(mailbox.getMailboxId())));
+                        ImmutableSet.of(new MailboxIdRegistrationKey(mailbox.getMailboxId()), MailboxInvalidationRegistrationKey.INSTANCE)));
             })
             .retryWhen(RETRY_BACKOFF_SPEC)
             // We need to create a copy of the mailbox as maybe we can not refer to the real
@@ -555,7 +557,7 @@ public class StoreMailboxManager implements MailboxManager {
                     .oldPath(from)
                     .newPath(newMailboxPath)
                     .build(),
-                new MailboxIdRegistrationKey(mailbox.getMailboxId()))));
+                ImmutableSet.of(new MailboxIdRegistrationKey(mailbox.getMailboxId()), MailboxInvalidationRegistrationKey.INSTANCE))));
 
         // rename submailboxes
         MailboxQuery.UserBound query = MailboxQuery.builder()
@@ -581,7 +583,7 @@ public class StoreMailboxManager implements MailboxManager {
                                 .oldPath(fromPath)
                                 .newPath(sub.generateAssociatedPath())
                                 .build(),
-                            new MailboxIdRegistrationKey(sub.getMailboxId())))
+                            ImmutableSet.of(new MailboxIdRegistrationKey(sub.getMailboxId()), MailboxInvalidationRegistrationKey.INSTANCE)))
                         .then(Mono.fromRunnable(() -> LOGGER.debug("Rename mailbox sub-mailbox {} to {}", subOriginalName, subNewName)));
                 })
                 .then());
@@ -627,49 +629,59 @@ public class StoreMailboxManager implements MailboxManager {
         Mono<List<Mailbox>> mailboxesMono = searchMailboxes(expression, session, Right.Lookup).collectList();
 
         return mailboxesMono
-            .flatMapMany(mailboxes -> Flux.fromIterable(mailboxes)
-                .filter(expression::matches)
-                .transform(metadataTransformation(fetchType, session, mailboxes)))
+            .flatMapMany(mailboxes -> {
+                MailboxTree mailboxTree = MailboxTree.of(mailboxes, session.getPathDelimiter());
+                return Flux.fromStream(mailboxTree.matching(expression))
+                    .transform(metadataTransformation(fetchType, session, mailboxTree));
+            })
             .sort(MailboxMetaData.COMPARATOR);
     }
 
-    private Function<Flux<Mailbox>, Flux<MailboxMetaData>> metadataTransformation(MailboxSearchFetchType fetchType, MailboxSession session, List<Mailbox> mailboxes) {
+    private Function<Flux<Mailbox>, Flux<MailboxMetaData>> metadataTransformation(MailboxSearchFetchType fetchType, MailboxSession session, MailboxTree mailboxes) {
         if (fetchType == MailboxSearchFetchType.Counters) {
             return withCounters(session, mailboxes);
         }
         return withoutCounters(session, mailboxes);
     }
 
-    private Function<Flux<Mailbox>, Flux<MailboxMetaData>> withCounters(MailboxSession session, List<Mailbox> mailboxes) {
+    private Function<Flux<Mailbox>, Flux<MailboxMetaData>> withCounters(MailboxSession session, MailboxTree mailboxes) {
         MessageMapper messageMapper = mailboxSessionMapperFactory.getMessageMapper(session);
         return mailboxFlux -> mailboxFlux
-            .flatMap(mailbox -> retrieveCounters(messageMapper, mailbox, session)
-                .map(Throwing.<MailboxCounters, MailboxMetaData>function(
-                    counters -> toMailboxMetadata(session, mailboxes, mailbox, counters))
-                    .sneakyThrow()));
+            .collectList()
+            .flatMapMany(matchingMailboxes -> retrieveCounters(messageMapper, matchingMailboxes, session)
+                .flatMapIterable(countersById -> matchingMailboxes.stream()
+                    .map(Throwing.<Mailbox, MailboxMetaData>function(
+                        mailbox -> toMailboxMetadata(session, mailboxes, mailbox, countersById.getOrDefault(mailbox.getMailboxId(), zeroCounters(mailbox))))
+                        .sneakyThrow())
+                    .collect(Guavate.toImmutableList())));
     }
 
-    private Function<Flux<Mailbox>, Flux<MailboxMetaData>> withoutCounters(MailboxSession session, List<Mailbox> mailboxes) {
+    private Function<Flux<Mailbox>, Flux<MailboxMetaData>> withoutCounters(MailboxSession session, MailboxTree mailboxes) {
         return mailboxFlux -> mailboxFlux
                 .map(Throwing.<Mailbox, MailboxMetaData>function(
-                    mailbox -> toMailboxMetadata(session, mailboxes, mailbox, MailboxCounters
-                        .builder()
-                        .mailboxId(mailbox.getMailboxId())
-                        .count(0)
-                        .unseen(0)
-                        .build()))
+                    mailbox -> toMailboxMetadata(session, mailboxes, mailbox, zeroCounters(mailbox)))
                     .sneakyThrow());
     }
 
-    private Mono<MailboxCounters> retrieveCounters(MessageMapper messageMapper, Mailbox mailbox, MailboxSession session) {
-        return messageMapper.getMailboxCountersReactive(mailbox)
-            .filter(Throwing.<MailboxCounters>predicate(counter -> storeRightManager.hasRight(mailbox, Right.Read, session)).sneakyThrow())
-            .switchIfEmpty(Mono.just(MailboxCounters
-                .builder()
-                .mailboxId(mailbox.getMailboxId())
-                .count(0)
-                .unseen(0)
-                .build()));
+    /**
+     * Counters of all the readable mailboxes are retrieved in a single batch. Counters of the other mailboxes are
+     * left out.
+     */
+    private Mono<Map<MailboxId, MailboxCounters>> retrieveCounters(MessageMapper messageMapper, List<Mailbox> mailboxes, MailboxSession session) {
+        List<Mailbox> readableMailboxes = mailboxes.stream()
+            .filter(Throwing.<Mailbox>predicate(mailbox -> storeRightManager.hasRight(mailbox, Right.Read, session)).sneakyThrow())
+            .collect(Guavate.toImmutableList());
+
+        return messageMapper.getMailboxCounters(readableMailboxes)
+            .collectMap(MailboxCounters::getMailboxId);
+    }
+
+    private MailboxCounters zeroCounters(Mailbox mailbox) {
+        return MailboxCounters.builder()
+            .mailboxId(mailbox.getMailboxId())
+            .count(0)
+            .unseen(0)
+            .build();
     }
 
     private Flux<Mailbox> searchMailboxes(MailboxQuery mailboxQuery, MailboxSession session, Right right) {
@@ -700,30 +712,25 @@ public class StoreMailboxManager implements MailboxManager {
         return mailboxMapper.findNonPersonalMailboxes(session.getUser(), right);
     }
 
-    private MailboxMetaData toMailboxMetadata(MailboxSession session, List<Mailbox> mailboxes, Mailbox mailbox, MailboxCounters counters) throws UnsupportedRightException {
+    private MailboxMetaData toMailboxMetadata(MailboxSession session, MailboxTree mailboxes, Mailbox mailbox, MailboxCounters counters) throws UnsupportedRightException {
         return new MailboxMetaData(
             mailbox.generateAssociatedPath(),
             mailbox.getMailboxId(),
             getDelimiter(),
-            computeChildren(session, mailboxes, mailbox),
+            computeChildren(mailboxes, mailbox),
             Selectability.NONE,
             storeRightManager.getResolvedMailboxACL(mailbox, session),
             counters);
     }
 
-    private MailboxMetaData.Children computeChildren(MailboxSession session, List<Mailbox> potentialChildren, Mailbox mailbox) {
-        if (hasChildIn(mailbox, potentialChildren, session)) {
+    private MailboxMetaData.Children computeChildren(MailboxTree potentialChildren, Mailbox mailbox) {
+        if (potentialChildren.hasChildren(mailbox)) {
             return MailboxMetaData.Children.HAS_CHILDREN;
         } else {
             return MailboxMetaData.Children.HAS_NO_CHILDREN;
         }
     }
 
-    private boolean hasChildIn(Mailbox parentMailbox, List<Mailbox> mailboxesWithPathLike, MailboxSession mailboxSession) {
-        return mailboxesWithPathLike.stream()
-            .anyMatch(mailbox -> mailbox.isChildOf(parentMailbox, mailboxSession));
-    }
-
     @Override
     public Flux<MessageId> search(MultimailboxesSearchQuery expression, MailboxSession session, long limit) throws MailboxException {
         return getInMailboxes(expression, session)
@@ -43,6 +43,7 @@ import org.apache.james.mailbox.events.MailboxIdRegistrationKey;
 import org.apache.james.mailbox.exception.MailboxException;
 import org.apache.james.mailbox.exception.MailboxNotFoundException;
 import org.apache.james.mailbox.extension.PreDeletionHook;
+import org.apache.james.mailbox.model.ComposedMessageId;
 import org.apache.james.mailbox.model.ComposedMessageIdWithMetaData;
 import org.apache.james.mailbox.model.DeleteResult;
 import org.apache.james.mailbox.model.FetchGroup;
@@ -161,11 +162,38 @@ public class StoreMessageIdManager implements MessageIdManager {
         MessageIdMapper messageIdMapper = mailboxSessionMapperFactory.getMessageIdMapper(mailboxSession);
 
         MessageMapper.FetchType fetchType = FetchGroupConverter.getFetchType(fetchGroup);
-        return messageIdMapper.findReactive(messageIds, fetchType)
+        Flux<MailboxMessage> messages = messageIdMapper.findReactive(messageIds, fetchType)
             .groupBy(MailboxMessage::getMailboxId)
             .filterWhen(groupedFlux -> hasRightsOnMailboxReactive(mailboxSession, Right.Read).apply(groupedFlux.key()))
-            .flatMap(Function.identity())
-            .map(Throwing.function(messageResultConverter(fetchGroup)).sneakyThrow());
+            .flatMap(Function.identity());
+        if (fetchType != MessageMapper.FetchType.Full && fetchGroup.profiles().contains(FetchGroup.Profile.MIME_DESCRIPTOR)) {
+            messages = messages.collectList()
+                .flatMapMany(messageList -> withFullContentWhenNeeded(fetchGroup, messageList, messageIdMapper));
+        }
+        return messages.map(Throwing.function(messageResultConverter(fetchGroup)).sneakyThrow());
+    }
+
+    /**
+     * Composite messages lacking a stored structure are retrieved again with their full content, all of them
+     * within a single read.
+     */
+    private Flux<MailboxMessage> withFullContentWhenNeeded(FetchGroup fetchGroup, List<MailboxMessage> messages, MessageIdMapper messageIdMapper) {
+        ImmutableSet<MessageId> missingIds = messages.stream()
+            .filter(message -> ResultUtils.needsFullContentForMimeDescriptor(message, fetchGroup))
+            .map(MailboxMessage::getMessageId)
+            .collect(Guavate.toImmutableSet());
+        if (missingIds.isEmpty()) {
+            return Flux.fromIterable(messages);
+        }
+        return messageIdMapper.findReactive(missingIds, MessageMapper.FetchType.Full)
+            .collectMap(StoreMessageIdManager::composedMessageId)
+            .flatMapIterable(fullMessages -> messages.stream()
+                .map(message -> fullMessages.getOrDefault(composedMessageId(message), message))
+                .collect(Guavate.toImmutableList()));
+    }
+
+    private static ComposedMessageId composedMessageId(MailboxMessage message) {
+        return new ComposedMessageId(message.getMailboxId(), message.getMessageId(), message.getUid());
     }
 
     @Override
@@ -35,14 +35,18 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
 import javax.mail.Flags;
 import javax.mail.Flags.Flag;
+import javax.mail.internet.SharedInputStream;
 import javax.mail.util.SharedFileInputStream;
 
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.input.TeeInputStream;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.james.mailbox.MailboxManager;
@@ -78,6 +82,7 @@ import org.apache.james.mailbox.model.UidValidity;
 import org.apache.james.mailbox.model.UpdatedFlags;
 import org.apache.james.mailbox.quota.QuotaManager;
 import org.apache.james.mailbox.quota.QuotaRootResolver;
+import org.apache.james.mailbox.store.MessageStorer.MessageToStore;
 import org.apache.james.mailbox.store.event.EventFactory;
 import org.apache.james.mailbox.store.mail.MessageMapper;
 import org.apache.james.mailbox.store.mail.MessageMapper.FetchType;
@@ -94,16 +99,18 @@ import org.apache.james.mime4j.stream.EntityState;
 import org.apache.james.mime4j.stream.MimeConfig;
 import org.apache.james.mime4j.stream.MimeTokenStream;
 import org.apache.james.mime4j.stream.RecursionMode;
-import org.apache.james.util.IteratorWrapper;
 import org.apache.james.util.io.BodyOffsetInputStream;
 import org.apache.james.util.io.InputStreamConsummer;
 import org.apache.james.util.streams.Iterators;
 import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.github.steveash.guavate.Guavate;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.io.Closer;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -126,6 +133,7 @@ public class StoreMessageManager implements MessageManager {
      */
     protected static final Flags MINIMAL_PERMANET_FLAGS;
     private static final SearchQuery LIST_ALL_QUERY = SearchQuery.of(SearchQuery.all());
+    private static final Logger LOGGER = LoggerFactory.getLogger(StoreMessageManager.class);
 
     private static class MediaType {
         final String mediaType;
@@ -308,54 +316,107 @@ public class StoreMessageManager implements MessageManager {
 
     @Override
     public AppendResult appendMessage(InputStream msgIn, Date internalDate, final MailboxSession mailboxSession, boolean isRecent, Flags flagsToBeSet) throws MailboxException {
-        File file = null;
-
         if (!isWriteable(mailboxSession)) {
             throw new ReadOnlyException(getMailboxPath());
         }
 
+        try (Closer closer = Closer.create()) {
+            MessageToStore message = spool(msgIn, internalDate, mailboxSession, isRecent, flagsToBeSet, closer);
+            return createAndDispatchMessages(ImmutableList.of(message), mailboxSession).get(0);
+        } catch (IOException e) {
+            throw new MailboxException("Unable to parse message", e);
+        }
+    }
+
+    @Override
+    public List<AppendResult> appendMessages(List<AppendCommand> appendCommands, MailboxSession session) throws MailboxException {
+        if (!isWriteable(session)) {
+            throw new ReadOnlyException(getMailboxPath());
+        }
+        if (appendCommands.isEmpty()) {
+            return ImmutableList.of();
+        }
+
+        try (Closer closer = Closer.create()) {
+            ImmutableList.Builder<MessageToStore> messages = ImmutableList.builder();
+            for (AppendCommand appendCommand : appendCommands) {
+                messages.add(spool(appendCommand.getMsgIn(), appendCommand.getInternalDate(), session,
+                    appendCommand.isRecent(), appendCommand.getFlags(), closer));
+            }
+            return createAndDispatchMessages(messages.build(), session);
+        } catch (IOException e) {
+            throw new MailboxException("Unable to parse message", e);
+        }
+    }
+
+    /**
+     * Parses the message and makes its content re-readable until the closer is closed.
+     */
+    private MessageToStore spool(InputStream msgIn, Date internalDate, MailboxSession mailboxSession, boolean isRecent, Flags flagsToBeSet, Closer closer) throws MailboxException {
+        if (msgIn instanceof SharedInputStream) {
+            return spoolSharedMessage((SharedInputStream) msgIn, internalDate, mailboxSession, isRecent, flagsToBeSet, closer);
+        }
+
         try {
             // Create a temporary file and copy the message to it. We will work
             // with the file as
             // source for the InputStream
-            file = File.createTempFile("imap", ".msg");
+            File file = File.createTempFile("imap", ".msg");
+            // The message could be appended even if the temporary file can not
+            // be deleted: it will be deleted hopefully some day
+            closer.register(() -> FileUtils.deleteQuietly(file));
             try (FileOutputStream out = new FileOutputStream(file);
                  BufferedOutputStream bufferedOut = new BufferedOutputStream(out);
                  BufferedInputStream tmpMsgIn = new BufferedInputStream(new TeeInputStream(msgIn, bufferedOut));
                  BodyOffsetInputStream bIn = new BodyOffsetInputStream(tmpMsgIn)) {
-                // Disable line length... This should be handled by the smtp server
-                // component and not the parser itself
-                // https://issues.apache.org/jira/browse/IMAP-122
-                final MimeTokenStream parser = getParser(bIn);
-                readHeader(parser);
-                final MaximalBodyDescriptor descriptor = (MaximalBodyDescriptor) parser.getBodyDescriptor();
-                final MediaType mediaType = getMediaType(descriptor);
-                final PropertyBuilder propertyBuilder = getPropertyBuilder(descriptor, mediaType.mediaType, mediaType.subType);
-                setTextualLinesCount(parser, mediaType.mediaType, propertyBuilder);
+                final PropertyBuilder propertyBuilder = parseProperties(bIn);
                 final Flags flags = getFlags(mailboxSession, isRecent, flagsToBeSet);
 
-                if (internalDate == null) {
-                    internalDate = new Date();
-                }
                 InputStreamConsummer.consume(tmpMsgIn);
                 bufferedOut.flush();
                 int bodyStartOctet = getBodyStartOctet(bIn);
-                return createAndDispatchMessage(internalDate, mailboxSession, file, propertyBuilder, flags, bodyStartOctet);
+                SharedFileInputStream contentIn = closer.register(new SharedFileInputStream(file));
+                return new MessageToStore(Optional.ofNullable(internalDate).orElseGet(Date::new), (int) file.length(),
+                    bodyStartOctet, contentIn, flags, propertyBuilder);
             }
         } catch (IOException | MimeException e) {
             throw new MailboxException("Unable to parse message", e);
-        } finally {
-            // delete the temporary file if one was specified
-            if (file != null) {
-                if (!file.delete()) {
-                    // Don't throw an IOException. The message could be appended
-                    // and the temporary file
-                    // will be deleted hopefully some day
-                }
-            }
         }
     }
 
+    /**
+     * The content can be re-read, hence it is parsed in place rather than copied to a temporary file first.
+     */
+    private MessageToStore spoolSharedMessage(SharedInputStream msgIn, Date internalDate, MailboxSession mailboxSession, boolean isRecent, Flags flagsToBeSet, Closer closer) throws MailboxException {
+        try (BufferedInputStream bufferedIn = new BufferedInputStream(msgIn.newStream(0, -1));
+             BodyOffsetInputStream bIn = new BodyOffsetInputStream(bufferedIn)) {
+            final PropertyBuilder propertyBuilder = parseProperties(bIn);
+            final Flags flags = getFlags(mailboxSession, isRecent, flagsToBeSet);
+
+            InputStreamConsummer.consume(bIn);
+            int size = (int) bIn.getReadBytes();
+            int bodyStartOctet = getBodyStartOctet(bIn);
+            InputStream contentIn = closer.register(msgIn.newStream(0, -1));
+            return new MessageToStore(Optional.ofNullable(internalDate).orElseGet(Date::new), size,
+                bodyStartOctet, (SharedInputStream) contentIn, flags, propertyBuilder);
+        } catch (IOException | MimeException e) {
+            throw new MailboxException("Unable to parse message", e);
+        }
+    }
+
+    private PropertyBuilder parseProperties(BodyOffsetInputStream bIn) throws IOException, MimeException {
+        // Disable line length... This should be handled by the smtp server
+        // component and not the parser itself
+        // https://issues.apache.org/jira/browse/IMAP-122
+        final MimeTokenStream parser = getParser(bIn);
+        readHeader(parser);
+        final MaximalBodyDescriptor descriptor = (MaximalBodyDescriptor) parser.getBodyDescriptor();
+        final MediaType mediaType = getMediaType(descriptor);
+        final PropertyBuilder propertyBuilder = getPropertyBuilder(descriptor, mediaType.mediaType, mediaType.subType);
+        setTextualLinesCount(parser, mediaType.mediaType, propertyBuilder);
+        return propertyBuilder;
+    }
+
     private MimeTokenStream getParser(BodyOffsetInputStream bIn) {
         final MimeTokenStream parser = new MimeTokenStream(MimeConfig.PERMISSIVE, new DefaultBodyDescriptorBuilder());
 
@@ -430,29 +491,56 @@ public class StoreMessageManager implements MessageManager {
         return bodyStartOctet;
     }
 
-    private AppendResult createAndDispatchMessage(Date internalDate, MailboxSession mailboxSession, File file, PropertyBuilder propertyBuilder, Flags flags, int bodyStartOctet) throws IOException, MailboxException {
-        try (SharedFileInputStream contentIn = new SharedFileInputStream(file)) {
-            final int size = (int) file.length();
-            new QuotaChecker(quotaManager, quotaRootResolver, mailbox).tryAddition(1, size);
+    private List<AppendResult> createAndDispatchMessages(List<MessageToStore> messages, MailboxSession mailboxSession) throws MailboxException {
+        long size = messages.stream()
+            .mapToLong(MessageToStore::getSize)
+            .sum();
+        new QuotaChecker(quotaManager, quotaRootResolver, mailbox).tryAddition(messages.size(), size);
+        for (MessageToStore message : messages) {
+            storeMimeStructure(message.getContent(), message.getPropertyBuilder());
+        }
 
-            return locker.executeWithLock(getMailboxPath(), () -> {
-                Pair<MessageMetaData, Optional<List<MessageAttachmentMetadata>>> data = messageStorer.appendMessageToStore(mailbox, internalDate, size, bodyStartOctet, contentIn, flags, propertyBuilder, mailboxSession);
+        return locker.executeWithLock(getMailboxPath(), () -> {
+            List<Pair<MessageMetaData, Optional<List<MessageAttachmentMetadata>>>> data = messageStorer.appendMessagesToStore(mailbox, messages, mailboxSession);
 
-                Mailbox mailbox = getMailboxEntity();
+            Mailbox mailbox = getMailboxEntity();
 
-                eventBus.dispatch(EventFactory.added()
-                        .randomEventId()
-                        .mailboxSession(mailboxSession)
-                        .mailbox(mailbox)
-                        .addMetaData(data.getLeft())
-                        .build(),
-                        new MailboxIdRegistrationKey(mailbox.getMailboxId()))
-                    .subscribeOn(Schedulers.elastic())
-                    .block();
-                MessageMetaData messageMetaData = data.getLeft();
-                ComposedMessageId ids = new ComposedMessageId(mailbox.getMailboxId(), messageMetaData.getMessageId(), messageMetaData.getUid());
-                return new AppendResult(ids, data.getRight());
-            }, MailboxPathLocker.LockType.Write);
+            eventBus.dispatch(EventFactory.added()
+                    .randomEventId()
+                    .mailboxSession(mailboxSession)
+                    .mailbox(mailbox)
+                    .addMetaData(data.stream()
+                        .map(Pair::getLeft)
+                        .collect(Guavate.toImmutableList()))
+                    .build(),
+                    new MailboxIdRegistrationKey(mailbox.getMailboxId()))
+                .subscribeOn(Schedulers.elastic())
+                .block();
+            return data.stream()
+                .map(messageData -> {
+                    MessageMetaData messageMetaData = messageData.getLeft();
+                    ComposedMessageId ids = new ComposedMessageId(mailbox.getMailboxId(), messageMetaData.getMessageId(), messageMetaData.getUid());
+                    return new AppendResult(ids, messageData.getRight());
+                })
+                .collect(Guavate.toImmutableList());
+        }, MailboxPathLocker.LockType.Write);
+    }
+
+    /**
+     * Composite messages need their full content to be parsed in order to describe their structure. This is done
+     * once here rather than upon each BODYSTRUCTURE fetch.
+     *
+     * Failing to do so does not prevent the message from being appended: its structure will be computed when fetched.
+     */
+    private void storeMimeStructure(SharedInputStream contentIn, PropertyBuilder propertyBuilder) throws MailboxException {
+        if (!MessageResultImpl.isComposite(propertyBuilder.getMediaType())) {
+            return;
+        }
+        try (InputStream content = contentIn.newStream(0, -1)) {
+            MimeDescriptorCodec.encode(MimeDescriptorImpl.build(content))
+                .ifPresent(propertyBuilder::setMimeStructure);
+        } catch (IOException | MimeException e) {
+            LOGGER.warn("Unable to compute the MIME structure of a message appended to {}", mailbox.getMailboxId(), e);
         }
     }
 
@@ -618,10 +706,9 @@ public class StoreMessageManager implements MessageManager {
             throw new ReadOnlyException(toMailbox.getMailboxPath());
         }
 
-        return locker.executeWithLock(toMailbox.getMailboxPath(), () -> {
-            SortedMap<MessageUid, MessageMetaData> copiedUids = copy(set, toMailbox, session);
-            return MessageRange.toRanges(new ArrayList<>(copiedUids.keySet()));
-        }, MailboxPathLocker.LockType.Write);
+        return locker.executeWithLock(toMailbox.getMailboxPath(),
+            () -> copy(set, toMailbox, session),
+            MailboxPathLocker.LockType.Write);
     }
 
     /**
@@ -636,10 +723,9 @@ public class StoreMessageManager implements MessageManager {
         }
 
         //TODO lock the from mailbox too, in a non-deadlocking manner - how?
-        return locker.executeWithLock(toMailbox.getMailboxPath(), () -> {
-            SortedMap<MessageUid, MessageMetaData> movedUids = move(set, toMailbox, session);
-            return MessageRange.toRanges(new ArrayList<>(movedUids.keySet()));
-        }, MailboxPathLocker.LockType.Write);
+        return locker.executeWithLock(toMailbox.getMailboxPath(),
+            () -> move(set, toMailbox, session),
+            MailboxPathLocker.LockType.Write);
     }
 
     @Override
@@ -659,6 +745,12 @@ public class StoreMessageManager implements MessageManager {
         return messageMapper.listMessagesMetadata(mailbox, set);
     }
 
+    @Override
+    public Publisher<byte[]> readFullContent(MessageUid uid, long firstOctet, long numberOfOctets, MailboxSession session) {
+        MessageMapper messageMapper = mapperFactory.getMessageMapper(session);
+        return messageMapper.readFullContent(mailbox, uid, firstOctet, numberOfOctets);
+    }
+
     /**
      * Return a List which holds all uids of recent messages and optional reset
      * the recent flag on the messages for the uids
@@ -718,14 +810,15 @@ public class StoreMessageManager implements MessageManager {
         return index.search(mailboxSession, getMailboxEntity(), query);
     }
 
-    private Iterator<MessageMetaData> copy(Iterator<MailboxMessage> originalRows, MailboxSession session) throws MailboxException {
+    private Iterator<MessageMetaData> copy(List<MailboxMessage> originalRows, MailboxSession session) throws MailboxException {
         final List<MessageMetaData> copiedRows = new ArrayList<>();
         final MessageMapper messageMapper = mapperFactory.getMessageMapper(session);
 
-        while (originalRows.hasNext()) {
-            final MailboxMessage originalMessage = originalRows.next();
-            new QuotaChecker(quotaManager, quotaRootResolver, mailbox)
-                .tryAddition(1, originalMessage.getFullContentOctets());
+        new QuotaChecker(quotaManager, quotaRootResolver, mailbox)
+            .tryAddition(originalRows.size(), originalRows.stream()
+                .mapToLong(MailboxMessage::getFullContentOctets)
+                .sum());
+        for (MailboxMessage originalMessage : originalRows) {
             MessageMetaData data = messageMapper.execute(
                 () -> messageMapper.copy(getMailboxEntity(), originalMessage));
             copiedRows.add(data);
@@ -733,13 +826,12 @@ public class StoreMessageManager implements MessageManager {
         return copiedRows.iterator();
     }
 
-    private MoveResult move(Iterator<MailboxMessage> originalRows, MailboxSession session) throws MailboxException {
+    private MoveResult move(List<MailboxMessage> originalRows, MailboxSession session) throws MailboxException {
         final List<MessageMetaData> movedRows = new ArrayList<>();
         final List<MessageMetaData> originalRowsCopy = new ArrayList<>();
         final MessageMapper messageMapper = mapperFactory.getMessageMapper(session);
 
-        while (originalRows.hasNext()) {
-            final MailboxMessage originalMessage = originalRows.next();
+        for (MailboxMessage originalMessage : originalRows) {
             originalRowsCopy.add(originalMessage.metaData());
             MessageMetaData data = messageMapper.execute(
                 () -> messageMapper.move(getMailboxEntity(), originalMessage));
@@ -748,22 +840,50 @@ public class StoreMessageManager implements MessageManager {
         return new MoveResult(movedRows.iterator(), originalRowsCopy.iterator());
     }
 
+    /**
+     * Messages are read as a stream and copied by chunks of the copy batch size. Each chunk dispatches its own events, and
+     * only the uids of the copies are kept, as ranges.
+     *
+     * Chunks are copied one after the other, so that the uids of the copies are allocated in the order of the original
+     * messages, as the COPYUID response requires (RFC 4315).
+     */
+    private List<MessageRange> copy(MessageRange set, StoreMessageManager to, MailboxSession session) throws MailboxException {
+        return transfer(set, session,
+            batchSizes.getCopyBatchSize().orElse(BatchSizes.DEFAULT_BATCH_SIZE),
+            originalRows -> copy(originalRows, to, session));
+    }
+
+    private List<MessageRange> move(MessageRange set, StoreMessageManager to, MailboxSession session) throws MailboxException {
+        return transfer(set, session,
+            batchSizes.getMoveBatchSize().orElse(BatchSizes.DEFAULT_BATCH_SIZE),
+            originalRows -> move(originalRows, to, session));
+    }
 
-    private SortedMap<MessageUid, MessageMetaData> copy(MessageRange set, StoreMessageManager to, MailboxSession session) throws MailboxException {
-        IteratorWrapper<MailboxMessage> originalRows = new IteratorWrapper<>(retrieveOriginalRows(set, session));
+    private List<MessageRange> transfer(MessageRange set, MailboxSession session, int chunkSize,
+                                        Function<List<MailboxMessage>, Mono<Set<MessageUid>>> chunkTransfer) throws MailboxException {
+        MessageMapper messageMapper = mapperFactory.getMessageMapper(session);
 
-        SortedMap<MessageUid, MessageMetaData> copiedUids = collectMetadata(to.copy(originalRows, session));
+        return MailboxReactorUtils.block(messageMapper.findInMailboxReactive(mailbox, set, FetchType.Metadata, UNLIMITED)
+            .buffer(chunkSize)
+            .concatMap(chunkTransfer::apply)
+            .collect(MessageRangeAccumulator::new, MessageRangeAccumulator::addAll)
+            .map(MessageRangeAccumulator::toRanges)
+            .subscribeOn(Schedulers.elastic()));
+    }
 
-        ImmutableList.Builder<MessageId> messageIds = ImmutableList.builder();
-        for (MailboxMessage message : originalRows.getEntriesSeen()) {
-            messageIds.add(message.getMessageId());
-        }
+    private Mono<Set<MessageUid>> copy(List<MailboxMessage> originalRows, StoreMessageManager to, MailboxSession session) {
+        return Mono.fromCallable(() -> collectMetadata(to.copy(originalRows, session)))
+            .flatMap(copiedUids -> dispatchCopiedEvents(originalRows, copiedUids, to, session)
+                .then(Mono.just(copiedUids.keySet())));
+    }
 
+    private Mono<Void> dispatchCopiedEvents(List<MailboxMessage> originalRows, SortedMap<MessageUid, MessageMetaData> copiedUids,
+                                            StoreMessageManager to, MailboxSession session) {
         MessageMoves messageMoves = MessageMoves.builder()
             .previousMailboxIds(getMailboxEntity().getMailboxId())
             .targetMailboxIds(to.getMailboxEntity().getMailboxId(), getMailboxEntity().getMailboxId())
             .build();
-        Flux.concat(
+        return Flux.concat(
             eventBus.dispatch(EventFactory.added()
                     .randomEventId()
                     .mailboxSession(session)
@@ -774,36 +894,33 @@ public class StoreMessageManager implements MessageManager {
             eventBus.dispatch(EventFactory.moved()
                     .session(session)
                     .messageMoves(messageMoves)
-                    .messageId(messageIds.build())
+                    .messageId(messageIds(originalRows))
                     .build(),
                 messageMoves.impactedMailboxIds().map(MailboxIdRegistrationKey::new).collect(Guavate.toImmutableSet())))
-            .subscribeOn(Schedulers.elastic())
-            .blockLast();
-
-        return copiedUids;
+            .then();
     }
 
-    private SortedMap<MessageUid, MessageMetaData> move(MessageRange set, StoreMessageManager to, MailboxSession session) throws MailboxException {
-        IteratorWrapper<MailboxMessage> originalRows = new IteratorWrapper<>(retrieveOriginalRows(set, session));
-
-        MoveResult moveResult = to.move(originalRows, session);
-        SortedMap<MessageUid, MessageMetaData> moveUids = collectMetadata(moveResult.getMovedMessages());
-
-        ImmutableList.Builder<MessageId> messageIds = ImmutableList.builder();
-        for (MailboxMessage message : originalRows.getEntriesSeen()) {
-            messageIds.add(message.getMessageId());
-        }
+    private Mono<Set<MessageUid>> move(List<MailboxMessage> originalRows, StoreMessageManager to, MailboxSession session) {
+        return Mono.fromCallable(() -> to.move(originalRows, session))
+            .flatMap(moveResult -> {
+                SortedMap<MessageUid, MessageMetaData> movedUids = collectMetadata(moveResult.getMovedMessages());
+                return dispatchMovedEvents(originalRows, movedUids, moveResult, to, session)
+                    .then(Mono.just(movedUids.keySet()));
+            });
+    }
 
+    private Mono<Void> dispatchMovedEvents(List<MailboxMessage> originalRows, SortedMap<MessageUid, MessageMetaData> movedUids,
+                                           MoveResult moveResult, StoreMessageManager to, MailboxSession session) {
         MessageMoves messageMoves = MessageMoves.builder()
             .previousMailboxIds(getMailboxEntity().getMailboxId())
             .targetMailboxIds(to.getMailboxEntity().getMailboxId())
             .build();
-        Flux.concat(
+        return Flux.concat(
             eventBus.dispatch(EventFactory.added()
                     .randomEventId()
                     .mailboxSession(session)
                     .mailbox(to.getMailboxEntity())
-                    .metaData(moveUids)
+                    .metaData(movedUids)
                     .build(),
                 new MailboxIdRegistrationKey(to.getMailboxEntity().getMailboxId())),
             eventBus.dispatch(EventFactory.expunged()
@@ -815,19 +932,17 @@ public class StoreMessageManager implements MessageManager {
                 new MailboxIdRegistrationKey(mailbox.getMailboxId())),
             eventBus.dispatch(EventFactory.moved()
                     .messageMoves(messageMoves)
-                    .messageId(messageIds.build())
+                    .messageId(messageIds(originalRows))
                     .session(session)
                     .build(),
                 messageMoves.impactedMailboxIds().map(MailboxIdRegistrationKey::new).collect(Guavate.toImmutableSet())))
-            .subscribeOn(Schedulers.elastic())
-            .blockLast();
-
-        return moveUids;
+            .then();
     }
 
-    private Iterator<MailboxMessage> retrieveOriginalRows(MessageRange set, MailboxSession session) throws MailboxException {
-        MessageMapper messageMapper = mapperFactory.getMessageMapper(session);
-        return messageMapper.findInMailbox(mailbox, set, FetchType.Metadata, UNLIMITED);
+    private ImmutableList<MessageId> messageIds(List<MailboxMessage> messages) {
+        return messages.stream()
+            .map(MailboxMessage::getMessageId)
+            .collect(Guavate.toImmutableList());
     }
 
     private SortedMap<MessageUid, MessageMetaData> collectMetadata(Iterator<MessageMetaData> ids) {
@@ -23,8 +23,11 @@ import static org.apache.james.mailbox.store.mail.FetchGroupConverter.getFetchTy
 import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 
 import javax.mail.Flags;
 
@@ -52,6 +55,11 @@ import org.apache.james.mailbox.store.mail.model.MailboxMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.github.steveash.guavate.Guavate;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Ordering;
+import com.google.common.collect.Streams;
+
 public class StoreMessageResultIterator implements MessageResultIterator {
     private static final Logger LOGGER = LoggerFactory.getLogger(StoreMessageResultIterator.class);
 
@@ -116,7 +124,33 @@ public class StoreMessageResultIterator implements MessageResultIterator {
             range = MessageRange.range(cursor, to);
             break;
         }
-        next = mapper.findInMailbox(mailbox, range, ftype, batchSizeFromFetchType(ftype));
+        next = withFullContentWhenNeeded(mapper.findInMailbox(mailbox, range, ftype, batchSizeFromFetchType(ftype)));
+    }
+
+    /**
+     * Composite messages lacking a stored structure are retrieved again with their full content. This is done with
+     * a single read per batch, spanning all of them, rather than once per message.
+     */
+    private Iterator<MailboxMessage> withFullContentWhenNeeded(Iterator<MailboxMessage> batch) throws MailboxException {
+        if (ftype == FetchType.Full || !group.profiles().contains(FetchGroup.Profile.MIME_DESCRIPTOR)) {
+            return batch;
+        }
+        List<MailboxMessage> messages = ImmutableList.copyOf(batch);
+        Set<MessageUid> missingUids = messages.stream()
+            .filter(message -> ResultUtils.needsFullContentForMimeDescriptor(message, group))
+            .map(MailboxMessage::getUid)
+            .collect(Guavate.toImmutableSet());
+        if (missingUids.isEmpty()) {
+            return messages.iterator();
+        }
+
+        MessageRange span = MessageRange.range(Ordering.natural().min(missingUids), Ordering.natural().max(missingUids));
+        Map<MessageUid, MailboxMessage> fullMessages = Streams.stream(mapper.findInMailbox(mailbox, span, FetchType.Full, messages.size()))
+            .filter(message -> missingUids.contains(message.getUid()))
+            .collect(Guavate.toImmutableMap(MailboxMessage::getUid, Function.identity()));
+        return messages.stream()
+            .map(message -> fullMessages.getOrDefault(message.getUid(), message))
+            .iterator();
     }
 
     private int batchSizeFromFetchType(FetchType fetchType) {
@@ -139,7 +173,7 @@ public class StoreMessageResultIterator implements MessageResultIterator {
           throw new NoSuchElementException();
         }
         
-        final MailboxMessage message = next.next();
+        MailboxMessage message = next.next();
         MessageResult result;
         try {
             result = ResultUtils.loadMessageResult(message, group);
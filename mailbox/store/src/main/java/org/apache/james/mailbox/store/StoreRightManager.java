@@ -25,6 +25,8 @@ import static org.apache.james.mailbox.store.MailboxReactorUtils.blockOptional;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 import javax.inject.Inject;
 import javax.mail.Flags;
@@ -37,6 +39,7 @@ import org.apache.james.mailbox.acl.GroupMembershipResolver;
 import org.apache.james.mailbox.acl.MailboxACLResolver;
 import org.apache.james.mailbox.events.EventBus;
 import org.apache.james.mailbox.events.MailboxIdRegistrationKey;
+import org.apache.james.mailbox.events.MailboxInvalidationRegistrationKey;
 import org.apache.james.mailbox.exception.DifferentDomainException;
 import org.apache.james.mailbox.exception.InsufficientRightsException;
 import org.apache.james.mailbox.exception.MailboxException;
@@ -56,17 +59,47 @@ import org.apache.james.mailbox.store.mail.MailboxMapper;
 
 import com.github.fge.lambdas.Throwing;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 
 import reactor.core.publisher.Mono;
 
 public class StoreRightManager implements RightManager {
     public static final boolean GROUP_FOLDER = true;
+    private static final long RIGHTS_CACHE_MAXIMUM_SIZE = 10000;
+    private static final long RIGHTS_CACHE_TTL_IN_MINUTES = 5;
+
+    /**
+     * Rights resolved for the users of a mailbox, valid as long as the mailbox keeps the ACL and the owner
+     * they were resolved from.
+     *
+     * The entries of an ACL are an immutable map, shared by the copies of the ACL and of its mailbox. Checking their
+     * identity rather than their equality keeps lookups cheap, at the cost of resolving again the rights of equal ACLs
+     * read separately.
+     */
+    private static class ResolvedRights {
+        private final Map<EntryKey, Rfc4314Rights> aclEntries;
+        private final Username owner;
+        private final ConcurrentHashMap<Username, Rfc4314Rights> rightsByUser;
+
+        ResolvedRights(MailboxACL acl, Username owner) {
+            this.aclEntries = acl.getEntries();
+            this.owner = owner;
+            this.rightsByUser = new ConcurrentHashMap<>();
+        }
+
+        boolean isResolvedFrom(Mailbox mailbox) {
+            return aclEntries == mailbox.getACL().getEntries() && owner.equals(mailbox.getUser());
+        }
+    }
 
     private final EventBus eventBus;
     private final MailboxSessionMapperFactory mailboxSessionMapperFactory;
     private final MailboxACLResolver aclResolver;
     private final GroupMembershipResolver groupMembershipResolver;
+    private final Cache<MailboxId, ResolvedRights> resolvedRights;
 
     @Inject
     public StoreRightManager(MailboxSessionMapperFactory mailboxSessionMapperFactory,
@@ -77,6 +110,10 @@ public class StoreRightManager implements RightManager {
         this.aclResolver = aclResolver;
         this.groupMembershipResolver = groupMembershipResolver;
         this.eventBus = eventBus;
+        this.resolvedRights = CacheBuilder.newBuilder()
+            .maximumSize(RIGHTS_CACHE_MAXIMUM_SIZE)
+            .expireAfterWrite(RIGHTS_CACHE_TTL_IN_MINUTES, TimeUnit.MINUTES)
+            .build();
     }
 
     @Override
@@ -113,17 +150,46 @@ public class StoreRightManager implements RightManager {
         Username username = session.getUser();
 
         return Optional.ofNullable(username)
-            .map(Throwing.function(value ->
-                aclResolver.resolveRights(
-                    username,
-                    groupMembershipResolver,
-                    mailbox.getACL(),
-                    mailbox.getUser().asString(),
-                    !GROUP_FOLDER))
-                .sneakyThrow())
+            .map(value -> myRights(mailbox, value))
             .orElse(MailboxACL.NO_RIGHTS);
     }
 
+    /**
+     * Resolving the rights of a user means matching each entry of the ACL against the user and its groups, which is done
+     * for every mailbox of a LIST. The result is kept for each mailbox, until its ACL or its owner changes.
+     *
+     * ACLs with group entries are resolved each time, as group membership may change without the ACL changing.
+     */
+    private Rfc4314Rights myRights(Mailbox mailbox, Username username) {
+        Optional<ResolvedRights> cachedRights = Optional.ofNullable(resolvedRights.getIfPresent(mailbox.getMailboxId()))
+            .filter(cached -> cached.isResolvedFrom(mailbox));
+        if (cachedRights.isEmpty() && hasGroupEntries(mailbox.getACL())) {
+            return resolveRights(mailbox, username);
+        }
+        ResolvedRights rights = cachedRights.orElseGet(() -> {
+            ResolvedRights resolved = new ResolvedRights(mailbox.getACL(), mailbox.getUser());
+            resolvedRights.put(mailbox.getMailboxId(), resolved);
+            return resolved;
+        });
+        return rights.rightsByUser.computeIfAbsent(username, user -> resolveRights(mailbox, user));
+    }
+
+    private boolean hasGroupEntries(MailboxACL acl) {
+        return acl.getEntries().keySet().stream()
+            .anyMatch(key -> key.getNameType() == NameType.group);
+    }
+
+    private Rfc4314Rights resolveRights(Mailbox mailbox, Username username) {
+        return Throwing.supplier(() -> aclResolver.resolveRights(
+                username,
+                groupMembershipResolver,
+                mailbox.getACL(),
+                mailbox.getUser().asString(),
+                !GROUP_FOLDER))
+            .sneakyThrow()
+            .get();
+    }
+
     @Override
     public List<Rfc4314Rights> listRights(MailboxPath mailboxPath, EntryKey key, MailboxSession session) throws MailboxException {
         MailboxMapper mapper = mailboxSessionMapperFactory.getMailboxMapper(session);
@@ -159,7 +225,7 @@ public class StoreRightManager implements RightManager {
                             .mailbox(mailbox)
                             .aclDiff(aclDiff)
                             .build(),
-                        new MailboxIdRegistrationKey(mailbox.getMailboxId())));
+                        ImmutableSet.of(new MailboxIdRegistrationKey(mailbox.getMailboxId()), MailboxInvalidationRegistrationKey.INSTANCE)));
             }).sneakyThrow()));
     }
 
@@ -266,7 +332,7 @@ public class StoreRightManager implements RightManager {
                     .mailbox(mailbox)
                     .aclDiff(aclDiff)
                     .build(),
-                new MailboxIdRegistrationKey(mailbox.getMailboxId())));
+                ImmutableSet.of(new MailboxIdRegistrationKey(mailbox.getMailboxId()), MailboxInvalidationRegistrationKey.INSTANCE)));
     }
 
     /**
@@ -0,0 +1,65 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.store.event;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.james.mailbox.events.EventBus;
+import org.apache.james.mailbox.events.MailboxInvalidationRegistrationKey;
+import org.apache.james.mailbox.events.MailboxListener;
+import org.apache.james.mailbox.events.Registration;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Registers a listener on the {@link MailboxInvalidationRegistrationKey}, once, before it is first needed.
+ *
+ * Node-local caches use it to learn about the changes done by other nodes, which group listeners can not do as they
+ * are executed on a single node.
+ */
+public class InvalidationRegistration {
+    private final EventBus eventBus;
+    private final MailboxListener listener;
+    private final AtomicReference<Mono<Registration>> registration;
+
+    public InvalidationRegistration(EventBus eventBus, MailboxListener listener) {
+        this.eventBus = eventBus;
+        this.listener = listener;
+        this.registration = new AtomicReference<>();
+    }
+
+    /**
+     * Completes once the listener is registered. Concurrent calls share a single registration. A failed registration
+     * is forgotten, so that it is attempted again upon the next call.
+     */
+    public Mono<Void> ensureRegistered() {
+        Mono<Registration> current = registration.updateAndGet(value -> Optional.ofNullable(value)
+            .orElseGet(this::register));
+        return current
+            .doOnError(e -> registration.compareAndSet(current, null))
+            .then();
+    }
+
+    private Mono<Registration> register() {
+        return Mono.from(eventBus.register(listener, MailboxInvalidationRegistrationKey.INSTANCE))
+            .cache();
+    }
+}
@@ -0,0 +1,121 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.store.mail;
+
+import org.apache.james.core.Username;
+import org.apache.james.mailbox.acl.ACLDiff;
+import org.apache.james.mailbox.exception.MailboxException;
+import org.apache.james.mailbox.model.Mailbox;
+import org.apache.james.mailbox.model.MailboxACL;
+import org.apache.james.mailbox.model.MailboxACL.Right;
+import org.apache.james.mailbox.model.MailboxId;
+import org.apache.james.mailbox.model.MailboxPath;
+import org.apache.james.mailbox.model.UidValidity;
+import org.apache.james.mailbox.model.search.MailboxQuery;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link MailboxMapper} resolving mailboxes by id and by path through a {@link MailboxCache}.
+ */
+public class CachingMailboxMapper implements MailboxMapper {
+    private final MailboxMapper underlying;
+    private final MailboxCache cache;
+
+    public CachingMailboxMapper(MailboxMapper underlying, MailboxCache cache) {
+        this.underlying = underlying;
+        this.cache = cache;
+    }
+
+    @Override
+    public Mono<Mailbox> create(MailboxPath mailboxPath, UidValidity uidValidity) {
+        return underlying.create(mailboxPath, uidValidity);
+    }
+
+    @Override
+    public Mono<MailboxId> rename(Mailbox mailbox) {
+        return underlying.rename(mailbox)
+            .doFinally(any -> cache.invalidate(mailbox.getMailboxId(), mailbox.generateAssociatedPath()));
+    }
+
+    @Override
+    public Mono<Void> delete(Mailbox mailbox) {
+        return underlying.delete(mailbox)
+            .doFinally(any -> cache.invalidate(mailbox.getMailboxId(), mailbox.generateAssociatedPath()));
+    }
+
+    @Override
+    public Mono<Mailbox> findMailboxByPath(MailboxPath mailboxName) {
+        return cache.findMailboxByPath(mailboxName, Mono.defer(() -> underlying.findMailboxByPath(mailboxName)));
+    }
+
+    @Override
+    public Mono<Boolean> pathExists(MailboxPath mailboxName) {
+        return underlying.pathExists(mailboxName);
+    }
+
+    @Override
+    public Mono<Mailbox> findMailboxById(MailboxId mailboxId) {
+        return cache.findMailboxById(mailboxId, Mono.defer(() -> underlying.findMailboxById(mailboxId)));
+    }
+
+    @Override
+    public Flux<Mailbox> findNonPersonalMailboxes(Username userName, Right right) {
+        return underlying.findNonPersonalMailboxes(userName, right);
+    }
+
+    @Override
+    public Flux<Mailbox> findMailboxWithPathLike(MailboxQuery.UserBound query) {
+        return underlying.findMailboxWithPathLike(query);
+    }
+
+    @Override
+    public Mono<Boolean> hasChildren(Mailbox mailbox, char delimiter) {
+        return underlying.hasChildren(mailbox, delimiter);
+    }
+
+    @Override
+    public Mono<ACLDiff> updateACL(Mailbox mailbox, MailboxACL.ACLCommand mailboxACLCommand) {
+        return underlying.updateACL(mailbox, mailboxACLCommand)
+            .doFinally(any -> cache.invalidate(mailbox.getMailboxId(), mailbox.generateAssociatedPath()));
+    }
+
+    @Override
+    public Mono<ACLDiff> setACL(Mailbox mailbox, MailboxACL mailboxACL) {
+        return underlying.setACL(mailbox, mailboxACL)
+            .doFinally(any -> cache.invalidate(mailbox.getMailboxId(), mailbox.generateAssociatedPath()));
+    }
+
+    @Override
+    public Flux<Mailbox> list() {
+        return underlying.list();
+    }
+
+    @Override
+    public <T> T execute(Transaction<T> transaction) throws MailboxException {
+        return underlying.execute(transaction);
+    }
+
+    @Override
+    public void endRequest() {
+        underlying.endRequest();
+    }
+}
@@ -69,14 +69,16 @@ public class FetchGroupConverter {
         switch (profile) {
             case HEADERS:
                 return MessageMapper.FetchType.Headers;
+            case MIME_DESCRIPTOR:
+                // The structure of composite messages is stored upon append. Headers are needed for the top level
+                // part, as well as for describing simple messages. Messages lacking a stored structure are retrieved
+                // again with their full content, see ResultUtils::needsFullContentForMimeDescriptor
+                return MessageMapper.FetchType.Headers;
             case BODY_CONTENT:
                 return MessageMapper.FetchType.Body;
             case FULL_CONTENT:
             case MIME_CONTENT:
             case MIME_HEADERS:
-            case MIME_DESCRIPTOR:
-                // If we need the mimedescriptor we MAY need the full profile later too.
-                // This gives us no other choice then request it
                 return MessageMapper.FetchType.Full;
             default:
                 throw new NotImplementedException("Unsupported FetchGroup Profile" + profile);
@@ -0,0 +1,145 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.store.mail;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+
+import org.apache.james.mailbox.events.Event;
+import org.apache.james.mailbox.events.EventBus;
+import org.apache.james.mailbox.events.MailboxListener;
+import org.apache.james.mailbox.model.Mailbox;
+import org.apache.james.mailbox.model.MailboxId;
+import org.apache.james.mailbox.model.MailboxPath;
+import org.apache.james.mailbox.store.event.InvalidationRegistration;
+import org.apache.james.metrics.api.Metric;
+import org.apache.james.metrics.api.MetricFactory;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Node-local cache of {@link Mailbox} by id and by path, shared by the {@link CachingMailboxMapper} of every session.
+ *
+ * Local changes invalidate the cache directly. Changes done by other nodes are learned through the
+ * {@link MailboxListener.MailboxRenamed}, {@link MailboxListener.MailboxDeletion} and
+ * {@link MailboxListener.MailboxACLUpdated} events, which the cache listens to through the
+ * {@link org.apache.james.mailbox.events.MailboxInvalidationRegistrationKey}.
+ *
+ * Entries also expire after a while, which bounds the staleness of an entry whose invalidation raced with its loading.
+ * Cached mailboxes are copied in and out, as callers are allowed to modify the mailboxes they get.
+ */
+public class MailboxCache {
+    public static final long DEFAULT_MAXIMUM_SIZE = 10000;
+    public static final Duration DEFAULT_TTL = Duration.ofMinutes(5);
+
+    static final String HIT_METRIC_NAME = "mailboxCacheHits";
+    static final String MISS_METRIC_NAME = "mailboxCacheMisses";
+
+    private class InvalidationListener implements MailboxListener {
+        @Override
+        public boolean isHandling(Event event) {
+            return event instanceof MailboxRenamed
+                || event instanceof MailboxDeletion
+                || event instanceof MailboxACLUpdated;
+        }
+
+        @Override
+        public void event(Event event) {
+            if (event instanceof MailboxRenamed) {
+                MailboxRenamed mailboxRenamed = (MailboxRenamed) event;
+                invalidate(mailboxRenamed.getMailboxId(), mailboxRenamed.getMailboxPath());
+                invalidate(mailboxRenamed.getNewPath());
+            } else if (event instanceof MailboxEvent) {
+                MailboxEvent mailboxEvent = (MailboxEvent) event;
+                invalidate(mailboxEvent.getMailboxId(), mailboxEvent.getMailboxPath());
+            }
+        }
+    }
+
+    private final InvalidationRegistration registration;
+    private final Cache<MailboxId, Mailbox> byId;
+    private final Cache<MailboxPath, MailboxId> byPath;
+    private final Metric hits;
+    private final Metric misses;
+
+    @Inject
+    public MailboxCache(EventBus eventBus, MetricFactory metricFactory) {
+        this(eventBus, metricFactory, DEFAULT_MAXIMUM_SIZE, DEFAULT_TTL);
+    }
+
+    public MailboxCache(EventBus eventBus, MetricFactory metricFactory, long maximumSize, Duration ttl) {
+        this.registration = new InvalidationRegistration(eventBus, new InvalidationListener());
+        this.byId = CacheBuilder.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(ttl.toMillis(), TimeUnit.MILLISECONDS)
+            .build();
+        this.byPath = CacheBuilder.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(ttl.toMillis(), TimeUnit.MILLISECONDS)
+            .build();
+        this.hits = metricFactory.generate(HIT_METRIC_NAME);
+        this.misses = metricFactory.generate(MISS_METRIC_NAME);
+    }
+
+    public Mono<Mailbox> findMailboxById(MailboxId mailboxId, Mono<Mailbox> loader) {
+        return Mono.defer(() -> Optional.ofNullable(byId.getIfPresent(mailboxId))
+            .map(this::hit)
+            .orElseGet(() -> load(loader)));
+    }
+
+    public Mono<Mailbox> findMailboxByPath(MailboxPath path, Mono<Mailbox> loader) {
+        return Mono.defer(() -> Optional.ofNullable(byPath.getIfPresent(path))
+            .map(byId::getIfPresent)
+            .filter(mailbox -> mailbox.generateAssociatedPath().equals(path))
+            .map(this::hit)
+            .orElseGet(() -> load(loader)));
+    }
+
+    public void invalidate(MailboxId mailboxId, MailboxPath path) {
+        byId.invalidate(mailboxId);
+        invalidate(path);
+    }
+
+    public void invalidate(MailboxPath path) {
+        byPath.invalidate(path);
+    }
+
+    private Mono<Mailbox> hit(Mailbox mailbox) {
+        hits.increment();
+        return Mono.just(new Mailbox(mailbox));
+    }
+
+    private Mono<Mailbox> load(Mono<Mailbox> loader) {
+        misses.increment();
+        // Listening before loading ensures changes done by other nodes after the load are not missed
+        return registration.ensureRegistered()
+            .then(loader)
+            .doOnNext(mailbox -> {
+                byId.put(mailbox.getMailboxId(), new Mailbox(mailbox));
+                byPath.put(mailbox.generateAssociatedPath(), mailbox.getMailboxId());
+            });
+    }
+}
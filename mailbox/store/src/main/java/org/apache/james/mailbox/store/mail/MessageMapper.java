@@ -20,6 +20,8 @@ package org.apache.james.mailbox.store.mail;
 
 import static javax.mail.Flags.Flag.RECENT;
 
+import java.io.InputStream;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -27,6 +29,7 @@ import java.util.Optional;
 
 import javax.mail.Flags;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.james.mailbox.MessageManager.FlagsUpdateMode;
 import org.apache.james.mailbox.MessageUid;
 import org.apache.james.mailbox.ModSeq;
@@ -44,7 +47,9 @@ import org.apache.james.mailbox.store.mail.model.Property;
 import org.apache.james.mailbox.store.transaction.Mapper;
 import org.apache.james.util.streams.Iterators;
 
+import com.github.fge.lambdas.Throwing;
 import com.google.common.collect.ImmutableList;
+import com.google.common.io.ByteStreams;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -87,6 +92,25 @@ public interface MessageMapper extends Mapper {
         }
     }
 
+    /**
+     * Reads <code>numberOfOctets</code> octets of the full content of a message, starting at <code>firstOctet</code>.
+     *
+     * Implementations are expected to only retrieve these octets from their storage. This default implementation
+     * reads the full content of the message.
+     *
+     * @return the requested octets, fewer if the message ends before, or an empty Mono if the message is not found
+     */
+    default Mono<byte[]> readFullContent(Mailbox mailbox, MessageUid uid, long firstOctet, long numberOfOctets) {
+        return findInMailboxReactive(mailbox, MessageRange.one(uid), FetchType.Full, 1)
+            .next()
+            .map(Throwing.function(message -> {
+                try (InputStream content = message.getFullContent()) {
+                    IOUtils.skip(content, firstOctet);
+                    return ByteStreams.toByteArray(ByteStreams.limit(content, numberOfOctets));
+                }
+            }));
+    }
+
     /**
      * Returns a list of {@link MessageUid} which are marked as deleted
      */
@@ -104,6 +128,16 @@ public interface MessageMapper extends Mapper {
         return Mono.fromCallable(() -> getMailboxCounters(mailbox));
     }
 
+    /**
+     * Retrieve the {@link MailboxCounters} of several mailboxes at once.
+     *
+     * Implementations are expected to do so with bounded concurrency. No ordering is guaranteed on the results.
+     */
+    default Flux<MailboxCounters> getMailboxCounters(Collection<Mailbox> mailboxes) {
+        return Flux.fromIterable(mailboxes)
+            .concatMap(this::getMailboxCountersReactive);
+    }
+
     /**
      * Delete the given {@link MailboxMessage}
      */
@@ -132,6 +166,18 @@ public interface MessageMapper extends Mapper {
      * So you should only depend on the returned uid.
      */
     MessageMetaData add(Mailbox mailbox, MailboxMessage message) throws MailboxException;
+
+    /**
+     * Add the given {@link MailboxMessage}s to the underlying storage. Implementations may allocate their uids and
+     * mod-sequences at once. The returned {@link MessageMetaData} are in the order of the given messages.
+     */
+    default List<MessageMetaData> addAll(Mailbox mailbox, List<MailboxMessage> messages) throws MailboxException {
+        ImmutableList.Builder<MessageMetaData> metaData = ImmutableList.builder();
+        for (MailboxMessage message : messages) {
+            metaData.add(add(mailbox, message));
+        }
+        return metaData.build();
+    }
     
     /**
      * Update flags for the given {@link MessageRange}. Only the flags may be modified after a message was saved to a mailbox.
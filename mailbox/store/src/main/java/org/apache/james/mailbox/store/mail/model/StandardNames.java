@@ -220,4 +220,20 @@ public class StandardNames {
     * @see #NAMESPACE_RFC_2183
     */
    public static final String MIME_CONTENT_DISPOSITION_PARAMETER_SPACE = MIME_CONTENT_DISPOSITION_SPACE + "/params";
+
+    /**
+     * Namespace for data computed by James from the content of the message.
+     */
+    public static final String NAMESPACE_JAMES = "http://james.apache.org/james";
+
+    /**
+     * Namespace for the MIME structure of composite messages.
+     * @see #NAMESPACE_JAMES
+     */
+    public static final String MIME_STRUCTURE_SPACE = NAMESPACE_JAMES + "/mime-structure";
+
+    /**
+     * Local name for the chunks of the encoded MIME structure.
+     */
+    public static final String MIME_STRUCTURE_NAME = "chunk";
 }
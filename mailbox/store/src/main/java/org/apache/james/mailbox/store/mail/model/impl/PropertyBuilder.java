@@ -38,6 +38,8 @@ import static org.apache.james.mailbox.store.mail.model.StandardNames.MIME_CONTE
 import static org.apache.james.mailbox.store.mail.model.StandardNames.MIME_CONTENT_TYPE_PARAMETER_SPACE;
 import static org.apache.james.mailbox.store.mail.model.StandardNames.MIME_MEDIA_TYPE_NAME;
 import static org.apache.james.mailbox.store.mail.model.StandardNames.MIME_MIME_TYPE_SPACE;
+import static org.apache.james.mailbox.store.mail.model.StandardNames.MIME_STRUCTURE_NAME;
+import static org.apache.james.mailbox.store.mail.model.StandardNames.MIME_STRUCTURE_SPACE;
 import static org.apache.james.mailbox.store.mail.model.StandardNames.MIME_SUB_TYPE_NAME;
 
 import java.util.ArrayList;
@@ -429,6 +431,26 @@ public class PropertyBuilder {
         setProperty(MIME_CONTENT_LANGUAGE_SPACE, MIME_CONTENT_LANGUAGE_NAME, values);
     }
     
+    /**
+     * Gets the encoded MIME structure of a composite message.
+     * 
+     * @return the ordered chunks of the encoded structure,
+     * empty when it was not computed for this message
+     */
+    public List<String> getMimeStructure() {
+        return getValues(MIME_STRUCTURE_SPACE, MIME_STRUCTURE_NAME);
+    }
+    
+    /**
+     * Sets the encoded MIME structure of a composite message.
+     * 
+     * @param values the ordered chunks of the encoded structure,
+     * or null to remove
+     */
+    public void setMimeStructure(List<String> values) {
+        setProperty(MIME_STRUCTURE_SPACE, MIME_STRUCTURE_NAME, values);
+    }
+    
     /**
      * Builds a list of properties.
      * @return not null
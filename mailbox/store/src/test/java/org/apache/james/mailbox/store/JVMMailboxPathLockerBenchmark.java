@@ -0,0 +1,104 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.store;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.james.core.Username;
+import org.apache.james.mailbox.MailboxPathLocker.LockType;
+import org.apache.james.mailbox.exception.MailboxException;
+import org.apache.james.mailbox.model.MailboxPath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Locks randomly chosen mailbox paths from several threads, with a short execution holding each lock.
+ *
+ * A single path measures the cost of contention, many paths the cost of creating and discarding the locks. Run
+ * {@link #main(String[])} to also get the allocation rate per locked execution.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class JVMMailboxPathLockerBenchmark {
+    private static final int WORK_TOKENS = 100;
+
+    @Param({"1", "16", "100000"})
+    public int pathCount;
+
+    private MailboxPath[] paths;
+    private JVMMailboxPathLocker locker;
+
+    @Setup
+    public void setUp() {
+        paths = new MailboxPath[pathCount];
+        for (int i = 0; i < pathCount; i++) {
+            paths[i] = MailboxPath.inbox(Username.of("user" + i));
+        }
+        locker = new JVMMailboxPathLocker();
+    }
+
+    @Benchmark
+    public void writeLock(Blackhole blackhole) throws MailboxException {
+        blackhole.consume(locker.executeWithLock(randomPath(), JVMMailboxPathLockerBenchmark::work, LockType.Write));
+    }
+
+    @Benchmark
+    public void readLock(Blackhole blackhole) throws MailboxException {
+        blackhole.consume(locker.executeWithLock(randomPath(), JVMMailboxPathLockerBenchmark::work, LockType.Read));
+    }
+
+    private MailboxPath randomPath() {
+        return paths[ThreadLocalRandom.current().nextInt(pathCount)];
+    }
+
+    private static boolean work() {
+        Blackhole.consumeCPU(WORK_TOKENS);
+        return true;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(JVMMailboxPathLockerBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build())
+            .run();
+    }
+}
@@ -0,0 +1,173 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.store;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.james.core.Username;
+import org.apache.james.mailbox.MailboxPathLocker.LockType;
+import org.apache.james.mailbox.exception.MailboxException;
+import org.apache.james.mailbox.model.MailboxPath;
+import org.apache.james.metrics.tests.RecordingMetricFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+
+class JVMMailboxPathLockerTest {
+    private static final MailboxPath PATH = MailboxPath.inbox(Username.of("bob"));
+    private static final MailboxPath OTHER_PATH = MailboxPath.inbox(Username.of("alice"));
+
+    private RecordingMetricFactory metricFactory;
+    private JVMMailboxPathLocker testee;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        metricFactory = new RecordingMetricFactory();
+        testee = new JVMMailboxPathLocker(metricFactory);
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void executeWithLockShouldReturnTheResultOfTheExecution() throws Exception {
+        assertThat(testee.executeWithLock(PATH, () -> 42, LockType.Write)).isEqualTo(42);
+    }
+
+    @Test
+    void executeWithLockShouldBeReentrant() throws Exception {
+        int result = testee.executeWithLock(PATH,
+            () -> testee.executeWithLock(PATH, () -> 42, LockType.Write),
+            LockType.Write);
+
+        assertThat(result).isEqualTo(42);
+    }
+
+    @Test
+    void locksShouldBeDiscardedOnceReleased() throws Exception {
+        testee.executeWithLock(PATH, () -> null, LockType.Write);
+        testee.executeWithLock(OTHER_PATH, () -> null, LockType.Read);
+
+        assertThat(testee.lockedPathCount()).isZero();
+    }
+
+    @Test
+    void locksShouldBeDiscardedWhenTheExecutionFails() {
+        assertThatThrownBy(() -> testee.executeWithLock(PATH, () -> {
+            throw new MailboxException("failed");
+        }, LockType.Write))
+            .isInstanceOf(MailboxException.class);
+
+        assertThat(testee.lockedPathCount()).isZero();
+    }
+
+    @Test
+    void locksShouldBeKeptWhileInUse() throws Exception {
+        int count = testee.executeWithLock(PATH,
+            () -> testee.executeWithLock(OTHER_PATH, () -> testee.lockedPathCount(), LockType.Read),
+            LockType.Write);
+
+        assertThat(count).isEqualTo(2);
+    }
+
+    @Test
+    void writeLockShouldBeExclusive() throws Exception {
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger concurrentExecutions = new AtomicInteger(0);
+
+        Future<?> holder = executor.submit(() -> testee.executeWithLock(PATH, () -> {
+            concurrentExecutions.incrementAndGet();
+            locked.countDown();
+            Uninterruptibles.awaitUninterruptibly(release);
+            return concurrentExecutions.decrementAndGet();
+        }, LockType.Write));
+        locked.await();
+        Future<Integer> waiter = executor.submit(() -> testee.executeWithLock(PATH, concurrentExecutions::get, LockType.Write));
+
+        Thread.sleep(100);
+        assertThat(waiter.isDone()).isFalse();
+        release.countDown();
+
+        holder.get(10, TimeUnit.SECONDS);
+        assertThat(waiter.get(10, TimeUnit.SECONDS)).isZero();
+        assertThat(testee.lockedPathCount()).isZero();
+    }
+
+    @Test
+    void readLocksShouldBeShared() throws Exception {
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<?> holder = executor.submit(() -> testee.executeWithLock(PATH, () -> {
+            locked.countDown();
+            Uninterruptibles.awaitUninterruptibly(release);
+            return null;
+        }, LockType.Read));
+        locked.await();
+
+        assertThat(executor.submit(() -> testee.executeWithLock(PATH, () -> 42, LockType.Read)).get(10, TimeUnit.SECONDS))
+            .isEqualTo(42);
+        release.countDown();
+        holder.get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void distinctPathsShouldNotBlockEachOther() throws Exception {
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<?> holder = executor.submit(() -> testee.executeWithLock(PATH, () -> {
+            locked.countDown();
+            Uninterruptibles.awaitUninterruptibly(release);
+            return null;
+        }, LockType.Write));
+        locked.await();
+
+        assertThat(executor.submit(() -> testee.executeWithLock(OTHER_PATH, () -> 42, LockType.Write)).get(10, TimeUnit.SECONDS))
+            .isEqualTo(42);
+        release.countDown();
+        holder.get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void executeWithLockShouldPublishWaitTimePerLockType() throws Exception {
+        testee.executeWithLock(PATH, () -> null, LockType.Write);
+        testee.executeWithLock(PATH, () -> null, LockType.Read);
+        testee.executeWithLock(PATH, () -> null, LockType.Read);
+
+        assertThat(metricFactory.executionTimesFor(JVMMailboxPathLocker.WRITE_LOCK_WAIT_METRIC_NAME)).hasSize(1);
+        assertThat(metricFactory.executionTimesFor(JVMMailboxPathLocker.READ_LOCK_WAIT_METRIC_NAME)).hasSize(2);
+    }
+}
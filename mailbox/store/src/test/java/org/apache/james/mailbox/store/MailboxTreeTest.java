@@ -0,0 +1,127 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.store;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.apache.james.core.Username;
+import org.apache.james.mailbox.model.Mailbox;
+import org.apache.james.mailbox.model.MailboxPath;
+import org.apache.james.mailbox.model.TestId;
+import org.apache.james.mailbox.model.UidValidity;
+import org.apache.james.mailbox.model.search.MailboxQuery;
+import org.apache.james.mailbox.model.search.PrefixedRegex;
+import org.apache.james.mailbox.model.search.Wildcard;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+
+class MailboxTreeTest {
+    private static final char DELIMITER = '.';
+    private static final Username BOB = Username.of("bob");
+    private static final Username ALICE = Username.of("alice");
+    private static final Mailbox INBOX = mailbox(BOB, "INBOX", 1);
+    private static final Mailbox ARCHIVE = mailbox(BOB, "archive", 2);
+    private static final Mailbox ARCHIVE_2019 = mailbox(BOB, "archive.2019", 3);
+    private static final Mailbox ARCHIVE_2019_01 = mailbox(BOB, "archive.2019.01", 4);
+    private static final Mailbox ORPHAN = mailbox(BOB, "missing.parent.child", 5);
+    private static final Mailbox ALICE_ARCHIVE = mailbox(ALICE, "archive", 6);
+
+    private static Mailbox mailbox(Username user, String name, int id) {
+        return new Mailbox(MailboxPath.forUser(user, name), UidValidity.of(42), TestId.of(id));
+    }
+
+    private final MailboxTree testee = MailboxTree.of(
+        ImmutableList.of(INBOX, ARCHIVE, ARCHIVE_2019, ARCHIVE_2019_01, ORPHAN, ALICE_ARCHIVE),
+        DELIMITER);
+
+    private MailboxQuery bobQuery(String regex) {
+        return MailboxQuery.builder()
+            .privateNamespace()
+            .user(BOB)
+            .expression(new PrefixedRegex("", regex, DELIMITER))
+            .build();
+    }
+
+    @Test
+    void matchingShouldReturnAllMailboxesOfTheUserWhenFreeWildcard() {
+        assertThat(testee.matching(bobQuery("*")))
+            .containsOnly(INBOX, ARCHIVE, ARCHIVE_2019, ARCHIVE_2019_01, ORPHAN);
+    }
+
+    @Test
+    void matchingShouldReturnTopLevelMailboxesWhenLocalWildcard() {
+        assertThat(testee.matching(bobQuery("%")))
+            .containsOnly(INBOX, ARCHIVE);
+    }
+
+    @Test
+    void matchingShouldReturnDirectChildrenWhenLocalWildcardAfterAPrefix() {
+        assertThat(testee.matching(bobQuery("archive.%")))
+            .containsOnly(ARCHIVE_2019);
+    }
+
+    @Test
+    void matchingShouldReturnAllDescendantsWhenFreeWildcardAfterAPrefix() {
+        assertThat(testee.matching(bobQuery("archive.*")))
+            .containsOnly(ARCHIVE_2019, ARCHIVE_2019_01);
+    }
+
+    @Test
+    void matchingShouldReturnMailboxesBelowMissingParents() {
+        assertThat(testee.matching(bobQuery("%.%.child")))
+            .containsOnly(ORPHAN);
+    }
+
+    @Test
+    void matchingShouldReturnMailboxesOfEveryUserWhenNoUser() {
+        assertThat(testee.matching(MailboxQuery.builder()
+                .expression(Wildcard.INSTANCE)
+                .build()))
+            .containsOnly(INBOX, ARCHIVE, ARCHIVE_2019, ARCHIVE_2019_01, ORPHAN, ALICE_ARCHIVE);
+    }
+
+    @Test
+    void hasChildrenShouldReturnTrueWhenDirectChildren() {
+        assertThat(testee.hasChildren(ARCHIVE_2019)).isTrue();
+    }
+
+    @Test
+    void hasChildrenShouldReturnTrueWhenOnlyIndirectChildren() {
+        Mailbox missing = mailbox(BOB, "missing", 7);
+
+        assertThat(testee.hasChildren(missing)).isTrue();
+    }
+
+    @Test
+    void hasChildrenShouldReturnFalseWhenNoChildren() {
+        assertThat(testee.hasChildren(ARCHIVE_2019_01)).isFalse();
+    }
+
+    @Test
+    void hasChildrenShouldNotConsiderMailboxesOfOtherUsers() {
+        assertThat(testee.hasChildren(ALICE_ARCHIVE)).isFalse();
+    }
+
+    @Test
+    void hasChildrenShouldReturnFalseWhenUnknownMailbox() {
+        assertThat(testee.hasChildren(mailbox(BOB, "unknown", 8))).isFalse();
+    }
+}
@@ -49,7 +49,16 @@ class MessageBatcherTest {
         MessageBatcher messageBatcher = new MessageBatcher(5);
 
         assertThat(messageBatcher.batchMessages(MessageRange.range(MessageUid.of(1), MessageUid.of(10)), incrementBatcher))
-            .containsOnly(MessageRange.range(MessageUid.of(2), MessageUid.of(6)), MessageRange.range(MessageUid.of(7), MessageUid.of(11)));
+            .containsOnly(MessageRange.range(MessageUid.of(2), MessageUid.of(11)));
+    }
+
+    @Test
+    void batchMessagesShouldNotMergeNonContiguousRanges() throws Exception {
+        MessageBatcher messageBatcher = new MessageBatcher(5);
+
+        assertThat(messageBatcher.batchMessages(MessageRange.range(MessageUid.of(1), MessageUid.of(10)),
+                messageRange -> Lists.newArrayList(messageRange.getUidFrom().toRange())))
+            .containsExactly(MessageUid.of(1).toRange(), MessageUid.of(6).toRange());
     }
 
     @Test
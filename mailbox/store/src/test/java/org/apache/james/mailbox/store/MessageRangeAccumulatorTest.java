@@ -0,0 +1,103 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.store;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.apache.james.mailbox.MessageUid;
+import org.apache.james.mailbox.model.MessageRange;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+
+class MessageRangeAccumulatorTest {
+    private MessageRangeAccumulator testee;
+
+    @BeforeEach
+    void setUp() {
+        testee = new MessageRangeAccumulator();
+    }
+
+    @Test
+    void toRangesShouldBeEmptyByDefault() {
+        assertThat(testee.toRanges()).isEmpty();
+    }
+
+    @Test
+    void toRangesShouldReturnSingleUids() {
+        testee.add(MessageUid.of(3));
+
+        assertThat(testee.toRanges()).containsExactly(MessageUid.of(3).toRange());
+    }
+
+    @Test
+    void toRangesShouldMergeConsecutiveUids() {
+        testee.addAll(ImmutableList.of(MessageUid.of(3), MessageUid.of(4), MessageUid.of(5)));
+
+        assertThat(testee.toRanges()).containsExactly(MessageRange.range(MessageUid.of(3), MessageUid.of(5)));
+    }
+
+    @Test
+    void toRangesShouldMergeUidsAddedOutOfOrder() {
+        testee.addAll(ImmutableList.of(MessageUid.of(5), MessageUid.of(3), MessageUid.of(4)));
+
+        assertThat(testee.toRanges()).containsExactly(MessageRange.range(MessageUid.of(3), MessageUid.of(5)));
+    }
+
+    @Test
+    void toRangesShouldKeepGapsAndSortRanges() {
+        testee.addAll(ImmutableList.of(MessageUid.of(9), MessageUid.of(1), MessageUid.of(2), MessageUid.of(5)));
+
+        assertThat(testee.toRanges()).containsExactly(
+            MessageRange.range(MessageUid.of(1), MessageUid.of(2)),
+            MessageUid.of(5).toRange(),
+            MessageUid.of(9).toRange());
+    }
+
+    @Test
+    void addShouldMergeRangesFillingAGap() {
+        testee.add(MessageRange.range(MessageUid.of(1), MessageUid.of(3)));
+        testee.add(MessageRange.range(MessageUid.of(7), MessageUid.of(9)));
+
+        testee.add(MessageRange.range(MessageUid.of(4), MessageUid.of(6)));
+
+        assertThat(testee.toRanges()).containsExactly(MessageRange.range(MessageUid.of(1), MessageUid.of(9)));
+    }
+
+    @Test
+    void addShouldMergeOverlappingRanges() {
+        testee.add(MessageRange.range(MessageUid.of(1), MessageUid.of(5)));
+        testee.add(MessageRange.range(MessageUid.of(8), MessageUid.of(10)));
+
+        testee.add(MessageRange.range(MessageUid.of(3), MessageUid.of(12)));
+
+        assertThat(testee.toRanges()).containsExactly(MessageRange.range(MessageUid.of(1), MessageUid.of(12)));
+    }
+
+    @Test
+    void addShouldIgnoreAlreadyKnownUids() {
+        testee.add(MessageRange.range(MessageUid.of(1), MessageUid.of(5)));
+
+        testee.add(MessageUid.of(3));
+
+        assertThat(testee.toRanges()).containsExactly(MessageRange.range(MessageUid.of(1), MessageUid.of(5)));
+    }
+}
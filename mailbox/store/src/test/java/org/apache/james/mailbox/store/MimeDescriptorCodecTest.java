@@ -0,0 +1,150 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.store;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+
+import org.apache.james.mailbox.model.Header;
+import org.apache.james.mailbox.model.Headers;
+import org.apache.james.mailbox.model.MimeDescriptor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+
+class MimeDescriptorCodecTest {
+    private static final String MESSAGE = "From: bob@example.com\r\n" +
+        "Subject: structure\r\n" +
+        "Content-Type: multipart/mixed; boundary=\"outer\"\r\n" +
+        "\r\n" +
+        "--outer\r\n" +
+        "Content-Type: text/plain; charset=utf-8\r\n" +
+        "Content-Language: fr\r\n" +
+        "\r\n" +
+        "first line\r\n" +
+        "second line\r\n" +
+        "--outer\r\n" +
+        "Content-Type: message/rfc822\r\n" +
+        "Content-Disposition: attachment; filename=\"forwarded.eml\"\r\n" +
+        "\r\n" +
+        "From: alice@example.com\r\n" +
+        "Subject: forwarded\r\n" +
+        "\r\n" +
+        "embedded body\r\n" +
+        "--outer--\r\n";
+
+    MimeDescriptorImpl parsed;
+    Headers messageHeaders;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        parsed = MimeDescriptorImpl.build(new ByteArrayInputStream(MESSAGE.getBytes(US_ASCII)));
+        messageHeaders = mock(Headers.class);
+        when(messageHeaders.headers()).thenAnswer(any -> ImmutableList.of(new Header("Subject", "structure")).iterator());
+    }
+
+    @Test
+    void decodeShouldReturnEmptyWhenNoStructureWasStored() throws Exception {
+        assertThat(MimeDescriptorCodec.decode(ImmutableList.of(), messageHeaders)).isEmpty();
+    }
+
+    @Test
+    void decodeShouldRestoreTheTopLevelEntity() throws Exception {
+        MimeDescriptor decoded = roundTrip();
+
+        assertThat(decoded.getMimeType()).isEqualTo(parsed.getMimeType());
+        assertThat(decoded.getMimeSubType()).isEqualTo(parsed.getMimeSubType());
+        assertThat(decoded.contentTypeParameters()).isEqualTo(parsed.contentTypeParameters());
+        assertThat(decoded.getBodyOctets()).isEqualTo(parsed.getBodyOctets());
+        assertThat(decoded.getLines()).isEqualTo(parsed.getLines());
+    }
+
+    @Test
+    void decodeShouldUseTheHeadersOfTheMessageForTheTopLevelEntity() throws Exception {
+        MimeDescriptor decoded = roundTrip();
+
+        assertThat(decoded.headers()).toIterable()
+            .extracting(Header::getName)
+            .containsExactly("Subject");
+    }
+
+    @Test
+    void decodeShouldRestoreParts() throws Exception {
+        List<MimeDescriptor> parts = ImmutableList.copyOf(roundTrip().parts());
+        List<MimeDescriptor> expectedParts = ImmutableList.copyOf(parsed.parts());
+
+        assertThat(parts).hasSize(2);
+        for (int i = 0; i < parts.size(); i++) {
+            assertThat(parts.get(i).getMimeType()).isEqualTo(expectedParts.get(i).getMimeType());
+            assertThat(parts.get(i).getMimeSubType()).isEqualTo(expectedParts.get(i).getMimeSubType());
+            assertThat(parts.get(i).contentTypeParameters()).isEqualTo(expectedParts.get(i).contentTypeParameters());
+            assertThat(parts.get(i).getLanguages()).isEqualTo(expectedParts.get(i).getLanguages());
+            assertThat(parts.get(i).getDisposition()).isEqualTo(expectedParts.get(i).getDisposition());
+            assertThat(parts.get(i).getDispositionParams()).isEqualTo(expectedParts.get(i).getDispositionParams());
+            assertThat(parts.get(i).getBodyOctets()).isEqualTo(expectedParts.get(i).getBodyOctets());
+            assertThat(parts.get(i).getLines()).isEqualTo(expectedParts.get(i).getLines());
+        }
+    }
+
+    @Test
+    void decodeShouldRestoreTheHeadersOfEmbeddedMessages() throws Exception {
+        MimeDescriptor embeddedMessage = ImmutableList.copyOf(roundTrip().parts()).get(1).embeddedMessage();
+
+        assertThat(embeddedMessage.headers()).toIterable()
+            .extracting(Header::getName, Header::getValue)
+            .containsExactly(
+                tuple("From", "alice@example.com"),
+                tuple("Subject", "forwarded"));
+    }
+
+    @Test
+    void encodeShouldSplitTheStructureInChunksFittingAPropertyValue() throws Exception {
+        assertThat(MimeDescriptorCodec.encode(parsed).get())
+            .allSatisfy(chunk -> assertThat(chunk.length()).isLessThanOrEqualTo(1000));
+    }
+
+    @Test
+    void encodeShouldReturnEmptyWhenTheStructureIsTooLarge() throws Exception {
+        String largeMessage = "Content-Type: multipart/mixed; boundary=\"outer\"\r\n" +
+            "\r\n" +
+            Strings.repeat("--outer\r\n" +
+                "Content-Type: text/plain\r\n" +
+                "Content-Description: " + Strings.repeat("a", 900) + "\r\n" +
+                "\r\n" +
+                "body\r\n", 100) +
+            "--outer--\r\n";
+
+        MimeDescriptorImpl largeStructure = MimeDescriptorImpl.build(new ByteArrayInputStream(largeMessage.getBytes(US_ASCII)));
+
+        assertThat(MimeDescriptorCodec.encode(largeStructure)).isEmpty();
+    }
+
+    private MimeDescriptor roundTrip() throws Exception {
+        return MimeDescriptorCodec.decode(MimeDescriptorCodec.encode(parsed).get(), messageHeaders).get();
+    }
+}
@@ -43,6 +43,7 @@ import org.apache.james.mailbox.model.MessageRange;
 import org.apache.james.mailbox.model.TestId;
 import org.apache.james.mailbox.model.UpdatedFlags;
 import org.apache.james.mailbox.store.mail.MessageMapper;
+import org.apache.james.mailbox.store.mail.MessageMapper.FetchType;
 import org.apache.james.mailbox.store.mail.model.DefaultMessageId;
 import org.apache.james.mailbox.store.mail.model.MailboxMessage;
 import org.apache.james.mailbox.store.mail.model.impl.PropertyBuilder;
@@ -57,6 +58,7 @@ class StoreMailboxMessageResultIteratorTest {
 
     private final class TestMessageMapper implements MessageMapper {
         private final MessageRange messageRange;
+        private final List<FetchType> fetchTypes = new ArrayList<>();
 
         public TestMessageMapper(MessageRange messageRange) {
             this.messageRange = messageRange;
@@ -86,7 +88,8 @@ class StoreMailboxMessageResultIteratorTest {
         public Iterator<MailboxMessage> findInMailbox(Mailbox mailbox, MessageRange set,
                                                               org.apache.james.mailbox.store.mail.MessageMapper.FetchType type, int limit)
                 throws MailboxException {
-            
+            fetchTypes.add(type);
+
             List<MailboxMessage> messages = new ArrayList<>();
             for (MessageUid uid: Iterables.limit(set, limit)) {
                 if (messageRange.includes(uid)) {
@@ -97,8 +100,11 @@ class StoreMailboxMessageResultIteratorTest {
         }
 
         private SimpleMailboxMessage createMessage(MessageUid uid) {
+            PropertyBuilder propertyBuilder = new PropertyBuilder();
+            propertyBuilder.setMediaType("multipart");
+            propertyBuilder.setSubType("mixed");
             SimpleMailboxMessage message = new SimpleMailboxMessage(new DefaultMessageId(), null, 0, 0, new SharedByteArrayInputStream(
-                    "".getBytes()), new Flags(), new PropertyBuilder(), TestId.of(1L));
+                    "".getBytes()), new Flags(), propertyBuilder, TestId.of(1L));
             message.setUid(uid);
             return message;
         }
@@ -184,6 +190,21 @@ class StoreMailboxMessageResultIteratorTest {
             .containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L);
     }
 
+    @Test
+    void messagesLackingAStoredStructureShouldBeRetrievedWithASingleReadPerBatch() {
+        MessageRange range = MessageRange.range(MessageUid.of(1), MessageUid.of(6));
+        BatchSizes batchSize = BatchSizes.uniqueBatchSize(3);
+        TestMessageMapper mapper = new TestMessageMapper(MessageRange.all());
+        StoreMessageResultIterator it = new StoreMessageResultIterator(mapper, null, range, batchSize,
+            FetchGroup.MINIMAL.with(FetchGroup.Profile.MIME_DESCRIPTOR));
+
+        assertThat(it).toIterable()
+            .extracting(input -> input.getUid().asLong())
+            .containsExactly(1L, 2L, 3L, 4L, 5L, 6L);
+        assertThat(mapper.fetchTypes)
+            .containsExactly(FetchType.Headers, FetchType.Full, FetchType.Headers, FetchType.Full);
+    }
+
     @Test
     void nextShouldReturnFirstElement() {
         MessageRange range = MessageUid.of(1).toRange();
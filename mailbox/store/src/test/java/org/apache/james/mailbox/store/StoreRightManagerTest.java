@@ -25,7 +25,12 @@ import static org.apache.james.mailbox.fixture.MailboxFixture.CEDRIC;
 import static org.apache.james.mailbox.fixture.MailboxFixture.INBOX_ALICE;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import javax.mail.Flags;
@@ -128,6 +133,43 @@ class StoreRightManagerTest {
             .isFalse();
     }
 
+    @Test
+    void hasRightShouldReflectACLChangesOfTheMailbox() throws MailboxException {
+        Mailbox mailbox = new Mailbox(MailboxPath.forUser(BOB, MailboxConstants.INBOX), UID_VALIDITY, MAILBOX_ID);
+        mailbox.setACL(new MailboxACL(new MailboxACL.Entry(MailboxFixture.ALICE.asString(), Right.Write)));
+        storeRightManager.hasRight(mailbox, Right.Write, aliceSession);
+
+        mailbox.setACL(new MailboxACL(new MailboxACL.Entry(MailboxFixture.ALICE.asString(), Right.Lookup)));
+
+        assertThat(storeRightManager.hasRight(mailbox, Right.Write, aliceSession))
+            .isFalse();
+    }
+
+    @Test
+    void hasRightShouldReflectOwnerChangesOfTheMailbox() {
+        Mailbox mailbox = new Mailbox(MailboxPath.forUser(ALICE, MailboxConstants.INBOX), UID_VALIDITY, MAILBOX_ID);
+        storeRightManager.hasRight(mailbox, Right.Write, aliceSession);
+
+        mailbox.setUser(BOB);
+
+        assertThat(storeRightManager.hasRight(mailbox, Right.Write, aliceSession))
+            .isFalse();
+    }
+
+    @Test
+    void myRightsShouldReuseRightsResolvedForACopyOfTheMailbox() throws Exception {
+        MailboxACLResolver spiedResolver = spy(new UnionMailboxACLResolver());
+        StoreRightManager testee = new StoreRightManager(mock(MailboxSessionMapperFactory.class), spiedResolver,
+            groupMembershipResolver, mock(EventBus.class));
+        Mailbox mailbox = new Mailbox(MailboxPath.forUser(BOB, MailboxConstants.INBOX), UID_VALIDITY, MAILBOX_ID);
+        mailbox.setACL(new MailboxACL(new MailboxACL.Entry(MailboxFixture.ALICE.asString(), Right.Write)));
+        testee.myRights(mailbox, aliceSession);
+
+        testee.myRights(new Mailbox(mailbox), aliceSession);
+
+        verify(spiedResolver, times(1)).resolveRights(any(), any(), any(), any(), anyBoolean());
+    }
+
     @Test
     void isReadWriteShouldReturnTrueWhenUserHasInsertRightOnMailbox() throws Exception {
         Flags flags = new Flags();
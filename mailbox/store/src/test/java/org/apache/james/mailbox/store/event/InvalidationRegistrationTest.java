@@ -0,0 +1,103 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.store.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.james.mailbox.events.EventBus;
+import org.apache.james.mailbox.events.MailboxInvalidationRegistrationKey;
+import org.apache.james.mailbox.events.MailboxListener;
+import org.apache.james.mailbox.events.Registration;
+import org.apache.james.mailbox.events.RegistrationKey;
+import org.apache.james.util.concurrency.ConcurrentTestRunner;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import reactor.core.publisher.Mono;
+
+class InvalidationRegistrationTest {
+    private EventBus eventBus;
+    private AtomicInteger registrationCount;
+    private InvalidationRegistration testee;
+
+    @BeforeEach
+    void setUp() {
+        registrationCount = new AtomicInteger();
+        eventBus = mock(EventBus.class);
+        when(eventBus.register(any(MailboxListener.class), any(RegistrationKey.class)))
+            .thenAnswer(invocation -> Mono.fromCallable(this::register)
+                .delayElement(Duration.ofMillis(10)));
+        testee = new InvalidationRegistration(eventBus, mock(MailboxListener.class));
+    }
+
+    private Registration register() {
+        registrationCount.incrementAndGet();
+        return () -> { };
+    }
+
+    @Test
+    void ensureRegisteredShouldRegisterOnTheInvalidationKey() {
+        testee.ensureRegistered().block();
+
+        verify(eventBus).register(any(MailboxListener.class), any(MailboxInvalidationRegistrationKey.class));
+    }
+
+    @Test
+    void ensureRegisteredShouldRegisterOnce() {
+        testee.ensureRegistered().block();
+        testee.ensureRegistered().block();
+
+        assertThat(registrationCount.get()).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentEnsureRegisteredShouldRegisterOnce() throws Exception {
+        ConcurrentTestRunner.builder()
+            .operation((threadNumber, step) -> testee.ensureRegistered().block())
+            .threadCount(10)
+            .operationCount(10)
+            .runSuccessfullyWithin(Duration.ofMinutes(1));
+
+        assertThat(registrationCount.get()).isEqualTo(1);
+    }
+
+    @Test
+    void ensureRegisteredShouldRetryFailedRegistrations() {
+        when(eventBus.register(any(MailboxListener.class), any(RegistrationKey.class)))
+            .thenReturn(Mono.error(new RuntimeException()))
+            .thenAnswer(invocation -> Mono.fromCallable(this::register));
+
+        assertThatThrownBy(() -> testee.ensureRegistered().block())
+            .isInstanceOf(RuntimeException.class);
+        testee.ensureRegistered().block();
+
+        verify(eventBus, times(2)).register(any(MailboxListener.class), any(RegistrationKey.class));
+        assertThat(registrationCount.get()).isEqualTo(1);
+    }
+}
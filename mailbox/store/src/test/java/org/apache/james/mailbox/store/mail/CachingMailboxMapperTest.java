@@ -0,0 +1,181 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.store.mail;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.apache.james.core.Username;
+import org.apache.james.mailbox.MailboxSession;
+import org.apache.james.mailbox.MailboxSessionUtil;
+import org.apache.james.mailbox.events.EventBusTestFixture;
+import org.apache.james.mailbox.events.InVMEventBus;
+import org.apache.james.mailbox.events.MailboxIdRegistrationKey;
+import org.apache.james.mailbox.events.MailboxInvalidationRegistrationKey;
+import org.apache.james.mailbox.events.MailboxListener;
+import org.apache.james.mailbox.events.MemoryEventDeadLetters;
+import org.apache.james.mailbox.events.delivery.InVmEventDelivery;
+import org.apache.james.mailbox.model.Mailbox;
+import org.apache.james.mailbox.model.MailboxACL;
+import org.apache.james.mailbox.model.MailboxPath;
+import org.apache.james.mailbox.model.TestId;
+import org.apache.james.mailbox.model.UidValidity;
+import org.apache.james.mailbox.store.event.EventFactory;
+import org.apache.james.metrics.tests.RecordingMetricFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import reactor.core.publisher.Mono;
+
+class CachingMailboxMapperTest {
+    private static final Username BOB = Username.of("bob");
+    private static final MailboxPath PATH = MailboxPath.forUser(BOB, "mailbox");
+    private static final MailboxPath NEW_PATH = MailboxPath.forUser(BOB, "renamed");
+    private static final TestId MAILBOX_ID = TestId.of(42);
+    private static final MailboxSession SESSION = MailboxSessionUtil.create(BOB);
+
+    private MailboxMapper underlying;
+    private InVMEventBus eventBus;
+    private RecordingMetricFactory metricFactory;
+    private CachingMailboxMapper testee;
+
+    @BeforeEach
+    void setUp() {
+        underlying = mock(MailboxMapper.class);
+        when(underlying.findMailboxById(MAILBOX_ID)).thenAnswer(invocation -> Mono.just(mailbox(PATH)));
+        when(underlying.findMailboxByPath(PATH)).thenAnswer(invocation -> Mono.just(mailbox(PATH)));
+        when(underlying.findMailboxByPath(NEW_PATH)).thenAnswer(invocation -> Mono.empty());
+        when(underlying.rename(any())).thenAnswer(invocation -> Mono.just(MAILBOX_ID));
+        when(underlying.setACL(any(), any())).thenAnswer(invocation -> Mono.empty());
+
+        eventBus = new InVMEventBus(new InVmEventDelivery(new RecordingMetricFactory()), EventBusTestFixture.RETRY_BACKOFF_CONFIGURATION, new MemoryEventDeadLetters());
+        metricFactory = new RecordingMetricFactory();
+        testee = new CachingMailboxMapper(underlying, new MailboxCache(eventBus, metricFactory));
+    }
+
+    private Mailbox mailbox(MailboxPath path) {
+        return new Mailbox(path, UidValidity.of(36), MAILBOX_ID);
+    }
+
+    @Test
+    void findMailboxByIdShouldBeCached() {
+        testee.findMailboxById(MAILBOX_ID).block();
+
+        assertThat(testee.findMailboxById(MAILBOX_ID).block().generateAssociatedPath()).isEqualTo(PATH);
+        verify(underlying, times(1)).findMailboxById(MAILBOX_ID);
+    }
+
+    @Test
+    void findMailboxByPathShouldBeCached() {
+        testee.findMailboxByPath(PATH).block();
+
+        assertThat(testee.findMailboxByPath(PATH).block().getMailboxId()).isEqualTo(MAILBOX_ID);
+        verify(underlying, times(1)).findMailboxByPath(PATH);
+    }
+
+    @Test
+    void findMailboxByPathShouldReuseMailboxesFoundById() {
+        testee.findMailboxById(MAILBOX_ID).block();
+
+        testee.findMailboxByPath(PATH).block();
+        testee.findMailboxByPath(PATH).block();
+
+        verify(underlying, times(1)).findMailboxByPath(PATH);
+    }
+
+    @Test
+    void findMailboxByIdShouldReturnCopies() {
+        testee.findMailboxById(MAILBOX_ID).block().setName("modified");
+
+        assertThat(testee.findMailboxById(MAILBOX_ID).block().getName()).isEqualTo("mailbox");
+    }
+
+    @Test
+    void findMailboxShouldPublishHitsAndMisses() {
+        testee.findMailboxById(MAILBOX_ID).block();
+        testee.findMailboxById(MAILBOX_ID).block();
+        testee.findMailboxByPath(PATH).block();
+
+        assertThat(metricFactory.countFor(MailboxCache.MISS_METRIC_NAME)).isEqualTo(1);
+        assertThat(metricFactory.countFor(MailboxCache.HIT_METRIC_NAME)).isEqualTo(2);
+    }
+
+    @Test
+    void renameShouldInvalidateTheCache() {
+        testee.findMailboxByPath(PATH).block();
+
+        testee.rename(mailbox(NEW_PATH)).block();
+        testee.findMailboxByPath(PATH).block();
+
+        verify(underlying, times(2)).findMailboxByPath(PATH);
+    }
+
+    @Test
+    void setACLShouldInvalidateTheCache() {
+        testee.findMailboxById(MAILBOX_ID).block();
+
+        testee.setACL(mailbox(PATH), MailboxACL.EMPTY).block();
+        testee.findMailboxById(MAILBOX_ID).block();
+
+        verify(underlying, times(2)).findMailboxById(MAILBOX_ID);
+    }
+
+    @Test
+    void eventsFromOtherNodesShouldInvalidateTheCache() {
+        testee.findMailboxById(MAILBOX_ID).block();
+
+        eventBus.dispatch(mailboxRenamed(), MailboxInvalidationRegistrationKey.INSTANCE).block();
+        testee.findMailboxById(MAILBOX_ID).block();
+
+        verify(underlying, times(2)).findMailboxById(MAILBOX_ID);
+    }
+
+    @Test
+    void cacheShouldNotListenToTheEventsOfEachCachedMailbox() {
+        testee.findMailboxById(MAILBOX_ID).block();
+
+        eventBus.dispatch(mailboxRenamed(), new MailboxIdRegistrationKey(MAILBOX_ID)).block();
+        testee.findMailboxById(MAILBOX_ID).block();
+
+        verify(underlying, times(1)).findMailboxById(MAILBOX_ID);
+    }
+
+    private MailboxListener.MailboxRenamed mailboxRenamed() {
+        return EventFactory.mailboxRenamed()
+            .randomEventId()
+            .mailboxSession(SESSION)
+            .mailboxId(MAILBOX_ID)
+            .oldPath(PATH)
+            .newPath(NEW_PATH)
+            .build();
+    }
+
+    @Test
+    void findMailboxByPathShouldNotCacheMissingMailboxes() {
+        testee.findMailboxByPath(NEW_PATH).blockOptional();
+        testee.findMailboxByPath(NEW_PATH).blockOptional();
+
+        verify(underlying, times(2)).findMailboxByPath(NEW_PATH);
+    }
+}
@@ -25,6 +25,7 @@ import static org.apache.james.mailbox.store.mail.model.MessageAssert.assertThat
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.Date;
 import java.util.Iterator;
@@ -205,6 +206,46 @@ public abstract class MessageMapperTest {
             .isEqualToWithoutAttachment(message1, fetchType);
     }
 
+    @Test
+    void readFullContentShouldReturnRequestedHeaderOctets() throws MailboxException {
+        saveMessages();
+
+        assertThat(new String(messageMapper.readFullContent(benwaInboxMailbox, message1.getUid(), 9, 5).block(), StandardCharsets.US_ASCII))
+            .isEqualTo("Test1");
+    }
+
+    @Test
+    void readFullContentShouldReturnRequestedBodyOctets() throws MailboxException {
+        saveMessages();
+
+        assertThat(new String(messageMapper.readFullContent(benwaInboxMailbox, message1.getUid(), 17, 5).block(), StandardCharsets.US_ASCII))
+            .isEqualTo("Body1");
+    }
+
+    @Test
+    void readFullContentShouldReturnOctetsSpanningHeaderAndBody() throws MailboxException {
+        saveMessages();
+
+        assertThat(new String(messageMapper.readFullContent(benwaInboxMailbox, message1.getUid(), 9, 12).block(), StandardCharsets.US_ASCII))
+            .isEqualTo("Test1 \n\nBody");
+    }
+
+    @Test
+    void readFullContentShouldReturnFewerOctetsWhenMessageEndsBefore() throws MailboxException {
+        saveMessages();
+
+        assertThat(new String(messageMapper.readFullContent(benwaInboxMailbox, message1.getUid(), 20, 100).block(), StandardCharsets.US_ASCII))
+            .isEqualTo("y1\n.\n");
+    }
+
+    @Test
+    void readFullContentShouldReturnEmptyWhenMessageNotFound() throws MailboxException {
+        saveMessages();
+
+        assertThat(messageMapper.readFullContent(benwaInboxMailbox, MessageUid.of(1000), 0, 5).blockOptional())
+            .isEmpty();
+    }
+
     @Test
     void messagesCanBeRetrievedInMailboxWithRangeTypeRange() throws MailboxException, IOException {
         saveMessages();
@@ -401,6 +442,36 @@ public abstract class MessageMapperTest {
                 .build());
     }
 
+    @Test
+    void getMailboxCountersShouldReturnCountersOfAllRequestedMailboxes() throws MailboxException {
+        saveMessages();
+        FlagsUpdateCalculator setSeen = new FlagsUpdateCalculator(new Flags(Flag.SEEN), FlagsUpdateMode.REPLACE);
+        messageMapper.updateFlags(benwaInboxMailbox, message1.getUid(), setSeen);
+
+        assertThat(messageMapper.getMailboxCounters(ImmutableList.of(benwaInboxMailbox, benwaWorkMailbox)).collectList().block())
+            .containsOnly(
+                MailboxCounters.builder()
+                    .mailboxId(benwaInboxMailbox.getMailboxId())
+                    .count(5)
+                    .unseen(4)
+                    .build(),
+                MailboxCounters.builder()
+                    .mailboxId(benwaWorkMailbox.getMailboxId())
+                    .count(1)
+                    .unseen(1)
+                    .build());
+    }
+
+    @Test
+    void getMailboxCountersShouldReturnZeroCountersForEmptyMailboxes() {
+        assertThat(messageMapper.getMailboxCounters(ImmutableList.of(benwaInboxMailbox)).collectList().block())
+            .containsOnly(MailboxCounters.builder()
+                .mailboxId(benwaInboxMailbox.getMailboxId())
+                .count(0)
+                .unseen(0)
+                .build());
+    }
+
     @Test
     void addShouldUpdateRecentWhenNeeded() throws MailboxException {
         message1.setFlags(new Flags(Flags.Flag.RECENT));
@@ -418,6 +489,42 @@ public abstract class MessageMapperTest {
         assertThat(messageMapper.findRecentMessageUidsInMailbox(benwaInboxMailbox)).isEmpty();
     }
 
+    @Test
+    void addAllShouldReturnMetaDataInTheOrderOfTheMessages() throws MailboxException {
+        List<MessageMetaData> metaData = messageMapper.addAll(benwaInboxMailbox, ImmutableList.of(message1, message2, message3));
+
+        assertThat(metaData)
+            .extracting(MessageMetaData::getMessageId)
+            .containsExactly(message1.getMessageId(), message2.getMessageId(), message3.getMessageId());
+        assertThat(metaData)
+            .extracting(MessageMetaData::getUid)
+            .isSorted()
+            .doesNotHaveDuplicates();
+    }
+
+    @Test
+    void addAllShouldUpdateMailboxCounters() throws MailboxException {
+        message1.setFlags(new Flags(Flags.Flag.SEEN));
+
+        messageMapper.addAll(benwaInboxMailbox, ImmutableList.of(message1, message2, message3));
+
+        assertThat(messageMapper.getMailboxCounters(benwaInboxMailbox))
+            .isEqualTo(MailboxCounters.builder()
+                .mailboxId(benwaInboxMailbox.getMailboxId())
+                .count(3)
+                .unseen(2)
+                .build());
+    }
+
+    @Test
+    void addAllShouldUpdateRecentWhenNeeded() throws MailboxException {
+        message1.setFlags(new Flags(Flags.Flag.RECENT));
+
+        messageMapper.addAll(benwaInboxMailbox, ImmutableList.of(message1, message2));
+
+        assertThat(messageMapper.findRecentMessageUidsInMailbox(benwaInboxMailbox)).containsOnly(message1.getUid());
+    }
+
     @Test
     void findFirstUnseenMessageUidShouldReturnNullWhenNoUnseenMessagesCanBeFound() throws MailboxException {
         assertThat(messageMapper.findFirstUnseenMessageUid(benwaInboxMailbox)).isNull();
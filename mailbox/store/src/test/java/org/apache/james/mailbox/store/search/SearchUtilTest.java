@@ -70,6 +70,15 @@ class SearchUtilTest {
         assertThat(SearchUtil.getBaseSubject("Re: re:re: fwd:[fwd: \t  Test]  (fwd)  (fwd)(fwd) ")).isEqualTo("Test");
     }
     
+    @Test
+    void getBaseSubjectShouldSupportSubjectsMadeOfArtifactsOnly() {
+        assertThat(SearchUtil.getBaseSubject("")).isEqualTo("");
+        assertThat(SearchUtil.getBaseSubject("   ")).isEqualTo("");
+        assertThat(SearchUtil.getBaseSubject("Re:")).isEqualTo("");
+        assertThat(SearchUtil.getBaseSubject("Re: ")).isEqualTo("");
+        assertThat(SearchUtil.getBaseSubject("Re")).isEqualTo("Re");
+    }
+
     @Test
     void getMessageIdIfSupportedByUnderlyingStorageOrNullForNullMessageIdShouldReturnNull() {
         //given
@@ -19,6 +19,7 @@
 package org.apache.james.mailbox.tools.copier;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Iterator;
 import java.util.List;
@@ -29,6 +30,7 @@ import org.apache.james.core.Username;
 import org.apache.james.mailbox.MailboxManager;
 import org.apache.james.mailbox.MailboxSession;
 import org.apache.james.mailbox.MessageManager;
+import org.apache.james.mailbox.MessageManager.AppendCommand;
 import org.apache.james.mailbox.copier.MailboxCopier;
 import org.apache.james.mailbox.exception.MailboxException;
 import org.apache.james.mailbox.exception.MailboxExistsException;
@@ -40,12 +42,15 @@ import org.apache.james.mailbox.store.streaming.InputStreamContent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.collect.Iterators;
+
 /**
  * Implementation of the {@link MailboxCopier} interface.
  * 
  */
 public class MailboxCopierImpl implements MailboxCopier {
     private static final Logger LOGGER = LoggerFactory.getLogger(MailboxCopierImpl.class.getName());
+    private static final int APPEND_BATCH_SIZE = 100;
 
     @Override
     public void copyMailboxes(MailboxManager srcMailboxManager, MailboxManager dstMailboxManager) throws MailboxException, IOException {
@@ -100,17 +105,26 @@ public class MailboxCopierImpl implements MailboxCopier {
 
                 int j = 0;
                 Iterator<MessageResult> messageResultIterator = srcMessageManager.getMessages(MessageRange.all(), FetchGroup.FULL_CONTENT, srcMailboxSession);
-                
-                while (messageResultIterator.hasNext()) {
+                Iterator<List<MessageResult>> messageResultBatches = Iterators.partition(messageResultIterator, APPEND_BATCH_SIZE);
+
+                while (messageResultBatches.hasNext()) {
 
-                    MessageResult messageResult = messageResultIterator.next();
-                    InputStreamContent content = (InputStreamContent) messageResult.getFullContent();
+                    List<MessageResult> messageResults = messageResultBatches.next();
+                    List<AppendCommand> appendCommands = new ArrayList<>(messageResults.size());
+                    for (MessageResult messageResult : messageResults) {
+                        InputStreamContent content = (InputStreamContent) messageResult.getFullContent();
+                        appendCommands.add(AppendCommand.builder()
+                            .withInternalDate(messageResult.getInternalDate())
+                            .isRecent(messageResult.getFlags().contains(Flag.RECENT))
+                            .withFlags(messageResult.getFlags())
+                            .build(content.getInputStream()));
+                    }
 
                     dstMailboxManager.startProcessingRequest(dstMailboxSession);
-                    dstMessageManager.appendMessage(content.getInputStream(), messageResult.getInternalDate(), dstMailboxSession, messageResult.getFlags().contains(Flag.RECENT), messageResult.getFlags());
+                    dstMessageManager.appendMessages(appendCommands, dstMailboxSession);
                     dstMailboxManager.endProcessingRequest(dstMailboxSession);
-                    LOGGER.info("MailboxMessage #{} appended in destination mailbox with path={}", j, mailboxPath);
-                    j++;
+                    LOGGER.info("MailboxMessages #{} to #{} appended in destination mailbox with path={}", j, j + messageResults.size() - 1, mailboxPath);
+                    j += messageResults.size();
 
                 }
                 dstMailboxManager.endProcessingRequest(dstMailboxSession);
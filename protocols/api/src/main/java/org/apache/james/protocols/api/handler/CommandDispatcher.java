@@ -192,15 +192,8 @@ public class CommandDispatcher<SessionT extends ProtocolSession> implements Exte
     protected Request parseRequest(SessionT session, ByteBuffer buffer) throws Exception {
         String curCommandName;
         String curCommandArgument = null;
-        byte[] line;
-        if (buffer.hasArray()) {
-            line = buffer.array();
-        } else {
-            line = new byte[buffer.remaining()];
-            buffer.get(line);
-        }
-        // This should be changed once we move to java6
-        String cmdString = new String(line, session.getCharset().name()).trim();
+        // Decoding straight from the buffer works for heap and direct buffers alike, without an intermediate copy
+        String cmdString = session.getCharset().decode(buffer.duplicate()).toString().trim();
         int spaceIndex = cmdString.indexOf(" ");
         if (spaceIndex > 0) {
             curCommandName = cmdString.substring(0, spaceIndex);
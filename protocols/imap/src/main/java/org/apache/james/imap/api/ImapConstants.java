@@ -96,6 +96,10 @@ public interface ImapConstants {
     Capability SUPPORTS_UIDPLUS = Capability.of("UIDPLUS");
 
     Capability SUPPORTS_ANNOTATION = Capability.of("ANNOTATION");
+
+    Capability SUPPORTS_LIST_STATUS = Capability.of("LIST-STATUS");
+
+    Capability SUPPORTS_NOTIFY = Capability.of("NOTIFY");
     
     String INBOX_NAME = "INBOX";
 
@@ -168,6 +172,7 @@ public interface ImapConstants {
     ImapCommand LIST_COMMAND = ImapCommand.authenticatedStateCommand("LIST");
     ImapCommand LSUB_COMMAND = ImapCommand.authenticatedStateCommand("LSUB");
     ImapCommand NAMESPACE_COMMAND = ImapCommand.authenticatedStateCommand("NAMESPACE");
+    ImapCommand NOTIFY_COMMAND = ImapCommand.authenticatedStateCommand("NOTIFY");
     ImapCommand RENAME_COMMAND = ImapCommand.authenticatedStateCommand("RENAME");
     ImapCommand SELECT_COMMAND = ImapCommand.authenticatedStateCommand("SELECT");
     ImapCommand STATUS_COMMAND = ImapCommand.authenticatedStateCommand("STATUS");
@@ -197,6 +202,9 @@ public interface ImapConstants {
     ImapCommand MOVE_COMMAND = ImapCommand.selectedStateCommand("MOVE");
     ImapCommand SEARCH_COMMAND = ImapCommand.selectedStateCommand("SEARCH");
     ImapCommand STORE_COMMAND = ImapCommand.selectedStateCommand("STORE");
+    // RFC-5256 SORT and THREAD
+    ImapCommand SORT_COMMAND = ImapCommand.selectedStateCommand("SORT");
+    ImapCommand THREAD_COMMAND = ImapCommand.selectedStateCommand("THREAD");
     ImapCommand UID_COMMAND = ImapCommand.selectedStateCommand("UID");
 
     String ACL_RESPONSE_NAME = "ACL";
@@ -138,6 +138,8 @@ public class HumanReadableText {
     
     public static final HumanReadableText UNSUPPORTED_SEARCH_CRITERIA = new HumanReadableText("org.apache.james.imap.UNSUPPORTED_CRITERIA", "failed. One or more search criteria is unsupported.");
 
+    public static final HumanReadableText UNSUPPORTED_NOTIFY_EVENT = new HumanReadableText("org.apache.james.imap.UNSUPPORTED_NOTIFY_EVENT", "failed. One or more notification events is unsupported.");
+
     public static final HumanReadableText UNSUPPORTED_AUTHENTICATION_MECHANISM = new HumanReadableText("org.apache.james.imap.UNSUPPORTED_AUTHENTICATION_MECHANISM", "failed. Authentication mechanism is unsupported.");
     public static final HumanReadableText AUTHENTICATION_FAILED = new HumanReadableText("org.apache.james.imap.AUTHENTICATION_FAILED", "failed. Authentication failed.");
 
@@ -0,0 +1,52 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.imap.api.message.request;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Events a client can ask to be notified of with the NOTIFY command. See RFC5465
+ */
+public enum NotifyEvent {
+    MESSAGE_NEW("MessageNew"),
+    MESSAGE_EXPUNGE("MessageExpunge"),
+    FLAG_CHANGE("FlagChange"),
+    ANNOTATION_CHANGE("AnnotationChange"),
+    MAILBOX_NAME("MailboxName"),
+    SUBSCRIPTION_CHANGE("SubscriptionChange"),
+    MAILBOX_METADATA_CHANGE("MailboxMetadataChange"),
+    SERVER_METADATA_CHANGE("ServerMetadataChange");
+
+    public static Optional<NotifyEvent> parse(String name) {
+        return Arrays.stream(values())
+            .filter(event -> event.name.equalsIgnoreCase(name))
+            .findFirst();
+    }
+
+    private final String name;
+
+    NotifyEvent(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
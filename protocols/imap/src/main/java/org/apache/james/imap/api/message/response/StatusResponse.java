@@ -235,6 +235,17 @@ public interface StatusResponse extends ImapResponseMessage {
             return new ResponseCode("BADCHARSET", AVAILABLE_CHARSET_NAMES);
         }
 
+        /**
+         * Creates a RFC5465 <code>BADEVENT</code> response code.
+         *
+         * @param supportedEvents
+         *            names of the events supported by the server
+         * @return <code>ResponseCode</code>, not null
+         */
+        public static ResponseCode badEvent(Collection<String> supportedEvents) {
+            return new ResponseCode("BADEVENT", supportedEvents);
+        }
+
         /**
          * Creates a RFC2060 <code>PARSE</code> response code.
          * 
@@ -87,6 +87,7 @@ public interface ImapSession {
 
     /**
      * Logs out the session. Marks the connection for closure;
+     * {@link java.io.Closeable} attributes get closed.
      */
     void logout();
 
@@ -213,6 +214,26 @@ public interface ImapSession {
      */
     boolean isPlainAuthDisallowed();
 
+    /**
+     * Return true if responses can be written right away, false while the client
+     * lags behind reading the responses already written to it
+     */
+    default boolean isWritable() {
+        return true;
+    }
+
+    /**
+     * Suspend the current command until the client drained its pending responses.
+     * No thread waits meanwhile, and no other command of this session is processed
+     * before the command completes.
+     *
+     * @param continuation the remaining processing of the current command, which
+     * may suspend it again
+     */
+    default void resumeWhenWritable(Runnable continuation) {
+        continuation.run();
+    }
+
     default void setMailboxSession(MailboxSession mailboxSession) {
         setAttribute(MAILBOX_SESSION_ATTRIBUTE_SESSION_KEY, mailboxSession);
     }
@@ -20,6 +20,7 @@
 package org.apache.james.imap.api.process;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import javax.mail.Flags;
@@ -29,6 +30,7 @@ import org.apache.james.mailbox.NullableMessageSequenceNumber;
 import org.apache.james.mailbox.exception.MailboxException;
 import org.apache.james.mailbox.model.MailboxId;
 import org.apache.james.mailbox.model.MailboxPath;
+import org.apache.james.mailbox.model.MessageRange;
 
 /**
  * Interface which represent a selected Mailbox during the selected state
@@ -60,6 +62,13 @@ public interface SelectedMailbox {
      */
     boolean addRecent(MessageUid uid);
 
+    /**
+     * Add the given uids to the recent uids
+     */
+    default void addRecent(Collection<MessageUid> uids) {
+        uids.forEach(this::addRecent);
+    }
+
     /**
      * Remove a recent uid
      * 
@@ -136,8 +145,21 @@ public interface SelectedMailbox {
      */
     Collection<MessageUid> expungedUids();
 
+    /**
+     * Return the uids which were expunged, as ascending ranges
+     */
+    default List<MessageRange> expungedRanges() {
+        return MessageRange.toRanges(expungedUids());
+    }
+
     
     void resetExpungedUids();
+
+    /**
+     * Atomically returns the uids which were expunged, as ascending ranges, and resets them, so that a uid expunged
+     * meanwhile is neither lost nor reported twice
+     */
+    List<MessageRange> pollExpungedRanges();
     
     /**
      * Removes the given UID.
@@ -150,12 +172,29 @@ public interface SelectedMailbox {
      */
     NullableMessageSequenceNumber remove(MessageUid uid);
 
+    /**
+     * Removes the given UIDs, as if removed one after the other in iteration order.
+     * 
+     * @param uids
+     *            not null
+     * @return the message sequence numbers that the UIDs held when removed, in iteration order. See {@link #remove(MessageUid)}
+     */
+    List<NullableMessageSequenceNumber> remove(Collection<MessageUid> uids);
+
     /**
      * Return a Collection which holds all uids reflecting the Messages which
      * flags were updated
      */
     Collection<MessageUid> flagUpdateUids();
 
+    /**
+     * Return the uids reflecting the Messages which flags were updated, as
+     * ascending ranges
+     */
+    default List<MessageRange> flagUpdateRanges() {
+        return MessageRange.toRanges(flagUpdateUids());
+    }
+
     /**
      * Return the uid of the first message in the mailbox or empty if the mailbox
      * is empty
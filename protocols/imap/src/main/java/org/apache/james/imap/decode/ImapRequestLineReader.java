@@ -30,6 +30,7 @@ import java.nio.charset.CoderResult;
 import java.nio.charset.CodingErrorAction;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import javax.mail.Flags;
@@ -57,8 +58,24 @@ public abstract class ImapRequestLineReader {
 
     private static final Charset US_ASCII = Charset.forName("US-ASCII");
 
+    private static final CharacterValidator ATOM_CHAR_VALIDATOR = new AtomCharValidator();
+
+    private static final CharacterValidator TAG_CHAR_VALIDATOR = new TagCharValidator();
+
+    private static final long NO_UPPER_BOUND = -1;
+
+    /**
+     * Builds a range from its sorted bounds, where {@link Long#MAX_VALUE} stands for "*"
+     */
+    private interface RangeFactory<T> {
+        T create(long lowVal, long highVal);
+    }
+
     protected boolean nextSeen = false;
 
+    /** Reused by the words read from this request, see {@link #consumeUntil(String)} */
+    private StringBuilder wordBuffer;
+
     protected char nextChar; // unknown
 
 
@@ -187,15 +204,14 @@ public abstract class ImapRequestLineReader {
      * Reads an argument of type "atom" from the request.
      */
     public String atom() throws DecodingException {
-        return consumeWord(new AtomCharValidator(), true);
+        return consumeWord(ATOM_CHAR_VALIDATOR, true);
     }
 
     /**
      * Reads a command "tag" from the request.
      */
     public Tag tag() throws DecodingException {
-        CharacterValidator validator = new TagCharValidator();
-        return new Tag(consumeWord(validator));
+        return new Tag(consumeWord(TAG_CHAR_VALIDATOR));
     }
 
     /**
@@ -335,7 +351,7 @@ public abstract class ImapRequestLineReader {
     }
 
     private String consumeWord(CharacterValidator validator, boolean stripParen) throws DecodingException {
-        StringBuilder atom = new StringBuilder();
+        StringBuilder atom = resetWordBuffer();
 
         char next = nextWordChar();
         while (!isWhitespace(next) && (stripParen == false || next != ')')) {
@@ -352,6 +368,32 @@ public abstract class ImapRequestLineReader {
         return atom.toString();
     }
     
+    /**
+     * Reads the characters preceding the first of the given terminators, which is not consumed.
+     *
+     * The returned sequence is backed by a buffer reused by the next words read from this request: it must not be
+     * retained.
+     */
+    public CharSequence consumeUntil(String terminators) throws DecodingException {
+        StringBuilder word = resetWordBuffer();
+        char next = nextChar();
+        while (terminators.indexOf(next) == -1) {
+            word.append(next);
+            consume();
+            next = nextChar();
+        }
+        return word;
+    }
+
+    private StringBuilder resetWordBuffer() {
+        if (wordBuffer == null) {
+            wordBuffer = new StringBuilder();
+        } else {
+            wordBuffer.setLength(0);
+        }
+        return wordBuffer;
+    }
+
     private static boolean isWhitespace(char next) {
         return (next == ' ' || next == '\n' || next == '\r' || next == '\t');
     }
@@ -626,68 +668,110 @@ public abstract class ImapRequestLineReader {
             }
         }
         
-        CharacterValidator validator = new MessageSetCharValidator();
-        // Don't fail to parse id ranges which are enclosed by "(..)"
-        // See IMAP-283
-        String nextWord = consumeWord(validator, true);
-
-        int commaPos = nextWord.indexOf(',');
-        if (commaPos == -1) {
-            return new IdRange[] { parseRange(nextWord) };
-        }
-
-        ArrayList<IdRange> rangeList = new ArrayList<>();
-        int pos = 0;
-        while (commaPos != -1) {
-            String range = nextWord.substring(pos, commaPos);
-            IdRange set = parseRange(range);
-            rangeList.add(set);
-
-            pos = commaPos + 1;
-            commaPos = nextWord.indexOf(',', pos);
+        List<IdRange> ranges = sequenceSet(IdRange::new);
+        if (ranges.size() == 1) {
+            return new IdRange[] { ranges.get(0) };
         }
-        String range = nextWord.substring(pos);
-        rangeList.add(parseRange(range));
-
         // merge the ranges to minimize the needed queries.
         // See IMAP-211
-        List<IdRange> merged = IdRange.mergeRanges(rangeList);
-        return merged.toArray(IdRange[]::new);
+        return IdRange.mergeRanges(ranges).toArray(IdRange[]::new);
     }
 
     /**
      * Reads a "message set" argument, and parses into an IdSet. This also support the use of $ as sequence-set as stated in SEARCHRES RFC5182 
      */
     public UidRange[] parseUidRange() throws DecodingException {
-        CharacterValidator validator = new MessageSetCharValidator();
+        List<UidRange> ranges = sequenceSet((lowVal, highVal) -> new UidRange(MessageUid.of(lowVal), MessageUid.of(highVal)));
+        if (ranges.size() == 1) {
+            return new UidRange[] { ranges.get(0) };
+        }
+        // merge the ranges to minimize the needed queries.
+        // See IMAP-211
+        return UidRange.mergeRanges(ranges).toArray(UidRange[]::new);
+    }
+
+    /**
+     * Parses a sequence set straight from the request, without building intermediate strings.
+     */
+    private <T> List<T> sequenceSet(RangeFactory<T> factory) throws DecodingException {
+        nextWordChar();
+        T first = range(factory);
+        if (nextChar() != ',') {
+            return Collections.singletonList(first);
+        }
+        List<T> ranges = new ArrayList<>();
+        ranges.add(first);
+        while (nextChar() == ',') {
+            consume();
+            ranges.add(range(factory));
+        }
+        return ranges;
+    }
+
+    /**
+     * Parse a range which use a ":" as delimiter
+     */
+    private <T> T range(RangeFactory<T> factory) throws DecodingException {
+        long val1 = sequenceNumber();
+        long val2 = NO_UPPER_BOUND;
+        if (nextChar() == ':') {
+            consume();
+            val2 = sequenceNumber();
+        }
         // Don't fail to parse id ranges which are enclosed by "(..)"
         // See IMAP-283
-        String nextWord = consumeWord(validator, true);
-
-        int commaPos = nextWord.indexOf(',');
-        if (commaPos == -1) {
-            return new UidRange[] { parseUidRange(nextWord) };
+        char next = nextChar();
+        if (next != ',' && next != ')' && !isWhitespace(next)) {
+            throw invalidSequenceSetCharacter(next);
+        }
+        if (val2 == NO_UPPER_BOUND) {
+            // A single "*" returns last message in mailbox. See IMAP-289
+            return factory.create(val1, val1);
         }
+        // Make sure we detect the low and high value, "*" being the greatest
+        // See https://issues.apache.org/jira/browse/IMAP-212
+        // See IMAP-289 and IMAP-290
+        return factory.create(Math.min(val1, val2), Math.max(val1, val2));
+    }
 
-        ArrayList<UidRange> rangeList = new ArrayList<>();
-        int pos = 0;
-        while (commaPos != -1) {
-            String range = nextWord.substring(pos, commaPos);
-            UidRange set = parseUidRange(range);
-            rangeList.add(set);
+    /**
+     * Reads a sequence number, {@link Long#MAX_VALUE} standing for "*"
+     */
+    private long sequenceNumber() throws DecodingException {
+        char next = nextChar();
+        if (next == '*') {
+            consume();
+            return Long.MAX_VALUE;
+        }
+        if (!isDigit(next)) {
+            throw invalidSequenceSetCharacter(next);
+        }
+        long number = 0;
+        while (isDigit(next)) {
+            number = 10 * number + (next - '0');
+            if (number > ImapConstants.MAX_NZ_NUMBER) {
+                throw new DecodingException(HumanReadableText.INVALID_MESSAGESET, "Invalid message set. Numbers must be unsigned 32-bit Integers");
+            }
+            consume();
+            next = nextChar();
+        }
+        if (number < ImapConstants.MIN_NZ_NUMBER) {
+            throw new DecodingException(HumanReadableText.INVALID_MESSAGESET, "Invalid message set. Numbers must be unsigned 32-bit Integers");
+        }
+        return number;
+    }
 
-            pos = commaPos + 1;
-            commaPos = nextWord.indexOf(',', pos);
+    private DecodingException invalidSequenceSetCharacter(char next) {
+        if (MessageSetCharValidator.isMessageSetChar(next) || next == ')' || isWhitespace(next)) {
+            return new DecodingException(HumanReadableText.INVALID_MESSAGESET, "Invalid message set.");
         }
-        String range = nextWord.substring(pos);
-        rangeList.add(parseUidRange(range));
+        return new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "Invalid character: '" + next + "'");
+    }
 
-        // merge the ranges to minimize the needed queries.
-        // See IMAP-211
-        List<UidRange> merged = UidRange.mergeRanges(rangeList);
-        return merged.toArray(UidRange[]::new);
+    private static boolean isDigit(char chr) {
+        return '0' <= chr && chr <= '9';
     }
-    
+
     /**
      * Reads the first non-space character in the current line. This method will continue
      * to resume if meet space character until meet the non-space character.
@@ -705,101 +789,6 @@ public abstract class ImapRequestLineReader {
         return next;
     }
     
-    /**
-     * Parse a range which use a ":" as delimiter
-     *
-     * @return idRange
-     */
-    private IdRange parseRange(String range) throws DecodingException {
-        int pos = range.indexOf(':');
-        try {
-            if (pos == -1) {
-
-                // Check if its a single "*" and so should return last message
-                // in mailbox. See IMAP-289
-                if (range.length() == 1 && range.charAt(0) == '*') {
-                    return new IdRange(Long.MAX_VALUE, Long.MAX_VALUE);
-                } else {
-                    long value = parseUnsignedInteger(range);
-                    return new IdRange(value);
-                }
-            } else {
-                // Make sure we detect the low and high value
-                // See https://issues.apache.org/jira/browse/IMAP-212
-                long val1 = parseUnsignedInteger(range.substring(0, pos));
-                long val2 = parseUnsignedInteger(range.substring(pos + 1));
-
-                // handle "*:*" ranges. See IMAP-289
-                if (val1 == Long.MAX_VALUE && val2 == Long.MAX_VALUE) {
-                    return new IdRange(Long.MAX_VALUE, Long.MAX_VALUE);
-                } else if (val1 <= val2) {
-                    return new IdRange(val1, val2);
-                } else if (val1 == Long.MAX_VALUE) {
-                    // *:<num> message range must be converted to <num>:*
-                    // See IMAP-290
-                    return new IdRange(val2, Long.MAX_VALUE);
-                } else {
-                    return new IdRange(val2, val1);
-                }
-            }
-        } catch (NumberFormatException e) {
-            throw new DecodingException(HumanReadableText.INVALID_MESSAGESET, "Invalid message set.", e);
-        }
-    }
-
-    /**
-     * Parse a range which use a ":" as delimiter
-     */
-    private UidRange parseUidRange(String range) throws DecodingException {
-        int pos = range.indexOf(':');
-        try {
-            if (pos == -1) {
-
-                // Check if its a single "*" and so should return last message
-                // in mailbox. See IMAP-289
-                if (range.length() == 1 && range.charAt(0) == '*') {
-                    return new UidRange(MessageUid.MAX_VALUE);
-                } else {
-                    long value = parseUnsignedInteger(range);
-                    return new UidRange(MessageUid.of(value));
-                }
-            } else {
-                // Make sure we detect the low and high value
-                // See https://issues.apache.org/jira/browse/IMAP-212
-                long val1 = parseUnsignedInteger(range.substring(0, pos));
-                long val2 = parseUnsignedInteger(range.substring(pos + 1));
-
-                // handle "*:*" ranges. See IMAP-289
-                if (val1 == Long.MAX_VALUE && val2 == Long.MAX_VALUE) {
-                    return new UidRange(MessageUid.MAX_VALUE);
-                } else if (val1 <= val2) {
-                    return new UidRange(MessageUid.of(val1), MessageUid.of(val2));
-                } else if (val1 == Long.MAX_VALUE) {
-                    // *:<num> message range must be converted to <num>:*
-                    // See IMAP-290
-                    return new UidRange(MessageUid.of(val2), MessageUid.MAX_VALUE);
-                } else {
-                    return new UidRange(MessageUid.of(val2), MessageUid.of(val1));
-                }
-            }
-        } catch (NumberFormatException e) {
-            throw new DecodingException(HumanReadableText.INVALID_MESSAGESET, "Invalid message set.", e);
-        }
-    }
-    
-    private long parseUnsignedInteger(String value) throws DecodingException {
-        if (value.length() == 1 && value.charAt(0) == '*') {
-            return Long.MAX_VALUE;
-        } else {
-            long number = Long.parseLong(value);
-            if (number < ImapConstants.MIN_NZ_NUMBER || number > ImapConstants.MAX_NZ_NUMBER) {
-                throw new DecodingException(HumanReadableText.INVALID_MESSAGESET, "Invalid message set. Numbers must be unsigned 32-bit Integers");
-            }
-            return number;
-
-        }
-    }
-
     /**
      * Provides the ability to ensure characters are part of a permitted set.
      */
@@ -877,13 +866,13 @@ public abstract class ImapRequestLineReader {
     }
 
     public static class MessageSetCharValidator implements CharacterValidator {
-        @Override
-        public boolean isValid(char chr) {
+        static boolean isMessageSetChar(char chr) {
             return (isDigit(chr) || chr == ':' || chr == '*' || chr == ',');
         }
 
-        private boolean isDigit(char chr) {
-            return '0' <= chr && chr <= '9';
+        @Override
+        public boolean isValid(char chr) {
+            return isMessageSetChar(chr);
         }
     }
 
@@ -28,7 +28,6 @@ import static org.apache.james.imap.api.message.FetchData.Item.SIZE;
 import static org.apache.james.imap.api.message.FetchData.Item.UID;
 
 import java.util.List;
-import java.util.Locale;
 
 import org.apache.james.imap.api.ImapConstants;
 import org.apache.james.imap.api.ImapMessage;
@@ -115,16 +114,17 @@ public class FetchCommandParser extends AbstractUidCommandParser {
     }
 
     private void addNextElement(ImapRequestLineReader reader, FetchData.Builder fetch) throws DecodingException {
-        // String name = element.toString();
-        String name = readWord(reader, " [)\r\n");
+        // The name is only valid till the next word is read
+        CharSequence name = reader.consumeUntil(" [)\r\n");
         char next = reader.nextChar();
         // Simple elements with no '[]' parameters.
         if (next != '[') {
             addNextName(fetch, name);
         } else {
+            boolean isPeek = isPeek(name);
             reader.consumeChar('[');
 
-            String parameter = readWord(reader, "]");
+            String parameter = reader.consumeUntil("]").toString();
 
             reader.consumeChar(']');
 
@@ -146,56 +146,65 @@ public class FetchCommandParser extends AbstractUidCommandParser {
             }
 
             BodyFetchElement bodyFetchElement = createBodyElement(parameter, firstOctet, numberOfOctets);
-            boolean isPeek = isPeek(name);
             fetch.add(bodyFetchElement, isPeek);
         }
     }
 
-    private FetchData.Builder addNextName(FetchData.Builder fetch, String name) throws DecodingException {
-        String capitalizedName = name.toUpperCase(Locale.US);
-        switch (capitalizedName) {
-            case "FAST":
-                return fetch.fetch(FLAGS, INTERNAL_DATE, SIZE);
-            case "FULL":
-                return fetch.fetch(FLAGS, INTERNAL_DATE, SIZE, ENVELOPE, BODY);
-            case "ALL":
-                return fetch.fetch(FLAGS, INTERNAL_DATE, SIZE, ENVELOPE);
-            case "FLAGS":
-                return fetch.fetch(FLAGS);
-            case "RFC822.SIZE":
-                return fetch.fetch(SIZE);
-            case "ENVELOPE":
-                return fetch.fetch(ENVELOPE);
-            case "INTERNALDATE":
-                return fetch.fetch(INTERNAL_DATE);
-            case "BODY":
-                return fetch.fetch(BODY);
-            case "BODYSTRUCTURE":
-                return fetch.fetch(BODY_STRUCTURE);
-            case "UID":
-                return fetch.fetch(UID);
-            case "RFC822":
-                return fetch.add(BodyFetchElement.createRFC822(), false);
-            case "RFC822.HEADER":
-                return fetch.add(BodyFetchElement.createRFC822Header(), true);
-            case "RFC822.TEXT":
-                return fetch.add(BodyFetchElement.createRFC822Text(), false);
-            case "MODSEQ":
-                return fetch.fetch(MODSEQ);
-            default:
-                throw new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "Invalid fetch attribute: " + name);
+    private FetchData.Builder addNextName(FetchData.Builder fetch, CharSequence name) throws DecodingException {
+        if (nameEquals(name, "FAST")) {
+            return fetch.fetch(FLAGS, INTERNAL_DATE, SIZE);
+        } else if (nameEquals(name, "FULL")) {
+            return fetch.fetch(FLAGS, INTERNAL_DATE, SIZE, ENVELOPE, BODY);
+        } else if (nameEquals(name, "ALL")) {
+            return fetch.fetch(FLAGS, INTERNAL_DATE, SIZE, ENVELOPE);
+        } else if (nameEquals(name, "FLAGS")) {
+            return fetch.fetch(FLAGS);
+        } else if (nameEquals(name, "RFC822.SIZE")) {
+            return fetch.fetch(SIZE);
+        } else if (nameEquals(name, "ENVELOPE")) {
+            return fetch.fetch(ENVELOPE);
+        } else if (nameEquals(name, "INTERNALDATE")) {
+            return fetch.fetch(INTERNAL_DATE);
+        } else if (nameEquals(name, "BODY")) {
+            return fetch.fetch(BODY);
+        } else if (nameEquals(name, "BODYSTRUCTURE")) {
+            return fetch.fetch(BODY_STRUCTURE);
+        } else if (nameEquals(name, "UID")) {
+            return fetch.fetch(UID);
+        } else if (nameEquals(name, "RFC822")) {
+            return fetch.add(BodyFetchElement.createRFC822(), false);
+        } else if (nameEquals(name, "RFC822.HEADER")) {
+            return fetch.add(BodyFetchElement.createRFC822Header(), true);
+        } else if (nameEquals(name, "RFC822.TEXT")) {
+            return fetch.add(BodyFetchElement.createRFC822Text(), false);
+        } else if (nameEquals(name, "MODSEQ")) {
+            return fetch.fetch(MODSEQ);
+        }
+        throw new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "Invalid fetch attribute: " + name);
+    }
+
+    private boolean isPeek(CharSequence name) throws DecodingException {
+        if (nameEquals(name, "BODY")) {
+            return false;
+        } else if (nameEquals(name, "BODY.PEEK")) {
+            return true;
         }
+        throw new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "Invalid fetch attibute: " + name + "[]");
     }
 
-    private boolean isPeek(String name) throws DecodingException {
-        switch (name.toUpperCase(Locale.US)) {
-            case "BODY":
+    /**
+     * Compares without allocating the upper cased name
+     */
+    private static boolean nameEquals(CharSequence name, String upperCaseName) {
+        if (name.length() != upperCaseName.length()) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (ImapRequestLineReader.cap(name.charAt(i)) != upperCaseName.charAt(i)) {
                 return false;
-            case "BODY.PEEK":
-                return true;
-            default:
-                throw new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "Invalid fetch attibute: " + name + "[]");
+            }
         }
+        return true;
     }
 
     private BodyFetchElement createBodyElement(String parameter, Long firstOctet, Long numberOfOctets) throws DecodingException {
@@ -209,17 +218,6 @@ public class FetchCommandParser extends AbstractUidCommandParser {
         return new BodyFetchElement(responseName, sectionType, path, names, firstOctet, numberOfOctets);
     }
 
-    private String readWord(ImapRequestLineReader request, String terminator) throws DecodingException {
-        StringBuilder builder = new StringBuilder();
-        char next = request.nextChar();
-        while (terminator.indexOf(next) == -1) {
-            builder.append(next);
-            request.consume();
-            next = request.nextChar();
-        }
-        return builder.toString();
-    }
-
     private char nextNonSpaceChar(ImapRequestLineReader request) throws DecodingException {
         char next = request.nextChar();
         while (next == ' ') {
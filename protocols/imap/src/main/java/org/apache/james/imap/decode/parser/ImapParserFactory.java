@@ -71,6 +71,9 @@ public class ImapParserFactory implements ImapCommandParserFactory {
             // RFC2342 NAMESPACE
             new NamespaceCommandParser(statusResponseFactory),
 
+            // RFC5465 NOTIFY
+            new NotifyCommandParser(statusResponseFactory),
+
             // RFC4314 GETACL, SETACL, DELETEACL, LISTRIGHTS, MYRIGHTS
             new GetACLCommandParser(statusResponseFactory),
             new SetACLCommandParser(statusResponseFactory),
@@ -86,6 +89,8 @@ public class ImapParserFactory implements ImapCommandParserFactory {
             new CopyCommandParser(statusResponseFactory),
             new MoveCommandParser(statusResponseFactory),
             new SearchCommandParser(statusResponseFactory),
+            new SortCommandParser(statusResponseFactory),
+            new ThreadCommandParser(statusResponseFactory),
             new FetchCommandParser(statusResponseFactory),
             new StoreCommandParser(statusResponseFactory),
             new UidCommandParser(this, statusResponseFactory),
@@ -18,10 +18,15 @@
  ****************************************************************/
 package org.apache.james.imap.decode.parser;
 
+import java.util.EnumSet;
+import java.util.Optional;
+
 import org.apache.james.imap.api.ImapCommand;
 import org.apache.james.imap.api.ImapConstants;
 import org.apache.james.imap.api.ImapMessage;
 import org.apache.james.imap.api.Tag;
+import org.apache.james.imap.api.display.HumanReadableText;
+import org.apache.james.imap.api.message.StatusDataItems;
 import org.apache.james.imap.api.message.response.StatusResponseFactory;
 import org.apache.james.imap.api.process.ImapSession;
 import org.apache.james.imap.decode.DecodingException;
@@ -33,6 +38,9 @@ import org.apache.james.imap.message.request.ListRequest;
  * Parse LIST commands
  */
 public class ListCommandParser extends AbstractUidCommandParser {
+    private static final String RETURN = "RETURN";
+    private static final String RETURN_STATUS = "STATUS";
+    private static final String RETURN_CHILDREN = "CHILDREN";
 
     public ListCommandParser(StatusResponseFactory statusResponseFactory) {
         super(ImapConstants.LIST_COMMAND, statusResponseFactory);
@@ -75,8 +83,60 @@ public class ListCommandParser extends AbstractUidCommandParser {
     protected ImapMessage decode(ImapRequestLineReader request, Tag tag, boolean useUids, ImapSession session) throws DecodingException {
         String referenceName = request.mailbox();
         String mailboxPattern = listMailbox(request);
+        Optional<StatusDataItems> statusDataItems = returnOptions(request);
         request.eol();
-        return createMessage(referenceName, mailboxPattern, tag);
+        return statusDataItems
+            .<ImapMessage>map(items -> new ListRequest(referenceName, mailboxPattern, Optional.of(items), tag))
+            .orElseGet(() -> createMessage(referenceName, mailboxPattern, tag));
+    }
+
+    /**
+     * Whether LIST-EXTENDED return options (RFC-5258) are accepted. Only the STATUS return option (RFC-5819) is
+     * acted upon. CHILDREN is accepted too as children information is always returned.
+     */
+    protected boolean supportsReturnOptions() {
+        return true;
+    }
+
+    private Optional<StatusDataItems> returnOptions(ImapRequestLineReader request) throws DecodingException {
+        char next = request.nextNonSpaceChar();
+        if (!supportsReturnOptions() || next == '\r' || next == '\n') {
+            return Optional.empty();
+        }
+        String keyword = request.atom();
+        if (!keyword.equalsIgnoreCase(RETURN)) {
+            throw new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "Unexpected LIST argument: '" + keyword + "'");
+        }
+        request.nextWordChar();
+        request.consumeChar('(');
+
+        Optional<StatusDataItems> statusDataItems = Optional.empty();
+        while (request.nextWordChar() != ')') {
+            String option = request.atom();
+            if (option.equalsIgnoreCase(RETURN_STATUS)) {
+                statusDataItems = Optional.of(statusDataItems(request));
+            } else if (!option.equalsIgnoreCase(RETURN_CHILDREN)) {
+                throw new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "Unsupported LIST return option: '" + option + "'");
+            }
+        }
+        request.consumeChar(')');
+        return statusDataItems;
+    }
+
+    private StatusDataItems statusDataItems(ImapRequestLineReader request) throws DecodingException {
+        EnumSet<StatusDataItems.StatusItem> items = EnumSet.noneOf(StatusDataItems.StatusItem.class);
+
+        request.nextWordChar();
+        request.consumeChar('(');
+        while (request.nextWordChar() != ')') {
+            items.add(StatusCommandParser.parseStatus(request.atom()));
+        }
+        request.consumeChar(')');
+
+        if (items.isEmpty()) {
+            throw new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "STATUS return option requires status items");
+        }
+        return new StatusDataItems(items);
     }
 
     protected ImapMessage createMessage(String referenceName, String mailboxPattern, Tag tag) {
@@ -0,0 +1,155 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.imap.decode.parser;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+import org.apache.james.imap.api.ImapConstants;
+import org.apache.james.imap.api.ImapMessage;
+import org.apache.james.imap.api.Tag;
+import org.apache.james.imap.api.display.HumanReadableText;
+import org.apache.james.imap.api.message.request.NotifyEvent;
+import org.apache.james.imap.api.message.response.StatusResponseFactory;
+import org.apache.james.imap.api.process.ImapSession;
+import org.apache.james.imap.decode.DecodingException;
+import org.apache.james.imap.decode.ImapRequestLineReader;
+import org.apache.james.imap.decode.base.AbstractImapCommandParser;
+import org.apache.james.imap.message.request.NotifyRequest;
+import org.apache.james.imap.message.request.NotifyRequest.EventGroup;
+import org.apache.james.imap.message.request.NotifyRequest.MailboxFilter;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Parse NOTIFY commands. See RFC5465
+ */
+public class NotifyCommandParser extends AbstractImapCommandParser {
+    private static final String NONE = "NONE";
+    private static final String SET = "SET";
+    private static final String STATUS = "STATUS";
+
+    public NotifyCommandParser(StatusResponseFactory statusResponseFactory) {
+        super(ImapConstants.NOTIFY_COMMAND, statusResponseFactory);
+    }
+
+    @Override
+    protected ImapMessage decode(ImapRequestLineReader request, Tag tag, ImapSession session) throws DecodingException {
+        String operation = request.atom();
+        if (operation.equalsIgnoreCase(NONE)) {
+            request.eol();
+            return NotifyRequest.none(tag);
+        }
+        if (!operation.equalsIgnoreCase(SET)) {
+            throw new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "Unknown NOTIFY operation: '" + operation + "'");
+        }
+
+        boolean status = false;
+        if (request.nextWordChar() != '(') {
+            String option = request.atom();
+            if (!option.equalsIgnoreCase(STATUS)) {
+                throw new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "Unknown NOTIFY option: '" + option + "'");
+            }
+            status = true;
+        }
+
+        ImmutableList.Builder<EventGroup> eventGroups = ImmutableList.builder();
+        do {
+            eventGroups.add(eventGroup(request));
+        } while (request.nextNonSpaceChar() == '(');
+        request.eol();
+
+        return NotifyRequest.set(eventGroups.build(), status, tag);
+    }
+
+    private EventGroup eventGroup(ImapRequestLineReader request) throws DecodingException {
+        request.nextWordChar();
+        request.consumeChar('(');
+        MailboxFilter filter = mailboxFilter(request);
+        Set<NotifyEvent> events = events(request);
+        request.nextWordChar();
+        request.consumeChar(')');
+        return new EventGroup(filter, events);
+    }
+
+    private MailboxFilter mailboxFilter(ImapRequestLineReader request) throws DecodingException {
+        String value = request.atom();
+        MailboxFilter.Type type;
+        try {
+            type = MailboxFilter.Type.valueOf(value.toUpperCase(Locale.US).replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "Unknown NOTIFY mailbox filter: '" + value + "'");
+        }
+
+        if (type == MailboxFilter.Type.SUBTREE || type == MailboxFilter.Type.MAILBOXES) {
+            return MailboxFilter.of(type, mailboxes(request));
+        }
+        return MailboxFilter.of(type);
+    }
+
+    private ImmutableList<String> mailboxes(ImapRequestLineReader request) throws DecodingException {
+        if (request.nextWordChar() != '(') {
+            return ImmutableList.of(request.mailbox());
+        }
+        request.consumeChar('(');
+        ImmutableList.Builder<String> mailboxes = ImmutableList.builder();
+        do {
+            mailboxes.add(request.mailbox());
+        } while (request.nextWordChar() != ')');
+        request.consumeChar(')');
+        return mailboxes.build();
+    }
+
+    private Set<NotifyEvent> events(ImapRequestLineReader request) throws DecodingException {
+        if (request.nextWordChar() != '(') {
+            String value = request.atom();
+            if (!value.equalsIgnoreCase(NONE)) {
+                throw new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "Expected NOTIFY events, found: '" + value + "'");
+            }
+            return EnumSet.noneOf(NotifyEvent.class);
+        }
+
+        request.consumeChar('(');
+        EnumSet<NotifyEvent> events = EnumSet.noneOf(NotifyEvent.class);
+        do {
+            events.add(event(request));
+        } while (request.nextWordChar() != ')');
+        request.consumeChar(')');
+
+        // See RFC5465 section 5: MessageNew and MessageExpunge go together, and are required by FlagChange
+        if (events.contains(NotifyEvent.MESSAGE_NEW) != events.contains(NotifyEvent.MESSAGE_EXPUNGE)) {
+            throw new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "MessageNew and MessageExpunge must be requested together");
+        }
+        if (events.contains(NotifyEvent.FLAG_CHANGE) && !events.contains(NotifyEvent.MESSAGE_NEW)) {
+            throw new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "FlagChange requires MessageNew and MessageExpunge");
+        }
+        return events;
+    }
+
+    private NotifyEvent event(ImapRequestLineReader request) throws DecodingException {
+        String value = request.atom();
+        NotifyEvent event = NotifyEvent.parse(value)
+            .orElseThrow(() -> new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "Unknown NOTIFY event: '" + value + "'"));
+        if (event == NotifyEvent.MESSAGE_NEW && request.nextNonSpaceChar() == '(') {
+            throw new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "Fetch attributes of MessageNew are not supported");
+        }
+        return event;
+    }
+}
@@ -882,15 +882,29 @@ public class SearchCommandParser extends AbstractUidCommandParser {
     }
 
     public SearchKey decode(ImapSession session, ImapRequestLineReader request) throws DecodingException, IllegalCharsetNameException, UnsupportedCharsetException {
+        return decode(session, request, null, true);
+    }
+
+    /**
+     * Parses the search criteria of commands specifying the charset on their own, like SORT and THREAD (RFC5256).
+     *
+     * @param charset
+     *            <code>Charset</code> of the search criteria, not null
+     */
+    public SearchKey decode(ImapSession session, ImapRequestLineReader request, Charset charset) throws DecodingException {
+        return decode(session, request, charset, false);
+    }
+
+    private SearchKey decode(ImapSession session, ImapRequestLineReader request, Charset charset, boolean acceptCharsetKey) throws DecodingException, IllegalCharsetNameException, UnsupportedCharsetException {
         request.nextWordChar();
-        final SearchKey firstKey = searchKey(session, request, null, true);
+        final SearchKey firstKey = searchKey(session, request, charset, acceptCharsetKey);
         final SearchKey result;
         if (request.nextChar() == ' ') {
             List<SearchKey> keys = new ArrayList<>();
             keys.add(firstKey);
             while (request.nextChar() == ' ') {
                 request.nextWordChar();
-                final SearchKey key = searchKey(session, request, null, false);
+                final SearchKey key = searchKey(session, request, charset, false);
                 keys.add(key);
             }
             result = SearchKey.buildAnd(keys);
@@ -0,0 +1,122 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.imap.decode.parser;
+
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.UnsupportedCharsetException;
+import java.util.List;
+import java.util.Locale;
+
+import org.apache.james.imap.api.ImapConstants;
+import org.apache.james.imap.api.ImapMessage;
+import org.apache.james.imap.api.Tag;
+import org.apache.james.imap.api.display.HumanReadableText;
+import org.apache.james.imap.api.message.request.SearchKey;
+import org.apache.james.imap.api.message.response.StatusResponse;
+import org.apache.james.imap.api.message.response.StatusResponseFactory;
+import org.apache.james.imap.api.process.ImapSession;
+import org.apache.james.imap.decode.DecodingException;
+import org.apache.james.imap.decode.ImapRequestLineReader;
+import org.apache.james.imap.message.request.SortRequest;
+import org.apache.james.mailbox.model.SearchQuery;
+import org.apache.james.mailbox.model.SearchQuery.Sort.Order;
+import org.apache.james.mailbox.model.SearchQuery.Sort.SortClause;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Parse SORT commands. See RFC5256 and RFC5957
+ */
+public class SortCommandParser extends AbstractUidCommandParser {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SortCommandParser.class);
+    private static final String REVERSE = "REVERSE";
+
+    private final SearchCommandParser searchCommandParser;
+
+    public SortCommandParser(StatusResponseFactory statusResponseFactory) {
+        super(ImapConstants.SORT_COMMAND, statusResponseFactory);
+        this.searchCommandParser = new SearchCommandParser(statusResponseFactory);
+    }
+
+    @Override
+    protected ImapMessage decode(ImapRequestLineReader request, Tag tag, boolean useUids, ImapSession session) throws DecodingException {
+        try {
+            List<SearchQuery.Sort> sorts = sortCriteria(request);
+            Charset charset = Charset.forName(request.astring());
+            SearchKey searchKey = searchCommandParser.decode(session, request, charset);
+            return new SortRequest(sorts, searchKey, useUids, tag);
+        } catch (IllegalCharsetNameException | UnsupportedCharsetException e) {
+            LOGGER.debug("Unable to decode request", e);
+            return taggedNo(tag, ImapConstants.SORT_COMMAND, HumanReadableText.BAD_CHARSET, StatusResponse.ResponseCode.badCharset());
+        }
+    }
+
+    private List<SearchQuery.Sort> sortCriteria(ImapRequestLineReader request) throws DecodingException {
+        request.nextWordChar();
+        request.consumeChar('(');
+
+        ImmutableList.Builder<SearchQuery.Sort> sorts = ImmutableList.builder();
+        boolean reverse = false;
+        boolean empty = true;
+        while (request.nextWordChar() != ')') {
+            String key = request.atom().toUpperCase(Locale.US);
+            if (key.equals(REVERSE) && !reverse) {
+                reverse = true;
+            } else {
+                sorts.add(new SearchQuery.Sort(sortClause(key), reverse ? Order.REVERSE : Order.NATURAL));
+                reverse = false;
+                empty = false;
+            }
+        }
+        request.consumeChar(')');
+
+        if (empty || reverse) {
+            throw new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "Missing sort key");
+        }
+        return sorts.build();
+    }
+
+    private SortClause sortClause(String key) throws DecodingException {
+        switch (key) {
+        case "ARRIVAL":
+            return SortClause.Arrival;
+        case "CC":
+            return SortClause.MailboxCc;
+        case "DATE":
+            return SortClause.SentDate;
+        case "FROM":
+            return SortClause.MailboxFrom;
+        case "SIZE":
+            return SortClause.Size;
+        case "SUBJECT":
+            return SortClause.BaseSubject;
+        case "TO":
+            return SortClause.MailboxTo;
+        case "DISPLAYFROM":
+            return SortClause.DisplayFrom;
+        case "DISPLAYTO":
+            return SortClause.DisplayTo;
+        default:
+            throw new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "Unknown sort key " + key);
+        }
+    }
+}
@@ -58,7 +58,7 @@ public class StatusCommandParser extends AbstractImapCommandParser {
         ImmutableList<String> words = splitWords(request);
 
         EnumSet<StatusDataItems.StatusItem> items = EnumSet.copyOf(words.stream()
-            .map(Throwing.function(this::parseStatus).sneakyThrow())
+            .map(Throwing.function(StatusCommandParser::parseStatus).sneakyThrow())
             .collect(Guavate.toImmutableList()));
 
         return new StatusDataItems(items);
@@ -82,7 +82,7 @@ public class StatusCommandParser extends AbstractImapCommandParser {
         return words.build();
     }
 
-    private StatusDataItems.StatusItem parseStatus(String nextWord) throws DecodingException {
+    static StatusDataItems.StatusItem parseStatus(String nextWord) throws DecodingException {
         // All the matching must be done in a case-insensitive fashion.
         // See rfc3501 9. Formal Syntax and IMAP-282
         if (nextWord.equalsIgnoreCase(ImapConstants.STATUS_MESSAGES)) {
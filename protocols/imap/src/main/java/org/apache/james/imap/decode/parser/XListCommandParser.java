@@ -32,6 +32,11 @@ public class XListCommandParser extends ListCommandParser {
         super(ImapConstants.XLIST_COMMAND, statusResponseFactory);
     }
 
+    @Override
+    protected boolean supportsReturnOptions() {
+        return false;
+    }
+
     @Override
     protected ImapMessage createMessage(String referenceName, String mailboxPattern, Tag tag) {
         return new XListRequest(referenceName, mailboxPattern, tag);
@@ -29,6 +29,7 @@ import org.apache.commons.lang3.time.FastDateFormat;
  * Utility methods for IMAP encoding.
  */
 public class EncoderUtils {
+    private static final FastDateFormat DATE_TIME_FORMAT = FastDateFormat.getInstance("dd-MMM-yyyy HH:mm:ss Z", TimeZone.getTimeZone("GMT"), Locale.US);
 
     /**
      * Encodes a date in IMAP <code>date-time</code> format.
@@ -38,7 +39,6 @@ public class EncoderUtils {
      * @return encoded IMAP <code>date-time</code>, not null
      */
     public static String encodeDateTime(Date date) {
-        final FastDateFormat format = FastDateFormat.getInstance("dd-MMM-yyyy HH:mm:ss Z", TimeZone.getTimeZone("GMT"), Locale.US);
-        return format.format(date);
+        return DATE_TIME_FORMAT.format(date);
     }
 }
@@ -18,6 +18,9 @@
  ****************************************************************/
 package org.apache.james.imap.encode;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -26,6 +29,8 @@ import org.apache.james.imap.api.process.ImapLineHandler;
 import org.apache.james.imap.api.process.ImapSession;
 import org.apache.james.imap.api.process.SelectedMailbox;
 
+import com.google.common.collect.ImmutableList;
+
 public class FakeImapSession implements ImapSession {
 
     private ImapSessionState state = ImapSessionState.NON_AUTHENTICATED;
@@ -48,6 +53,7 @@ public class FakeImapSession implements ImapSession {
     @Override
     public void logout() {
         closeMailbox();
+        closeAttributes();
         state = ImapSessionState.LOGOUT;
     }
 
@@ -79,6 +85,21 @@ public class FakeImapSession implements ImapSession {
         return this.state;
     }
 
+    private void closeAttributes() {
+        ImmutableList.copyOf(attributesByKey.values()).stream()
+            .filter(Closeable.class::isInstance)
+            .map(Closeable.class::cast)
+            .forEach(this::closeQuietly);
+    }
+
+    private void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     public void closeMailbox() {
         if (selectedMailbox != null) {
             selectedMailbox.deselect();
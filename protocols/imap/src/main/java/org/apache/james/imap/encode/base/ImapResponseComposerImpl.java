@@ -20,7 +20,7 @@
 package org.apache.james.imap.encode.base;
 
 import java.io.IOException;
-import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 
 import javax.mail.Flags;
 
@@ -35,6 +35,9 @@ import org.apache.james.imap.encode.ImapResponseWriter;
 import org.apache.james.imap.message.response.Literal;
 import org.apache.james.imap.utils.FastByteArrayOutputStream;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
 /**
  * Class providing methods to send response messages from the server to the
  * client.
@@ -46,19 +49,39 @@ public class ImapResponseComposerImpl implements ImapConstants, ImapResponseComp
     public static final String FAILED = "failed.";
     private static final int LOWER_CASE_OFFSET = 'a' - 'A';
     public static final int DEFAULT_BUFFER_SIZE = 2048;
-    
+
+    private static final byte BYTE_SPACE = ' ';
+    private static final byte BYTE_COLON = ':';
+    private static final byte BYTE_COMMA = ',';
+    private static final byte BYTE_MINUS = '-';
+    private static final byte[] LINE_END_BYTES = LINE_END.getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] LONG_MIN_VALUE_BYTES = Long.toString(Long.MIN_VALUE).getBytes(StandardCharsets.US_ASCII);
+    private static final int MAX_LONG_DIGITS = 19;
+
+    /**
+     * Tokens written over and over by the encoders, hence encoded once and for all
+     */
+    private static final ImmutableMap<String, byte[]> ENCODED_TOKENS = ImmutableList.of(
+            OK, NO, BAD, NIL, UID, FLAGS, "BYE", "PREAUTH", "EXISTS", "EXPUNGE", "VANISHED", "completed.",
+            FETCH_COMMAND.getName(), FETCH_MODSEQ, FETCH_BODY, FETCH_BODY_STRUCTURE, FETCH_RFC822, FETCH_RFC822_HEADER,
+            FETCH_RFC822_TEXT, "RFC822.SIZE", "INTERNALDATE", "ENVELOPE", "BODY[]", "BODY[HEADER]", "BODY[TEXT]",
+            SEARCH_COMMAND.getName(), "ESEARCH", "SORT", "THREAD", "LIST", "LSUB", "STATUS",
+            STATUS_MESSAGES, STATUS_RECENT, STATUS_UIDNEXT, STATUS_UIDVALIDITY, STATUS_UNSEEN, STATUS_HIGHESTMODSEQ,
+            "\\Answered", "\\Deleted", "\\Draft", "\\Flagged", "\\Recent", "\\Seen")
+        .stream()
+        .distinct()
+        .collect(ImmutableMap.toImmutableMap(token -> token, token -> token.getBytes(StandardCharsets.US_ASCII)));
     
     private final ImapResponseWriter writer;
 
     private final FastByteArrayOutputStream buffer;
 
-    private final Charset usAscii;
+    private final byte[] digits = new byte[MAX_LONG_DIGITS];
 
     private boolean skipNextSpace;
 
     public ImapResponseComposerImpl(ImapResponseWriter writer, int bufferSize) {
         skipNextSpace = false;
-        usAscii = Charset.forName("US-ASCII");
         this.writer = writer;
         this.buffer = new FastByteArrayOutputStream(bufferSize);
     }
@@ -79,7 +102,9 @@ public class ImapResponseComposerImpl implements ImapConstants, ImapResponseComp
 
     @Override
     public ImapResponseComposer continuationResponse(String message) throws IOException {
-        writeASCII(CONTINUATION + SP + message);
+        writeASCII(CONTINUATION);
+        buffer.write(BYTE_SPACE);
+        writeASCII(message);
         end();
         return this;
     }
@@ -122,7 +147,7 @@ public class ImapResponseComposerImpl implements ImapConstants, ImapResponseComp
 
     @Override
     public ImapResponseComposer end() throws IOException {
-        buffer.write(LINE_END.getBytes());
+        buffer.write(LINE_END_BYTES);
         writer.write(buffer.toByteArray());
         buffer.reset();
         return this;
@@ -196,14 +221,55 @@ public class ImapResponseComposerImpl implements ImapConstants, ImapResponseComp
     }
 
 
+    /**
+     * Writes the given string as US-ASCII, straight into the buffer
+     */
     private void writeASCII(String string) throws IOException {
-        buffer.write(string.getBytes(usAscii));
+        byte[] encodedToken = ENCODED_TOKENS.get(string);
+        if (encodedToken != null) {
+            buffer.write(encodedToken);
+            return;
+        }
+        final int length = string.length();
+        for (int i = 0; i < length; i++) {
+            char character = string.charAt(i);
+            // Same replacement than String::getBytes for unmappable characters, surrogate pairs included
+            if (character > 127) {
+                if (Character.isHighSurrogate(character) && i + 1 < length && Character.isLowSurrogate(string.charAt(i + 1))) {
+                    i++;
+                }
+                buffer.write(BYTE_QUESTION);
+            } else {
+                buffer.write((byte) character);
+            }
+        }
+    }
+
+    /**
+     * Writes the decimal representation of the given number straight into the buffer
+     */
+    private void writeNumber(long number) {
+        if (number == Long.MIN_VALUE) {
+            buffer.write(LONG_MIN_VALUE_BYTES, 0, LONG_MIN_VALUE_BYTES.length);
+            return;
+        }
+        long remaining = number;
+        if (remaining < 0) {
+            buffer.write(BYTE_MINUS);
+            remaining = -remaining;
+        }
+        int position = MAX_LONG_DIGITS;
+        do {
+            digits[--position] = (byte) ('0' + remaining % 10);
+            remaining /= 10;
+        } while (remaining != 0);
+        buffer.write(digits, position, MAX_LONG_DIGITS - position);
     }
 
     @Override
     public ImapResponseComposer message(long number) throws IOException {
         space();
-        writeASCII(Long.toString(number));
+        writeNumber(number);
         return this;
     }
     
@@ -266,7 +332,7 @@ public class ImapResponseComposerImpl implements ImapConstants, ImapResponseComp
         if (skipNextSpace) {
             skipNextSpace = false;
         } else {
-            buffer.write(SP.getBytes());
+            buffer.write(BYTE_SPACE);
         }
     }
 
@@ -275,7 +341,7 @@ public class ImapResponseComposerImpl implements ImapConstants, ImapResponseComp
         space();
         buffer.write(BYTE_OPEN_BRACE);
         final long size = literal.size();
-        writeASCII(Long.toString(size));
+        writeNumber(size);
         buffer.write(BYTE_CLOSE_BRACE);
         end();
         if (size > 0) {
@@ -317,28 +383,36 @@ public class ImapResponseComposerImpl implements ImapConstants, ImapResponseComp
 
     @Override
     public ImapResponseComposer sequenceSet(UidRange[] ranges) throws IOException {
-        StringBuilder sb = new StringBuilder();
+        space();
         for (int i = 0; i < ranges.length; i++) {
             UidRange range = ranges[i];
-            sb.append(range.getFormattedString());
-            if (i + 1 < ranges.length) {
-                sb.append(",");
+            if (i > 0) {
+                buffer.write(BYTE_COMMA);
             }
+            writeRange(range.getLowVal().asLong(), range.getHighVal().asLong());
         }
-        return message(sb.toString());
+        return this;
     }
 
     @Override
     public ImapResponseComposer sequenceSet(IdRange[] ranges) throws IOException {
-        StringBuilder sb = new StringBuilder();
+        space();
         for (int i = 0; i < ranges.length; i++) {
             IdRange range = ranges[i];
-            sb.append(range.getFormattedString());
-            if (i + 1 < ranges.length) {
-                sb.append(",");
+            if (i > 0) {
+                buffer.write(BYTE_COMMA);
             }
+            writeRange(range.getLowVal(), range.getHighVal());
+        }
+        return this;
+    }
+
+    private void writeRange(long low, long high) {
+        writeNumber(low);
+        if (low != high) {
+            buffer.write(BYTE_COLON);
+            writeNumber(high);
         }
-        return message(sb.toString());
     }
 
 }
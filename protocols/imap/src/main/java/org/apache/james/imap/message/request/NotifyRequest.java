@@ -0,0 +1,188 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.imap.message.request;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import org.apache.james.imap.api.ImapConstants;
+import org.apache.james.imap.api.Tag;
+import org.apache.james.imap.api.message.request.NotifyEvent;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+public class NotifyRequest extends AbstractImapRequest {
+
+    /**
+     * Mailboxes an {@link EventGroup} applies to
+     */
+    public static class MailboxFilter {
+        public enum Type {
+            SELECTED,
+            SELECTED_DELAYED,
+            INBOXES,
+            PERSONAL,
+            SUBSCRIBED,
+            SUBTREE,
+            MAILBOXES
+        }
+
+        public static MailboxFilter of(Type type) {
+            return new MailboxFilter(type, ImmutableList.of());
+        }
+
+        public static MailboxFilter of(Type type, List<String> mailboxNames) {
+            return new MailboxFilter(type, mailboxNames);
+        }
+
+        private final Type type;
+        private final List<String> mailboxNames;
+
+        private MailboxFilter(Type type, List<String> mailboxNames) {
+            this.type = type;
+            this.mailboxNames = ImmutableList.copyOf(mailboxNames);
+        }
+
+        public Type getType() {
+            return type;
+        }
+
+        /**
+         * @return the mailbox names of SUBTREE and MAILBOXES filters, empty otherwise
+         */
+        public List<String> getMailboxNames() {
+            return mailboxNames;
+        }
+
+        public boolean isSelected() {
+            return type == Type.SELECTED || type == Type.SELECTED_DELAYED;
+        }
+
+        @Override
+        public final boolean equals(Object o) {
+            if (o instanceof MailboxFilter) {
+                MailboxFilter that = (MailboxFilter) o;
+
+                return Objects.equals(this.type, that.type)
+                    && Objects.equals(this.mailboxNames, that.mailboxNames);
+            }
+            return false;
+        }
+
+        @Override
+        public final int hashCode() {
+            return Objects.hash(type, mailboxNames);
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(this)
+                .add("type", type)
+                .add("mailboxNames", mailboxNames)
+                .toString();
+        }
+    }
+
+    /**
+     * Events to be notified of for the mailboxes matching a {@link MailboxFilter}. No events means NONE.
+     */
+    public static class EventGroup {
+        private final MailboxFilter filter;
+        private final Set<NotifyEvent> events;
+
+        public EventGroup(MailboxFilter filter, Set<NotifyEvent> events) {
+            this.filter = filter;
+            this.events = ImmutableSet.copyOf(events);
+        }
+
+        public MailboxFilter getFilter() {
+            return filter;
+        }
+
+        public Set<NotifyEvent> getEvents() {
+            return events;
+        }
+
+        @Override
+        public final boolean equals(Object o) {
+            if (o instanceof EventGroup) {
+                EventGroup that = (EventGroup) o;
+
+                return Objects.equals(this.filter, that.filter)
+                    && Objects.equals(this.events, that.events);
+            }
+            return false;
+        }
+
+        @Override
+        public final int hashCode() {
+            return Objects.hash(filter, events);
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(this)
+                .add("filter", filter)
+                .add("events", events)
+                .toString();
+        }
+    }
+
+    public static NotifyRequest none(Tag tag) {
+        return new NotifyRequest(ImmutableList.of(), false, tag);
+    }
+
+    public static NotifyRequest set(List<EventGroup> eventGroups, boolean status, Tag tag) {
+        return new NotifyRequest(eventGroups, status, tag);
+    }
+
+    private final List<EventGroup> eventGroups;
+    private final boolean status;
+
+    private NotifyRequest(List<EventGroup> eventGroups, boolean status, Tag tag) {
+        super(tag, ImapConstants.NOTIFY_COMMAND);
+        this.eventGroups = ImmutableList.copyOf(eventGroups);
+        this.status = status;
+    }
+
+    /**
+     * @return the requested event groups, empty for NOTIFY NONE
+     */
+    public final List<EventGroup> getEventGroups() {
+        return eventGroups;
+    }
+
+    /**
+     * @return true when the current status of the watched mailboxes is requested upfront
+     */
+    public final boolean isStatus() {
+        return status;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("eventGroups", eventGroups)
+            .add("status", status)
+            .toString();
+    }
+}
@@ -71,6 +71,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.github.fge.lambdas.Throwing;
+import com.github.steveash.guavate.Guavate;
+import com.google.common.collect.Streams;
 
 import reactor.core.publisher.Flux;
 
@@ -151,16 +153,15 @@ public abstract class AbstractMailboxProcessor<R extends ImapRequest> extends Ab
         }
         // Expunged messages
         if (!omitExpunged) {
-            final Collection<MessageUid> expungedUids = selected.expungedUids();
-            if (!expungedUids.isEmpty()) {
+            // Expunged uids are reset as they are read, as we always send the EXPUNGE or VANISHED responses. See IMAP-286
+            final List<MessageRange> expungedRanges = selected.pollExpungedRanges();
+            if (!expungedRanges.isEmpty()) {
                 // Check if QRESYNC was enabled. If so we MUST use VANISHED responses
                 if (EnableProcessor.getEnabledCapabilities(session).contains(ImapConstants.SUPPORTS_QRESYNC)) {
-                    addVanishedResponse(selected, expungedUids, responder);
+                    addVanishedResponse(selected, expungedRanges, responder);
                 } else {
-                    addExpungedResponses(selected, expungedUids, responder);
+                    addExpungedResponses(selected, toUids(expungedRanges), responder);
                 }
-                // Only reset the events if we send the EXPUNGE or VANISHED responses. See IMAP-286
-                selected.resetExpungedUids();
             }
 
         }
@@ -176,22 +177,23 @@ public abstract class AbstractMailboxProcessor<R extends ImapRequest> extends Ab
     }
 
     private void addExpungedResponses(SelectedMailbox selected, Collection<MessageUid> expungedUids, ImapProcessor.Responder responder) {
-        for (MessageUid uid : expungedUids) {
-
-            // we need to remove the message in the loop to the sequence numbers
-            // are updated correctly.
-            // See 7.4.1. EXPUNGE Response
-            final NullableMessageSequenceNumber msn = selected.remove(uid);
+        // sequence numbers account for the previous removals.
+        // See 7.4.1. EXPUNGE Response
+        for (NullableMessageSequenceNumber msn : selected.remove(expungedUids)) {
             ExpungeResponse response = new ExpungeResponse(msn);
             responder.respond(response);
         }
     }
     
-    private void addVanishedResponse(SelectedMailbox selected, Collection<MessageUid> expungedUids, ImapProcessor.Responder responder) {
-        for (MessageUid uid : expungedUids) {
-            selected.remove(uid);
-        }
-        UidRange[] uidRange = uidRanges(MessageRange.toRanges(expungedUids));
+    private List<MessageUid> toUids(List<MessageRange> ranges) {
+        return ranges.stream()
+            .flatMap(range -> Streams.stream(range))
+            .collect(Guavate.toImmutableList());
+    }
+
+    private void addVanishedResponse(SelectedMailbox selected, List<MessageRange> expungedRanges, ImapProcessor.Responder responder) {
+        selected.remove(toUids(expungedRanges));
+        UidRange[] uidRange = uidRanges(expungedRanges);
         responder.respond(new VanishedResponse(uidRange, false));
     }
     
@@ -214,9 +216,9 @@ public abstract class AbstractMailboxProcessor<R extends ImapRequest> extends Ab
                 selected.resetNewApplicableFlags();
             }
             
-            final Collection<MessageUid> flagUpdateUids = selected.flagUpdateUids();
-            if (!flagUpdateUids.isEmpty()) {
-                Iterator<MessageRange> ranges = MessageRange.toRanges(flagUpdateUids).iterator();
+            final List<MessageRange> flagUpdateRanges = selected.flagUpdateRanges();
+            if (!flagUpdateRanges.isEmpty()) {
+                Iterator<MessageRange> ranges = flagUpdateRanges.iterator();
                 if (messageManager == null) {
                     messageManager = getMailbox(session, selected);
                 }
@@ -400,6 +400,7 @@ abstract class AbstractSelectionProcessor<R extends AbstractMailboxSelectionRequ
                 getStatusResponseFactory().untaggedOk(HumanReadableText.QRESYNC_CLOSED, ResponseCode.closed());
             }
             session.selected(new SelectedMailboxImpl(getMailboxManager(), eventBus, session, mailbox));
+            NotifyProcessor.selected(session, mailbox.getId());
 
             sessionMailbox = session.getSelected();
             
@@ -92,10 +92,21 @@ public class AppendProcessor extends AbstractMailboxProcessor<AppendRequest> {
             // Some other issue
             no(request, responder, HumanReadableText.GENERIC_FAILURE_DURING_PROCESSING);
 
+        } finally {
+            // the literal might hold a spooled file
+            close(messageIn);
         }
 
     }
 
+    private void close(InputStream in) {
+        try {
+            in.close();
+        } catch (IOException e) {
+            LOGGER.warn("Failed to release the appended message", e);
+        }
+    }
+
     private void consume(InputStream in) {
         try {
             // IOUtils.copy() buffers the input internally, so there is no need
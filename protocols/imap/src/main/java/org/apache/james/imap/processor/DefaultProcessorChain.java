@@ -22,6 +22,7 @@ package org.apache.james.imap.processor;
 import org.apache.james.imap.api.message.response.StatusResponseFactory;
 import org.apache.james.imap.api.process.ImapProcessor;
 import org.apache.james.imap.api.process.MailboxTyper;
+import org.apache.james.imap.processor.base.FanOutEventBus;
 import org.apache.james.imap.processor.fetch.FetchProcessor;
 import org.apache.james.mailbox.MailboxManager;
 import org.apache.james.mailbox.SubscriptionManager;
@@ -45,6 +46,8 @@ public class DefaultProcessorChain {
                                                    QuotaRootResolver quotaRootResolver,
                                                    MetricFactory metricFactory) {
 
+        // Sessions watching the same mailbox share a single event bus registration
+        EventBus fanOutEventBus = new FanOutEventBus(eventBus);
         SystemMessageProcessor systemProcessor = new SystemMessageProcessor(chainEndProcessor, mailboxManager);
         LogoutProcessor logoutProcessor = new LogoutProcessor(systemProcessor, mailboxManager, statusResponseFactory, metricFactory);
 
@@ -79,11 +82,11 @@ public class DefaultProcessorChain {
             authenticateProcessor = new AuthenticateProcessor(copyProcessor, mailboxManager, statusResponseFactory, metricFactory);
         }
         ExpungeProcessor expungeProcessor = new ExpungeProcessor(authenticateProcessor, mailboxManager, statusResponseFactory, metricFactory);
-        ExamineProcessor examineProcessor = new ExamineProcessor(expungeProcessor, mailboxManager, eventBus, statusResponseFactory, metricFactory);
+        ExamineProcessor examineProcessor = new ExamineProcessor(expungeProcessor, mailboxManager, fanOutEventBus, statusResponseFactory, metricFactory);
         AppendProcessor appendProcessor = new AppendProcessor(examineProcessor, mailboxManager, statusResponseFactory, metricFactory);
         StoreProcessor storeProcessor = new StoreProcessor(appendProcessor, mailboxManager, statusResponseFactory, metricFactory);
         NoopProcessor noopProcessor = new NoopProcessor(storeProcessor, mailboxManager, statusResponseFactory, metricFactory);
-        IdleProcessor idleProcessor = new IdleProcessor(noopProcessor, mailboxManager, eventBus, statusResponseFactory, metricFactory);
+        IdleProcessor idleProcessor = new IdleProcessor(noopProcessor, mailboxManager, fanOutEventBus, statusResponseFactory, metricFactory);
         StatusProcessor statusProcessor = new StatusProcessor(idleProcessor, mailboxManager, statusResponseFactory, metricFactory);
         LSubProcessor lsubProcessor = new LSubProcessor(statusProcessor, mailboxManager, subscriptionManager, statusResponseFactory, metricFactory);
         XListProcessor xlistProcessor = new XListProcessor(lsubProcessor, mailboxManager, statusResponseFactory, mailboxTyper, metricFactory);
@@ -91,13 +94,20 @@ public class DefaultProcessorChain {
         SearchProcessor searchProcessor = new SearchProcessor(listProcessor, mailboxManager, statusResponseFactory, metricFactory);
         // WITHIN extension
         capabilityProcessor.addProcessor(searchProcessor);
+        // RFC5256 SORT and THREAD
+        SortProcessor sortProcessor = new SortProcessor(searchProcessor, mailboxManager, statusResponseFactory, metricFactory);
+        capabilityProcessor.addProcessor(sortProcessor);
+        ThreadProcessor threadProcessor = new ThreadProcessor(sortProcessor, mailboxManager, statusResponseFactory, metricFactory);
+        capabilityProcessor.addProcessor(threadProcessor);
 
-        SelectProcessor selectProcessor = new SelectProcessor(searchProcessor, mailboxManager, eventBus, statusResponseFactory, metricFactory);
+        SelectProcessor selectProcessor = new SelectProcessor(threadProcessor, mailboxManager, fanOutEventBus, statusResponseFactory, metricFactory);
         NamespaceProcessor namespaceProcessor = new NamespaceProcessor(selectProcessor, mailboxManager, statusResponseFactory, metricFactory);
+        NotifyProcessor notifyProcessor = new NotifyProcessor(namespaceProcessor, mailboxManager, subscriptionManager, fanOutEventBus, statusResponseFactory, metricFactory);
 
         capabilityProcessor.addProcessor(xlistProcessor);
+        capabilityProcessor.addProcessor(listProcessor);
 
-        ImapProcessor fetchProcessor = new FetchProcessor(namespaceProcessor, mailboxManager, statusResponseFactory, metricFactory);
+        ImapProcessor fetchProcessor = new FetchProcessor(notifyProcessor, mailboxManager, statusResponseFactory, metricFactory);
         StartTLSProcessor startTLSProcessor = new StartTLSProcessor(fetchProcessor, statusResponseFactory);
 
         UnselectProcessor unselectProcessor = new UnselectProcessor(startTLSProcessor, mailboxManager, statusResponseFactory, metricFactory);
@@ -143,6 +153,9 @@ public class DefaultProcessorChain {
 
         capabilityProcessor.addProcessor(getQuotaRootProcessor);
 
+        // announce the NOTIFY extension. See RFC5465
+        capabilityProcessor.addProcessor(notifyProcessor);
+
         return getQuotaRootProcessor;
 
     }
@@ -19,13 +19,19 @@
 
 package org.apache.james.imap.processor;
 
+import static org.apache.james.imap.api.ImapConstants.SUPPORTS_LIST_STATUS;
+import static org.apache.james.mailbox.MailboxManager.MailboxSearchFetchType.Counters;
 import static org.apache.james.mailbox.MailboxManager.MailboxSearchFetchType.Minimal;
 
 import java.io.Closeable;
+import java.util.List;
+import java.util.Optional;
 
 import org.apache.james.imap.api.ImapMessage;
 import org.apache.james.imap.api.display.HumanReadableText;
 import org.apache.james.imap.api.display.ModifiedUtf7;
+import org.apache.james.imap.api.message.Capability;
+import org.apache.james.imap.api.message.StatusDataItems;
 import org.apache.james.imap.api.message.response.ImapResponseMessage;
 import org.apache.james.imap.api.message.response.StatusResponseFactory;
 import org.apache.james.imap.api.process.ImapProcessor;
@@ -34,10 +40,15 @@ import org.apache.james.imap.api.process.MailboxType;
 import org.apache.james.imap.main.PathConverter;
 import org.apache.james.imap.message.request.ListRequest;
 import org.apache.james.imap.message.response.ListResponse;
+import org.apache.james.imap.message.response.MailboxStatusResponse;
 import org.apache.james.mailbox.MailboxManager;
+import org.apache.james.mailbox.MailboxManager.MailboxSearchFetchType;
 import org.apache.james.mailbox.MailboxSession;
+import org.apache.james.mailbox.MessageManager;
 import org.apache.james.mailbox.exception.MailboxException;
+import org.apache.james.mailbox.model.MailboxACL;
 import org.apache.james.mailbox.model.MailboxConstants;
+import org.apache.james.mailbox.model.MailboxCounters;
 import org.apache.james.mailbox.model.MailboxMetaData;
 import org.apache.james.mailbox.model.MailboxPath;
 import org.apache.james.mailbox.model.search.MailboxQuery;
@@ -47,14 +58,22 @@ import org.apache.james.util.MDCBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class ListProcessor extends AbstractMailboxProcessor<ListRequest> {
+import com.google.common.collect.ImmutableList;
+
+public class ListProcessor extends AbstractMailboxProcessor<ListRequest> implements CapabilityImplementingProcessor {
     private static final Logger LOGGER = LoggerFactory.getLogger(ListProcessor.class);
+    private static final List<Capability> CAPS = ImmutableList.of(SUPPORTS_LIST_STATUS);
 
     public ListProcessor(ImapProcessor next, MailboxManager mailboxManager, StatusResponseFactory factory,
             MetricFactory metricFactory) {
         super(ListRequest.class, next, mailboxManager, factory, metricFactory);
     }
 
+    @Override
+    public List<Capability> getImplementedCapabilities(ImapSession session) {
+        return CAPS;
+    }
+
     /**
      * (from rfc3501)<br>
      * The LIST command returns a subset of names from the complete set of all
@@ -77,7 +96,7 @@ public class ListProcessor extends AbstractMailboxProcessor<ListRequest> {
             if (mailboxPatternString.length() == 0) {
                 respondNamespace(baseReferenceName, responder, mailboxSession);
             } else {
-                respondMailboxList(baseReferenceName, mailboxPatternString, session, responder, mailboxSession);
+                respondMailboxList(baseReferenceName, mailboxPatternString, request.getStatusDataItems(), session, responder, mailboxSession);
             }
             okComplete(request, responder);
         } catch (MailboxException e) {
@@ -119,7 +138,8 @@ public class ListProcessor extends AbstractMailboxProcessor<ListRequest> {
         }
     }
 
-    private void respondMailboxList(String referenceName, String mailboxName, ImapSession session, Responder responder, MailboxSession mailboxSession) throws MailboxException {
+    private void respondMailboxList(String referenceName, String mailboxName, Optional<StatusDataItems> statusDataItems,
+                                    ImapSession session, Responder responder, MailboxSession mailboxSession) throws MailboxException {
         // If the mailboxPattern is fully qualified, ignore the
         // reference name.
         String finalReferencename = referenceName;
@@ -132,17 +152,28 @@ public class ListProcessor extends AbstractMailboxProcessor<ListRequest> {
 
         MailboxPath basePath = computeBasePath(session, finalReferencename, isRelative);
 
-        getMailboxManager().search(
+        // Counters of all the listed mailboxes are retrieved at once for LIST-STATUS, unless the requested items need
+        // the metadata of each mailbox anyway
+        MailboxSearchFetchType fetchType = statusDataItems
+            .filter(this::isServedByCounters)
+            .map(any -> Counters)
+            .orElse(Minimal);
+        List<MailboxMetaData> results = getMailboxManager().search(
                 MailboxQuery.builder()
                     .userAndNamespaceFrom(basePath)
                     .expression(new PrefixedRegex(
                         basePath.getName(),
                         ModifiedUtf7.decodeModifiedUTF7(mailboxName),
                         mailboxSession.getPathDelimiter()))
-                    .build(), Minimal, mailboxSession)
-            .doOnNext(metaData -> processResult(responder, isRelative, metaData, getMailboxType(session, metaData.getPath())))
-            .then()
+                    .build(), fetchType, mailboxSession)
+            .collectList()
             .block();
+
+        for (MailboxMetaData metaData : results) {
+            String listedName = mailboxName(isRelative, metaData.getPath(), metaData.getHierarchyDelimiter());
+            processResult(responder, listedName, metaData, getMailboxType(session, metaData.getPath()));
+            statusDataItems.ifPresent(items -> respondStatus(session, responder, listedName, metaData, items));
+        }
     }
 
     private MailboxPath computeBasePath(ImapSession session, String finalReferencename, boolean isRelative) {
@@ -154,9 +185,7 @@ public class ListProcessor extends AbstractMailboxProcessor<ListRequest> {
         }
     }
 
-    private void processResult(Responder responder, boolean relative, MailboxMetaData listResult, MailboxType mailboxType) {
-        String mailboxName = mailboxName(relative, listResult.getPath(), listResult.getHierarchyDelimiter());
-
+    private void processResult(Responder responder, String mailboxName, MailboxMetaData listResult, MailboxType mailboxType) {
         ImapResponseMessage response =
             createResponse(
                 listResult.inferiors(),
@@ -167,6 +196,71 @@ public class ListProcessor extends AbstractMailboxProcessor<ListRequest> {
         responder.respond(response);
     }
 
+    /**
+     * (from rfc5819)<br>
+     * The STATUS return option of LIST-EXTENDED returns an untagged STATUS response for each listed mailbox, right
+     * after its LIST response. Non selectable mailboxes are skipped, as well as mailboxes the user can not read and
+     * mailboxes whose status can not be retrieved.
+     */
+    private void respondStatus(ImapSession session, Responder responder, String mailboxName, MailboxMetaData listResult, StatusDataItems statusDataItems) {
+        MailboxSession mailboxSession = session.getMailboxSession();
+        if (listResult.getSelectability() == MailboxMetaData.Selectability.NOSELECT || !isReadable(listResult, mailboxSession)) {
+            return;
+        }
+        String encodedName = ModifiedUtf7.encodeModifiedUTF7(mailboxName);
+
+        if (isServedByCounters(statusDataItems)) {
+            MailboxCounters counters = listResult.getCounters();
+            responder.respond(new MailboxStatusResponse(
+                statusDataItems.isMessages() ? counters.getCount() : null,
+                null, null, null, null,
+                statusDataItems.isUnseen() ? counters.getUnseen() : null,
+                encodedName));
+            return;
+        }
+
+        try {
+            MessageManager mailbox = getMailboxManager().getMailbox(listResult.getId(), mailboxSession);
+            MessageManager.MailboxMetaData metaData = mailbox.getMetaData(false, mailboxSession, StatusProcessor.computeFetchGroup(statusDataItems));
+            MailboxStatusResponse response = StatusProcessor.computeStatusResponse(encodedName, statusDataItems, metaData);
+
+            // Enable CONDSTORE as this is a CONDSTORE enabling command
+            if (response.getHighestModSeq() != null) {
+                condstoreEnablingCommand(session, responder, metaData, false);
+            }
+            responder.respond(response);
+        } catch (MailboxException e) {
+            LOGGER.warn("Status failed for listed mailbox {}", listResult.getPath(), e);
+        }
+    }
+
+    /**
+     * Mailboxes are listed with the Lookup right, while their status requires the Read right. Users own all the rights
+     * on their mailboxes, hence only the other ones are checked.
+     */
+    private boolean isReadable(MailboxMetaData listResult, MailboxSession mailboxSession) {
+        if (listResult.getPath().belongsTo(mailboxSession)) {
+            return true;
+        }
+        try {
+            return getMailboxManager().hasRight(listResult.getId(), MailboxACL.Right.Read, mailboxSession);
+        } catch (MailboxException e) {
+            LOGGER.warn("Can not check rights of listed mailbox {}", listResult.getPath(), e);
+            return false;
+        }
+    }
+
+    /**
+     * MESSAGES and UNSEEN are read from the counters retrieved along with the mailbox list, other items need the
+     * mailbox metadata.
+     */
+    private boolean isServedByCounters(StatusDataItems statusDataItems) {
+        return !statusDataItems.isRecent()
+            && !statusDataItems.isUidNext()
+            && !statusDataItems.isUidValidity()
+            && !statusDataItems.isHighestModSeq();
+    }
+
     /**
      * retrieve mailboxType for specified mailboxPath using provided
      * MailboxTyper
@@ -192,6 +286,7 @@ public class ListProcessor extends AbstractMailboxProcessor<ListRequest> {
             .addContext(MDCBuilder.ACTION, "LIST")
             .addContext("base", request.getBaseReferenceName())
             .addContext("pattern", request.getMailboxPattern())
+            .addContext("status", request.getStatusDataItems())
             .build();
     }
 }
@@ -0,0 +1,309 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.imap.processor;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.apache.james.imap.message.response.ThreadResponse;
+import org.apache.james.mailbox.model.BaseSubject;
+
+import com.github.steveash.guavate.Guavate;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Sets;
+
+/**
+ * Threading algorithms of RFC5256.
+ *
+ * Messages are expected in sent date order: this is the order of the threads, and of the messages within a thread,
+ * so that the sort can be carried out by the search index.
+ */
+public class MessageThreader {
+    private static final Pattern MESSAGE_ID = Pattern.compile("<[^<>]+>");
+    private static final Pattern REPLY_OR_FORWARD = Pattern.compile(
+        "^\\s*(\\[[^\\[\\]]*\\]\\s*)*(re|fwd?)\\s*(\\[[^\\[\\]]*\\])?\\s*:|^\\s*\\[fwd:|\\(fwd\\)\\s*$",
+        Pattern.CASE_INSENSITIVE);
+
+    public static class ThreadedMessage {
+        private final long id;
+        private final String subject;
+        private final Optional<String> messageId;
+        private final List<String> references;
+
+        /**
+         * @param id message sequence number or uid to be returned for this message
+         * @param subject value of the Subject header, empty if missing
+         * @param messageId value of the Message-ID header, empty if missing
+         * @param inReplyTo value of the In-Reply-To header, empty if missing
+         * @param references value of the References header, empty if missing
+         */
+        public ThreadedMessage(long id, String subject, String messageId, String inReplyTo, String references) {
+            this.id = id;
+            this.subject = subject;
+            this.messageId = messageIds(messageId).stream().findFirst();
+            this.references = referencesOrInReplyTo(references, inReplyTo);
+        }
+
+        private static List<String> referencesOrInReplyTo(String references, String inReplyTo) {
+            List<String> referencedIds = messageIds(references);
+            if (referencedIds.isEmpty()) {
+                return messageIds(inReplyTo).stream()
+                    .limit(1)
+                    .collect(Guavate.toImmutableList());
+            }
+            return referencedIds;
+        }
+
+        private static List<String> messageIds(String value) {
+            ImmutableList.Builder<String> ids = ImmutableList.builder();
+            Matcher matcher = MESSAGE_ID.matcher(value);
+            while (matcher.find()) {
+                ids.add(matcher.group());
+            }
+            return ids.build();
+        }
+
+        private String baseSubject() {
+            return BaseSubject.extract(subject).toUpperCase(Locale.US);
+        }
+
+        private boolean isReplyOrForward() {
+            return REPLY_OR_FORWARD.matcher(subject).find();
+        }
+    }
+
+    private static class Container {
+        private final List<Container> children = new ArrayList<>();
+        private Optional<ThreadedMessage> message = Optional.empty();
+        private Container parent;
+        private int position;
+
+        private boolean isDummy() {
+            return !message.isPresent();
+        }
+
+        private boolean isAncestorOf(Container container) {
+            for (Container current = container; current != null; current = current.parent) {
+                if (current == this) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void addChild(Container child) {
+            child.parent = this;
+            children.add(child);
+        }
+
+        private void addChildren(List<Container> newChildren) {
+            newChildren.forEach(this::addChild);
+        }
+
+        private void detach() {
+            if (parent != null) {
+                parent.children.remove(this);
+                parent = null;
+            }
+        }
+
+        private ThreadedMessage firstMessage() {
+            return message.orElseGet(() -> children.get(0).firstMessage());
+        }
+
+        private ThreadResponse.Node asNode() {
+            List<ThreadResponse.Node> childNodes = children.stream()
+                .map(Container::asNode)
+                .collect(Guavate.toImmutableList());
+            return message.map(value -> ThreadResponse.Node.message(value.id, childNodes))
+                .orElseGet(() -> ThreadResponse.Node.dummy(childNodes));
+        }
+    }
+
+    /**
+     * Group messages by base subject. The first message of each group is the parent of all the others.
+     */
+    public static List<ThreadResponse.Node> orderedSubject(List<ThreadedMessage> messages) {
+        Map<String, List<ThreadedMessage>> threads = new LinkedHashMap<>();
+        for (ThreadedMessage message : messages) {
+            threads.computeIfAbsent(message.baseSubject(), any -> new ArrayList<>()).add(message);
+        }
+        return threads.values().stream()
+            .map(thread -> ThreadResponse.Node.message(thread.get(0).id, thread.stream()
+                .skip(1)
+                .map(message -> ThreadResponse.Node.message(message.id, ImmutableList.of()))
+                .collect(Guavate.toImmutableList())))
+            .collect(Guavate.toImmutableList());
+    }
+
+    /**
+     * Thread messages based on their Message-ID, References and In-Reply-To headers, then group threads having the
+     * same base subject. See RFC5256 section 3.
+     */
+    public static List<ThreadResponse.Node> references(List<ThreadedMessage> messages) {
+        List<Container> containers = linkReferences(messages);
+        List<Container> roots = containers.stream()
+            .filter(container -> container.parent == null)
+            .collect(Guavate.toImmutableList());
+        List<Container> threads = groupBySubject(prune(roots, true));
+        sort(threads);
+        return threads.stream()
+            .map(Container::asNode)
+            .collect(Guavate.toImmutableList());
+    }
+
+    private static List<Container> linkReferences(List<ThreadedMessage> messages) {
+        Map<String, Container> containersById = new HashMap<>();
+        List<Container> containers = new ArrayList<>();
+        for (int position = 0; position < messages.size(); position++) {
+            ThreadedMessage message = messages.get(position);
+            Container container = messageContainer(message, position, containersById, containers);
+
+            Container previous = null;
+            for (String reference : message.references) {
+                Container current = containersById.computeIfAbsent(reference, any -> {
+                    Container referenced = new Container();
+                    containers.add(referenced);
+                    return referenced;
+                });
+                if (previous != null && current.parent == null && !current.isAncestorOf(previous)) {
+                    previous.addChild(current);
+                }
+                previous = current;
+            }
+
+            // The references of the message itself are more accurate than the ones of messages referencing it
+            if (previous == null) {
+                container.detach();
+            } else if (!container.isAncestorOf(previous)) {
+                container.detach();
+                previous.addChild(container);
+            }
+        }
+        return containers;
+    }
+
+    private static Container messageContainer(ThreadedMessage message, int position, Map<String, Container> containersById, List<Container> containers) {
+        Optional<Container> known = message.messageId.map(containersById::get);
+        if (known.isPresent() && known.get().isDummy()) {
+            // Already referenced by a previous message
+            known.get().message = Optional.of(message);
+            known.get().position = position;
+            return known.get();
+        }
+        Container container = new Container();
+        container.message = Optional.of(message);
+        container.position = position;
+        containers.add(container);
+        if (!known.isPresent()) {
+            // Duplicated Message-IDs are ignored
+            message.messageId.ifPresent(id -> containersById.put(id, container));
+        }
+        return container;
+    }
+
+    /**
+     * Remove empty dummies, and dummies having a single child, unless at the root level.
+     */
+    private static List<Container> prune(List<Container> siblings, boolean root) {
+        List<Container> result = new ArrayList<>();
+        for (Container container : siblings) {
+            List<Container> children = prune(ImmutableList.copyOf(container.children), false);
+            container.children.clear();
+            container.addChildren(children);
+
+            if (!container.isDummy() || (root && children.size() > 1)) {
+                result.add(container);
+            } else {
+                result.addAll(children);
+            }
+        }
+        if (root) {
+            result.forEach(container -> container.parent = null);
+        }
+        return result;
+    }
+
+    private static List<Container> groupBySubject(List<Container> roots) {
+        Map<String, Container> containersBySubject = new HashMap<>();
+        for (Container root : roots) {
+            String baseSubject = root.firstMessage().baseSubject();
+            if (baseSubject.isEmpty()) {
+                continue;
+            }
+            Container current = containersBySubject.get(baseSubject);
+            if (current == null
+                || (!current.isDummy() && root.isDummy())
+                || (current.firstMessage().isReplyOrForward() && !root.firstMessage().isReplyOrForward())) {
+                containersBySubject.put(baseSubject, root);
+            }
+        }
+
+        Set<Container> merged = Sets.newIdentityHashSet();
+        Map<Container, Container> replacements = new IdentityHashMap<>();
+        for (Container root : roots) {
+            String baseSubject = root.firstMessage().baseSubject();
+            Container current = containersBySubject.get(baseSubject);
+            if (baseSubject.isEmpty() || current == null || current == root || root.parent != null) {
+                continue;
+            }
+            merged.add(root);
+            if (current.isDummy() && root.isDummy()) {
+                current.addChildren(root.children);
+            } else if (current.isDummy()
+                || (!current.isDummy() && root.firstMessage().isReplyOrForward() && !current.firstMessage().isReplyOrForward())) {
+                current.addChild(root);
+            } else {
+                Container dummy = new Container();
+                replacements.put(current, dummy);
+                dummy.addChild(current);
+                dummy.addChild(root);
+                containersBySubject.put(baseSubject, dummy);
+            }
+        }
+        return roots.stream()
+            .filter(root -> !merged.contains(root))
+            .map(root -> replacements.getOrDefault(root, root))
+            .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    /**
+     * Messages are sorted by sent date, dummies taking the date of their first child.
+     */
+    private static void sort(List<Container> siblings) {
+        for (Container container : siblings) {
+            sort(container.children);
+            if (container.isDummy()) {
+                container.position = container.children.get(0).position;
+            }
+        }
+        siblings.sort(Comparator.comparingInt(container -> container.position));
+    }
+}
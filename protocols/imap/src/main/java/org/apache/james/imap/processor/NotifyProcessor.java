@@ -0,0 +1,379 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.imap.processor;
+
+import static org.apache.james.imap.api.ImapConstants.SUPPORTS_NOTIFY;
+import static org.apache.james.mailbox.MailboxManager.MailboxSearchFetchType.Minimal;
+
+import java.io.Closeable;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.james.imap.api.ImapSessionState;
+import org.apache.james.imap.api.display.HumanReadableText;
+import org.apache.james.imap.api.display.ModifiedUtf7;
+import org.apache.james.imap.api.message.Capability;
+import org.apache.james.imap.api.message.StatusDataItems;
+import org.apache.james.imap.api.message.request.NotifyEvent;
+import org.apache.james.imap.api.message.response.StatusResponse;
+import org.apache.james.imap.api.message.response.StatusResponseFactory;
+import org.apache.james.imap.api.process.ImapProcessor;
+import org.apache.james.imap.api.process.ImapSession;
+import org.apache.james.imap.api.process.SelectedMailbox;
+import org.apache.james.imap.main.PathConverter;
+import org.apache.james.imap.message.request.NotifyRequest;
+import org.apache.james.imap.message.request.NotifyRequest.EventGroup;
+import org.apache.james.imap.message.request.NotifyRequest.MailboxFilter;
+import org.apache.james.mailbox.MailboxManager;
+import org.apache.james.mailbox.MailboxSession;
+import org.apache.james.mailbox.MessageManager;
+import org.apache.james.mailbox.SubscriptionManager;
+import org.apache.james.mailbox.events.Event;
+import org.apache.james.mailbox.events.EventBus;
+import org.apache.james.mailbox.events.MailboxIdRegistrationKey;
+import org.apache.james.mailbox.events.MailboxListener;
+import org.apache.james.mailbox.events.Registration;
+import org.apache.james.mailbox.exception.MailboxException;
+import org.apache.james.mailbox.exception.MailboxNotFoundException;
+import org.apache.james.mailbox.model.MailboxId;
+import org.apache.james.mailbox.model.MailboxMetaData;
+import org.apache.james.mailbox.model.MailboxPath;
+import org.apache.james.mailbox.model.search.MailboxQuery;
+import org.apache.james.mailbox.model.search.PrefixedRegex;
+import org.apache.james.metrics.api.MetricFactory;
+import org.apache.james.util.MDCBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.steveash.guavate.Guavate;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Handles the NOTIFY command. See RFC5465
+ *
+ * A single {@link MailboxListener} is registered per session on the {@link EventBus}, for all the watched mailboxes.
+ * It pushes STATUS responses for changes in watched mailboxes, and the usual unsolicited responses for changes in the
+ * selected mailbox.
+ *
+ * Pushed responses synchronize on the {@link ImapSession} so that they do not interleave with the ones of commands.
+ */
+public class NotifyProcessor extends AbstractMailboxProcessor<NotifyRequest> implements CapabilityImplementingProcessor {
+    private static final Logger LOGGER = LoggerFactory.getLogger(NotifyProcessor.class);
+    private static final List<Capability> CAPS = ImmutableList.of(SUPPORTS_NOTIFY);
+    private static final String NOTIFICATIONS = "NOTIFY_NOTIFICATIONS";
+
+    static final Set<NotifyEvent> SUPPORTED_EVENTS = ImmutableSet.of(NotifyEvent.MESSAGE_NEW, NotifyEvent.MESSAGE_EXPUNGE, NotifyEvent.FLAG_CHANGE);
+    private static final StatusDataItems STATUS_ITEMS = new StatusDataItems(EnumSet.of(
+        StatusDataItems.StatusItem.MESSAGES,
+        StatusDataItems.StatusItem.UID_NEXT,
+        StatusDataItems.StatusItem.UNSEEN));
+
+    /**
+     * To be called once a mailbox gets selected, so that notifications about the selected mailbox follow the selection
+     */
+    static void selected(ImapSession session, MailboxId mailboxId) {
+        Optional.ofNullable((Notifications) session.getAttribute(NOTIFICATIONS))
+            .ifPresent(notifications -> notifications.watchSelected(mailboxId));
+    }
+
+    private final SubscriptionManager subscriptionManager;
+    private final EventBus eventBus;
+
+    public NotifyProcessor(ImapProcessor next, MailboxManager mailboxManager, SubscriptionManager subscriptionManager, EventBus eventBus,
+                           StatusResponseFactory factory, MetricFactory metricFactory) {
+        super(NotifyRequest.class, next, mailboxManager, factory, metricFactory);
+        this.subscriptionManager = subscriptionManager;
+        this.eventBus = eventBus;
+    }
+
+    @Override
+    public List<Capability> getImplementedCapabilities(ImapSession session) {
+        return CAPS;
+    }
+
+    @Override
+    protected void processRequest(NotifyRequest request, ImapSession session, Responder responder) {
+        boolean unsupportedEvents = request.getEventGroups().stream()
+            .anyMatch(eventGroup -> !SUPPORTED_EVENTS.containsAll(eventGroup.getEvents()));
+        if (unsupportedEvents) {
+            no(request, responder, HumanReadableText.UNSUPPORTED_NOTIFY_EVENT, StatusResponse.ResponseCode.badEvent(
+                SUPPORTED_EVENTS.stream()
+                    .map(NotifyEvent::getName)
+                    .collect(Guavate.toImmutableList())));
+            return;
+        }
+
+        stopNotifications(session);
+        if (request.getEventGroups().isEmpty()) {
+            okComplete(request, responder);
+            return;
+        }
+
+        try {
+            Notifications notifications = new Notifications(session, responder, selectedEvents(request), watchedMailboxes(request, session));
+            session.setAttribute(NOTIFICATIONS, notifications);
+            notifications.start();
+
+            if (request.isStatus()) {
+                notifications.respondStatuses();
+            }
+            okComplete(request, responder);
+        } catch (MailboxException e) {
+            LOGGER.error("Notify failed for user {}", session.getUserName(), e);
+            stopNotifications(session);
+            no(request, responder, HumanReadableText.GENERIC_FAILURE_DURING_PROCESSING);
+        }
+    }
+
+    private void stopNotifications(ImapSession session) {
+        Optional.ofNullable((Notifications) session.getAttribute(NOTIFICATIONS))
+            .ifPresent(Notifications::close);
+        session.setAttribute(NOTIFICATIONS, null);
+    }
+
+    private Set<NotifyEvent> selectedEvents(NotifyRequest request) {
+        return request.getEventGroups().stream()
+            .filter(eventGroup -> eventGroup.getFilter().isSelected())
+            .findFirst()
+            .map(EventGroup::getEvents)
+            .orElse(ImmutableSet.of());
+    }
+
+    /**
+     * The first event group matching a mailbox applies to it
+     */
+    private Map<MailboxId, WatchedMailbox> watchedMailboxes(NotifyRequest request, ImapSession session) throws MailboxException {
+        Map<MailboxId, WatchedMailbox> watchedMailboxes = new LinkedHashMap<>();
+        for (EventGroup eventGroup : request.getEventGroups()) {
+            if (!eventGroup.getFilter().isSelected()) {
+                resolve(eventGroup.getFilter(), session)
+                    .forEach((mailboxId, path) -> watchedMailboxes.putIfAbsent(mailboxId, new WatchedMailbox(path, eventGroup.getEvents())));
+            }
+        }
+        return watchedMailboxes;
+    }
+
+    private Map<MailboxId, MailboxPath> resolve(MailboxFilter filter, ImapSession session) throws MailboxException {
+        MailboxSession mailboxSession = session.getMailboxSession();
+        Map<MailboxId, MailboxPath> mailboxes = new LinkedHashMap<>();
+        switch (filter.getType()) {
+            case INBOXES:
+                addIfExists(mailboxes, MailboxPath.inbox(mailboxSession), mailboxSession);
+                break;
+            case PERSONAL:
+                search(MailboxQuery.privateMailboxesBuilder(mailboxSession).matchesAllMailboxNames().build(), mailboxSession)
+                    .forEach(metaData -> mailboxes.put(metaData.getId(), metaData.getPath()));
+                break;
+            case SUBSCRIBED:
+                for (String name : subscriptionManager.subscriptions(mailboxSession)) {
+                    addIfExists(mailboxes, MailboxPath.forUser(mailboxSession.getUser(), name), mailboxSession);
+                }
+                break;
+            case SUBTREE:
+                for (String name : filter.getMailboxNames()) {
+                    MailboxPath root = PathConverter.forSession(session).buildFullPath(name);
+                    String childrenPrefix = root.getName() + mailboxSession.getPathDelimiter();
+                    search(MailboxQuery.builder()
+                            .userAndNamespaceFrom(root)
+                            .expression(new PrefixedRegex(root.getName(), "*", mailboxSession.getPathDelimiter()))
+                            .build(), mailboxSession)
+                        .stream()
+                        .filter(metaData -> metaData.getPath().getName().equals(root.getName())
+                            || metaData.getPath().getName().startsWith(childrenPrefix))
+                        .forEach(metaData -> mailboxes.put(metaData.getId(), metaData.getPath()));
+                }
+                break;
+            case MAILBOXES:
+                for (String name : filter.getMailboxNames()) {
+                    addIfExists(mailboxes, PathConverter.forSession(session).buildFullPath(name), mailboxSession);
+                }
+                break;
+            default:
+                break;
+        }
+        return mailboxes;
+    }
+
+    private List<MailboxMetaData> search(MailboxQuery query, MailboxSession mailboxSession) {
+        return getMailboxManager().search(query, Minimal, mailboxSession)
+            .collectList()
+            .block();
+    }
+
+    private void addIfExists(Map<MailboxId, MailboxPath> mailboxes, MailboxPath path, MailboxSession mailboxSession) throws MailboxException {
+        try {
+            MessageManager mailbox = getMailboxManager().getMailbox(path, mailboxSession);
+            mailboxes.put(mailbox.getId(), path);
+        } catch (MailboxNotFoundException e) {
+            LOGGER.debug("Ignoring notifications for {} as it does not exist", path);
+        }
+    }
+
+    private static class WatchedMailbox {
+        private final MailboxPath path;
+        private final Set<NotifyEvent> events;
+
+        private WatchedMailbox(MailboxPath path, Set<NotifyEvent> events) {
+            this.path = path;
+            this.events = events;
+        }
+    }
+
+    private class Notifications implements MailboxListener, Closeable {
+        private final ImapSession session;
+        private final Responder responder;
+        private final Set<NotifyEvent> selectedEvents;
+        private final Map<MailboxId, WatchedMailbox> watchedMailboxes;
+        private final Map<MailboxId, Registration> registrations;
+        private volatile boolean closed;
+
+        private Notifications(ImapSession session, Responder responder, Set<NotifyEvent> selectedEvents, Map<MailboxId, WatchedMailbox> watchedMailboxes) {
+            this.session = session;
+            this.responder = responder;
+            this.selectedEvents = selectedEvents;
+            this.watchedMailboxes = watchedMailboxes;
+            this.registrations = new ConcurrentHashMap<>();
+            this.closed = false;
+        }
+
+        void start() {
+            watchedMailboxes.keySet().forEach(this::register);
+            Optional.ofNullable(session.getSelected())
+                .ifPresent(selected -> watchSelected(selected.getMailboxId()));
+        }
+
+        void watchSelected(MailboxId mailboxId) {
+            if (selectedEvents.isEmpty()) {
+                return;
+            }
+            // Stop listening to previously selected mailboxes that are not watched
+            registrations.keySet().stream()
+                .filter(registeredId -> !registeredId.equals(mailboxId) && !watchedMailboxes.containsKey(registeredId))
+                .collect(Guavate.toImmutableList())
+                .forEach(this::unregister);
+            register(mailboxId);
+        }
+
+        private void register(MailboxId mailboxId) {
+            registrations.computeIfAbsent(mailboxId, id -> Mono.from(eventBus.register(this, new MailboxIdRegistrationKey(id)))
+                .subscribeOn(Schedulers.elastic())
+                .block());
+        }
+
+        private void unregister(MailboxId mailboxId) {
+            Optional.ofNullable(registrations.remove(mailboxId))
+                .ifPresent(Registration::unregister);
+        }
+
+        void respondStatuses() {
+            MailboxId selectedId = Optional.ofNullable(session.getSelected())
+                .map(SelectedMailbox::getMailboxId)
+                .orElse(null);
+            watchedMailboxes.forEach((mailboxId, watchedMailbox) -> {
+                if (!mailboxId.equals(selectedId)) {
+                    respondStatus(mailboxId, watchedMailbox.path);
+                }
+            });
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            ImmutableList.copyOf(registrations.keySet())
+                .forEach(this::unregister);
+        }
+
+        @Override
+        public boolean isHandling(Event event) {
+            return event instanceof Added || event instanceof Expunged || event instanceof FlagsUpdated;
+        }
+
+        @Override
+        public void event(Event event) {
+            // Pushing from the thread dispatching the event could write responses in the middle of a command
+            Mono.fromRunnable(() -> notify((MailboxEvent) event))
+                .subscribeOn(Schedulers.elastic())
+                .subscribe();
+        }
+
+        @Override
+        public ExecutionMode getExecutionMode() {
+            return ExecutionMode.ASYNCHRONOUS;
+        }
+
+        private void notify(MailboxEvent event) {
+            synchronized (session) {
+                if (closed || session.getState() == ImapSessionState.LOGOUT) {
+                    return;
+                }
+                NotifyEvent notifyEvent = asNotifyEvent(event);
+                SelectedMailbox selected = session.getSelected();
+                if (selected != null && selected.getMailboxId().equals(event.getMailboxId())) {
+                    if (selectedEvents.contains(notifyEvent)) {
+                        unsolicitedResponses(session, responder, false);
+                    }
+                    return;
+                }
+                Optional.ofNullable(watchedMailboxes.get(event.getMailboxId()))
+                    .filter(watchedMailbox -> watchedMailbox.events.contains(notifyEvent))
+                    .ifPresent(watchedMailbox -> respondStatus(event.getMailboxId(), watchedMailbox.path));
+            }
+        }
+
+        private NotifyEvent asNotifyEvent(MailboxEvent event) {
+            if (event instanceof Added) {
+                return NotifyEvent.MESSAGE_NEW;
+            }
+            if (event instanceof Expunged) {
+                return NotifyEvent.MESSAGE_EXPUNGE;
+            }
+            return NotifyEvent.FLAG_CHANGE;
+        }
+
+        private void respondStatus(MailboxId mailboxId, MailboxPath path) {
+            MailboxSession mailboxSession = session.getMailboxSession();
+            try {
+                MessageManager mailbox = getMailboxManager().getMailbox(mailboxId, mailboxSession);
+                MessageManager.MailboxMetaData metaData = mailbox.getMetaData(false, mailboxSession, StatusProcessor.computeFetchGroup(STATUS_ITEMS));
+                String mailboxName = mailboxName(path.belongsTo(mailboxSession), path, mailboxSession.getPathDelimiter());
+                responder.respond(StatusProcessor.computeStatusResponse(ModifiedUtf7.encodeModifiedUTF7(mailboxName), STATUS_ITEMS, metaData));
+            } catch (MailboxException e) {
+                LOGGER.warn("Status notification failed for mailbox {}", path, e);
+            }
+        }
+    }
+
+    @Override
+    protected Closeable addContextToMDC(NotifyRequest request) {
+        return MDCBuilder.create()
+            .addContext(MDCBuilder.ACTION, "NOTIFY")
+            .addContext("eventGroups", request.getEventGroups())
+            .addContext("status", request.isStatus())
+            .build();
+    }
+}
@@ -208,7 +208,7 @@ public class SearchProcessor extends AbstractMailboxProcessor<SearchRequest> imp
         }
     }
 
-    private Collection<Long> asResults(ImapSession session, boolean useUids, Collection<MessageUid> uids) {
+    static Collection<Long> asResults(ImapSession session, boolean useUids, Collection<MessageUid> uids) {
         if (useUids) {
             return uids.stream()
                 .map(MessageUid::asLong)
@@ -269,17 +269,25 @@ public class SearchProcessor extends AbstractMailboxProcessor<SearchRequest> imp
     }
 
     private SearchQuery toQuery(SearchKey key, ImapSession session) throws MessageRangeException {
+        return toQueryBuilder(key, session)
+            .build();
+    }
+
+    /**
+     * Convert the given {@link SearchKey} into a {@link SearchQuery.Builder}, allowing other search based commands
+     * (SORT, THREAD) to specify their own ordering.
+     */
+    static SearchQuery.Builder toQueryBuilder(SearchKey key, ImapSession session) throws MessageRangeException {
         SearchQuery.Criterion criterion = toCriterion(key, session);
         SearchQuery.Builder builder = SearchQuery.builder();
         SelectedMailbox selected = session.getSelected();
         if (selected != null) {
             builder.addRecentMessageUids(selected.getRecent());
         }
-        return builder.andCriteria(criterion)
-            .build();
+        return builder.andCriteria(criterion);
     }
 
-    private SearchQuery.Criterion toCriterion(SearchKey key, ImapSession session) throws MessageRangeException {
+    private static SearchQuery.Criterion toCriterion(SearchKey key, ImapSession session) throws MessageRangeException {
         final SearchKey.Type type = key.getType();
         final DayMonthYear date = key.getDate();
         switch (type) {
@@ -383,7 +391,7 @@ public class SearchProcessor extends AbstractMailboxProcessor<SearchRequest> imp
         }
     }
     
-    private Date createWithinDate(SearchKey key) {
+    private static Date createWithinDate(SearchKey key) {
         long seconds = key.getSeconds();
         long res = System.currentTimeMillis() - seconds * 1000;
         return new Date(res);
@@ -394,7 +402,7 @@ public class SearchProcessor extends AbstractMailboxProcessor<SearchRequest> imp
      * This include special handling which is needed for SEARCH to not return a BAD response on a invalid message-set. 
      * See IMAP-292 for more details.
      */
-    private Criterion sequence(IdRange[] sequenceNumbers, ImapSession session) throws MessageRangeException {
+    private static Criterion sequence(IdRange[] sequenceNumbers, ImapSession session) throws MessageRangeException {
         
         final SelectedMailbox selected = session.getSelected();
 
@@ -451,7 +459,7 @@ public class SearchProcessor extends AbstractMailboxProcessor<SearchRequest> imp
      * This include special handling which is needed for SEARCH to not return a BAD response on a invalid message-set. 
      * See IMAP-292 for more details.
      */
-    private Criterion uids(UidRange[] uids, ImapSession session) throws MessageRangeException {
+    private static Criterion uids(UidRange[] uids, ImapSession session) throws MessageRangeException {
         
         final SelectedMailbox selected = session.getSelected();
 
@@ -482,7 +490,7 @@ public class SearchProcessor extends AbstractMailboxProcessor<SearchRequest> imp
         return SearchQuery.uid(ranges.toArray(SearchQuery.UidRange[]::new));
     }
 
-    private Criterion or(List<SearchKey> keys, ImapSession session) throws MessageRangeException {
+    private static Criterion or(List<SearchKey> keys, ImapSession session) throws MessageRangeException {
         final SearchKey keyOne = keys.get(0);
         final SearchKey keyTwo = keys.get(1);
         final Criterion criterionOne = toCriterion(keyOne, session);
@@ -490,13 +498,13 @@ public class SearchProcessor extends AbstractMailboxProcessor<SearchRequest> imp
         return SearchQuery.or(criterionOne, criterionTwo);
     }
 
-    private Criterion not(List<SearchKey> keys, ImapSession session) throws MessageRangeException {
+    private static Criterion not(List<SearchKey> keys, ImapSession session) throws MessageRangeException {
         final SearchKey key = keys.get(0);
         final Criterion criterion = toCriterion(key, session);
         return SearchQuery.not(criterion);
     }
 
-    private Criterion and(List<SearchKey> keys, ImapSession session) throws MessageRangeException {
+    private static Criterion and(List<SearchKey> keys, ImapSession session) throws MessageRangeException {
         final int size = keys.size();
         final List<Criterion> criteria = new ArrayList<>(size);
         for (SearchKey key : keys) {
@@ -0,0 +1,181 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.imap.processor;
+
+import java.io.Closeable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.apache.james.imap.api.display.HumanReadableText;
+import org.apache.james.imap.api.message.Capability;
+import org.apache.james.imap.api.message.request.ThreadAlgorithm;
+import org.apache.james.imap.api.message.response.StatusResponseFactory;
+import org.apache.james.imap.api.process.ImapProcessor;
+import org.apache.james.imap.api.process.ImapSession;
+import org.apache.james.imap.api.process.SelectedMailbox;
+import org.apache.james.imap.message.request.ThreadRequest;
+import org.apache.james.imap.message.response.ThreadResponse;
+import org.apache.james.imap.processor.MessageThreader.ThreadedMessage;
+import org.apache.james.mailbox.MailboxManager;
+import org.apache.james.mailbox.MailboxSession;
+import org.apache.james.mailbox.MessageManager;
+import org.apache.james.mailbox.MessageUid;
+import org.apache.james.mailbox.exception.MailboxException;
+import org.apache.james.mailbox.exception.MessageRangeException;
+import org.apache.james.mailbox.model.FetchGroup;
+import org.apache.james.mailbox.model.MessageRange;
+import org.apache.james.mailbox.model.MessageResult;
+import org.apache.james.mailbox.model.MessageResultIterator;
+import org.apache.james.mailbox.model.SearchQuery;
+import org.apache.james.mailbox.model.SearchQuery.Sort.SortClause;
+import org.apache.james.metrics.api.MetricFactory;
+import org.apache.james.util.MDCBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.steveash.guavate.Guavate;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Implements RFC5256 THREAD, with both ORDEREDSUBJECT and REFERENCES algorithms.
+ *
+ * Ordering messages by sent date is carried out by the search index of the mailbox, only the threading headers of
+ * the matching messages are then retrieved.
+ */
+public class ThreadProcessor extends AbstractMailboxProcessor<ThreadRequest> implements CapabilityImplementingProcessor {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ThreadProcessor.class);
+
+    private static final List<Capability> CAPS = ImmutableList.of(Capability.of("THREAD=ORDEREDSUBJECT"), Capability.of("THREAD=REFERENCES"));
+    private static final ImmutableList<SearchQuery.Sort> SENT_DATE_ORDER = ImmutableList.of(
+        new SearchQuery.Sort(SortClause.SentDate),
+        new SearchQuery.Sort(SortClause.Uid));
+
+    public ThreadProcessor(ImapProcessor next, MailboxManager mailboxManager, StatusResponseFactory factory,
+            MetricFactory metricFactory) {
+        super(ThreadRequest.class, next, mailboxManager, factory, metricFactory);
+    }
+
+    @Override
+    protected void processRequest(ThreadRequest request, ImapSession session, Responder responder) {
+        boolean useUids = request.isUseUids();
+        try {
+            MessageManager mailbox = getSelectedMailbox(session)
+                .orElseThrow(() -> new MailboxException("Session not in SELECTED state"));
+            MailboxSession mailboxSession = session.getMailboxSession();
+
+            SearchQuery query = SearchProcessor.toQueryBuilder(request.getSearchKey(), session)
+                .sorts(SENT_DATE_ORDER)
+                .build();
+
+            List<MessageUid> uids;
+            try (Stream<MessageUid> stream = mailbox.search(query, mailboxSession)) {
+                uids = stream.collect(Guavate.toImmutableList());
+            }
+            List<ThreadedMessage> messages = threadedMessages(mailbox, mailboxSession, session.getSelected(), uids, useUids);
+
+            responder.respond(new ThreadResponse(thread(request.getAlgorithm(), messages)));
+
+            boolean omitExpunged = (!useUids);
+            unsolicitedResponses(session, responder, omitExpunged, useUids);
+            okComplete(request, responder);
+        } catch (MessageRangeException e) {
+            LOGGER.debug("Thread failed in mailbox {} because of an invalid sequence-set ", session.getSelected().getMailboxId(), e);
+            taggedBad(request, responder, HumanReadableText.INVALID_MESSAGESET);
+        } catch (MailboxException e) {
+            LOGGER.error("Thread failed in mailbox {}", session.getSelected().getMailboxId(), e);
+            no(request, responder, HumanReadableText.SEARCH_FAILED);
+        } finally {
+            session.setAttribute(SearchProcessor.SEARCH_MODSEQ, null);
+        }
+    }
+
+    private List<ThreadResponse.Node> thread(ThreadAlgorithm algorithm, List<ThreadedMessage> messages) {
+        switch (algorithm) {
+        case ORDEREDSUBJECT:
+            return MessageThreader.orderedSubject(messages);
+        case REFERENCES:
+            return MessageThreader.references(messages);
+        default:
+            throw new IllegalArgumentException("Unsupported threading algorithm " + algorithm);
+        }
+    }
+
+    /**
+     * Retrieve the threading headers of the given messages, preserving their order
+     */
+    private List<ThreadedMessage> threadedMessages(MessageManager mailbox, MailboxSession mailboxSession, SelectedMailbox selected,
+                                                   List<MessageUid> uids, boolean useUids) throws MailboxException {
+        Map<MessageUid, ThreadedMessage> messagesByUid = new HashMap<>();
+        for (MessageRange range : MessageRange.toRanges(uids)) {
+            MessageResultIterator results = mailbox.getMessages(range, FetchGroup.HEADERS, mailboxSession);
+            while (results.hasNext()) {
+                MessageResult result = results.next();
+                Optional<Long> id = id(selected, result.getUid(), useUids);
+                if (id.isPresent()) {
+                    messagesByUid.put(result.getUid(), threadedMessage(id.get(), result));
+                }
+            }
+            if (results.getException() != null) {
+                throw results.getException();
+            }
+        }
+        return uids.stream()
+            .filter(messagesByUid::containsKey)
+            .map(messagesByUid::get)
+            .collect(Guavate.toImmutableList());
+    }
+
+    private Optional<Long> id(SelectedMailbox selected, MessageUid uid, boolean useUids) throws MailboxException {
+        if (useUids) {
+            return Optional.of(uid.asLong());
+        }
+        return selected.msn(uid).fold(
+            Optional::empty,
+            msn -> Optional.of((long) msn.asInt()));
+    }
+
+    private ThreadedMessage threadedMessage(long id, MessageResult result) throws MailboxException {
+        Map<String, String> headers = new HashMap<>();
+        result.getHeaders().headers().forEachRemaining(header -> headers.putIfAbsent(header.getName().toLowerCase(Locale.US), header.getValue()));
+        return new ThreadedMessage(id,
+            headers.getOrDefault("subject", ""),
+            headers.getOrDefault("message-id", ""),
+            headers.getOrDefault("in-reply-to", ""),
+            headers.getOrDefault("references", ""));
+    }
+
+    @Override
+    public List<Capability> getImplementedCapabilities(ImapSession session) {
+        return CAPS;
+    }
+
+    @Override
+    protected Closeable addContextToMDC(ThreadRequest request) {
+        return MDCBuilder.create()
+            .addContext(MDCBuilder.ACTION, "THREAD")
+            .addContext("useUid", request.isUseUids())
+            .addContext("algorithm", request.getAlgorithm())
+            .addContext("searchKey", request.getSearchKey())
+            .build();
+    }
+}
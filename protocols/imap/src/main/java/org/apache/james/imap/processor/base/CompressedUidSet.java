@@ -0,0 +1,283 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+
+package org.apache.james.imap.processor.base;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.james.mailbox.MessageUid;
+import org.apache.james.mailbox.model.MessageRange;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Set of UIDs compressed into runs of consecutive values.
+ *
+ * Runs are kept sorted in primitive arrays, so that a STORE or an EXPUNGE over a contiguous UID range costs a single
+ * run whatever its size. Batch operations merge whole sets in linear time.
+ *
+ * This class is not thread safe.
+ */
+public class CompressedUidSet {
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private long[] starts;
+    private long[] ends;
+    private int runCount;
+    private long size;
+
+    public CompressedUidSet() {
+        clear();
+    }
+
+    /**
+     * @return true if the UID was not already present
+     */
+    public boolean add(MessageUid uid) {
+        long value = uid.asLong();
+        if (runCount == 0 || ends[runCount - 1] + 1 < value) {
+            appendRun(value, value);
+            size++;
+            return true;
+        }
+        if (ends[runCount - 1] + 1 == value) {
+            ends[runCount - 1] = value;
+            size++;
+            return true;
+        }
+        if (contains(value)) {
+            return false;
+        }
+        union(new long[] {value}, new long[] {value}, 1);
+        return true;
+    }
+
+    public void addAll(Collection<MessageUid> uids) {
+        if (uids.isEmpty()) {
+            return;
+        }
+        long[] values = toSortedArray(uids);
+        long[] addedStarts = new long[values.length];
+        long[] addedEnds = new long[values.length];
+        int addedRuns = 0;
+        for (long value : values) {
+            if (addedRuns > 0 && addedEnds[addedRuns - 1] + 1 >= value) {
+                addedEnds[addedRuns - 1] = value;
+            } else {
+                addedStarts[addedRuns] = value;
+                addedEnds[addedRuns] = value;
+                addedRuns++;
+            }
+        }
+        union(addedStarts, addedEnds, addedRuns);
+    }
+
+    /**
+     * @return true if the UID was present
+     */
+    public boolean remove(MessageUid uid) {
+        long value = uid.asLong();
+        int run = floorRun(value);
+        if (run < 0 || ends[run] < value) {
+            return false;
+        }
+        if (starts[run] == ends[run]) {
+            System.arraycopy(starts, run + 1, starts, run, runCount - run - 1);
+            System.arraycopy(ends, run + 1, ends, run, runCount - run - 1);
+            runCount--;
+        } else if (starts[run] == value) {
+            starts[run]++;
+        } else if (ends[run] == value) {
+            ends[run]--;
+        } else {
+            ensureCapacity(runCount + 1);
+            System.arraycopy(starts, run + 1, starts, run + 2, runCount - run - 1);
+            System.arraycopy(ends, run + 1, ends, run + 2, runCount - run - 1);
+            starts[run + 1] = value + 1;
+            ends[run + 1] = ends[run];
+            ends[run] = value - 1;
+            runCount++;
+        }
+        size--;
+        return true;
+    }
+
+    /**
+     * @return true if at least one UID was removed
+     */
+    public boolean removeAll(CompressedUidSet removed) {
+        if (removed.runCount == 0 || runCount == 0) {
+            return false;
+        }
+        long[] resultStarts = new long[runCount + removed.runCount];
+        long[] resultEnds = new long[runCount + removed.runCount];
+        int resultRuns = 0;
+        int j = 0;
+        for (int i = 0; i < runCount; i++) {
+            long start = starts[i];
+            long end = ends[i];
+            while (j < removed.runCount && removed.ends[j] < start) {
+                j++;
+            }
+            int k = j;
+            while (start <= end && k < removed.runCount && removed.starts[k] <= end) {
+                if (removed.starts[k] > start) {
+                    resultStarts[resultRuns] = start;
+                    resultEnds[resultRuns] = removed.starts[k] - 1;
+                    resultRuns++;
+                }
+                start = Math.max(start, removed.ends[k] + 1);
+                k++;
+            }
+            if (start <= end) {
+                resultStarts[resultRuns] = start;
+                resultEnds[resultRuns] = end;
+                resultRuns++;
+            }
+        }
+        long previousSize = size;
+        replaceRuns(resultStarts, resultEnds, resultRuns);
+        return size != previousSize;
+    }
+
+    public boolean contains(MessageUid uid) {
+        return contains(uid.asLong());
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        starts = new long[INITIAL_CAPACITY];
+        ends = new long[INITIAL_CAPACITY];
+        runCount = 0;
+        size = 0;
+    }
+
+    /**
+     * @return the runs of this set as ranges, in ascending order
+     */
+    public List<MessageRange> asRanges() {
+        ImmutableList.Builder<MessageRange> ranges = ImmutableList.builderWithExpectedSize(runCount);
+        for (int i = 0; i < runCount; i++) {
+            ranges.add(MessageRange.range(MessageUid.of(starts[i]), MessageUid.of(ends[i])));
+        }
+        return ranges.build();
+    }
+
+    /**
+     * @return the UIDs of this set, in ascending order
+     */
+    public List<MessageUid> asUids() {
+        ImmutableList.Builder<MessageUid> uids = ImmutableList.builderWithExpectedSize(Math.toIntExact(size));
+        for (int i = 0; i < runCount; i++) {
+            for (long value = starts[i]; value <= ends[i]; value++) {
+                uids.add(MessageUid.of(value));
+            }
+        }
+        return uids.build();
+    }
+
+    private boolean contains(long value) {
+        int run = floorRun(value);
+        return run >= 0 && value <= ends[run];
+    }
+
+    private int floorRun(long value) {
+        int position = Arrays.binarySearch(starts, 0, runCount, value);
+        if (position >= 0) {
+            return position;
+        }
+        return -position - 2;
+    }
+
+    private void union(long[] addedStarts, long[] addedEnds, int addedRuns) {
+        long[] resultStarts = new long[runCount + addedRuns];
+        long[] resultEnds = new long[runCount + addedRuns];
+        int resultRuns = 0;
+        int i = 0;
+        int j = 0;
+        while (i < runCount || j < addedRuns) {
+            long start;
+            long end;
+            if (j == addedRuns || (i < runCount && starts[i] <= addedStarts[j])) {
+                start = starts[i];
+                end = ends[i];
+                i++;
+            } else {
+                start = addedStarts[j];
+                end = addedEnds[j];
+                j++;
+            }
+            if (resultRuns > 0 && resultEnds[resultRuns - 1] + 1 >= start) {
+                resultEnds[resultRuns - 1] = Math.max(resultEnds[resultRuns - 1], end);
+            } else {
+                resultStarts[resultRuns] = start;
+                resultEnds[resultRuns] = end;
+                resultRuns++;
+            }
+        }
+        replaceRuns(resultStarts, resultEnds, resultRuns);
+    }
+
+    private void replaceRuns(long[] newStarts, long[] newEnds, int newRunCount) {
+        starts = newStarts;
+        ends = newEnds;
+        runCount = newRunCount;
+        long newSize = 0;
+        for (int i = 0; i < runCount; i++) {
+            newSize += ends[i] - starts[i] + 1;
+        }
+        size = newSize;
+    }
+
+    private void appendRun(long start, long end) {
+        ensureCapacity(runCount + 1);
+        starts[runCount] = start;
+        ends[runCount] = end;
+        runCount++;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (starts.length < capacity) {
+            int newCapacity = Math.max(capacity, starts.length + (starts.length >> 1));
+            starts = Arrays.copyOf(starts, newCapacity);
+            ends = Arrays.copyOf(ends, newCapacity);
+        }
+    }
+
+    private static long[] toSortedArray(Collection<MessageUid> uids) {
+        long[] values = new long[uids.size()];
+        int i = 0;
+        for (MessageUid uid : uids) {
+            values[i++] = uid.asLong();
+        }
+        Arrays.sort(values);
+        return values;
+    }
+}
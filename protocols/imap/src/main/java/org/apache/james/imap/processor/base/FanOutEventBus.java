@@ -0,0 +1,166 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+
+package org.apache.james.imap.processor.base;
+
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.james.mailbox.events.Event;
+import org.apache.james.mailbox.events.EventBus;
+import org.apache.james.mailbox.events.Group;
+import org.apache.james.mailbox.events.GroupAlreadyRegistered;
+import org.apache.james.mailbox.events.MailboxListener;
+import org.apache.james.mailbox.events.MailboxListener.ExecutionMode;
+import org.apache.james.mailbox.events.Registration;
+import org.apache.james.mailbox.events.RegistrationKey;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link EventBus} holding a single underlying registration per {@link RegistrationKey} and {@link ExecutionMode}.
+ *
+ * IMAP sessions selecting or idling on the same mailbox share this registration: each event is delivered once to this
+ * node, then multiplexed to the local listeners. Joining or leaving an already registered key does not reach the
+ * underlying {@link EventBus}.
+ */
+public class FanOutEventBus implements EventBus {
+    private static final Logger LOGGER = LoggerFactory.getLogger(FanOutEventBus.class);
+
+    private static class FanOutKey {
+        private final RegistrationKey registrationKey;
+        private final ExecutionMode executionMode;
+
+        private FanOutKey(RegistrationKey registrationKey, ExecutionMode executionMode) {
+            this.registrationKey = registrationKey;
+            this.executionMode = executionMode;
+        }
+
+        @Override
+        public final boolean equals(Object o) {
+            if (o instanceof FanOutKey) {
+                FanOutKey that = (FanOutKey) o;
+
+                return Objects.equals(this.registrationKey, that.registrationKey)
+                    && Objects.equals(this.executionMode, that.executionMode);
+            }
+            return false;
+        }
+
+        @Override
+        public final int hashCode() {
+            return Objects.hash(registrationKey, executionMode);
+        }
+    }
+
+    private class FanOut implements MailboxListener.ReactiveMailboxListener {
+        private final ExecutionMode executionMode;
+        private final Set<MailboxListener.ReactiveMailboxListener> listeners;
+        private final Mono<Registration> registration;
+
+        private FanOut(FanOutKey key) {
+            this.executionMode = key.executionMode;
+            this.listeners = ConcurrentHashMap.newKeySet();
+            this.registration = Mono.defer(() -> Mono.from(delegate.register(this, key.registrationKey)))
+                .doOnError(e -> fanOuts.remove(key, this))
+                .cache();
+        }
+
+        @Override
+        public Publisher<Void> reactiveEvent(Event event) {
+            return Flux.fromIterable(listeners)
+                .filter(listener -> listener.isHandling(event))
+                .flatMap(listener -> Mono.from(listener.reactiveEvent(event))
+                    .onErrorResume(e -> {
+                        LOGGER.error("Exception happens when handling event {} with {}", event.getEventId(), listener, e);
+                        return Mono.empty();
+                    }))
+                .then();
+        }
+
+        @Override
+        public ExecutionMode getExecutionMode() {
+            return executionMode;
+        }
+    }
+
+    private final EventBus delegate;
+    private final ConcurrentHashMap<FanOutKey, FanOut> fanOuts;
+
+    public FanOutEventBus(EventBus delegate) {
+        this.delegate = delegate;
+        this.fanOuts = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public Publisher<Registration> register(MailboxListener.ReactiveMailboxListener listener, RegistrationKey key) {
+        FanOutKey fanOutKey = new FanOutKey(key, listener.getExecutionMode());
+        FanOut fanOut = fanOuts.compute(fanOutKey, (k, existing) -> {
+            FanOut result = Objects.requireNonNullElseGet(existing, () -> new FanOut(k));
+            result.listeners.add(listener);
+            return result;
+        });
+        return fanOut.registration
+            .thenReturn(() -> unregister(fanOutKey, fanOut, listener));
+    }
+
+    private void unregister(FanOutKey fanOutKey, FanOut fanOut, MailboxListener.ReactiveMailboxListener listener) {
+        AtomicBoolean lastListenerRemoved = new AtomicBoolean(false);
+        fanOuts.computeIfPresent(fanOutKey, (k, existing) -> {
+            if (existing != fanOut || !existing.listeners.remove(listener) || !existing.listeners.isEmpty()) {
+                return existing;
+            }
+            lastListenerRemoved.set(true);
+            return null;
+        });
+        if (lastListenerRemoved.get()) {
+            // A later registration for this key uses a new fan-out, registered before this one is released
+            fanOut.registration.subscribe(Registration::unregister);
+        }
+    }
+
+    @VisibleForTesting
+    int registeredKeyCount() {
+        return fanOuts.size();
+    }
+
+    @Override
+    public Registration register(MailboxListener.ReactiveMailboxListener listener, Group group) throws GroupAlreadyRegistered {
+        return delegate.register(listener, group);
+    }
+
+    @Override
+    public Mono<Void> dispatch(Event event, Set<RegistrationKey> keys) {
+        return delegate.dispatch(event, keys);
+    }
+
+    @Override
+    public Mono<Void> reDeliver(Group group, Event event) {
+        return delegate.reDeliver(group, event);
+    }
+}
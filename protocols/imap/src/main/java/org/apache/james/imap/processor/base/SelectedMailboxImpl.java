@@ -24,14 +24,10 @@ import static io.vavr.API.Case;
 import static io.vavr.API.Match;
 import static io.vavr.Predicates.instanceOf;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
-import java.util.TreeSet;
 import java.util.stream.Stream;
 
 import javax.mail.Flags;
@@ -53,11 +49,13 @@ import org.apache.james.mailbox.events.Registration;
 import org.apache.james.mailbox.exception.MailboxException;
 import org.apache.james.mailbox.model.MailboxId;
 import org.apache.james.mailbox.model.MailboxPath;
+import org.apache.james.mailbox.model.MessageRange;
 import org.apache.james.mailbox.model.SearchQuery;
 import org.apache.james.mailbox.model.UpdatedFlags;
 
 import com.github.steveash.guavate.Guavate;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
 
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
@@ -118,10 +116,10 @@ public class SelectedMailboxImpl implements SelectedMailbox, MailboxListener {
     private final MailboxSession.SessionId sessionId;
     private final MailboxSession mailboxSession;
     private final UidMsnConverter uidMsnConverter;
-    private final Set<MessageUid> recentUids = new TreeSet<>();
-    private final Set<MessageUid> flagUpdateUids = new TreeSet<>();
+    private final CompressedUidSet recentUids = new CompressedUidSet();
+    private final CompressedUidSet flagUpdateUids = new CompressedUidSet();
     private final Flags.Flag uninterestingFlag = Flags.Flag.RECENT;
-    private final Set<MessageUid> expungedUids = new TreeSet<>();
+    private final CompressedUidSet expungedUids = new CompressedUidSet();
     private final Object applicableFlagsLock = new Object();
 
     private boolean recentUidRemoved = false;
@@ -191,16 +189,21 @@ public class SelectedMailboxImpl implements SelectedMailbox, MailboxListener {
         return recentUids.add(uid);
     }
 
+    @Override
+    public synchronized void addRecent(Collection<MessageUid> uids) {
+        recentUids.addAll(uids);
+    }
+
     @Override
     public synchronized Collection<MessageUid> getRecent() {
         checkExpungedRecents();
-        return new ArrayList<>(recentUids);
+        return recentUids.asUids();
     }
 
     @Override
     public synchronized int recentCount() {
         checkExpungedRecents();
-        return recentUids.size();
+        return Math.toIntExact(recentUids.size());
     }
 
     @Override
@@ -214,8 +217,8 @@ public class SelectedMailboxImpl implements SelectedMailbox, MailboxListener {
     }
 
     private void checkExpungedRecents() {
-        for (MessageUid uid : expungedUids()) {
-            removeRecent(uid);
+        if (recentUids.removeAll(expungedUids)) {
+            recentUidRemoved = true;
         }
     }
 
@@ -251,6 +254,11 @@ public class SelectedMailboxImpl implements SelectedMailbox, MailboxListener {
         return result;
     }
 
+    @Override
+    public synchronized List<NullableMessageSequenceNumber> remove(Collection<MessageUid> uids) {
+        return uidMsnConverter.remove(uids);
+    }
+
     private boolean interestingFlags(UpdatedFlags updated) {
         boolean result;
         final Iterator<Flags.Flag> it = updated.systemFlagIterator();
@@ -328,20 +336,35 @@ public class SelectedMailboxImpl implements SelectedMailbox, MailboxListener {
      */
     @Override
     public synchronized Collection<MessageUid> flagUpdateUids() {
-        // copy the TreeSet to fix possible
+        // copy the set to fix possible
         // java.util.ConcurrentModificationException
         // See IMAP-278
-        return Collections.unmodifiableSet(new TreeSet<>(flagUpdateUids));
-        
+        return flagUpdateUids.asUids();
+    }
+
+    @Override
+    public synchronized List<MessageRange> flagUpdateRanges() {
+        return flagUpdateUids.asRanges();
     }
 
     @Override
     public synchronized Collection<MessageUid> expungedUids() {
-        // copy the TreeSet to fix possible
+        // copy the set to fix possible
         // java.util.ConcurrentModificationException
         // See IMAP-278
-        return Collections.unmodifiableSet(new TreeSet<>(expungedUids));
-        
+        return expungedUids.asUids();
+    }
+
+    @Override
+    public synchronized List<MessageRange> expungedRanges() {
+        return expungedUids.asRanges();
+    }
+
+    @Override
+    public synchronized List<MessageRange> pollExpungedRanges() {
+        List<MessageRange> ranges = expungedUids.asRanges();
+        expungedUids.clear();
+        return ranges;
     }
 
     @Override
@@ -405,12 +428,10 @@ public class SelectedMailboxImpl implements SelectedMailbox, MailboxListener {
     private Void handleFlagsUpdates(FlagsUpdated updated) {
         List<UpdatedFlags> uFlags = updated.getUpdatedFlags();
         if (sessionId != updated.getSessionId() || !silentFlagChanges) {
-
-            for (UpdatedFlags u : uFlags) {
-                if (interestingFlags(u)) {
-                    flagUpdateUids.add(u.getUid());
-                }
-            }
+            flagUpdateUids.addAll(uFlags.stream()
+                .filter(this::interestingFlags)
+                .map(UpdatedFlags::getUid)
+                .collect(Guavate.toImmutableList()));
         }
 
         SelectedMailbox sm = session.getSelected();
@@ -419,18 +440,12 @@ public class SelectedMailboxImpl implements SelectedMailbox, MailboxListener {
             // list if we receive an flag update which contains a
             // \RECENT flag
             // See IMAP-287
-            List<UpdatedFlags> uflags = updated.getUpdatedFlags();
-            for (UpdatedFlags u : uflags) {
-                Iterator<Flag> flags = u.systemFlagIterator();
-
-                while (flags.hasNext()) {
-                    if (Flag.RECENT.equals(flags.next())) {
-                        MailboxId id = sm.getMailboxId();
-                        if (id != null && id.equals(updated.getMailboxId())) {
-                            sm.addRecent(u.getUid());
-                        }
-                    }
-                }
+            MailboxId id = sm.getMailboxId();
+            if (id != null && id.equals(updated.getMailboxId())) {
+                sm.addRecent(uFlags.stream()
+                    .filter(u -> !u.isUnchanged(Flag.RECENT))
+                    .map(UpdatedFlags::getUid)
+                    .collect(Guavate.toImmutableList()));
             }
         }
         synchronized (applicableFlagsLock) {
@@ -442,11 +457,10 @@ public class SelectedMailboxImpl implements SelectedMailbox, MailboxListener {
     private Void handleAddition(Added added) {
         sizeChanged = true;
         SelectedMailbox sm = session.getSelected();
-        for (MessageUid uid : added.getUids()) {
-            uidMsnConverter.addUid(uid);
-            if (sm != null) {
-                sm.addRecent(uid);
-            }
+        List<MessageUid> addedUids = ImmutableList.copyOf(added.getUids());
+        uidMsnConverter.addAll(addedUids);
+        if (sm != null) {
+            sm.addRecent(addedUids);
         }
         return VOID;
     }
@@ -19,97 +19,233 @@
 
 package org.apache.james.imap.processor.base;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
-import java.util.TreeSet;
 
 import org.apache.james.mailbox.MessageUid;
 import org.apache.james.mailbox.NullableMessageSequenceNumber;
 
 import com.google.common.annotations.VisibleForTesting;
-import com.google.common.collect.Lists;
-
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Maps the UIDs of the selected mailbox to their message sequence numbers.
+ *
+ * UIDs are kept sorted in a primitive array. Updates are serialized and publish an immutable {@link Snapshot}: appends
+ * write past the size of already published snapshots while other updates copy the array, hence reads do not lock.
+ */
 public class UidMsnConverter {
 
     public static final int FIRST_MSN = 1;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final Snapshot EMPTY = new Snapshot(new long[0], 0);
+
+    @VisibleForTesting
+    static class Snapshot {
+        private final long[] uids;
+        private final int size;
+
+        private Snapshot(long[] uids, int size) {
+            this.uids = uids;
+            this.size = size;
+        }
+
+        private int indexOf(long uid) {
+            return Arrays.binarySearch(uids, 0, size, uid);
+        }
+
+        private long last() {
+            return uids[size - 1];
+        }
+
+        @VisibleForTesting
+        long[] toArray() {
+            return Arrays.copyOf(uids, size);
+        }
+    }
 
-    @VisibleForTesting final ArrayList<MessageUid> uids;
+    @VisibleForTesting volatile Snapshot snapshot;
 
     public UidMsnConverter() {
-        this.uids = Lists.newArrayList();
+        this.snapshot = EMPTY;
     }
 
     public synchronized void addAll(List<MessageUid> addedUids) {
-        TreeSet<MessageUid> tmp = new TreeSet<>();
-        tmp.addAll(uids);
-        tmp.addAll(addedUids);
-        uids.clear();
-        uids.addAll(tmp);
+        long[] added = addedUids.stream()
+            .mapToLong(MessageUid::asLong)
+            .sorted()
+            .distinct()
+            .toArray();
+        if (added.length == 0) {
+            return;
+        }
+        Snapshot current = snapshot;
+        if (current.size == 0 || current.last() < added[0]) {
+            append(current, added, added.length);
+        } else {
+            snapshot = merge(current, added);
+        }
     }
 
-    public synchronized NullableMessageSequenceNumber getMsn(MessageUid uid) {
-        int position = Collections.binarySearch(uids, uid);
+    public NullableMessageSequenceNumber getMsn(MessageUid uid) {
+        int position = snapshot.indexOf(uid.asLong());
         if (position < 0) {
             return NullableMessageSequenceNumber.noMessage();
         }
         return NullableMessageSequenceNumber.of(position + 1);
     }
 
-    public synchronized Optional<MessageUid> getUid(int msn) {
-        if (msn <= uids.size() && msn > 0) {
-            return Optional.of(uids.get(msn - 1));
+    public Optional<MessageUid> getUid(int msn) {
+        Snapshot current = snapshot;
+        if (msn <= current.size && msn > 0) {
+            return Optional.of(MessageUid.of(current.uids[msn - 1]));
         }
         return Optional.empty();
     }
 
-    public synchronized Optional<MessageUid> getLastUid() {
-        if (uids.isEmpty()) {
+    public Optional<MessageUid> getLastUid() {
+        Snapshot current = snapshot;
+        if (current.size == 0) {
             return Optional.empty();
         }
-        return getUid(getLastMsn());
+        return Optional.of(MessageUid.of(current.last()));
     }
 
-    public synchronized Optional<MessageUid> getFirstUid() {
+    public Optional<MessageUid> getFirstUid() {
         return getUid(FIRST_MSN);
     }
 
-    public synchronized int getNumMessage() {
-        return uids.size();
+    public int getNumMessage() {
+        return snapshot.size;
     }
 
     public synchronized void remove(MessageUid uid) {
-        uids.remove(uid);
+        Snapshot current = snapshot;
+        int position = current.indexOf(uid.asLong());
+        if (position < 0) {
+            return;
+        }
+        long[] uids = new long[capacityFor(current.size - 1)];
+        System.arraycopy(current.uids, 0, uids, 0, position);
+        System.arraycopy(current.uids, position + 1, uids, position, current.size - position - 1);
+        snapshot = new Snapshot(uids, current.size - 1);
     }
 
-    public synchronized boolean isEmpty() {
-        return uids.isEmpty();
+    /**
+     * Removes the given UIDs with a single compaction.
+     *
+     * @return the message sequence numbers the UIDs held when removed one after the other, in iteration order. See
+     * RFC-3501 7.4.1. EXPUNGE Response
+     */
+    public synchronized List<NullableMessageSequenceNumber> remove(Collection<MessageUid> removedUids) {
+        Snapshot current = snapshot;
+        boolean[] removed = new boolean[current.size];
+        ImmutableList.Builder<NullableMessageSequenceNumber> msns = ImmutableList.builder();
+        int removedCount = 0;
+        int lastPosition = -1;
+        boolean ascending = true;
+        for (MessageUid uid : removedUids) {
+            int position = current.indexOf(uid.asLong());
+            if (position < 0 || removed[position]) {
+                msns.add(NullableMessageSequenceNumber.noMessage());
+                continue;
+            }
+            ascending = ascending && position > lastPosition;
+            lastPosition = position;
+            msns.add(NullableMessageSequenceNumber.of(position + 1 - removedBefore(removed, position, ascending, removedCount)));
+            removed[position] = true;
+            removedCount++;
+        }
+        if (removedCount > 0) {
+            snapshot = compact(current, removed, removedCount);
+        }
+        return msns.build();
+    }
+
+    private int removedBefore(boolean[] removed, int position, boolean ascending, int removedCount) {
+        if (ascending) {
+            return removedCount;
+        }
+        int count = 0;
+        for (int i = 0; i < position; i++) {
+            if (removed[i]) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return snapshot.size == 0;
     }
 
     public synchronized void clear() {
-        uids.clear();
+        snapshot = EMPTY;
     }
 
     public synchronized void addUid(MessageUid uid) {
-        if (uids.contains(uid)) {
+        Snapshot current = snapshot;
+        long value = uid.asLong();
+        if (current.size == 0 || current.last() < value) {
+            append(current, new long[] {value}, 1);
             return;
         }
-        if (isLastUid(uid)) {
-            uids.add(uid);
-        } else {
-            uids.add(uid);
-            Collections.sort(uids);
+        int position = current.indexOf(value);
+        if (position >= 0) {
+            return;
+        }
+        int insertionPoint = -position - 1;
+        long[] uids = new long[capacityFor(current.size + 1)];
+        System.arraycopy(current.uids, 0, uids, 0, insertionPoint);
+        uids[insertionPoint] = value;
+        System.arraycopy(current.uids, insertionPoint, uids, insertionPoint + 1, current.size - insertionPoint);
+        snapshot = new Snapshot(uids, current.size + 1);
+    }
+
+    private void append(Snapshot current, long[] added, int addedCount) {
+        int size = current.size + addedCount;
+        long[] uids = current.uids;
+        if (uids.length < size) {
+            uids = Arrays.copyOf(current.uids, capacityFor(size));
         }
+        // Slots past the current size are not visible to published snapshots
+        System.arraycopy(added, 0, uids, current.size, addedCount);
+        snapshot = new Snapshot(uids, size);
     }
 
-    private boolean isLastUid(MessageUid uid) {
-        Optional<MessageUid> lastUid = getLastUid();
-        return !lastUid.isPresent() ||
-            lastUid.get().compareTo(uid) < 0;
+    private Snapshot merge(Snapshot current, long[] added) {
+        long[] uids = new long[capacityFor(current.size + added.length)];
+        int i = 0;
+        int j = 0;
+        int size = 0;
+        while (i < current.size || j < added.length) {
+            if (j == added.length || (i < current.size && current.uids[i] < added[j])) {
+                uids[size++] = current.uids[i++];
+            } else if (i == current.size || added[j] < current.uids[i]) {
+                uids[size++] = added[j++];
+            } else {
+                uids[size++] = current.uids[i++];
+                j++;
+            }
+        }
+        return new Snapshot(uids, size);
+    }
+
+    private Snapshot compact(Snapshot current, boolean[] removed, int removedCount) {
+        int size = current.size - removedCount;
+        long[] uids = new long[capacityFor(size)];
+        int next = 0;
+        for (int i = 0; i < current.size; i++) {
+            if (!removed[i]) {
+                uids[next++] = current.uids[i];
+            }
+        }
+        return new Snapshot(uids, size);
     }
 
-    private int getLastMsn() {
-        return getNumMessage();
+    private int capacityFor(int size) {
+        return Math.max(INITIAL_CAPACITY, size + (size >> 1));
     }
 }
@@ -20,17 +20,19 @@
 package org.apache.james.imap.processor.fetch;
 
 import java.util.Collection;
+import java.util.EnumSet;
 
 import org.apache.james.imap.api.message.BodyFetchElement;
 import org.apache.james.imap.api.message.FetchData;
 import org.apache.james.imap.api.message.FetchData.Item;
 import org.apache.james.imap.api.message.SectionType;
+import org.apache.james.mailbox.MailboxManager.MessageCapabilities;
 import org.apache.james.mailbox.model.FetchGroup;
 import org.apache.james.mailbox.model.MimePath;
 
 class FetchDataConverter {
 
-    static FetchGroup getFetchGroup(FetchData fetch) {
+    static FetchGroup getFetchGroup(FetchData fetch, EnumSet<MessageCapabilities> messageCapabilities) {
         FetchGroup result = FetchGroup.MINIMAL;
 
         if (fetch.contains(Item.ENVELOPE)) {
@@ -48,11 +50,13 @@ class FetchDataConverter {
                 final boolean isBase = (path == null || path.length == 0);
                 switch (sectionType) {
                     case CONTENT:
-                        if (isBase) {
-                            result = addContent(result, path, isBase, FetchGroup.Profile.FULL_CONTENT);
-                        } else {
+                        if (!isBase) {
                             result = addContent(result, path, isBase, FetchGroup.Profile.MIME_CONTENT);
+                        } else if (element.getFirstOctet() == null && !readsFullContentByRanges(messageCapabilities)) {
+                            result = addContent(result, path, isBase, FetchGroup.Profile.FULL_CONTENT);
                         }
+                        // Partial fetches of the full content, and full content of mailboxes reading ranges, read
+                        // octets on their own, see FetchResponseBuilder
                         break;
                     case HEADER:
                     case HEADER_NOT_FIELDS:
@@ -74,6 +78,10 @@ class FetchDataConverter {
         return result;
     }
 
+    static boolean readsFullContentByRanges(EnumSet<MessageCapabilities> messageCapabilities) {
+        return messageCapabilities.contains(MessageCapabilities.RangedFullContentRead);
+    }
+
     private static FetchGroup addContent(FetchGroup result, int[] path, boolean isBase, FetchGroup.Profile profile) {
         if (isBase) {
             return result.with(profile);
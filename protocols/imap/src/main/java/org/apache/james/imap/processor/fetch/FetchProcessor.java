@@ -23,6 +23,7 @@ import java.io.Closeable;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
 
 import org.apache.james.imap.api.ImapConstants;
 import org.apache.james.imap.api.display.HumanReadableText;
@@ -114,19 +115,54 @@ public class FetchProcessor extends AbstractMailboxProcessor<FetchRequest> {
                 //       If we do so we could prolly save one mailbox access which should give use some more speed up
                 respondVanished(mailboxSession, mailbox, ranges, changedSince, metaData.get(), responder);
             }
-            processMessageRanges(session, mailbox, ranges, fetch, useUids, mailboxSession, responder);
+            respond(request, session, responder, new FetchResponses(session, mailbox, ranges.iterator(), fetch));
+        } catch (MailboxException e) {
+            fetchFailed(request, session, responder, e);
+        }
+    }
 
-            
-            // Don't send expunge responses if FETCH is used to trigger this
-            // processor. See IMAP-284
-            final boolean omitExpunged = (!useUids);
-            unsolicitedResponses(session, responder, omitExpunged, useUids);
-            okComplete(request, responder);
-        } catch (MessageRangeException e) {
-            LOGGER.debug("Fetch failed for mailbox {} because of invalid sequence-set {}", session.getSelected().getMailboxId(), idSet, e);
-            taggedBad(request, responder, HumanReadableText.INVALID_MESSAGESET);
+    /**
+     * Messages are only pulled from the mailbox while the client reads the responses. Otherwise the command is
+     * suspended until the client catches up, so that the responses of a large FETCH do not pile up in memory.
+     */
+    private void respond(FetchRequest request, ImapSession session, Responder responder, FetchResponses responses) {
+        try {
+            while (session.isWritable()) {
+                Optional<FetchResponse> response = responses.next();
+                if (!response.isPresent()) {
+                    // Don't send expunge responses if FETCH is used to trigger this
+                    // processor. See IMAP-284
+                    final boolean omitExpunged = (!request.isUseUids());
+                    unsolicitedResponses(session, responder, omitExpunged, request.isUseUids());
+                    okComplete(request, responder);
+                    return;
+                }
+                responder.respond(response.get());
+            }
+            session.resumeWhenWritable(() -> resume(request, session, responder, responses));
         } catch (MailboxException e) {
-            LOGGER.error("Fetch failed for mailbox {} and sequence-set {}", session.getSelected().getMailboxId(), idSet, e);
+            fetchFailed(request, session, responder, e);
+        }
+    }
+
+    private void resume(FetchRequest request, ImapSession session, Responder responder, FetchResponses responses) {
+        MailboxSession mailboxSession = session.getMailboxSession();
+        try {
+            getMailboxManager().startProcessingRequest(mailboxSession);
+            respond(request, session, responder, responses);
+            getMailboxManager().endProcessingRequest(mailboxSession);
+        } catch (Exception unexpectedException) {
+            LOGGER.error("Unexpected error during IMAP processing", unexpectedException);
+            no(request, responder, HumanReadableText.GENERIC_FAILURE_DURING_PROCESSING);
+        }
+    }
+
+    private void fetchFailed(FetchRequest request, ImapSession session, Responder responder, MailboxException e) {
+        if (e instanceof MessageRangeException) {
+            LOGGER.debug("Fetch failed for mailbox {} because of invalid sequence-set {}", session.getSelected().getMailboxId(), request.getIdSet(), e);
+            taggedBad(request, responder, HumanReadableText.INVALID_MESSAGESET);
+        } else {
+            LOGGER.error("Fetch failed for mailbox {} and sequence-set {}", session.getSelected().getMailboxId(), request.getIdSet(), e);
             no(request, responder, HumanReadableText.SEARCH_FAILED);
         }
     }
@@ -142,83 +178,116 @@ public class FetchProcessor extends AbstractMailboxProcessor<FetchRequest> {
     }
 
     /**
-     * Process the given message ranges by fetch them and pass them to the
-     * {@link org.apache.james.imap.api.process.ImapProcessor.Responder}
+     * Builds the responses for the given message ranges, retrieving the messages as responses are requested
      */
-    private void processMessageRanges(ImapSession session, MessageManager mailbox, List<MessageRange> ranges, FetchData fetch, boolean useUids, MailboxSession mailboxSession, Responder responder) throws MailboxException {
-        final FetchResponseBuilder builder = new FetchResponseBuilder(new EnvelopeBuilder());
-        FetchGroup resultToFetch = FetchDataConverter.getFetchGroup(fetch);
-
-        for (MessageRange range : ranges) {
-            if (fetch.isOnlyFlags()) {
-                processMessageRangeForFlags(session, mailbox, fetch, mailboxSession, responder, builder, range);
-            } else {
-                processMessageRange(session, mailbox, fetch, mailboxSession, responder, builder, resultToFetch, range);
-            }
-        }
+    private static class FetchResponses {
+        private final ImapSession session;
+        private final MessageManager mailbox;
+        private final Iterator<MessageRange> ranges;
+        private final FetchData fetch;
+        private final FetchResponseBuilder builder;
+        private final FetchGroup resultToFetch;
+        private RangeResponses rangeResponses;
 
-    }
+        FetchResponses(ImapSession session, MessageManager mailbox, Iterator<MessageRange> ranges, FetchData fetch) {
+            this.session = session;
+            this.mailbox = mailbox;
+            this.ranges = ranges;
+            this.fetch = fetch;
+            this.builder = new FetchResponseBuilder(new EnvelopeBuilder());
+            this.resultToFetch = FetchDataConverter.getFetchGroup(fetch, mailbox.getSupportedMessageCapabilities());
+            this.rangeResponses = Optional::empty;
+        }
 
-    private void processMessageRangeForFlags(ImapSession session, MessageManager mailbox, FetchData fetch, MailboxSession mailboxSession, Responder responder, FetchResponseBuilder builder, MessageRange range) {
-        SelectedMailbox selected = session.getSelected();
-        Iterator<ComposedMessageIdWithMetaData> results = Flux.from(mailbox.listMessagesMetadata(range, mailboxSession))
-            .filter(ids -> !fetch.contains(Item.MODSEQ) || ids.getModSeq().asLong() > fetch.getChangedSince())
-            .toStream()
-            .iterator();
-
-        while (results.hasNext()) {
-            ComposedMessageIdWithMetaData result = results.next();
-
-            try {
-                final FetchResponse response = builder.build(fetch, result, mailbox, selected, mailboxSession);
-                responder.respond(response);
-            } catch (MessageRangeException e) {
-                // we can't for whatever reason find the message so
-                // just skip it and log it to debug
-                LOGGER.debug("Unable to find message with uid {}", result.getComposedMessageId().getUid(), e);
-            } catch (MailboxException e) {
-                // we can't for whatever reason find parse all requested parts of the message. This may because it was deleted while try to access the parts.
-                // So we just skip it
-                //
-                // See IMAP-347
-                LOGGER.error("Unable to fetch message with uid {}, so skip it", result.getComposedMessageId().getUid(), e);
+        /**
+         * @return the next response, empty once all the messages were fetched
+         */
+        Optional<FetchResponse> next() throws MailboxException {
+            Optional<FetchResponse> response = rangeResponses.next();
+            while (!response.isPresent() && ranges.hasNext()) {
+                MessageRange range = ranges.next();
+                if (fetch.isOnlyFlags()) {
+                    rangeResponses = flagsResponses(range);
+                } else {
+                    rangeResponses = messageResponses(range);
+                }
+                response = rangeResponses.next();
             }
+            return response;
         }
-    }
 
-    private void processMessageRange(ImapSession session, MessageManager mailbox, FetchData fetch, MailboxSession mailboxSession, Responder responder, FetchResponseBuilder builder, FetchGroup resultToFetch, MessageRange range) throws MailboxException {
-        MessageResultIterator messages = mailbox.getMessages(range, resultToFetch, mailboxSession);
-        SelectedMailbox selected = session.getSelected();
-        while (messages.hasNext()) {
-            final MessageResult result = messages.next();
+        private RangeResponses flagsResponses(MessageRange range) {
+            SelectedMailbox selected = session.getSelected();
+            MailboxSession mailboxSession = session.getMailboxSession();
+            Iterator<ComposedMessageIdWithMetaData> results = Flux.from(mailbox.listMessagesMetadata(range, mailboxSession))
+                .filter(ids -> !fetch.contains(Item.MODSEQ) || ids.getModSeq().asLong() > fetch.getChangedSince())
+                .toStream()
+                .iterator();
 
-            //skip unchanged messages - this should be filtered at the mailbox level to take advantage of indexes
-            if (fetch.contains(Item.MODSEQ) && result.getModSeq().asLong() <= fetch.getChangedSince()) {
-                continue;
-            }
+            return () -> {
+                while (results.hasNext()) {
+                    ComposedMessageIdWithMetaData result = results.next();
 
-            try {
-                final FetchResponse response = builder.build(fetch, result, mailbox, selected, mailboxSession);
-                responder.respond(response);
-            } catch (MessageRangeException e) {
-                // we can't for whatever reason find the message so
-                // just skip it and log it to debug
-                LOGGER.debug("Unable to find message with uid {}", result.getUid(), e);
-            } catch (MailboxException e) {
-                // we can't for whatever reason find parse all requested parts of the message. This may because it was deleted while try to access the parts.
-                // So we just skip it
-                //
-                // See IMAP-347
-                LOGGER.error("Unable to fetch message with uid {}, so skip it", result.getUid(), e);
-            }
+                    try {
+                        return Optional.of(builder.build(fetch, result, mailbox, selected, mailboxSession));
+                    } catch (MessageRangeException e) {
+                        // we can't for whatever reason find the message so
+                        // just skip it and log it to debug
+                        LOGGER.debug("Unable to find message with uid {}", result.getComposedMessageId().getUid(), e);
+                    } catch (MailboxException e) {
+                        // we can't for whatever reason find parse all requested parts of the message. This may because it was deleted while try to access the parts.
+                        // So we just skip it
+                        //
+                        // See IMAP-347
+                        LOGGER.error("Unable to fetch message with uid {}, so skip it", result.getComposedMessageId().getUid(), e);
+                    }
+                }
+                return Optional.empty();
+            };
         }
 
-        // Throw the exception if we received one
-        if (messages.getException() != null) {
-            throw messages.getException();
+        private RangeResponses messageResponses(MessageRange range) throws MailboxException {
+            SelectedMailbox selected = session.getSelected();
+            MailboxSession mailboxSession = session.getMailboxSession();
+            MessageResultIterator messages = mailbox.getMessages(range, resultToFetch, mailboxSession);
+
+            return () -> {
+                while (messages.hasNext()) {
+                    final MessageResult result = messages.next();
+
+                    //skip unchanged messages - this should be filtered at the mailbox level to take advantage of indexes
+                    if (fetch.contains(Item.MODSEQ) && result.getModSeq().asLong() <= fetch.getChangedSince()) {
+                        continue;
+                    }
+
+                    try {
+                        return Optional.of(builder.build(fetch, result, mailbox, selected, mailboxSession));
+                    } catch (MessageRangeException e) {
+                        // we can't for whatever reason find the message so
+                        // just skip it and log it to debug
+                        LOGGER.debug("Unable to find message with uid {}", result.getUid(), e);
+                    } catch (MailboxException e) {
+                        // we can't for whatever reason find parse all requested parts of the message. This may because it was deleted while try to access the parts.
+                        // So we just skip it
+                        //
+                        // See IMAP-347
+                        LOGGER.error("Unable to fetch message with uid {}, so skip it", result.getUid(), e);
+                    }
+                }
+
+                // Throw the exception if we received one
+                if (messages.getException() != null) {
+                    throw messages.getException();
+                }
+                return Optional.empty();
+            };
         }
     }
 
+    @FunctionalInterface
+    private interface RangeResponses {
+        Optional<FetchResponse> next() throws MailboxException;
+    }
 
     @Override
     protected Closeable addContextToMDC(FetchRequest request) {
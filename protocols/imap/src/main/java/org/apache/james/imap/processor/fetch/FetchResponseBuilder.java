@@ -53,6 +53,8 @@ import org.apache.james.mailbox.model.MessageRange;
 import org.apache.james.mailbox.model.MessageResult;
 import org.apache.james.mailbox.model.MimePath;
 
+import reactor.core.publisher.Mono;
+
 public final class FetchResponseBuilder {
     private final EnvelopeBuilder envelopeBuilder;
 
@@ -134,7 +136,7 @@ public final class FetchResponseBuilder {
             Collection<BodyFetchElement> elements = fetch.getBodyElements();
             this.elements = new ArrayList<>();
             for (BodyFetchElement fetchElement : elements) {
-                final FetchResponse.BodyElement element = bodyFetch(result, fetchElement);
+                final FetchResponse.BodyElement element = bodyFetch(result, fetchElement, mailbox, mailboxSession);
                 if (element != null) {
                     this.elements.add(element);
                 }
@@ -239,7 +241,7 @@ public final class FetchResponseBuilder {
         this.internalDate = internalDate;
     }
 
-    private FetchResponse.BodyElement bodyFetch(MessageResult messageResult, BodyFetchElement fetchElement) throws MailboxException {
+    private FetchResponse.BodyElement bodyFetch(MessageResult messageResult, BodyFetchElement fetchElement, MessageManager mailbox, MailboxSession mailboxSession) throws MailboxException {
         final Long firstOctet = fetchElement.getFirstOctet();
         final Long numberOfOctets = fetchElement.getNumberOfOctets();
         final String name = fetchElement.getResponseName();
@@ -248,6 +250,12 @@ public final class FetchResponseBuilder {
                 .filter(paths -> paths.length > 0)
                 .map(MimePath::new);
         final Collection<String> names = fetchElement.getFieldNames();
+        if (specifier == SectionType.CONTENT && path.isEmpty() && firstOctet != null) {
+            return partialFullContent(messageResult, name, firstOctet, numberOfOctets, mailbox, mailboxSession);
+        }
+        if (specifier == SectionType.CONTENT && path.isEmpty() && FetchDataConverter.readsFullContentByRanges(mailbox.getSupportedMessageCapabilities())) {
+            return new ContentBodyElement(name, new RangedFullContent(mailbox, mailboxSession, messageResult.getUid(), messageResult.getSize()));
+        }
         final FetchResponse.BodyElement fullResult = bodyContent(messageResult, name, specifier, path, names);
         return wrapIfPartialFetch(firstOctet, numberOfOctets, fullResult);
     }
@@ -271,6 +279,19 @@ public final class FetchResponseBuilder {
         }
     }
 
+    /**
+     * Only the requested octets are read from the mailbox, see {@link FetchDataConverter#getFetchGroup}
+     */
+    private FetchResponse.BodyElement partialFullContent(MessageResult messageResult, String name, long firstOctet, Long numberOfOctets,
+                                                         MessageManager mailbox, MailboxSession mailboxSession) throws MessageRangeException {
+        final long numberOfOctetsAsLong = Objects.requireNonNullElse(numberOfOctets, Long.MAX_VALUE);
+        final MessageUid messageUid = messageResult.getUid();
+        final byte[] content = Mono.from(mailbox.readFullContent(messageUid, firstOctet, numberOfOctetsAsLong, mailboxSession))
+            .blockOptional()
+            .orElseThrow(() -> new MessageRangeException("No such message found with uid " + messageUid));
+        return new PartialContentBodyElement(name, firstOctet, content);
+    }
+
     private FetchResponse.BodyElement wrapIfPartialFetch(Long firstOctet, Long numberOfOctets, FetchResponse.BodyElement fullResult) {
         if (firstOctet == null) {
             return fullResult;
@@ -0,0 +1,109 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imap.processor.fetch;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.apache.james.mailbox.MailboxSession;
+import org.apache.james.mailbox.MessageManager;
+import org.apache.james.mailbox.MessageUid;
+import org.apache.james.mailbox.model.Content;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Full content of a message read from the mailbox by ranges, as it is consumed.
+ *
+ * Only one range is held in memory, the next one being read once the previous one was written out to the client. It
+ * is thus only used for mailboxes reading ranges without reading the full message, see
+ * {@link org.apache.james.mailbox.MailboxManager.MessageCapabilities#RangedFullContentRead}
+ */
+class RangedFullContent implements Content {
+    static final int RANGE_LENGTH = 64 * 1024;
+
+    private final MessageManager mailbox;
+    private final MailboxSession mailboxSession;
+    private final MessageUid uid;
+    private final long size;
+
+    RangedFullContent(MessageManager mailbox, MailboxSession mailboxSession, MessageUid uid, long size) {
+        this.mailbox = mailbox;
+        this.mailboxSession = mailboxSession;
+        this.uid = uid;
+        this.size = size;
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return new RangesInputStream();
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    private class RangesInputStream extends InputStream {
+        private long nextOctet;
+        private InputStream range;
+
+        RangesInputStream() {
+            this.nextOctet = 0;
+            this.range = new ByteArrayInputStream(new byte[0]);
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] octet = new byte[1];
+            if (read(octet, 0, 1) == -1) {
+                return -1;
+            }
+            return octet[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            int read = range.read(b, off, len);
+            while (read == -1 && nextOctet < size) {
+                range = new ByteArrayInputStream(readNextRange());
+                read = range.read(b, off, len);
+            }
+            return read;
+        }
+
+        private byte[] readNextRange() throws IOException {
+            long rangeLength = Math.min(RANGE_LENGTH, size - nextOctet);
+            byte[] octets = Mono.from(mailbox.readFullContent(uid, nextOctet, rangeLength, mailboxSession))
+                .blockOptional()
+                .orElseThrow(() -> new IOException("Unable to retrieve content of message with uid " + uid.asLong()));
+            // The size of the literal was already announced to the client
+            if (octets.length < rangeLength) {
+                throw new IOException("Content of message with uid " + uid.asLong() + " is shorter than its size " + size);
+            }
+            nextOctet += octets.length;
+            return octets;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+
+package org.apache.james.imap.decode;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.james.imap.api.ImapMessage;
+import org.apache.james.imap.decode.main.DefaultImapDecoder;
+import org.apache.james.imap.decode.parser.ImapParserFactory;
+import org.apache.james.imap.encode.FakeImapSession;
+import org.apache.james.imap.message.response.UnpooledStatusResponseFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Decodes a synthetic mix of commands typical of a synchronising client.
+ *
+ * Run {@link #main(String[])} to get the allocation rate per decoded command, reported as
+ * <code>gc.alloc.rate.norm</code> by the GC profiler.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ImapRequestDecodingBenchmark {
+
+    @Param({
+        "a1 UID FETCH 1:4096 (UID FLAGS RFC822.SIZE INTERNALDATE BODY.PEEK[HEADER.FIELDS (From To Subject Date)])",
+        "a2 FETCH 1:* (FLAGS)",
+        "a3 UID FETCH 12,15:18,20,22:30,40:* (UID FLAGS MODSEQ) (CHANGEDSINCE 12345)",
+        "a4 UID STORE 1:100,200:300 +FLAGS.SILENT (\\Seen)",
+        "a5 NOOP"
+    })
+    public String command;
+
+    private DefaultImapDecoder decoder;
+    private FakeImapSession session;
+    private byte[] line;
+
+    @Setup
+    public void setUp() {
+        UnpooledStatusResponseFactory statusResponseFactory = new UnpooledStatusResponseFactory();
+        decoder = new DefaultImapDecoder(statusResponseFactory, new ImapParserFactory(statusResponseFactory));
+        session = new FakeImapSession();
+        session.authenticated();
+        line = (command + "\r\n").getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Benchmark
+    public ImapMessage decode() {
+        ImapRequestLineReader reader = new ImapRequestStreamLineReader(new ByteArrayInputStream(line), new ByteArrayOutputStream());
+        return decoder.decode(reader, session);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(ImapRequestDecodingBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build())
+            .run();
+    }
+}
@@ -19,6 +19,7 @@
 package org.apache.james.imap.decode.main;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.Fail.fail;
 
 import java.io.ByteArrayInputStream;
@@ -80,6 +81,45 @@ public class IdRangeParseTest  {
 
     }
 
+    @Test
+    public void sequenceSetsShouldBeMerged() throws DecodingException {
+        IdRange[] ranges = ranges("5:7,1,2:3,*");
+
+        assertThat(ranges).containsExactly(new IdRange(1, 3), new IdRange(5, 7), new IdRange(Long.MAX_VALUE, Long.MAX_VALUE));
+    }
+
+    @Test
+    public void starShouldBeTheHighValueOfReversedRanges() throws DecodingException {
+        IdRange[] ranges = ranges("*:4");
+
+        assertThat(ranges).containsExactly(new IdRange(4, Long.MAX_VALUE));
+    }
+
+    @Test
+    public void sequenceSetShouldStopOnClosingParenthesis() throws DecodingException {
+        IdRange[] ranges = ranges("1:2)");
+
+        assertThat(ranges).containsExactly(new IdRange(1, 2));
+    }
+
+    @Test
+    public void sequenceSetsWithEmptyRangesShouldBeRejected() {
+        assertThatThrownBy(() -> ranges("1,,2"))
+            .isInstanceOf(DecodingException.class);
+    }
+
+    @Test
+    public void sequenceSetsWithTooManyBoundsShouldBeRejected() {
+        assertThatThrownBy(() -> ranges("1:2:3"))
+            .isInstanceOf(DecodingException.class);
+    }
+
+    @Test
+    public void sequenceSetsWithInvalidCharactersShouldBeRejected() {
+        assertThatThrownBy(() -> ranges("1:a"))
+            .isInstanceOf(DecodingException.class);
+    }
+
     private String rangeAsString(long val1, long val2) {
         return val1 + ":" + val2;
     }
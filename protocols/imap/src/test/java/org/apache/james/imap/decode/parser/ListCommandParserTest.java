@@ -0,0 +1,121 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.imap.decode.parser;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.james.imap.api.Tag;
+import org.apache.james.imap.api.message.StatusDataItems;
+import org.apache.james.imap.api.message.response.StatusResponseFactory;
+import org.apache.james.imap.decode.DecodingException;
+import org.apache.james.imap.decode.ImapRequestStreamLineReader;
+import org.apache.james.imap.encode.FakeImapSession;
+import org.apache.james.imap.message.request.ListRequest;
+import org.apache.james.imap.message.request.LsubRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ListCommandParserTest {
+    private static final Tag TAG = new Tag("A1");
+
+    private StatusResponseFactory statusResponseFactory;
+    private ListCommandParser testee;
+
+    @BeforeEach
+    void setUp() {
+        statusResponseFactory = mock(StatusResponseFactory.class);
+        testee = new ListCommandParser(statusResponseFactory);
+    }
+
+    @Test
+    void decodeShouldParseReferenceAndPattern() throws Exception {
+        ListRequest request = (ListRequest) testee.decode(toRequest("\"\" \"%\"\r\n"), TAG, false, new FakeImapSession());
+
+        assertThat(request.getBaseReferenceName()).isEmpty();
+        assertThat(request.getMailboxPattern()).isEqualTo("%");
+        assertThat(request.getStatusDataItems()).isEmpty();
+    }
+
+    @Test
+    void decodeShouldParseStatusReturnOption() throws Exception {
+        ListRequest request = (ListRequest) testee.decode(toRequest("\"\" % RETURN (STATUS (MESSAGES unseen))\r\n"), TAG, false, new FakeImapSession());
+
+        assertThat(request.getMailboxPattern()).isEqualTo("%");
+        StatusDataItems statusDataItems = request.getStatusDataItems().get();
+        assertThat(statusDataItems.isMessages()).isTrue();
+        assertThat(statusDataItems.isUnseen()).isTrue();
+        assertThat(statusDataItems.isRecent()).isFalse();
+    }
+
+    @Test
+    void decodeShouldAcceptChildrenReturnOption() throws Exception {
+        ListRequest request = (ListRequest) testee.decode(toRequest("\"\" \"*\" return (CHILDREN STATUS (UIDNEXT))\r\n"), TAG, false, new FakeImapSession());
+
+        assertThat(request.getStatusDataItems().get().isUidNext()).isTrue();
+    }
+
+    @Test
+    void decodeShouldAcceptEmptyReturnOptions() throws Exception {
+        ListRequest request = (ListRequest) testee.decode(toRequest("\"\" \"*\" RETURN ()\r\n"), TAG, false, new FakeImapSession());
+
+        assertThat(request.getStatusDataItems()).isEmpty();
+    }
+
+    @Test
+    void decodeShouldRejectUnsupportedReturnOptions() {
+        assertThatThrownBy(() -> testee.decode(toRequest("\"\" \"*\" RETURN (SUBSCRIBED)\r\n"), TAG, false, new FakeImapSession()))
+            .isInstanceOf(DecodingException.class);
+    }
+
+    @Test
+    void decodeShouldRejectEmptyStatusItems() {
+        assertThatThrownBy(() -> testee.decode(toRequest("\"\" \"*\" RETURN (STATUS ())\r\n"), TAG, false, new FakeImapSession()))
+            .isInstanceOf(DecodingException.class);
+    }
+
+    @Test
+    void decodeShouldRejectUnknownStatusItems() {
+        assertThatThrownBy(() -> testee.decode(toRequest("\"\" \"*\" RETURN (STATUS (SIZE))\r\n"), TAG, false, new FakeImapSession()))
+            .isInstanceOf(DecodingException.class);
+    }
+
+    @Test
+    void lsubShouldNotAcceptReturnOptions() {
+        LsubCommandParser lsubParser = new LsubCommandParser(statusResponseFactory);
+
+        assertThatThrownBy(() -> lsubParser.decode(toRequest("\"\" \"*\" RETURN (STATUS (MESSAGES))\r\n"), TAG, false, new FakeImapSession()))
+            .isInstanceOf(DecodingException.class);
+    }
+
+    @Test
+    void lsubShouldStillBeParsed() throws Exception {
+        assertThat(new LsubCommandParser(statusResponseFactory).decode(toRequest("\"\" \"*\"\r\n"), TAG, false, new FakeImapSession()))
+            .isInstanceOf(LsubRequest.class);
+    }
+
+    private ImapRequestStreamLineReader toRequest(String input) {
+        return new ImapRequestStreamLineReader(new ByteArrayInputStream(input.getBytes(StandardCharsets.US_ASCII)), new ByteArrayOutputStream());
+    }
+}
@@ -0,0 +1,143 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.imap.decode.parser;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.james.imap.api.Tag;
+import org.apache.james.imap.api.message.request.NotifyEvent;
+import org.apache.james.imap.api.message.response.StatusResponseFactory;
+import org.apache.james.imap.decode.DecodingException;
+import org.apache.james.imap.decode.ImapRequestStreamLineReader;
+import org.apache.james.imap.encode.FakeImapSession;
+import org.apache.james.imap.message.request.NotifyRequest;
+import org.apache.james.imap.message.request.NotifyRequest.EventGroup;
+import org.apache.james.imap.message.request.NotifyRequest.MailboxFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+class NotifyCommandParserTest {
+    private static final Tag TAG = new Tag("A1");
+
+    private NotifyCommandParser testee;
+
+    @BeforeEach
+    void setUp() {
+        testee = new NotifyCommandParser(mock(StatusResponseFactory.class));
+    }
+
+    @Test
+    void decodeShouldParseNone() throws Exception {
+        NotifyRequest request = decode("NONE\r\n");
+
+        assertThat(request.getEventGroups()).isEmpty();
+        assertThat(request.isStatus()).isFalse();
+    }
+
+    @Test
+    void decodeShouldParseSelectedEvents() throws Exception {
+        NotifyRequest request = decode("SET (SELECTED (MessageNew MessageExpunge FlagChange))\r\n");
+
+        assertThat(request.getEventGroups()).containsExactly(
+            new EventGroup(MailboxFilter.of(MailboxFilter.Type.SELECTED),
+                ImmutableSet.of(NotifyEvent.MESSAGE_NEW, NotifyEvent.MESSAGE_EXPUNGE, NotifyEvent.FLAG_CHANGE)));
+        assertThat(request.isStatus()).isFalse();
+    }
+
+    @Test
+    void decodeShouldParseStatusAndSeveralEventGroups() throws Exception {
+        NotifyRequest request = decode("SET STATUS (selected-delayed (MessageNew MessageExpunge)) (personal (MessageNew MessageExpunge)) (inboxes NONE)\r\n");
+
+        assertThat(request.isStatus()).isTrue();
+        assertThat(request.getEventGroups()).containsExactly(
+            new EventGroup(MailboxFilter.of(MailboxFilter.Type.SELECTED_DELAYED), ImmutableSet.of(NotifyEvent.MESSAGE_NEW, NotifyEvent.MESSAGE_EXPUNGE)),
+            new EventGroup(MailboxFilter.of(MailboxFilter.Type.PERSONAL), ImmutableSet.of(NotifyEvent.MESSAGE_NEW, NotifyEvent.MESSAGE_EXPUNGE)),
+            new EventGroup(MailboxFilter.of(MailboxFilter.Type.INBOXES), ImmutableSet.of()));
+    }
+
+    @Test
+    void decodeShouldParseMailboxNames() throws Exception {
+        NotifyRequest request = decode("SET (subtree (Lists \"Other folder\") (MessageNew MessageExpunge)) (mailboxes Drafts (MessageNew MessageExpunge))\r\n");
+
+        assertThat(request.getEventGroups()).containsExactly(
+            new EventGroup(MailboxFilter.of(MailboxFilter.Type.SUBTREE, ImmutableList.of("Lists", "Other folder")),
+                ImmutableSet.of(NotifyEvent.MESSAGE_NEW, NotifyEvent.MESSAGE_EXPUNGE)),
+            new EventGroup(MailboxFilter.of(MailboxFilter.Type.MAILBOXES, ImmutableList.of("Drafts")),
+                ImmutableSet.of(NotifyEvent.MESSAGE_NEW, NotifyEvent.MESSAGE_EXPUNGE)));
+    }
+
+    @Test
+    void decodeShouldParseUnsupportedEvents() throws Exception {
+        NotifyRequest request = decode("SET (personal (MailboxName SubscriptionChange))\r\n");
+
+        assertThat(request.getEventGroups().get(0).getEvents())
+            .containsOnly(NotifyEvent.MAILBOX_NAME, NotifyEvent.SUBSCRIPTION_CHANGE);
+    }
+
+    @Test
+    void decodeShouldRejectMessageNewWithoutMessageExpunge() {
+        assertThatThrownBy(() -> decode("SET (SELECTED (MessageNew))\r\n"))
+            .isInstanceOf(DecodingException.class);
+    }
+
+    @Test
+    void decodeShouldRejectFlagChangeWithoutMessageEvents() {
+        assertThatThrownBy(() -> decode("SET (SELECTED (FlagChange))\r\n"))
+            .isInstanceOf(DecodingException.class);
+    }
+
+    @Test
+    void decodeShouldRejectMessageNewFetchAttributes() {
+        assertThatThrownBy(() -> decode("SET (SELECTED (MessageNew (UID) MessageExpunge))\r\n"))
+            .isInstanceOf(DecodingException.class);
+    }
+
+    @Test
+    void decodeShouldRejectUnknownFilters() {
+        assertThatThrownBy(() -> decode("SET (unknown (MessageNew MessageExpunge))\r\n"))
+            .isInstanceOf(DecodingException.class);
+    }
+
+    @Test
+    void decodeShouldRejectUnknownEvents() {
+        assertThatThrownBy(() -> decode("SET (SELECTED (Unknown))\r\n"))
+            .isInstanceOf(DecodingException.class);
+    }
+
+    @Test
+    void decodeShouldRejectUnknownOperations() {
+        assertThatThrownBy(() -> decode("GET\r\n"))
+            .isInstanceOf(DecodingException.class);
+    }
+
+    private NotifyRequest decode(String command) throws DecodingException {
+        ImapRequestStreamLineReader reader = new ImapRequestStreamLineReader(
+            new ByteArrayInputStream(command.getBytes(StandardCharsets.US_ASCII)), new ByteArrayOutputStream());
+        return (NotifyRequest) testee.decode(reader, TAG, new FakeImapSession());
+    }
+}
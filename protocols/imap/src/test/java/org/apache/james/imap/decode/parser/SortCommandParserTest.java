@@ -0,0 +1,112 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.imap.decode.parser;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.james.imap.api.ImapConstants;
+import org.apache.james.imap.api.Tag;
+import org.apache.james.imap.api.display.HumanReadableText;
+import org.apache.james.imap.api.message.request.SearchKey;
+import org.apache.james.imap.api.message.response.StatusResponse;
+import org.apache.james.imap.api.message.response.StatusResponseFactory;
+import org.apache.james.imap.decode.DecodingException;
+import org.apache.james.imap.decode.ImapRequestStreamLineReader;
+import org.apache.james.imap.encode.FakeImapSession;
+import org.apache.james.imap.message.request.SortRequest;
+import org.apache.james.mailbox.model.SearchQuery.Sort;
+import org.apache.james.mailbox.model.SearchQuery.Sort.Order;
+import org.apache.james.mailbox.model.SearchQuery.Sort.SortClause;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+
+class SortCommandParserTest {
+    private static final Tag TAG = new Tag("A1");
+
+    private StatusResponseFactory statusResponseFactory;
+    private SortCommandParser testee;
+
+    @BeforeEach
+    void setUp() {
+        statusResponseFactory = mock(StatusResponseFactory.class);
+        testee = new SortCommandParser(statusResponseFactory);
+    }
+
+    @Test
+    void decodeShouldParseSortCriteria() throws Exception {
+        SortRequest request = (SortRequest) testee.decode(toRequest("(REVERSE DATE subject DISPLAYFROM) UTF-8 ALL\r\n"), TAG, false, new FakeImapSession());
+
+        assertThat(request.getSorts()).containsExactly(
+            new Sort(SortClause.SentDate, Order.REVERSE),
+            new Sort(SortClause.BaseSubject, Order.NATURAL),
+            new Sort(SortClause.DisplayFrom, Order.NATURAL));
+    }
+
+    @Test
+    void decodeShouldParseSearchCriteria() throws Exception {
+        SortRequest request = (SortRequest) testee.decode(toRequest("(ARRIVAL) US-ASCII SEEN SUBJECT test\r\n"), TAG, true, new FakeImapSession());
+
+        assertThat(request.getSearchKey()).isEqualTo(SearchKey.buildAnd(ImmutableList.of(SearchKey.buildSeen(), SearchKey.buildSubject("test"))));
+        assertThat(request.isUseUids()).isTrue();
+    }
+
+    @Test
+    void decodeShouldRejectUnknownSortCriteria() {
+        assertThatThrownBy(() -> testee.decode(toRequest("(UNKNOWN) UTF-8 ALL\r\n"), TAG, false, new FakeImapSession()))
+            .isInstanceOf(DecodingException.class);
+    }
+
+    @Test
+    void decodeShouldRejectEmptySortCriteria() {
+        assertThatThrownBy(() -> testee.decode(toRequest("() UTF-8 ALL\r\n"), TAG, false, new FakeImapSession()))
+            .isInstanceOf(DecodingException.class);
+    }
+
+    @Test
+    void decodeShouldRejectDanglingReverse() {
+        assertThatThrownBy(() -> testee.decode(toRequest("(DATE REVERSE) UTF-8 ALL\r\n"), TAG, false, new FakeImapSession()))
+            .isInstanceOf(DecodingException.class);
+    }
+
+    @Test
+    void decodeShouldRespondNoOnUnsupportedCharset() throws Exception {
+        testee.decode(toRequest("(DATE) BOGUS ALL\r\n"), TAG, false, new FakeImapSession());
+
+        verify(statusResponseFactory).taggedNo(
+            eq(TAG),
+            same(ImapConstants.SORT_COMMAND),
+            eq(HumanReadableText.BAD_CHARSET),
+            eq(StatusResponse.ResponseCode.badCharset()));
+    }
+
+    private ImapRequestStreamLineReader toRequest(String input) {
+        return new ImapRequestStreamLineReader(new ByteArrayInputStream(input.getBytes(StandardCharsets.US_ASCII)), new ByteArrayOutputStream());
+    }
+}
@@ -0,0 +1,76 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.imap.decode.parser;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.james.imap.api.Tag;
+import org.apache.james.imap.api.message.request.SearchKey;
+import org.apache.james.imap.api.message.request.ThreadAlgorithm;
+import org.apache.james.imap.api.message.response.StatusResponseFactory;
+import org.apache.james.imap.decode.DecodingException;
+import org.apache.james.imap.decode.ImapRequestStreamLineReader;
+import org.apache.james.imap.encode.FakeImapSession;
+import org.apache.james.imap.message.request.ThreadRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ThreadCommandParserTest {
+    private static final Tag TAG = new Tag("A1");
+
+    private ThreadCommandParser testee;
+
+    @BeforeEach
+    void setUp() {
+        testee = new ThreadCommandParser(mock(StatusResponseFactory.class));
+    }
+
+    @Test
+    void decodeShouldParseReferencesAlgorithm() throws Exception {
+        ThreadRequest request = (ThreadRequest) testee.decode(toRequest("REFERENCES UTF-8 ALL\r\n"), TAG, false, new FakeImapSession());
+
+        assertThat(request.getAlgorithm()).isEqualTo(ThreadAlgorithm.REFERENCES);
+        assertThat(request.getSearchKey()).isEqualTo(SearchKey.buildAll());
+    }
+
+    @Test
+    void decodeShouldParseOrderedSubjectAlgorithm() throws Exception {
+        ThreadRequest request = (ThreadRequest) testee.decode(toRequest("orderedsubject UTF-8 UNSEEN\r\n"), TAG, true, new FakeImapSession());
+
+        assertThat(request.getAlgorithm()).isEqualTo(ThreadAlgorithm.ORDEREDSUBJECT);
+        assertThat(request.getSearchKey()).isEqualTo(SearchKey.buildUnseen());
+        assertThat(request.isUseUids()).isTrue();
+    }
+
+    @Test
+    void decodeShouldRejectUnknownAlgorithm() {
+        assertThatThrownBy(() -> testee.decode(toRequest("UNKNOWN UTF-8 ALL\r\n"), TAG, false, new FakeImapSession()))
+            .isInstanceOf(DecodingException.class);
+    }
+
+    private ImapRequestStreamLineReader toRequest(String input) {
+        return new ImapRequestStreamLineReader(new ByteArrayInputStream(input.getBytes(StandardCharsets.US_ASCII)), new ByteArrayOutputStream());
+    }
+}
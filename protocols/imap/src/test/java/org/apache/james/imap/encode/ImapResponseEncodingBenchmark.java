@@ -0,0 +1,123 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imap.encode;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import javax.mail.Flags;
+
+import org.apache.james.imap.encode.base.ImapResponseComposerImpl;
+import org.apache.james.imap.message.response.FetchResponse;
+import org.apache.james.imap.message.response.Literal;
+import org.apache.james.imap.message.response.SearchResponse;
+import org.apache.james.mailbox.MessageSequenceNumber;
+import org.apache.james.mailbox.MessageUid;
+import org.apache.james.mailbox.ModSeq;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Encodes the responses of a <code>FETCH 1:* (UID FLAGS MODSEQ RFC822.SIZE INTERNALDATE)</code> and of a large SEARCH.
+ *
+ * Run {@link #main(String[])} to get the allocation rate per encoded response, reported as
+ * <code>gc.alloc.rate.norm</code> by the GC profiler. The byte array holding each encoded line is the only expected
+ * allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ImapResponseEncodingBenchmark {
+    private static final int MESSAGE_COUNT = 1000;
+
+    private FetchResponse[] fetchResponses;
+    private SearchResponse searchResponse;
+    private FetchResponseEncoder fetchEncoder;
+    private SearchResponseEncoder searchEncoder;
+    private ImapResponseComposer composer;
+
+    @Setup
+    public void setUp() {
+        Flags flags = new Flags(Flags.Flag.SEEN);
+        flags.add(Flags.Flag.ANSWERED);
+        Date internalDate = new Date(1600000000000L);
+        fetchResponses = new FetchResponse[MESSAGE_COUNT];
+        for (int i = 0; i < MESSAGE_COUNT; i++) {
+            fetchResponses[i] = new FetchResponse(MessageSequenceNumber.of(i + 1), flags, MessageUid.of(100000L + i),
+                ModSeq.of(5000000L + i), internalDate, 45678L + i, null, null, null, null);
+        }
+        searchResponse = new SearchResponse(LongStream.rangeClosed(100000L, 100000L + 10 * MESSAGE_COUNT).toArray(), null);
+        fetchEncoder = new FetchResponseEncoder(false);
+        searchEncoder = new SearchResponseEncoder();
+        composer = new ImapResponseComposerImpl(new DiscardingWriter());
+    }
+
+    @Benchmark
+    public void encodeFetchResponses(Blackhole blackhole) throws IOException {
+        for (FetchResponse response : fetchResponses) {
+            fetchEncoder.encode(response, composer);
+        }
+        blackhole.consume(composer);
+    }
+
+    @Benchmark
+    public void encodeSearchResponse(Blackhole blackhole) throws IOException {
+        searchEncoder.encode(searchResponse, composer);
+        blackhole.consume(composer);
+    }
+
+    private static class DiscardingWriter implements ImapResponseWriter {
+        @Override
+        public void write(byte[] buffer) {
+
+        }
+
+        @Override
+        public void write(Literal literal) {
+
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(ImapResponseEncodingBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build())
+            .run();
+    }
+}
@@ -0,0 +1,77 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.imap.encode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.apache.james.imap.encode.base.ByteImapResponseWriter;
+import org.apache.james.imap.encode.base.ImapResponseComposerImpl;
+import org.apache.james.imap.message.response.ThreadResponse;
+import org.apache.james.imap.message.response.ThreadResponse.Node;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+public class ThreadResponseEncoderTest {
+
+    private ThreadResponseEncoder encoder;
+    private ByteImapResponseWriter writer = new ByteImapResponseWriter();
+    private ImapResponseComposer composer = new ImapResponseComposerImpl(writer);
+
+    @Before
+    public void setUp() throws Exception {
+        encoder = new ThreadResponseEncoder();
+    }
+
+    private static Node message(long id, Node... children) {
+        return Node.message(id, ImmutableList.copyOf(children));
+    }
+
+    @Test
+    public void acceptableMessagesShouldReturnThreadResponseClass() {
+        assertThat(encoder.acceptableMessages()).isEqualTo(ThreadResponse.class);
+    }
+
+    @Test
+    public void encodeShouldSupportEmptyResults() throws Exception {
+        encoder.encode(new ThreadResponse(ImmutableList.of()), composer);
+        assertThat(writer.getString()).isEqualTo("* THREAD\r\n");
+    }
+
+    @Test
+    public void encodeShouldMatchRFC5256Example() throws Exception {
+        encoder.encode(new ThreadResponse(ImmutableList.of(
+            message(2),
+            message(3, message(6,
+                message(4, message(23)),
+                message(44, message(7, message(96))))))), composer);
+
+        assertThat(writer.getString()).isEqualTo("* THREAD (2)(3 6 (4 23)(44 7 96))\r\n");
+    }
+
+    @Test
+    public void encodeShouldParenthesizeChildrenOfDummies() throws Exception {
+        encoder.encode(new ThreadResponse(ImmutableList.of(
+            Node.dummy(ImmutableList.of(message(3), message(5))),
+            message(1))), composer);
+
+        assertThat(writer.getString()).isEqualTo("* THREAD ((3)(5))(1)\r\n");
+    }
+}
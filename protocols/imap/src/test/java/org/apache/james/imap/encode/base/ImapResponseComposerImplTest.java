@@ -0,0 +1,97 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imap.encode.base;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import javax.mail.Flags;
+
+import org.apache.james.imap.api.message.IdRange;
+import org.apache.james.imap.api.message.UidRange;
+import org.apache.james.imap.encode.ImapResponseComposer;
+import org.apache.james.mailbox.MessageUid;
+import org.junit.Test;
+
+public class ImapResponseComposerImplTest {
+    private ByteImapResponseWriter writer = new ByteImapResponseWriter();
+    private ImapResponseComposer composer = new ImapResponseComposerImpl(writer);
+
+    @Test
+    public void messageShouldEncodeNumbers() throws Exception {
+        composer.untagged()
+            .message(0)
+            .message(7)
+            .message(4294967295L)
+            .message(-12)
+            .message(Long.MAX_VALUE)
+            .message(Long.MIN_VALUE)
+            .end();
+
+        assertThat(writer.getString()).isEqualTo("* 0 7 4294967295 -12 9223372036854775807 -9223372036854775808\r\n");
+    }
+
+    @Test
+    public void messageShouldEncodeKnownTokens() throws Exception {
+        composer.untagged().message(12).message("FETCH").openParen().message("UID").message(3).closeParen().end();
+
+        assertThat(writer.getString()).isEqualTo("* 12 FETCH (UID 3)\r\n");
+    }
+
+    @Test
+    public void messageShouldReplaceNonAsciiCharacters() throws Exception {
+        composer.untagged().message("caf\u00e9 \uD83D\uDE00").end();
+
+        assertThat(writer.getString()).isEqualTo("* caf? ?\r\n");
+    }
+
+    @Test
+    public void flagsShouldEncodeSystemAndUserFlags() throws Exception {
+        Flags flags = new Flags(Flags.Flag.SEEN);
+        flags.add(Flags.Flag.ANSWERED);
+        flags.add("custom");
+
+        composer.untagged().flags(flags).end();
+
+        assertThat(writer.getString()).isEqualTo("* FLAGS (\\Answered \\Seen custom)\r\n");
+    }
+
+    @Test
+    public void sequenceSetShouldEncodeIdRanges() throws Exception {
+        composer.untagged().message("VANISHED").sequenceSet(new IdRange[] {new IdRange(1), new IdRange(3, 8)}).end();
+
+        assertThat(writer.getString()).isEqualTo("* VANISHED 1,3:8\r\n");
+    }
+
+    @Test
+    public void sequenceSetShouldEncodeUidRanges() throws Exception {
+        composer.untagged().message("VANISHED")
+            .sequenceSet(new UidRange[] {new UidRange(MessageUid.of(5), MessageUid.of(9)), new UidRange(MessageUid.of(12))})
+            .end();
+
+        assertThat(writer.getString()).isEqualTo("* VANISHED 5:9,12\r\n");
+    }
+
+    @Test
+    public void continuationResponseShouldBeEncoded() throws Exception {
+        composer.continuationResponse("Ready");
+
+        assertThat(writer.getString()).isEqualTo("+ Ready\r\n");
+    }
+}
@@ -0,0 +1,215 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.imap.processor;
+
+import static org.apache.james.imap.ImapFixture.TAG;
+import static org.apache.james.mailbox.MailboxManager.MailboxSearchFetchType.Counters;
+import static org.apache.james.mailbox.MailboxManager.MailboxSearchFetchType.Minimal;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+
+import org.apache.james.core.Username;
+import org.apache.james.imap.api.ImapConstants;
+import org.apache.james.imap.api.display.HumanReadableText;
+import org.apache.james.imap.api.message.StatusDataItems;
+import org.apache.james.imap.api.message.response.ImapResponseMessage;
+import org.apache.james.imap.api.message.response.StatusResponse;
+import org.apache.james.imap.api.message.response.StatusResponseFactory;
+import org.apache.james.imap.api.process.ImapProcessor;
+import org.apache.james.imap.encode.FakeImapSession;
+import org.apache.james.imap.message.request.ListRequest;
+import org.apache.james.imap.message.response.ListResponse;
+import org.apache.james.imap.message.response.MailboxStatusResponse;
+import org.apache.james.mailbox.MailboxManager;
+import org.apache.james.mailbox.MailboxSession;
+import org.apache.james.mailbox.MailboxSessionUtil;
+import org.apache.james.mailbox.MessageManager;
+import org.apache.james.mailbox.MessageUid;
+import org.apache.james.mailbox.model.MailboxACL;
+import org.apache.james.mailbox.model.MailboxCounters;
+import org.apache.james.mailbox.model.MailboxId;
+import org.apache.james.mailbox.model.MailboxMetaData;
+import org.apache.james.mailbox.model.MailboxPath;
+import org.apache.james.mailbox.model.TestId;
+import org.apache.james.mailbox.model.search.MailboxQuery;
+import org.apache.james.metrics.tests.RecordingMetricFactory;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import reactor.core.publisher.Flux;
+
+public class ListProcessorTest {
+    private static final Username USER = Username.of("user");
+    private static final Username OTHER_USER = Username.of("other");
+    private static final MailboxId MAILBOX_ID = TestId.of(42);
+    private static final MailboxId DELEGATED_MAILBOX_ID = TestId.of(43);
+    private static final MailboxCounters COUNTERS = MailboxCounters.builder()
+        .mailboxId(MAILBOX_ID)
+        .count(10)
+        .unseen(3)
+        .build();
+
+    private ListProcessor testee;
+    private MailboxManager mailboxManager;
+    private ImapProcessor.Responder responder;
+    private FakeImapSession imapSession;
+    private MailboxSession mailboxSession;
+    private StatusResponse okResponse;
+
+    @Before
+    public void setUp() {
+        mailboxManager = mock(MailboxManager.class);
+        responder = mock(ImapProcessor.Responder.class);
+        StatusResponseFactory statusResponseFactory = mock(StatusResponseFactory.class);
+        okResponse = mock(StatusResponse.class);
+        when(statusResponseFactory.taggedOk(eq(TAG), eq(ImapConstants.LIST_COMMAND), eq(HumanReadableText.COMPLETED)))
+            .thenReturn(okResponse);
+        imapSession = new FakeImapSession();
+        mailboxSession = MailboxSessionUtil.create(USER);
+        imapSession.authenticated();
+        imapSession.setMailboxSession(mailboxSession);
+
+        testee = new ListProcessor(mock(ImapProcessor.class), mailboxManager, statusResponseFactory, new RecordingMetricFactory());
+    }
+
+    @Test
+    public void getImplementedCapabilitiesShouldContainListStatus() {
+        assertThat(testee.getImplementedCapabilities(imapSession)).containsExactly(ImapConstants.SUPPORTS_LIST_STATUS);
+    }
+
+    @Test
+    public void listShouldNotRetrieveCountersWhenNoStatusRequested() {
+        when(mailboxManager.search(any(MailboxQuery.class), eq(Minimal), eq(mailboxSession)))
+            .thenReturn(Flux.just(inbox(MailboxMetaData.Selectability.NONE)));
+
+        testee.processRequest(new ListRequest("", "%", TAG), imapSession, responder);
+
+        assertThat(responses()).containsExactly(
+            new ListResponse(MailboxMetaData.Children.HAS_NO_CHILDREN, MailboxMetaData.Selectability.NONE, "INBOX", '.'),
+            okResponse);
+    }
+
+    @Test
+    public void listStatusShouldRespondStatusFromBatchedCounters() throws Exception {
+        when(mailboxManager.search(any(MailboxQuery.class), eq(Counters), eq(mailboxSession)))
+            .thenReturn(Flux.just(inbox(MailboxMetaData.Selectability.NONE)));
+
+        testee.processRequest(new ListRequest("", "%", statusItems(StatusDataItems.StatusItem.MESSAGES, StatusDataItems.StatusItem.UNSEEN), TAG),
+            imapSession, responder);
+
+        List<ImapResponseMessage> responses = responses();
+        assertThat(responses).hasSize(3);
+        assertThat(responses.get(0)).isInstanceOf(ListResponse.class);
+        MailboxStatusResponse statusResponse = (MailboxStatusResponse) responses.get(1);
+        assertThat(statusResponse.getMailbox()).isEqualTo("INBOX");
+        assertThat(statusResponse.getMessages()).isEqualTo(10L);
+        assertThat(statusResponse.getUnseen()).isEqualTo(3L);
+        assertThat(statusResponse.getUidNext()).isNull();
+        verify(mailboxManager, never()).getMailbox(any(MailboxId.class), any());
+    }
+
+    @Test
+    public void listStatusShouldSkipNonSelectableMailboxes() {
+        when(mailboxManager.search(any(MailboxQuery.class), eq(Counters), eq(mailboxSession)))
+            .thenReturn(Flux.just(inbox(MailboxMetaData.Selectability.NOSELECT)));
+
+        testee.processRequest(new ListRequest("", "%", statusItems(StatusDataItems.StatusItem.MESSAGES), TAG),
+            imapSession, responder);
+
+        assertThat(responses())
+            .hasSize(2)
+            .noneMatch(MailboxStatusResponse.class::isInstance);
+    }
+
+    @Test
+    public void listStatusShouldRetrieveMetadataForItemsNotInCounters() throws Exception {
+        when(mailboxManager.search(any(MailboxQuery.class), eq(Minimal), eq(mailboxSession)))
+            .thenReturn(Flux.just(inbox(MailboxMetaData.Selectability.NONE)));
+        MessageManager messageManager = mock(MessageManager.class);
+        MessageManager.MailboxMetaData metaData = mock(MessageManager.MailboxMetaData.class);
+        when(metaData.getUidNext()).thenReturn(MessageUid.of(36));
+        when(messageManager.getMetaData(false, mailboxSession, MessageManager.MailboxMetaData.FetchGroup.NO_UNSEEN)).thenReturn(metaData);
+        when(mailboxManager.getMailbox(MAILBOX_ID, mailboxSession)).thenReturn(messageManager);
+
+        testee.processRequest(new ListRequest("", "%", statusItems(StatusDataItems.StatusItem.UID_NEXT), TAG),
+            imapSession, responder);
+
+        MailboxStatusResponse statusResponse = (MailboxStatusResponse) responses().get(1);
+        assertThat(statusResponse.getUidNext()).isEqualTo(MessageUid.of(36));
+        assertThat(statusResponse.getMessages()).isNull();
+    }
+
+    @Test
+    public void listStatusShouldSkipDelegatedMailboxesThatCanNotBeRead() throws Exception {
+        when(mailboxManager.search(any(MailboxQuery.class), eq(Counters), eq(mailboxSession)))
+            .thenReturn(Flux.just(delegatedMailbox()));
+        when(mailboxManager.hasRight(DELEGATED_MAILBOX_ID, MailboxACL.Right.Read, mailboxSession)).thenReturn(false);
+
+        testee.processRequest(new ListRequest("", "*", statusItems(StatusDataItems.StatusItem.MESSAGES), TAG),
+            imapSession, responder);
+
+        assertThat(responses())
+            .hasSize(2)
+            .noneMatch(MailboxStatusResponse.class::isInstance);
+    }
+
+    @Test
+    public void listStatusShouldRespondStatusOfDelegatedMailboxesThatCanBeRead() throws Exception {
+        when(mailboxManager.search(any(MailboxQuery.class), eq(Counters), eq(mailboxSession)))
+            .thenReturn(Flux.just(delegatedMailbox()));
+        when(mailboxManager.hasRight(DELEGATED_MAILBOX_ID, MailboxACL.Right.Read, mailboxSession)).thenReturn(true);
+
+        testee.processRequest(new ListRequest("", "*", statusItems(StatusDataItems.StatusItem.MESSAGES), TAG),
+            imapSession, responder);
+
+        MailboxStatusResponse statusResponse = (MailboxStatusResponse) responses().get(1);
+        assertThat(statusResponse.getMessages()).isEqualTo(10L);
+    }
+
+    private MailboxMetaData delegatedMailbox() {
+        return new MailboxMetaData(MailboxPath.forUser(OTHER_USER, "shared"), DELEGATED_MAILBOX_ID, '.', MailboxMetaData.Children.HAS_NO_CHILDREN,
+            MailboxMetaData.Selectability.NONE, MailboxACL.EMPTY, COUNTERS);
+    }
+
+    private MailboxMetaData inbox(MailboxMetaData.Selectability selectability) {
+        return new MailboxMetaData(MailboxPath.inbox(USER), MAILBOX_ID, '.', MailboxMetaData.Children.HAS_NO_CHILDREN,
+            selectability, MailboxACL.EMPTY, COUNTERS);
+    }
+
+    private Optional<StatusDataItems> statusItems(StatusDataItems.StatusItem item, StatusDataItems.StatusItem... others) {
+        return Optional.of(new StatusDataItems(EnumSet.of(item, others)));
+    }
+
+    private List<ImapResponseMessage> responses() {
+        ArgumentCaptor<ImapResponseMessage> captor = ArgumentCaptor.forClass(ImapResponseMessage.class);
+        verify(responder, atLeastOnce()).respond(captor.capture());
+        return captor.getAllValues();
+    }
+}
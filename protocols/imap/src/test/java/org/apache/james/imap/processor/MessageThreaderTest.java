@@ -0,0 +1,141 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.imap.processor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.apache.james.imap.message.response.ThreadResponse.Node;
+import org.apache.james.imap.processor.MessageThreader.ThreadedMessage;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+
+class MessageThreaderTest {
+
+    private static Node message(long id, Node... children) {
+        return Node.message(id, ImmutableList.copyOf(children));
+    }
+
+    private static Node dummy(Node... children) {
+        return Node.dummy(ImmutableList.copyOf(children));
+    }
+
+    private static ThreadedMessage threaded(long id, String subject, String messageId, String inReplyTo, String references) {
+        return new ThreadedMessage(id, subject, messageId, inReplyTo, references);
+    }
+
+    @Nested
+    class OrderedSubject {
+        @Test
+        void messagesShouldBeGroupedByBaseSubject() {
+            assertThat(MessageThreader.orderedSubject(ImmutableList.of(
+                threaded(1, "Hello", "", "", ""),
+                threaded(2, "Re: Hello", "", "", ""),
+                threaded(3, "Other", "", "", ""),
+                threaded(4, "re: HELLO", "", "", ""))))
+                .containsExactly(
+                    message(1, message(2), message(4)),
+                    message(3));
+        }
+
+        @Test
+        void emptyInputShouldLeadToNoThread() {
+            assertThat(MessageThreader.orderedSubject(ImmutableList.of())).isEmpty();
+        }
+    }
+
+    @Nested
+    class References {
+        @Test
+        void messagesShouldBeThreadedByReferences() {
+            assertThat(MessageThreader.references(ImmutableList.of(
+                threaded(1, "A", "<a@b>", "", ""),
+                threaded(2, "B", "<b@b>", "", "<a@b>"),
+                threaded(3, "C", "<c@b>", "", "<a@b> <b@b>"),
+                threaded(4, "D", "<d@b>", "<a@b>", ""))))
+                .containsExactly(message(1, message(2, message(3)), message(4)));
+        }
+
+        @Test
+        void parentsShouldComeFirstWhenRepliesAreOlder() {
+            assertThat(MessageThreader.references(ImmutableList.of(
+                threaded(1, "B", "<b@b>", "", "<a@b>"),
+                threaded(2, "A", "<a@b>", "", ""))))
+                .containsExactly(message(2, message(1)));
+        }
+
+        @Test
+        void messagesWithAMissingParentShouldBeGroupedUnderADummy() {
+            assertThat(MessageThreader.references(ImmutableList.of(
+                threaded(1, "A", "<a@b>", "", "<missing@b>"),
+                threaded(2, "B", "<b@b>", "", "<missing@b>"),
+                threaded(3, "C", "<c@b>", "", ""))))
+                .containsExactly(dummy(message(1), message(2)), message(3));
+        }
+
+        @Test
+        void repliesShouldBeGroupedBySubjectWhenReferencesAreMissing() {
+            assertThat(MessageThreader.references(ImmutableList.of(
+                threaded(1, "Hello", "<a@b>", "", ""),
+                threaded(2, "Other", "<b@b>", "", ""),
+                threaded(3, "Re: Hello", "<c@b>", "", ""))))
+                .containsExactly(message(1, message(3)), message(2));
+        }
+
+        @Test
+        void nonRepliesWithTheSameSubjectShouldBeGroupedUnderADummy() {
+            assertThat(MessageThreader.references(ImmutableList.of(
+                threaded(1, "Hello", "<a@b>", "", ""),
+                threaded(2, "Hello", "<b@b>", "", ""))))
+                .containsExactly(dummy(message(1), message(2)));
+        }
+
+        @Test
+        void messagesWithoutSubjectShouldNotBeGrouped() {
+            assertThat(MessageThreader.references(ImmutableList.of(
+                threaded(1, "", "<a@b>", "", ""),
+                threaded(2, "", "<b@b>", "", ""))))
+                .containsExactly(message(1), message(2));
+        }
+
+        @Test
+        void selfReferencesShouldBeIgnored() {
+            assertThat(MessageThreader.references(ImmutableList.of(
+                threaded(1, "A", "<a@b>", "", "<a@b>"))))
+                .containsExactly(message(1));
+        }
+
+        @Test
+        void referenceLoopsShouldBeIgnored() {
+            assertThat(MessageThreader.references(ImmutableList.of(
+                threaded(1, "A", "<a@b>", "", "<b@b>"),
+                threaded(2, "B", "<b@b>", "", "<a@b>"))))
+                .hasSize(1);
+        }
+
+        @Test
+        void duplicatedMessageIdsShouldNotLoseMessages() {
+            assertThat(MessageThreader.references(ImmutableList.of(
+                threaded(1, "A", "<a@b>", "", ""),
+                threaded(2, "B", "<a@b>", "", ""))))
+                .containsExactly(message(1), message(2));
+        }
+    }
+}
@@ -0,0 +1,231 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.imap.processor;
+
+import static org.apache.james.imap.ImapFixture.TAG;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.TreeMap;
+
+import org.apache.james.core.Username;
+import org.apache.james.imap.api.ImapConstants;
+import org.apache.james.imap.api.display.HumanReadableText;
+import org.apache.james.imap.api.message.request.NotifyEvent;
+import org.apache.james.imap.api.message.response.ImapResponseMessage;
+import org.apache.james.imap.api.message.response.StatusResponse;
+import org.apache.james.imap.api.message.response.StatusResponseFactory;
+import org.apache.james.imap.api.process.ImapProcessor;
+import org.apache.james.imap.encode.FakeImapSession;
+import org.apache.james.imap.message.request.NotifyRequest;
+import org.apache.james.imap.message.request.NotifyRequest.EventGroup;
+import org.apache.james.imap.message.request.NotifyRequest.MailboxFilter;
+import org.apache.james.imap.message.response.MailboxStatusResponse;
+import org.apache.james.mailbox.MailboxManager;
+import org.apache.james.mailbox.MailboxSession;
+import org.apache.james.mailbox.MailboxSessionUtil;
+import org.apache.james.mailbox.MessageManager;
+import org.apache.james.mailbox.MessageUid;
+import org.apache.james.mailbox.SubscriptionManager;
+import org.apache.james.mailbox.events.Event;
+import org.apache.james.mailbox.events.EventBus;
+import org.apache.james.mailbox.events.MailboxIdRegistrationKey;
+import org.apache.james.mailbox.events.MailboxListener;
+import org.apache.james.mailbox.events.Registration;
+import org.apache.james.mailbox.events.RegistrationKey;
+import org.apache.james.mailbox.model.MailboxId;
+import org.apache.james.mailbox.model.MailboxPath;
+import org.apache.james.mailbox.model.TestId;
+import org.apache.james.metrics.tests.RecordingMetricFactory;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import reactor.core.publisher.Mono;
+
+public class NotifyProcessorTest {
+    private static final Username USER = Username.of("user");
+    private static final MailboxId DRAFTS_ID = TestId.of(42);
+    private static final ImmutableSet<NotifyEvent> MESSAGE_EVENTS = ImmutableSet.of(NotifyEvent.MESSAGE_NEW, NotifyEvent.MESSAGE_EXPUNGE);
+
+    private NotifyProcessor testee;
+    private MailboxManager mailboxManager;
+    private EventBus eventBus;
+    private Registration registration;
+    private ImapProcessor.Responder responder;
+    private FakeImapSession imapSession;
+    private MailboxSession mailboxSession;
+    private MailboxPath draftsPath;
+    private StatusResponse okResponse;
+    private StatusResponse noResponse;
+
+    @Before
+    public void setUp() throws Exception {
+        mailboxManager = mock(MailboxManager.class);
+        eventBus = mock(EventBus.class);
+        registration = mock(Registration.class);
+        when(eventBus.register(any(MailboxListener.class), any(RegistrationKey.class)))
+            .thenReturn(Mono.just(registration));
+        responder = mock(ImapProcessor.Responder.class);
+
+        StatusResponseFactory statusResponseFactory = mock(StatusResponseFactory.class);
+        okResponse = mock(StatusResponse.class);
+        noResponse = mock(StatusResponse.class);
+        when(statusResponseFactory.taggedOk(eq(TAG), eq(ImapConstants.NOTIFY_COMMAND), eq(HumanReadableText.COMPLETED)))
+            .thenReturn(okResponse);
+        when(statusResponseFactory.taggedNo(eq(TAG), eq(ImapConstants.NOTIFY_COMMAND), eq(HumanReadableText.UNSUPPORTED_NOTIFY_EVENT), any()))
+            .thenReturn(noResponse);
+
+        imapSession = new FakeImapSession();
+        mailboxSession = MailboxSessionUtil.create(USER);
+        imapSession.authenticated();
+        imapSession.setMailboxSession(mailboxSession);
+
+        draftsPath = MailboxPath.forUser(USER, "Drafts");
+        MessageManager drafts = mock(MessageManager.class);
+        when(drafts.getId()).thenReturn(DRAFTS_ID);
+        MessageManager.MailboxMetaData metaData = mock(MessageManager.MailboxMetaData.class);
+        when(metaData.getMessageCount()).thenReturn(5L);
+        when(metaData.getUnseenCount()).thenReturn(2L);
+        when(metaData.getUidNext()).thenReturn(MessageUid.of(7));
+        when(drafts.getMetaData(anyBoolean(), eq(mailboxSession), any())).thenReturn(metaData);
+        when(mailboxManager.getMailbox(eq(draftsPath), eq(mailboxSession))).thenReturn(drafts);
+        when(mailboxManager.getMailbox(eq(DRAFTS_ID), eq(mailboxSession))).thenReturn(drafts);
+
+        testee = new NotifyProcessor(mock(ImapProcessor.class), mailboxManager, mock(SubscriptionManager.class), eventBus,
+            statusResponseFactory, new RecordingMetricFactory());
+    }
+
+    @Test
+    public void getImplementedCapabilitiesShouldContainNotify() {
+        assertThat(testee.getImplementedCapabilities(imapSession)).containsExactly(ImapConstants.SUPPORTS_NOTIFY);
+    }
+
+    @Test
+    public void notifyShouldRejectUnsupportedEvents() {
+        testee.processRequest(NotifyRequest.set(ImmutableList.of(
+                new EventGroup(MailboxFilter.of(MailboxFilter.Type.PERSONAL), ImmutableSet.of(NotifyEvent.MAILBOX_NAME))),
+            false, TAG), imapSession, responder);
+
+        verify(responder).respond(noResponse);
+        verify(eventBus, never()).register(any(MailboxListener.class), any(RegistrationKey.class));
+    }
+
+    @Test
+    public void unsupportedEventsShouldBeReportedWithBadEventCode() {
+        ArgumentCaptor<StatusResponse.ResponseCode> responseCode = ArgumentCaptor.forClass(StatusResponse.ResponseCode.class);
+        StatusResponseFactory statusResponseFactory = mock(StatusResponseFactory.class);
+        testee = new NotifyProcessor(mock(ImapProcessor.class), mailboxManager, mock(SubscriptionManager.class), eventBus,
+            statusResponseFactory, new RecordingMetricFactory());
+
+        testee.processRequest(NotifyRequest.set(ImmutableList.of(
+                new EventGroup(MailboxFilter.of(MailboxFilter.Type.PERSONAL), ImmutableSet.of(NotifyEvent.SUBSCRIPTION_CHANGE))),
+            false, TAG), imapSession, responder);
+
+        verify(statusResponseFactory).taggedNo(eq(TAG), eq(ImapConstants.NOTIFY_COMMAND), eq(HumanReadableText.UNSUPPORTED_NOTIFY_EVENT), responseCode.capture());
+        assertThat(responseCode.getValue()).isEqualTo(StatusResponse.ResponseCode.badEvent(
+            ImmutableList.of("MessageNew", "MessageExpunge", "FlagChange")));
+    }
+
+    @Test
+    public void notifyShouldRegisterWatchedMailboxes() {
+        testee.processRequest(watchDrafts(false), imapSession, responder);
+
+        verify(eventBus).register(any(MailboxListener.class), eq(new MailboxIdRegistrationKey(DRAFTS_ID)));
+        verify(responder).respond(okResponse);
+    }
+
+    @Test
+    public void notifyStatusShouldRespondInitialStatus() {
+        testee.processRequest(watchDrafts(true), imapSession, responder);
+
+        MailboxStatusResponse status = statusResponse(1);
+        assertThat(status.getMailbox()).isEqualTo("Drafts");
+        assertThat(status.getMessages()).isEqualTo(5L);
+        assertThat(status.getUnseen()).isEqualTo(2L);
+        assertThat(status.getUidNext()).isEqualTo(MessageUid.of(7));
+    }
+
+    @Test
+    public void eventsOnWatchedMailboxesShouldPushStatus() throws Exception {
+        testee.processRequest(watchDrafts(false), imapSession, responder);
+
+        registeredListener().event(added(DRAFTS_ID));
+
+        verify(responder, timeout(5000).times(2)).respond(any());
+        MailboxStatusResponse status = statusResponse(1);
+        assertThat(status.getMailbox()).isEqualTo("Drafts");
+        assertThat(status.getMessages()).isEqualTo(5L);
+    }
+
+    @Test
+    public void notifyNoneShouldUnregister() {
+        testee.processRequest(watchDrafts(false), imapSession, responder);
+
+        testee.processRequest(NotifyRequest.none(TAG), imapSession, responder);
+
+        verify(registration).unregister();
+    }
+
+    @Test
+    public void logoutShouldUnregister() {
+        testee.processRequest(watchDrafts(false), imapSession, responder);
+
+        imapSession.logout();
+
+        verify(registration).unregister();
+    }
+
+    private NotifyRequest watchDrafts(boolean status) {
+        return NotifyRequest.set(ImmutableList.of(
+                new EventGroup(MailboxFilter.of(MailboxFilter.Type.MAILBOXES, ImmutableList.of("Drafts")), MESSAGE_EVENTS)),
+            status, TAG);
+    }
+
+    private MailboxStatusResponse statusResponse(int responseCount) {
+        ArgumentCaptor<ImapResponseMessage> responses = ArgumentCaptor.forClass(ImapResponseMessage.class);
+        verify(responder, times(responseCount + 1)).respond(responses.capture());
+        return responses.getAllValues().stream()
+            .filter(MailboxStatusResponse.class::isInstance)
+            .map(MailboxStatusResponse.class::cast)
+            .findFirst()
+            .get();
+    }
+
+    private MailboxListener registeredListener() {
+        ArgumentCaptor<MailboxListener> listener = ArgumentCaptor.forClass(MailboxListener.class);
+        verify(eventBus).register(listener.capture(), any(RegistrationKey.class));
+        return listener.getValue();
+    }
+
+    private MailboxListener.Added added(MailboxId mailboxId) {
+        return new MailboxListener.Added(mailboxSession.getSessionId(), USER, draftsPath, mailboxId, new TreeMap<>(), Event.EventId.random());
+    }
+}
@@ -0,0 +1,175 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+
+package org.apache.james.imap.processor.base;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.apache.james.mailbox.MessageUid;
+import org.apache.james.mailbox.model.MessageRange;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+public class CompressedUidSetTest {
+    private static final MessageUid UID_1 = MessageUid.of(1);
+    private static final MessageUid UID_2 = MessageUid.of(2);
+    private static final MessageUid UID_3 = MessageUid.of(3);
+    private static final MessageUid UID_4 = MessageUid.of(4);
+    private static final MessageUid UID_6 = MessageUid.of(6);
+    private static final MessageUid UID_7 = MessageUid.of(7);
+
+    private CompressedUidSet testee;
+
+    @Before
+    public void setUp() {
+        testee = new CompressedUidSet();
+    }
+
+    @Test
+    public void newSetShouldBeEmpty() {
+        assertThat(testee.isEmpty()).isTrue();
+        assertThat(testee.asUids()).isEmpty();
+        assertThat(testee.asRanges()).isEmpty();
+    }
+
+    @Test
+    public void addShouldReturnFalseWhenAlreadyPresent() {
+        testee.add(UID_3);
+
+        assertThat(testee.add(UID_3)).isFalse();
+        assertThat(testee.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void addShouldMergeConsecutiveUidsIntoASingleRange() {
+        testee.add(UID_1);
+        testee.add(UID_3);
+        testee.add(UID_2);
+
+        assertThat(testee.asRanges())
+            .containsExactly(MessageRange.range(UID_1, UID_3));
+    }
+
+    @Test
+    public void addShouldKeepUidsSortedWhenAddedOutOfOrder() {
+        testee.add(UID_7);
+        testee.add(UID_2);
+        testee.add(UID_4);
+
+        assertThat(testee.asUids())
+            .containsExactly(UID_2, UID_4, UID_7);
+    }
+
+    @Test
+    public void addAllShouldUnionWithExistingRanges() {
+        testee.add(UID_1);
+        testee.add(UID_7);
+
+        testee.addAll(ImmutableList.of(UID_6, UID_3, UID_2, UID_3));
+
+        assertThat(testee.asRanges())
+            .containsExactly(MessageRange.range(UID_1, UID_3), MessageRange.range(UID_6, UID_7));
+        assertThat(testee.size()).isEqualTo(5);
+    }
+
+    @Test
+    public void addAllShouldCompressLargeContiguousBatches() {
+        ImmutableList.Builder<MessageUid> uids = ImmutableList.builder();
+        for (long i = 1; i <= 100000; i++) {
+            uids.add(MessageUid.of(i));
+        }
+
+        testee.addAll(uids.build());
+
+        assertThat(testee.asRanges())
+            .containsExactly(MessageRange.range(MessageUid.of(1), MessageUid.of(100000)));
+        assertThat(testee.size()).isEqualTo(100000);
+    }
+
+    @Test
+    public void removeShouldSplitRanges() {
+        testee.addAll(ImmutableList.of(UID_1, UID_2, UID_3, UID_4));
+
+        assertThat(testee.remove(UID_2)).isTrue();
+
+        assertThat(testee.asRanges())
+            .containsExactly(MessageRange.one(UID_1), MessageRange.range(UID_3, UID_4));
+        assertThat(testee.size()).isEqualTo(3);
+    }
+
+    @Test
+    public void removeShouldReturnFalseWhenAbsent() {
+        testee.addAll(ImmutableList.of(UID_1, UID_2));
+
+        assertThat(testee.remove(UID_4)).isFalse();
+        assertThat(testee.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void removeShouldDropSingleUidRanges() {
+        testee.addAll(ImmutableList.of(UID_1, UID_3, UID_6));
+
+        testee.remove(UID_3);
+
+        assertThat(testee.asUids()).containsExactly(UID_1, UID_6);
+    }
+
+    @Test
+    public void removeAllShouldSubtractOverlappingRanges() {
+        testee.addAll(ImmutableList.of(UID_1, UID_2, UID_3, UID_4, UID_6, UID_7));
+        CompressedUidSet removed = new CompressedUidSet();
+        removed.addAll(ImmutableList.of(UID_2, UID_3, UID_6));
+
+        assertThat(testee.removeAll(removed)).isTrue();
+
+        assertThat(testee.asUids()).containsExactly(UID_1, UID_4, UID_7);
+    }
+
+    @Test
+    public void removeAllShouldReturnFalseWhenNothingRemoved() {
+        testee.addAll(ImmutableList.of(UID_1, UID_2));
+        CompressedUidSet removed = new CompressedUidSet();
+        removed.addAll(ImmutableList.of(UID_4, UID_6));
+
+        assertThat(testee.removeAll(removed)).isFalse();
+        assertThat(testee.asUids()).containsExactly(UID_1, UID_2);
+    }
+
+    @Test
+    public void containsShouldMatchUidsWithinRanges() {
+        testee.addAll(ImmutableList.of(UID_1, UID_2, UID_3, UID_7));
+
+        assertThat(testee.contains(UID_2)).isTrue();
+        assertThat(testee.contains(UID_4)).isFalse();
+        assertThat(testee.contains(UID_7)).isTrue();
+    }
+
+    @Test
+    public void clearShouldRemoveAllUids() {
+        testee.addAll(ImmutableList.of(UID_1, UID_2, UID_7));
+
+        testee.clear();
+
+        assertThat(testee.isEmpty()).isTrue();
+        assertThat(testee.contains(UID_1)).isFalse();
+    }
+}
@@ -0,0 +1,152 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+
+package org.apache.james.imap.processor.base;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apache.james.core.Username;
+import org.apache.james.mailbox.MailboxSession;
+import org.apache.james.mailbox.MailboxSessionUtil;
+import org.apache.james.mailbox.events.Event;
+import org.apache.james.mailbox.events.EventBusTestFixture;
+import org.apache.james.mailbox.events.InVMEventBus;
+import org.apache.james.mailbox.events.MailboxIdRegistrationKey;
+import org.apache.james.mailbox.events.MailboxListener;
+import org.apache.james.mailbox.events.MemoryEventDeadLetters;
+import org.apache.james.mailbox.events.Registration;
+import org.apache.james.mailbox.events.delivery.InVmEventDelivery;
+import org.apache.james.mailbox.model.MailboxPath;
+import org.apache.james.mailbox.model.TestId;
+import org.apache.james.metrics.tests.RecordingMetricFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+import reactor.core.publisher.Mono;
+
+public class FanOutEventBusTest {
+    private static final Username USER = Username.of("user");
+    private static final MailboxSession MAILBOX_SESSION = MailboxSessionUtil.create(USER);
+    private static final TestId MAILBOX_ID = TestId.of(36);
+    private static final MailboxIdRegistrationKey KEY = new MailboxIdRegistrationKey(MAILBOX_ID);
+    private static final Event EVENT = new MailboxListener.MailboxAdded(MAILBOX_SESSION.getSessionId(),
+        USER, MailboxPath.inbox(USER), MAILBOX_ID, Event.EventId.random());
+
+    private static class RecordingListener implements MailboxListener {
+        private final List<Event> events = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void event(Event event) {
+            events.add(event);
+        }
+    }
+
+    private InVMEventBus delegate;
+    private FanOutEventBus testee;
+
+    @Before
+    public void setUp() {
+        delegate = spy(new InVMEventBus(new InVmEventDelivery(new RecordingMetricFactory()), EventBusTestFixture.RETRY_BACKOFF_CONFIGURATION, new MemoryEventDeadLetters()));
+        testee = new FanOutEventBus(delegate);
+    }
+
+    @Test
+    public void eventsShouldBeDeliveredToAllListenersOfTheKey() {
+        RecordingListener listener1 = new RecordingListener();
+        RecordingListener listener2 = new RecordingListener();
+        register(listener1);
+        register(listener2);
+
+        testee.dispatch(EVENT, KEY).block();
+
+        assertThat(listener1.events).containsExactly(EVENT);
+        assertThat(listener2.events).containsExactly(EVENT);
+    }
+
+    @Test
+    public void listenersOfTheSameKeyShouldShareASingleUnderlyingRegistration() {
+        register(new RecordingListener());
+        register(new RecordingListener());
+
+        verify(delegate, times(1)).register(any(MailboxListener.ReactiveMailboxListener.class), eq(KEY));
+    }
+
+    @Test
+    public void unregisteredListenerShouldNotReceiveEventsAnymore() {
+        RecordingListener listener1 = new RecordingListener();
+        RecordingListener listener2 = new RecordingListener();
+        Registration registration = register(listener1);
+        register(listener2);
+
+        registration.unregister();
+        testee.dispatch(EVENT, KEY).block();
+
+        assertThat(listener1.events).isEmpty();
+        assertThat(listener2.events).containsExactly(EVENT);
+    }
+
+    @Test
+    public void unregisteringTheLastListenerShouldReleaseTheUnderlyingRegistration() {
+        RecordingListener listener = new RecordingListener();
+        Registration registration = register(listener);
+
+        registration.unregister();
+        delegate.dispatch(EVENT, KEY).block();
+
+        assertThat(listener.events).isEmpty();
+        assertThat(testee.registeredKeyCount()).isZero();
+    }
+
+    @Test
+    public void registeringAgainAfterReleaseShouldDeliverEvents() {
+        register(new RecordingListener()).unregister();
+        RecordingListener listener = new RecordingListener();
+        register(listener);
+
+        testee.dispatch(EVENT, KEY).block();
+
+        assertThat(listener.events).containsExactly(EVENT);
+    }
+
+    @Test
+    public void failingListenerShouldNotPreventDeliveryToOtherListeners() {
+        RecordingListener listener = new RecordingListener();
+        register(event -> {
+            throw new RuntimeException();
+        });
+        register(listener);
+
+        testee.dispatch(EVENT, KEY).block();
+
+        assertThat(listener.events).containsExactly(EVENT);
+    }
+
+    private Registration register(MailboxListener listener) {
+        return Mono.from(testee.register(listener, KEY)).block();
+    }
+}
@@ -58,6 +58,7 @@ import org.apache.james.mailbox.events.Registration;
 import org.apache.james.mailbox.model.Mailbox;
 import org.apache.james.mailbox.model.MailboxPath;
 import org.apache.james.mailbox.model.MessageMetaData;
+import org.apache.james.mailbox.model.MessageRange;
 import org.apache.james.mailbox.model.SearchQuery;
 import org.apache.james.mailbox.model.TestId;
 import org.apache.james.mailbox.model.UpdatedFlags;
@@ -186,6 +187,19 @@ class SelectedMailboxImplTest {
             .isEqualTo(1);
     }
 
+    @Test
+    void pollExpungedRangesShouldResetExpungedUids() throws Exception {
+        when(eventBus.register(any(MailboxListener.class), eq(mailboxIdRegistrationKey)))
+            .thenReturn(Mono.just(() -> { }));
+        SelectedMailboxImpl selectedMailbox = new SelectedMailboxImpl(mailboxManager, eventBus, imapSession, messageManager);
+        selectedMailbox.event(expungedEvent());
+
+        assertThat(selectedMailbox.pollExpungedRanges())
+            .containsExactly(MessageRange.one(EMITTED_EVENT_UID));
+        assertThat(selectedMailbox.pollExpungedRanges())
+            .isEmpty();
+    }
+
     Answer<Stream<MessageUid>> delayedSearchAnswer() {
         return invocation -> {
             Thread.sleep(1000);
@@ -226,6 +240,15 @@ class SelectedMailboxImplTest {
             .build();
     }
 
+    Event expungedEvent() {
+        return EventFactory.expunged()
+            .randomEventId()
+            .mailboxSession(MailboxSessionUtil.create(Username.of("user")))
+            .mailbox(mailbox)
+            .addMetaData(new MessageMetaData(EMITTED_EVENT_UID, MOD_SEQ, new Flags(), SIZE, new Date(), new DefaultMessageId()))
+            .build();
+    }
+
     Event customFlagEvent() {
         return EventFactory.flagsUpdated()
             .randomEventId()
@@ -459,10 +459,73 @@ public class UidMsnConverterTest {
             .containsExactlyElementsOf(resultBuilder.build().entrySet());
     }
 
+    @Test
+    public void removeAllShouldReturnSequenceNumbersAccountingForPreviousRemovals() {
+        testee.addAll(ImmutableList.of(messageUid1, messageUid2, messageUid3, messageUid4));
+
+        assertThat(testee.remove(ImmutableList.of(messageUid2, messageUid3)))
+            .containsExactly(NullableMessageSequenceNumber.of(2), NullableMessageSequenceNumber.of(2));
+    }
+
+    @Test
+    public void removeAllShouldHandleDescendingOrder() {
+        testee.addAll(ImmutableList.of(messageUid1, messageUid2, messageUid3, messageUid4));
+
+        assertThat(testee.remove(ImmutableList.of(messageUid4, messageUid2)))
+            .containsExactly(NullableMessageSequenceNumber.of(4), NullableMessageSequenceNumber.of(2));
+    }
+
+    @Test
+    public void removeAllShouldHandleUnorderedUids() {
+        testee.addAll(ImmutableList.of(messageUid1, messageUid2, messageUid3, messageUid4));
+
+        assertThat(testee.remove(ImmutableList.of(messageUid2, messageUid1, messageUid4)))
+            .containsExactly(NullableMessageSequenceNumber.of(2), NullableMessageSequenceNumber.of(1), NullableMessageSequenceNumber.of(2));
+    }
+
+    @Test
+    public void removeAllShouldReturnNoMessageForUnknownUids() {
+        testee.addAll(ImmutableList.of(messageUid1, messageUid3));
+
+        assertThat(testee.remove(ImmutableList.of(messageUid2, messageUid3)))
+            .containsExactly(NullableMessageSequenceNumber.noMessage(), NullableMessageSequenceNumber.of(2));
+    }
+
+    @Test
+    public void removeAllShouldRemoveTheGivenUids() {
+        testee.addAll(ImmutableList.of(messageUid1, messageUid2, messageUid3, messageUid4));
+
+        testee.remove(ImmutableList.of(messageUid1, messageUid3));
+
+        assertThat(mapTesteeInternalDataToMsnByUid())
+            .isEqualTo(ImmutableMap.of(1, messageUid2, 2, messageUid4));
+    }
+
+    @Test
+    public void addAllShouldMergeWithExistingUids() {
+        testee.addAll(ImmutableList.of(messageUid1, messageUid3));
+
+        testee.addAll(ImmutableList.of(messageUid4, messageUid2, messageUid3));
+
+        assertThat(mapTesteeInternalDataToMsnByUid())
+            .isEqualTo(ImmutableMap.of(1, messageUid1, 2, messageUid2, 3, messageUid3, 4, messageUid4));
+    }
+
+    @Test
+    public void readsShouldNotSeeSubsequentAppends() {
+        testee.addAll(ImmutableList.of(messageUid1, messageUid2));
+        UidMsnConverter.Snapshot snapshot = testee.snapshot;
+
+        testee.addUid(messageUid3);
+
+        assertThat(snapshot.toArray()).containsExactly(1L, 2L);
+    }
+
     private Map<Integer, MessageUid> mapTesteeInternalDataToMsnByUid() {
         ImmutableMap.Builder<Integer, MessageUid> result = ImmutableMap.builder();
-        for (int i = 0; i < testee.uids.size(); i++) {
-            result.put(i + 1, testee.uids.get(i));
+        long[] uids = testee.snapshot.toArray();
+        for (int i = 0; i < uids.length; i++) {
+            result.put(i + 1, MessageUid.of(uids[i]));
         }
         return result.build();
     }
@@ -25,15 +25,18 @@ import static org.apache.james.imap.api.message.SectionType.MIME;
 import static org.apache.james.imap.api.message.SectionType.TEXT;
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.util.EnumSet;
 import java.util.stream.Stream;
 
 import org.apache.james.imap.api.ImapConstants;
 import org.apache.james.imap.api.message.BodyFetchElement;
 import org.apache.james.imap.api.message.FetchData;
 import org.apache.james.imap.api.message.FetchData.Item;
+import org.apache.james.mailbox.MailboxManager.MessageCapabilities;
 import org.apache.james.mailbox.model.FetchGroup;
 import org.apache.james.mailbox.model.FetchGroup.Profile;
 import org.apache.james.mailbox.model.MimePath;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -41,6 +44,7 @@ import org.junit.jupiter.params.provider.MethodSource;
 class FetchDataConverterTest {
     private static final boolean PEEK = true;
     private static final int[] PATH = new int[]{0, 1, 2};
+    private static final EnumSet<MessageCapabilities> NO_CAPABILITIES = EnumSet.noneOf(MessageCapabilities.class);
 
     static Stream<Arguments> getFetchGroupShouldReturnCorrectValue() {
         return Stream.of(
@@ -55,6 +59,9 @@ class FetchDataConverterTest {
             Arguments.arguments(FetchData.builder().fetch(Item.UID), FetchGroup.MINIMAL),
             Arguments.arguments(FetchData.builder().vanished(true), FetchGroup.MINIMAL),
             Arguments.arguments(FetchData.builder().add(BodyFetchElement.createRFC822(), PEEK), FetchGroup.FULL_CONTENT),
+            Arguments.arguments(FetchData.builder().add(new BodyFetchElement(ImapConstants.FETCH_RFC822, CONTENT, null, null, 10L, 20L), PEEK), FetchGroup.MINIMAL),
+            Arguments.arguments(FetchData.builder().add(new BodyFetchElement(ImapConstants.FETCH_RFC822, CONTENT, PATH, null, 10L, 20L), PEEK),
+                FetchGroup.MINIMAL.addPartContent(new MimePath(PATH), Profile.MIME_CONTENT)),
             Arguments.arguments(FetchData.builder().add(BodyFetchElement.createRFC822Header(), PEEK), FetchGroup.HEADERS),
             Arguments.arguments(FetchData.builder().add(BodyFetchElement.createRFC822Text(), PEEK), FetchGroup.BODY_CONTENT),
             Arguments.arguments(FetchData.builder().add(new BodyFetchElement(ImapConstants.FETCH_RFC822_HEADER, HEADER, PATH, null, null, null), PEEK),
@@ -74,7 +81,15 @@ class FetchDataConverterTest {
     @ParameterizedTest
     @MethodSource
     void getFetchGroupShouldReturnCorrectValue(FetchData.Builder initial, FetchGroup expected) {
-        assertThat(FetchDataConverter.getFetchGroup(initial.build()))
+        assertThat(FetchDataConverter.getFetchGroup(initial.build(), NO_CAPABILITIES))
             .isEqualTo(expected);
     }
+
+    @Test
+    void getFetchGroupShouldNotRetrieveFullContentWhenMailboxReadsItByRanges() {
+        FetchData fetchData = FetchData.builder().add(BodyFetchElement.createRFC822(), PEEK).build();
+
+        assertThat(FetchDataConverter.getFetchGroup(fetchData, EnumSet.of(MessageCapabilities.RangedFullContentRead)))
+            .isEqualTo(FetchGroup.MINIMAL);
+    }
 }
\ No newline at end of file
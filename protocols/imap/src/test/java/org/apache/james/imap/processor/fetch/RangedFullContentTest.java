@@ -0,0 +1,102 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imap.processor.fetch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import org.apache.james.mailbox.MailboxSession;
+import org.apache.james.mailbox.MessageManager;
+import org.apache.james.mailbox.MessageUid;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.io.ByteStreams;
+
+import reactor.core.publisher.Mono;
+
+class RangedFullContentTest {
+    private static final MessageUid UID = MessageUid.of(42);
+    private static final byte[] CONTENT = new byte[RangedFullContent.RANGE_LENGTH * 2 + 10];
+
+    static {
+        Arrays.fill(CONTENT, (byte) 'a');
+    }
+
+    private MessageManager mailbox;
+    private MailboxSession mailboxSession;
+
+    @BeforeEach
+    void setUp() {
+        mailbox = mock(MessageManager.class);
+        mailboxSession = mock(MailboxSession.class);
+        when(mailbox.readFullContent(eq(UID), anyLong(), anyLong(), any())).thenAnswer(invocation -> {
+            int firstOctet = Math.toIntExact(invocation.<Long>getArgument(1));
+            int numberOfOctets = Math.toIntExact(invocation.<Long>getArgument(2));
+            return Mono.just(Arrays.copyOfRange(CONTENT, firstOctet, Math.min(CONTENT.length, firstOctet + numberOfOctets)));
+        });
+    }
+
+    @Test
+    void getInputStreamShouldReturnTheFullContent() throws Exception {
+        RangedFullContent content = new RangedFullContent(mailbox, mailboxSession, UID, CONTENT.length);
+
+        try (InputStream inputStream = content.getInputStream()) {
+            assertThat(ByteStreams.toByteArray(inputStream)).isEqualTo(CONTENT);
+        }
+    }
+
+    @Test
+    void getInputStreamShouldReadTheContentByRanges() throws Exception {
+        RangedFullContent content = new RangedFullContent(mailbox, mailboxSession, UID, CONTENT.length);
+
+        try (InputStream inputStream = content.getInputStream()) {
+            ByteStreams.exhaust(inputStream);
+        }
+
+        verify(mailbox, times(3)).readFullContent(eq(UID), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void getInputStreamShouldNotReadBeforeBeingConsumed() {
+        new RangedFullContent(mailbox, mailboxSession, UID, CONTENT.length).getInputStream();
+
+        verify(mailbox, times(0)).readFullContent(any(), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void readShouldFailWhenTheContentIsShorterThanItsSize() {
+        RangedFullContent content = new RangedFullContent(mailbox, mailboxSession, UID, CONTENT.length + 1);
+
+        assertThatThrownBy(() -> ByteStreams.exhaust(content.getInputStream()))
+            .isInstanceOf(IOException.class);
+    }
+}
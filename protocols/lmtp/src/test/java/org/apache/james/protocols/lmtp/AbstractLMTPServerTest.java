@@ -89,6 +89,27 @@ public abstract class AbstractLMTPServerTest extends AbstractSMTPServerTest {
     }
 
 
+    @Ignore("LMTP does not support CHUNKING")
+    @Override
+    public void testBdatDelivery() throws Exception {
+    }
+
+    @Ignore("LMTP does not support CHUNKING")
+    @Override
+    public void testBdatShouldSupportPipelinedChunksAndDotLines() throws Exception {
+    }
+
+    @Ignore("LMTP does not support CHUNKING")
+    @Override
+    public void testBdatShouldConsumeChunkWhenNoRecipient() throws Exception {
+    }
+
+    @Ignore("LMTP does not support CHUNKING")
+    @Override
+    public void testDataShouldBeRejectedDuringBdat() throws Exception {
+    }
+
+
     @Override
     public void testMailWithoutBrackets() throws Exception {
         TestMessageHook hook = new TestMessageHook();
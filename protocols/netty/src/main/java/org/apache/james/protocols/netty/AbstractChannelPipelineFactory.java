@@ -66,8 +66,13 @@ public abstract class AbstractChannelPipelineFactory implements ChannelPipelineF
         pipeline.addLast(HandlerConstants.CONNECTION_PER_IP_LIMIT_HANDLER, connectionPerIpLimitHandler);
 
         
+        // Hold back the responses to pipelined commands so that they get written all together
+        ResponseCoalescingHandler responseCoalescingHandler = new ResponseCoalescingHandler();
+        pipeline.addLast(HandlerConstants.READ_HANDLER, responseCoalescingHandler.readHandler());
+
         // Add the text line decoder which limit the max line length, don't strip the delimiter and use CRLF as delimiter
         pipeline.addLast(HandlerConstants.FRAMER, frameHandlerFactory.create(pipeline));
+        pipeline.addLast(HandlerConstants.FRAME_DECODED_HANDLER, responseCoalescingHandler.frameDecodedHandler());
        
         // Add the ChunkedWriteHandler to be able to write ChunkInput
         pipeline.addLast(HandlerConstants.CHUNK_HANDLER, new ChunkedWriteHandler());
@@ -76,6 +81,7 @@ public abstract class AbstractChannelPipelineFactory implements ChannelPipelineF
         if (eHandler != null) {
             pipeline.addLast(HandlerConstants.EXECUTION_HANDLER, eHandler);
         }
+        pipeline.addLast(HandlerConstants.FRAME_HANDLED_HANDLER, responseCoalescingHandler.frameHandledHandler());
         
         pipeline.addLast(HandlerConstants.CORE_HANDLER, createHandler());
 
@@ -37,6 +37,12 @@ public interface HandlerConstants {
 
     String FRAMER = "framer";
 
+    String READ_HANDLER = "readHandler";
+
+    String FRAME_DECODED_HANDLER = "frameDecodedHandler";
+
+    String FRAME_HANDLED_HANDLER = "frameHandledHandler";
+
     String EXECUTION_HANDLER = "executionHandler";
 
     String TIMEOUT_HANDLER = "timeoutHandler";
@@ -0,0 +1,181 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.protocols.netty;
+
+import java.nio.channels.ClosedChannelException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.jboss.netty.channel.ChannelDownstreamHandler;
+import org.jboss.netty.channel.ChannelEvent;
+import org.jboss.netty.channel.ChannelFuture;
+import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.channel.ChannelPipeline;
+import org.jboss.netty.channel.ChannelStateEvent;
+import org.jboss.netty.channel.ChannelUpstreamHandler;
+import org.jboss.netty.channel.Channels;
+import org.jboss.netty.channel.DownstreamMessageEvent;
+import org.jboss.netty.channel.MessageEvent;
+import org.jboss.netty.channel.SimpleChannelUpstreamHandler;
+
+/**
+ * Coalesce the responses to pipelined commands.
+ *
+ * Responses written while some of the received commands are still waiting to be handled are held back, and written
+ * out all together once the last of them was handled. A pipelined batch of commands hence results in a single write
+ * instead of one write per command.
+ *
+ * This needs one instance per channel, which provides three {@link ChannelUpstreamHandler}'s:
+ * <ul>
+ *     <li>{@link #readHandler()} has to be placed before the framer. It also holds back the writes.</li>
+ *     <li>{@link #frameDecodedHandler()} has to be placed right after the framer</li>
+ *     <li>{@link #frameHandledHandler()} has to be placed after the {@link org.jboss.netty.handler.execution.ExecutionHandler}
+ *     if any, and before any handler processing the frames</li>
+ * </ul>
+ */
+public class ResponseCoalescingHandler {
+    /**
+     * Held responses get written once they reach this size, so that large streamed responses are not accumulated
+     */
+    private static final int MAX_COALESCED_BYTES = 16 * 1024;
+
+    private final AtomicInteger pendingFrames = new AtomicInteger(0);
+    private final List<MessageEvent> heldWrites = new ArrayList<>();
+    private final ReadHandler readHandler = new ReadHandler();
+    private volatile boolean decoding = false;
+    private int heldBytes = 0;
+
+    public ChannelUpstreamHandler readHandler() {
+        return readHandler;
+    }
+
+    public ChannelUpstreamHandler frameDecodedHandler() {
+        return new SimpleChannelUpstreamHandler() {
+            @Override
+            public void messageReceived(ChannelHandlerContext ctx, MessageEvent e) throws Exception {
+                pendingFrames.incrementAndGet();
+                super.messageReceived(ctx, e);
+            }
+        };
+    }
+
+    public ChannelUpstreamHandler frameHandledHandler() {
+        return new SimpleChannelUpstreamHandler() {
+            @Override
+            public void messageReceived(ChannelHandlerContext ctx, MessageEvent e) throws Exception {
+                try {
+                    super.messageReceived(ctx, e);
+                } finally {
+                    // Decoding might still be in progress for the same read if an ExecutionHandler is used: the read
+                    // handler then takes care of writing the held responses once done
+                    if (pendingFrames.decrementAndGet() == 0 && !decoding) {
+                        readHandler.flush(ctx.getPipeline());
+                    }
+                }
+            }
+        };
+    }
+
+    private boolean isCoalescing() {
+        return decoding || pendingFrames.get() > 0;
+    }
+
+    private class ReadHandler extends SimpleChannelUpstreamHandler implements ChannelDownstreamHandler {
+
+        @Override
+        public void messageReceived(ChannelHandlerContext ctx, MessageEvent e) throws Exception {
+            decoding = true;
+            try {
+                super.messageReceived(ctx, e);
+            } finally {
+                decoding = false;
+                if (pendingFrames.get() == 0) {
+                    flush(ctx);
+                }
+            }
+        }
+
+        @Override
+        public void channelClosed(ChannelHandlerContext ctx, ChannelStateEvent e) throws Exception {
+            List<MessageEvent> discardedWrites;
+            synchronized (this) {
+                discardedWrites = new ArrayList<>(heldWrites);
+                heldWrites.clear();
+                heldBytes = 0;
+            }
+            discardedWrites.forEach(write -> write.getFuture().setFailure(new ClosedChannelException()));
+            super.channelClosed(ctx, e);
+        }
+
+        @Override
+        public synchronized void handleDownstream(ChannelHandlerContext ctx, ChannelEvent e) throws Exception {
+            if (isCoalescing() && e instanceof MessageEvent && ((MessageEvent) e).getMessage() instanceof ChannelBuffer) {
+                MessageEvent write = (MessageEvent) e;
+                heldWrites.add(write);
+                heldBytes += ((ChannelBuffer) write.getMessage()).readableBytes();
+                if (heldBytes >= MAX_COALESCED_BYTES) {
+                    flush(ctx);
+                }
+                return;
+            }
+            // Preserve ordering with the held responses
+            flush(ctx);
+            ctx.sendDownstream(e);
+        }
+
+        void flush(ChannelPipeline pipeline) {
+            ChannelHandlerContext ctx = pipeline.getContext(this);
+            if (ctx != null) {
+                flush(ctx);
+            }
+        }
+
+        synchronized void flush(ChannelHandlerContext ctx) {
+            if (heldWrites.isEmpty()) {
+                return;
+            }
+            if (heldWrites.size() == 1) {
+                ctx.sendDownstream(heldWrites.get(0));
+            } else {
+                ctx.sendDownstream(coalesce(ctx, new ArrayList<>(heldWrites)));
+            }
+            heldWrites.clear();
+            heldBytes = 0;
+        }
+
+        private MessageEvent coalesce(ChannelHandlerContext ctx, List<MessageEvent> writes) {
+            ChannelBuffer[] buffers = writes.stream()
+                .map(write -> (ChannelBuffer) write.getMessage())
+                .toArray(ChannelBuffer[]::new);
+            ChannelFuture future = Channels.future(ctx.getChannel());
+            future.addListener(written -> writes.forEach(write -> {
+                if (written.isSuccess()) {
+                    write.getFuture().setSuccess();
+                } else {
+                    write.getFuture().setFailure(written.getCause());
+                }
+            }));
+            return new DownstreamMessageEvent(ctx.getChannel(), future, ChannelBuffers.wrappedBuffer(buffers),
+                writes.get(0).getRemoteAddress());
+        }
+    }
+}
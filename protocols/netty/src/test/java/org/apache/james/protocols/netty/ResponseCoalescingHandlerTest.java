@@ -0,0 +1,131 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.protocols.netty;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.jboss.netty.channel.AbstractChannelSink;
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelEvent;
+import org.jboss.netty.channel.ChannelFuture;
+import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.channel.ChannelPipeline;
+import org.jboss.netty.channel.Channels;
+import org.jboss.netty.channel.DefaultChannelConfig;
+import org.jboss.netty.channel.MessageEvent;
+import org.jboss.netty.channel.SimpleChannelUpstreamHandler;
+import org.jboss.netty.channel.UpstreamMessageEvent;
+import org.jboss.netty.handler.codec.frame.LineBasedFrameDecoder;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ResponseCoalescingHandlerTest {
+
+    private static class RecordingChannelSink extends AbstractChannelSink {
+        private final List<String> writes = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void eventSunk(ChannelPipeline pipeline, ChannelEvent e) {
+            if (e instanceof MessageEvent) {
+                writes.add(((ChannelBuffer) ((MessageEvent) e).getMessage()).toString(StandardCharsets.US_ASCII));
+            }
+            e.getFuture().setSuccess();
+        }
+    }
+
+    private static class EchoHandler extends SimpleChannelUpstreamHandler {
+        private final List<ChannelFuture> futures = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void messageReceived(ChannelHandlerContext ctx, MessageEvent e) {
+            futures.add(Channels.write(ctx.getChannel(), e.getMessage()));
+        }
+    }
+
+    private Channel channel;
+    private RecordingChannelSink sink;
+    private EchoHandler echoHandler;
+
+    @Before
+    public void setUp() {
+        ResponseCoalescingHandler testee = new ResponseCoalescingHandler();
+        echoHandler = new EchoHandler();
+        sink = new RecordingChannelSink();
+
+        ChannelPipeline pipeline = Channels.pipeline();
+        pipeline.addLast(HandlerConstants.READ_HANDLER, testee.readHandler());
+        pipeline.addLast(HandlerConstants.FRAMER, new LineBasedFrameDecoder(AbstractChannelPipelineFactory.MAX_LINE_LENGTH, false, false));
+        pipeline.addLast(HandlerConstants.FRAME_DECODED_HANDLER, testee.frameDecodedHandler());
+        pipeline.addLast(HandlerConstants.FRAME_HANDLED_HANDLER, testee.frameHandledHandler());
+        pipeline.addLast(HandlerConstants.CORE_HANDLER, echoHandler);
+
+        channel = mock(Channel.class);
+        when(channel.getPipeline()).thenReturn(pipeline);
+        when(channel.getConfig()).thenReturn(new DefaultChannelConfig());
+        pipeline.attach(channel, sink);
+    }
+
+    private void receive(String data) {
+        channel.getPipeline().sendUpstream(new UpstreamMessageEvent(channel, ChannelBuffers.copiedBuffer(data, StandardCharsets.US_ASCII), null));
+    }
+
+    @Test
+    public void responsesToPipelinedCommandsShouldBeWrittenAllTogether() {
+        receive("MAIL FROM:<a@b>\r\nRCPT TO:<c@d>\r\nRCPT TO:<e@f>\r\nDATA\r\n");
+
+        assertThat(sink.writes).containsExactly("MAIL FROM:<a@b>\r\nRCPT TO:<c@d>\r\nRCPT TO:<e@f>\r\nDATA\r\n");
+    }
+
+    @Test
+    public void responsesShouldBeWrittenWhenNoCompleteCommandIsLeft() {
+        receive("NOOP\r\nNO");
+
+        assertThat(sink.writes).containsExactly("NOOP\r\n");
+
+        receive("OP\r\n");
+
+        assertThat(sink.writes).containsExactly("NOOP\r\n", "NOOP\r\n");
+    }
+
+    @Test
+    public void writesOutsideOfReadsShouldNotBeHeldBack() {
+        Channels.write(channel, ChannelBuffers.copiedBuffer("220 Ready\r\n", StandardCharsets.US_ASCII));
+
+        assertThat(sink.writes).containsExactly("220 Ready\r\n");
+    }
+
+    @Test
+    public void heldWritesShouldBeCompletedOnceWritten() {
+        receive("NOOP\r\nNOOP\r\n");
+
+        assertThat(echoHandler.futures.stream()
+                .map(ChannelFuture::isSuccess)
+                .collect(Collectors.toList()))
+            .containsExactly(true, true);
+    }
+}
@@ -46,6 +46,19 @@ public interface Mailbox {
      */
     InputStream getMessage(String uid) throws IOException;
 
+    /**
+     * Return the full message (headers + body) as {@link InputStream} or
+     * <code>null</code> if no message can be found for the given
+     * <code>uid</code>. The body is only read as the returned
+     * {@link InputStream} is consumed, which suits callers reading the
+     * beginning of the message.
+     * 
+     * Defaults to {@link #getMessage(String)}
+     */
+    default InputStream getMessageReadOnDemand(String uid) throws IOException {
+        return getMessage(uid);
+    }
+
     /**
      * Return a immutable {@link List} which holds the {@link MessageMetaData}
      * for all messages in the {@link Mailbox}
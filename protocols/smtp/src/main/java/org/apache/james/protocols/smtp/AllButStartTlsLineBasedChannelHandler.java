@@ -21,8 +21,10 @@ package org.apache.james.protocols.smtp;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Locale;
+import java.util.Optional;
 
 import org.apache.james.protocols.netty.HandlerConstants;
+import org.apache.james.protocols.smtp.core.BdatCmdHandler;
 import org.jboss.netty.buffer.ChannelBuffer;
 import org.jboss.netty.channel.Channel;
 import org.jboss.netty.channel.ChannelHandlerContext;
@@ -37,7 +39,11 @@ public class AllButStartTlsLineBasedChannelHandler extends LineBasedFrameDecoder
 
     private static final String STARTTLS = "starttls";
     private static final Boolean FAIL_FAST = true;
+    private static final int COMMAND_LENGTH = 4;
+    private static final String BDAT = "BDAT";
+    private static final String DATA_TERMINATOR = ".\r\n";
     private final ChannelPipeline pipeline;
+    private long remainingChunkOctets;
 
     public AllButStartTlsLineBasedChannelHandler(ChannelPipeline pipeline, int maxFrameLength, boolean stripDelimiter) {
         super(maxFrameLength, stripDelimiter, !FAIL_FAST);
@@ -46,6 +52,10 @@ public class AllButStartTlsLineBasedChannelHandler extends LineBasedFrameDecoder
 
     @Override
     protected Object decode(ChannelHandlerContext ctx, Channel channel, ChannelBuffer buffer) throws Exception {
+        if (remainingChunkOctets > 0) {
+            return readChunk(buffer);
+        }
+
         SMTPSession session = (SMTPSession) pipeline.getContext(HandlerConstants.CORE_HANDLER).getAttachment();
 
         if (session == null || session.needsCommandInjectionDetection()) {
@@ -54,7 +64,51 @@ public class AllButStartTlsLineBasedChannelHandler extends LineBasedFrameDecoder
                 throw new CommandInjectionDetectedException();
             }
         }
-        return super.decode(ctx, channel, buffer);
+        Object frame = super.decode(ctx, channel, buffer);
+        if (frame instanceof ChannelBuffer) {
+            trackChunks(session, (ChannelBuffer) frame);
+        }
+        return frame;
+    }
+
+    /**
+     * Content lines of a message sent with DATA are never BDAT commands. The session starts receiving such content
+     * before the DATA command is answered, hence before the client sends it, while the end of the content is detected
+     * here, as pipelined commands following it might be decoded before it gets processed.
+     */
+    private void trackChunks(SMTPSession session, ChannelBuffer line) {
+        if (session != null && session.isReceivingDataContent()) {
+            if (isDataTerminator(line)) {
+                session.stopReceivingDataContent();
+            }
+            return;
+        }
+        if (firstWord(line).equals(BDAT)) {
+            Optional<Long> chunkSize = BdatCmdHandler.announcedChunkSize(line.toString(StandardCharsets.US_ASCII));
+            chunkSize.ifPresent(size -> remainingChunkOctets = size);
+        }
+    }
+
+    private boolean isDataTerminator(ChannelBuffer line) {
+        return line.readableBytes() == DATA_TERMINATOR.length()
+            && line.toString(StandardCharsets.US_ASCII).equals(DATA_TERMINATOR);
+    }
+
+    private String firstWord(ChannelBuffer line) {
+        int length = Math.min(line.readableBytes(), COMMAND_LENGTH);
+        return line.toString(line.readerIndex(), length, StandardCharsets.US_ASCII).toUpperCase(Locale.US);
+    }
+
+    /**
+     * BDAT chunks are binary: they are handed over as they come without looking for line delimiters
+     */
+    private ChannelBuffer readChunk(ChannelBuffer buffer) {
+        int length = (int) Math.min(buffer.readableBytes(), remainingChunkOctets);
+        if (length == 0) {
+            return null;
+        }
+        remainingChunkOctets -= length;
+        return buffer.readBytes(length);
     }
 
     private String readAll(ChannelBuffer buffer) {
@@ -24,6 +24,7 @@ import java.util.List;
 import org.apache.james.core.MailAddress;
 import org.apache.james.core.MaybeSender;
 import org.apache.james.protocols.api.ProtocolSession;
+import org.apache.james.protocols.api.Response;
 
 /**
  * All the handlers access this interface to communicate with
@@ -63,7 +64,25 @@ public interface SMTPSession extends ProtocolSession {
     void startDetectingCommadInjection();
 
     void stopDetectingCommandInjection();
-    
+
+    /**
+     * Returns whether the lines received are the content of a message sent with DATA rather than commands.
+     *
+     * The frame decoder relies on it to tell BDAT commands, whose chunk is read without looking for line delimiters,
+     * from message content. It is hence started before the DATA command is answered, and stopped by the frame decoder
+     * once it reads the end of data indicator.
+     */
+    boolean isReceivingDataContent();
+
+    void startReceivingDataContent();
+
+    void stopReceivingDataContent();
+
+    /**
+     * Writes the given response right away, ahead of the response of the request being handled
+     */
+    void writeImmediateResponse(Response response);
+
     /**
      * Set if reallying is allowed
      */
@@ -35,6 +35,7 @@ public class SMTPSessionImpl extends ProtocolSessionImpl implements SMTPSession
     
     private boolean relayingAllowed;
     private boolean needsCommandInjectionDetection;
+    private volatile boolean receivingDataContent;
     
     public SMTPSessionImpl(ProtocolTransport transport, SMTPConfiguration config) {
         super(transport, config);
@@ -57,6 +58,26 @@ public class SMTPSessionImpl extends ProtocolSessionImpl implements SMTPSession
         needsCommandInjectionDetection = false;
     }
 
+    @Override
+    public boolean isReceivingDataContent() {
+        return receivingDataContent;
+    }
+
+    @Override
+    public void startReceivingDataContent() {
+        receivingDataContent = true;
+    }
+
+    @Override
+    public void stopReceivingDataContent() {
+        receivingDataContent = false;
+    }
+
+    @Override
+    public void writeImmediateResponse(Response response) {
+        getProtocolTransport().writeResponse(response, this);
+    }
+
     @Override
     public boolean isRelayingAllowed() {
         return relayingAllowed;
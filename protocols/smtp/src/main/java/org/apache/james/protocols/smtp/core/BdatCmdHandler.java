@@ -0,0 +1,287 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.protocols.smtp.core;
+
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+import org.apache.james.protocols.api.BaseRequest;
+import org.apache.james.protocols.api.ProtocolSession;
+import org.apache.james.protocols.api.Request;
+import org.apache.james.protocols.api.Response;
+import org.apache.james.protocols.api.handler.CommandHandler;
+import org.apache.james.protocols.api.handler.ExtensibleHandler;
+import org.apache.james.protocols.api.handler.LineHandler;
+import org.apache.james.protocols.api.handler.WiringException;
+import org.apache.james.protocols.smtp.SMTPResponse;
+import org.apache.james.protocols.smtp.SMTPRetCode;
+import org.apache.james.protocols.smtp.SMTPSession;
+import org.apache.james.protocols.smtp.core.esmtp.EhloExtension;
+import org.apache.james.protocols.smtp.dsn.DSNStatus;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Handles BDAT command, see RFC 3030 (CHUNKING).
+ *
+ * The chunks are handed over as received, without being split into lines nor dot-stuffed, to the
+ * {@link DataLineFilter}s configured for the DATA command, the one writing the message content writing them directly to
+ * it. Once the last chunk is received, the end of data indicator is handed over to the line handler of the
+ * {@link DataCmdHandler}, so that the message hooks run once for the whole message, as for DATA.
+ */
+public class BdatCmdHandler implements CommandHandler<SMTPSession>, ExtensibleHandler, EhloExtension {
+
+    private static final String COMMAND_NAME = "BDAT";
+    private static final String LAST = "LAST";
+    private static final Collection<String> COMMANDS = ImmutableSet.of(COMMAND_NAME);
+    private static final List<String> ESMTP_FEATURES = ImmutableList.of("CHUNKING");
+    private static final Request DATA_REQUEST = new BaseRequest("DATA", null);
+    private static final byte[] DATA_TERMINATOR = {'.', '\r', '\n'};
+
+    private static final Response SYNTAX_ERROR = new SMTPResponse(SMTPRetCode.SYNTAX_ERROR_ARGUMENTS, DSNStatus.getStatus(DSNStatus.PERMANENT, DSNStatus.DELIVERY_INVALID_ARG) + " Invalid syntax, expecting: BDAT <size> [LAST]").immutable();
+
+    private static final ProtocolSession.AttachmentKey<ChunkedMessage> CHUNKED_MESSAGE = ProtocolSession.AttachmentKey.of("CHUNKED_MESSAGE", ChunkedMessage.class);
+
+    /**
+     * State of a message being received through BDAT commands, shared by all the chunks of a transaction
+     */
+    private static class ChunkedMessage {
+        private final Optional<LineHandler<SMTPSession>> dataLineHandler;
+        private final Optional<DataChunkHandler> dataChunkHandler;
+        private Optional<Response> failure;
+        private long receivedOctets;
+
+        private ChunkedMessage(Optional<LineHandler<SMTPSession>> dataLineHandler, Optional<DataChunkHandler> dataChunkHandler, Optional<Response> failure) {
+            this.dataLineHandler = dataLineHandler;
+            this.dataChunkHandler = dataChunkHandler;
+            this.failure = failure;
+        }
+
+        static ChunkedMessage accepted(LineHandler<SMTPSession> dataLineHandler, DataChunkHandler dataChunkHandler) {
+            return new ChunkedMessage(Optional.of(dataLineHandler), Optional.of(dataChunkHandler), Optional.empty());
+        }
+
+        static ChunkedMessage rejected(Response response) {
+            return new ChunkedMessage(Optional.empty(), Optional.empty(), Optional.of(response));
+        }
+
+        /**
+         * Hands over the given part of a chunk as is. Once a part was refused, the following ones are discarded.
+         */
+        void append(SMTPSession session, ByteBuffer data) {
+            receivedOctets += data.remaining();
+            if (!failure.isPresent()) {
+                failure = Optional.ofNullable(dataChunkHandler.get().onChunk(session, data));
+            }
+        }
+
+        Response end(SMTPSession session) {
+            return failure.orElseGet(() -> dataLineHandler.get().onLine(session, ByteBuffer.wrap(DATA_TERMINATOR)));
+        }
+    }
+
+    /**
+     * Consumes the octets of a single chunk, then hands the remaining of the line, if any, back to the
+     * {@link LineHandler} of the chain as it contains the next command.
+     */
+    private class ChunkLineHandler implements LineHandler<SMTPSession> {
+        private final ChunkedMessage message;
+        private final boolean last;
+        private long remainingOctets;
+
+        ChunkLineHandler(ChunkedMessage message, long size, boolean last) {
+            this.message = message;
+            this.remainingOctets = size;
+            this.last = last;
+        }
+
+        @Override
+        public Response onLine(SMTPSession session, ByteBuffer line) {
+            int length = line.remaining();
+            if (length < remainingOctets) {
+                remainingOctets -= length;
+                message.append(session, line.slice());
+                return null;
+            }
+
+            int chunkEnd = (int) remainingOctets;
+            ByteBuffer chunk = line.slice();
+            chunk.limit(chunkEnd);
+            message.append(session, chunk);
+            remainingOctets = 0;
+            Response response = endChunk(session, message, last);
+            if (chunkEnd == length) {
+                return response;
+            }
+
+            // The chunk response has to be written before the one of the command following it
+            session.writeImmediateResponse(response);
+            line.position(line.position() + chunkEnd);
+            return commandLineHandler.onLine(session, line.slice());
+        }
+    }
+
+    /**
+     * Return the size of the chunk announced by the given command line, or empty if it is not a valid BDAT command.
+     * This allows the frame decoders to hand over the chunk octets without looking for line delimiters.
+     */
+    public static Optional<Long> announcedChunkSize(String commandLine) {
+        String trimmedLine = commandLine.trim();
+        int spaceIndex = trimmedLine.indexOf(' ');
+        if (spaceIndex < 0 || !trimmedLine.substring(0, spaceIndex).equalsIgnoreCase(COMMAND_NAME)) {
+            return Optional.empty();
+        }
+        return Chunk.parse(trimmedLine.substring(spaceIndex + 1))
+            .map(chunk -> chunk.size);
+    }
+
+    /**
+     * Return whether a message is being received with BDAT commands, in which case DATA is not allowed
+     */
+    static boolean isReceivingChunks(SMTPSession session) {
+        return session.getAttachment(CHUNKED_MESSAGE, ProtocolSession.State.Transaction).isPresent();
+    }
+
+    private DataCmdHandler dataCmdHandler;
+    private LineHandler<SMTPSession> commandLineHandler;
+
+    @Override
+    public Response onCommand(SMTPSession session, Request request) {
+        Optional<Chunk> chunk = Chunk.parse(request.getArgument());
+        if (!chunk.isPresent()) {
+            return SYNTAX_ERROR;
+        }
+
+        ChunkedMessage message = session.getAttachment(CHUNKED_MESSAGE, ProtocolSession.State.Transaction)
+            .orElseGet(() -> startMessage(session));
+        session.setAttachment(CHUNKED_MESSAGE, message, ProtocolSession.State.Transaction);
+
+        if (chunk.get().size == 0) {
+            return endChunk(session, message, chunk.get().last);
+        }
+        session.stopDetectingCommandInjection();
+        session.pushLineHandler(new ChunkLineHandler(message, chunk.get().size, chunk.get().last));
+        return null;
+    }
+
+    /**
+     * Run the DATA command checks and set up, then take over the line handler it pushed
+     */
+    private ChunkedMessage startMessage(SMTPSession session) {
+        Response response = dataCmdHandler.startMessage(session, DATA_REQUEST);
+        if (!SMTPRetCode.DATA_READY.equals(response.getRetCode())) {
+            return ChunkedMessage.rejected(response);
+        }
+        session.popLineHandler();
+        return ChunkedMessage.accepted(dataCmdHandler.getLineHandler(), dataCmdHandler.getChunkHandler());
+    }
+
+    private Response endChunk(SMTPSession session, ChunkedMessage message, boolean last) {
+        int pushedLineHandlerCount = session.getPushedLineHandlerCount();
+        Response response;
+        if (last) {
+            session.removeAttachment(CHUNKED_MESSAGE, ProtocolSession.State.Transaction);
+            response = message.end(session);
+        } else {
+            response = message.failure.orElseGet(() -> new SMTPResponse(SMTPRetCode.MAIL_OK,
+                DSNStatus.getStatus(DSNStatus.SUCCESS, DSNStatus.UNDEFINED_STATUS) + " " + message.receivedOctets + " octets received"));
+        }
+        // The DATA line handler pops the current line handler once the message is received
+        if (pushedLineHandlerCount > 0 && session.getPushedLineHandlerCount() == pushedLineHandlerCount) {
+            session.popLineHandler();
+        }
+        return response;
+    }
+
+    private static class Chunk {
+        private static final Splitter ARGUMENT_SPLITTER = Splitter.on(' ').omitEmptyStrings().trimResults();
+
+        static Optional<Chunk> parse(String argument) {
+            if (argument == null) {
+                return Optional.empty();
+            }
+            List<String> parts = ARGUMENT_SPLITTER.splitToList(argument);
+            if (parts.isEmpty() || parts.size() > 2) {
+                return Optional.empty();
+            }
+            boolean last = parts.size() == 2;
+            if (last && !parts.get(1).toUpperCase(Locale.US).equals(LAST)) {
+                return Optional.empty();
+            }
+            try {
+                long size = Long.parseLong(parts.get(0));
+                if (size < 0) {
+                    return Optional.empty();
+                }
+                return Optional.of(new Chunk(size, last));
+            } catch (NumberFormatException e) {
+                return Optional.empty();
+            }
+        }
+
+        private final long size;
+        private final boolean last;
+
+        private Chunk(long size, boolean last) {
+            this.size = size;
+            this.last = last;
+        }
+    }
+
+    @Override
+    public Collection<String> getImplCommands() {
+        return COMMANDS;
+    }
+
+    @Override
+    public List<String> getImplementedEsmtpFeatures(SMTPSession session) {
+        return ESMTP_FEATURES;
+    }
+
+    @Override
+    public List<Class<?>> getMarkerInterfaces() {
+        List<Class<?>> classes = new LinkedList<>();
+        classes.add(CommandHandler.class);
+        classes.add(LineHandler.class);
+        return classes;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void wireExtensions(Class<?> interfaceName, List<?> extension) throws WiringException {
+        if (CommandHandler.class.equals(interfaceName)) {
+            dataCmdHandler = extension.stream()
+                .filter(DataCmdHandler.class::isInstance)
+                .map(DataCmdHandler.class::cast)
+                .findFirst()
+                .orElseThrow(() -> new WiringException("BDAT requires a DATA command handler"));
+        } else if (LineHandler.class.equals(interfaceName)) {
+            if (extension.isEmpty()) {
+                throw new WiringException("BDAT requires a line handler to dispatch commands");
+            }
+            commandLineHandler = (LineHandler<SMTPSession>) extension.get(extension.size() - 1);
+        }
+    }
+}
@@ -61,6 +61,7 @@ public class DataCmdHandler implements CommandHandler<SMTPSession>, ExtensibleHa
     private static final Response NO_SENDER = new SMTPResponse(SMTPRetCode.BAD_SEQUENCE, DSNStatus.getStatus(DSNStatus.PERMANENT,DSNStatus.DELIVERY_OTHER) + " No sender specified").immutable();
     private static final Response UNEXPECTED_ARG = new SMTPResponse(SMTPRetCode.SYNTAX_ERROR_COMMAND_UNRECOGNIZED, DSNStatus.getStatus(DSNStatus.PERMANENT,DSNStatus.DELIVERY_INVALID_ARG) + " Unexpected argument provided with DATA command").immutable();
     private static final Response DATA_READY = new SMTPResponse(SMTPRetCode.DATA_READY, "Ok Send data ending with <CRLF>.<CRLF>").immutable();
+    private static final Response DATA_DURING_BDAT = new SMTPResponse(SMTPRetCode.BAD_SEQUENCE, DSNStatus.getStatus(DSNStatus.PERMANENT,DSNStatus.DELIVERY_INVALID_CMD) + " DATA can not be used in a transaction started with BDAT").immutable();
     private static final Collection<String> COMMANDS = ImmutableSet.of("DATA");
 
     public static final class DataConsumerLineHandler implements LineHandler<SMTPSession> {
@@ -111,6 +112,27 @@ public class DataCmdHandler implements CommandHandler<SMTPSession>, ExtensibleHa
 
         }
     }
+
+    public static final class DataChunkFilterWrapper implements DataChunkHandler {
+
+        private final DataLineFilter filter;
+        private final DataChunkHandler next;
+
+        public DataChunkFilterWrapper(DataLineFilter filter, DataChunkHandler next) {
+            this.filter = filter;
+            this.next = next;
+        }
+
+        @Override
+        public Response onChunk(SMTPSession session, ByteBuffer chunk) {
+            return filter.onChunk(session, chunk, next);
+        }
+    }
+
+    /**
+     * Discards chunks not written by any filter
+     */
+    private static final DataChunkHandler DATA_CHUNK_CONSUMER = (session, chunk) -> null;
    
     public static final ProtocolSession.AttachmentKey<MailEnvelope> MAILENV = ProtocolSession.AttachmentKey.of("MAILENV", MailEnvelope.class);
 
@@ -122,12 +144,28 @@ public class DataCmdHandler implements CommandHandler<SMTPSession>, ExtensibleHa
     }
 
     private LineHandler<SMTPSession> lineHandler;
+    private DataChunkHandler chunkHandler;
 
     /**
      * process DATA command
      */
     @Override
     public Response onCommand(SMTPSession session, Request request) {
+        if (BdatCmdHandler.isReceivingChunks(session)) {
+            return DATA_DURING_BDAT;
+        }
+        Response response = startMessage(session, request);
+        if (SMTPRetCode.DATA_READY.equals(response.getRetCode())) {
+            // Before answering, as the client sends the message content once answered
+            session.startReceivingDataContent();
+        }
+        return response;
+    }
+
+    /**
+     * Run the DATA command checks, then push the line handler receiving the message content
+     */
+    Response startMessage(SMTPSession session, Request request) {
         TimeMetric timeMetric = metricFactory.timer("SMTP-" + request.getCommand());
         session.stopDetectingCommandInjection();
         try (Closeable closeable =
@@ -196,11 +234,14 @@ public class DataCmdHandler implements CommandHandler<SMTPSession>, ExtensibleHa
         if (DataLineFilter.class.equals(interfaceName)) {
 
             LineHandler<SMTPSession> lineHandler = new DataConsumerLineHandler();
+            DataChunkHandler chunkHandler = DATA_CHUNK_CONSUMER;
             for (int i = extension.size() - 1; i >= 0; i--) {
                 lineHandler = new DataLineFilterWrapper((DataLineFilter) extension.get(i), lineHandler);
+                chunkHandler = new DataChunkFilterWrapper((DataLineFilter) extension.get(i), chunkHandler);
             }
 
             this.lineHandler = lineHandler;
+            this.chunkHandler = chunkHandler;
         }
     }
 
@@ -220,4 +261,8 @@ public class DataCmdHandler implements CommandHandler<SMTPSession>, ExtensibleHa
         return lineHandler;
     }
 
+    protected DataChunkHandler getChunkHandler() {
+        return chunkHandler;
+    }
+
 }
@@ -38,4 +38,15 @@ public interface DataLineFilter extends ProtocolHandler {
      * Handle line processing
      */
     Response onLine(SMTPSession session, ByteBuffer line, LineHandler<SMTPSession> next);
+
+    /**
+     * Handle octets of the message content received with BDAT. Unlike lines they are neither split on line delimiters
+     * nor dot-stuffed. The end of the message is still handed over to {@link #onLine(SMTPSession, ByteBuffer, LineHandler)}
+     * as an end of data line, once the last chunk is received.
+     *
+     * This implementation hands them over unchanged, filters writing the message content have to override it.
+     */
+    default Response onChunk(SMTPSession session, ByteBuffer chunk, DataChunkHandler next) {
+        return next.onChunk(session, chunk);
+    }
 }
\ No newline at end of file
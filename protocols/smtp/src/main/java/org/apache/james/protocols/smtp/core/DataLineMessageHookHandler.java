@@ -78,14 +78,13 @@ public class DataLineMessageHookHandler implements DataLineFilter, ExtensibleHan
                 
             // DotStuffing.
             } else if (c == 46 && line.get() == 46) {
-                byte[] bline = readBytes(line);
-                out.write(bline,1,bline.length - 1);
+                writeLine(out, line, 1);
             // Standard write
             } else {
                 // TODO: maybe we should handle the Header/Body recognition here
                 // and if needed let a filter to cache the headers to apply some
                 // transformation before writing them to output.
-                out.write(readBytes(line));
+                writeLine(out, line, 0);
             }
             out.flush();
         } catch (IOException e) {
@@ -97,6 +96,24 @@ public class DataLineMessageHookHandler implements DataLineFilter, ExtensibleHan
         return null;
     }
 
+    @Override
+    public Response onChunk(SMTPSession session, ByteBuffer chunk, DataChunkHandler next) {
+        MailEnvelope env = session.getAttachment(DataCmdHandler.MAILENV, ProtocolSession.State.Transaction)
+            .orElseThrow(() -> new RuntimeException("'" + DataCmdHandler.MAILENV.asString() + "' has not been filled."));
+
+        OutputStream out = getMessageOutputStream(env);
+        try {
+            writeLine(out, chunk, 0);
+            out.flush();
+        } catch (IOException e) {
+            LOGGER.error("Unknown error occurred while processing BDAT.", e);
+
+            session.resetState();
+            return ERROR_PROCESSING_MESSAGE;
+        }
+        return null;
+    }
+
     private OutputStream getMessageOutputStream(MailEnvelope env) {
         try {
             return env.getMessageOutputStream();
@@ -105,16 +122,21 @@ public class DataLineMessageHookHandler implements DataLineFilter, ExtensibleHan
         }
     }
 
-    private byte[] readBytes(ByteBuffer line) {
+    /**
+     * Writes the line, or the chunk, skipping its first skippedBytes bytes. Heap buffers are written in place, while direct buffers
+     * need a copy as {@link OutputStream} only accepts arrays.
+     */
+    private void writeLine(OutputStream out, ByteBuffer line, int skippedBytes) throws IOException {
         line.rewind();
-        byte[] bline;
+        int length = line.remaining() - skippedBytes;
         if (line.hasArray()) {
-            bline = line.array();
+            out.write(line.array(), line.arrayOffset() + line.position() + skippedBytes, length);
         } else {
-            bline = new byte[line.remaining()];
+            byte[] bline = new byte[length];
+            line.position(line.position() + skippedBytes);
             line.get(bline);
+            out.write(bline);
         }
-        return bline;
     }
 
     protected Response processExtensions(SMTPSession session, MailEnvelope mail) {
@@ -21,7 +21,6 @@
 
 package org.apache.james.protocols.smtp.core.esmtp;
 
-import java.io.UnsupportedEncodingException;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
@@ -85,20 +84,7 @@ public class AuthCmdHandler
 
         @Override
         public Response onLine(SMTPSession session, ByteBuffer line) {
-            String charset = session.getCharset().name();
-            try {
-                byte[] l;
-                if (line.hasArray()) {
-                    l = line.array();
-                } else {
-                    l = new byte[line.remaining()];
-                    line.get(l);
-                }
-                return handleCommand(session, new String(l, charset));
-            } catch (UnsupportedEncodingException e) {
-                throw new RuntimeException("No " + charset + " support!");
-            }
-           
+            return handleCommand(session, session.getCharset().decode(line.duplicate()).toString());
         }
 
         private Response handleCommand(SMTPSession session, String line) {
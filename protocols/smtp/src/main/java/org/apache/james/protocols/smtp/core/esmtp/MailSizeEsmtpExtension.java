@@ -34,6 +34,7 @@ import org.apache.james.protocols.smtp.MailEnvelope;
 import org.apache.james.protocols.smtp.SMTPResponse;
 import org.apache.james.protocols.smtp.SMTPRetCode;
 import org.apache.james.protocols.smtp.SMTPSession;
+import org.apache.james.protocols.smtp.core.DataChunkHandler;
 import org.apache.james.protocols.smtp.core.DataLineFilter;
 import org.apache.james.protocols.smtp.dsn.DSNStatus;
 import org.apache.james.protocols.smtp.hook.HookResult;
@@ -154,13 +155,7 @@ public class MailSizeEsmtpExtension implements MailParametersHook, EhloExtension
                 return next.onLine(session, line);
             } else {
                 line.rewind();
-                Long newSize = session.getAttachment(CURRENT_SIZE, State.Transaction)
-                    .map(currentSize -> Long.valueOf(currentSize.intValue() + line.remaining()))
-                    .orElseGet(() -> Long.valueOf(line.remaining()));
-
-                session.setAttachment(CURRENT_SIZE, newSize, State.Transaction);
-
-                if (session.getConfiguration().getMaxMessageSize() > 0 && newSize.intValue() > session.getConfiguration().getMaxMessageSize()) {
+                if (isMaxMessageSizeExceeded(session, line.remaining())) {
                     // Add an item to the state to suppress
                     // logging of extra lines of data
                     // that are sent after the size limit has
@@ -176,6 +171,30 @@ public class MailSizeEsmtpExtension implements MailParametersHook, EhloExtension
         }
     }
 
+    @Override
+    public Response onChunk(SMTPSession session, ByteBuffer chunk, DataChunkHandler next) {
+        Optional<Boolean> failed = session.getAttachment(MESG_FAILED, State.Transaction);
+        // The failure is reported once the last chunk is received
+        if (failed.isPresent() && failed.get()) {
+            return null;
+        }
+        if (isMaxMessageSizeExceeded(session, chunk.remaining())) {
+            session.setAttachment(MESG_FAILED, Boolean.TRUE, State.Transaction);
+            return null;
+        }
+        return next.onChunk(session, chunk);
+    }
+
+    private boolean isMaxMessageSizeExceeded(SMTPSession session, int receivedOctets) {
+        Long newSize = session.getAttachment(CURRENT_SIZE, State.Transaction)
+            .map(currentSize -> Long.valueOf(currentSize.intValue() + receivedOctets))
+            .orElseGet(() -> Long.valueOf(receivedOctets));
+
+        session.setAttachment(CURRENT_SIZE, newSize, State.Transaction);
+
+        return session.getConfiguration().getMaxMessageSize() > 0 && newSize.intValue() > session.getConfiguration().getMaxMessageSize();
+    }
+
     private boolean isDataTerminated(ByteBuffer line) {
         return line.remaining() == SINGLE_CHARACTER_LINE && line.get() == DOT_BYTE;
     }
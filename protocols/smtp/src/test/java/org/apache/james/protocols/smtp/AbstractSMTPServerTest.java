@@ -23,7 +23,9 @@ import static org.assertj.core.api.Assertions.assertThat;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.net.InetSocketAddress;
+import java.net.Socket;
 import java.net.SocketException;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
@@ -154,6 +156,161 @@ public abstract class AbstractSMTPServerTest {
         client.disconnect();
     }
     
+    @Test
+    public void testBdatDelivery() throws Exception {
+        TestMessageHook hook = new TestMessageHook();
+        ProtocolServer server = null;
+        try {
+            server = createServer(createProtocol(hook));
+            server.bind();
+
+            InetSocketAddress bindedAddress = new ProtocolServerUtils(server).retrieveBindedAddress();
+            String firstChunk = MSG1.substring(0, 22);
+            String lastChunk = MSG1.substring(22);
+
+            try (Socket socket = createSocket(bindedAddress);
+                 BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII))) {
+                OutputStream out = socket.getOutputStream();
+                assertThat(reader.readLine()).startsWith("220");
+
+                writeAndAssertReply(out, reader, "EHLO localhost\r\n", "250");
+                writeAndAssertReply(out, reader, "MAIL FROM:<" + SENDER + ">\r\n", "250");
+                writeAndAssertReply(out, reader, "RCPT TO:<" + RCPT1 + ">\r\n", "250");
+                writeAndAssertReply(out, reader, "RCPT TO:<" + RCPT2 + ">\r\n", "250");
+                writeAndAssertReply(out, reader, "BDAT " + firstChunk.length() + "\r\n" + firstChunk, "250");
+                writeAndAssertReply(out, reader, "BDAT " + lastChunk.length() + " LAST\r\n" + lastChunk, "250");
+                writeAndAssertReply(out, reader, "QUIT\r\n", "221");
+            }
+
+            Iterator<MailEnvelope> queued = hook.getQueued().iterator();
+            assertThat(queued.hasNext()).isTrue();
+            checkEnvelope(queued.next(), SENDER, Arrays.asList(RCPT1, RCPT2), MSG1);
+            assertThat(queued.hasNext()).isFalse();
+        } finally {
+            if (server != null) {
+                server.unbind();
+            }
+        }
+    }
+
+    @Test
+    public void testBdatShouldSupportPipelinedChunksAndDotLines() throws Exception {
+        TestMessageHook hook = new TestMessageHook();
+        ProtocolServer server = null;
+        try {
+            server = createServer(createProtocol(hook));
+            server.bind();
+
+            InetSocketAddress bindedAddress = new ProtocolServerUtils(server).retrieveBindedAddress();
+            String message = "Subject: Testmessage\r\n\r\n.\r\n..dots\r\nThis is a message\r\n";
+            String firstChunk = message.substring(0, 33);
+            String lastChunk = message.substring(33);
+
+            try (Socket socket = createSocket(bindedAddress);
+                 BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII))) {
+                OutputStream out = socket.getOutputStream();
+                assertThat(reader.readLine()).startsWith("220");
+
+                writeAndAssertReply(out, reader, "EHLO localhost\r\n", "250");
+                out.write(("MAIL FROM:<" + SENDER + ">\r\n"
+                    + "RCPT TO:<" + RCPT1 + ">\r\n"
+                    + "BDAT " + firstChunk.length() + "\r\n" + firstChunk
+                    + "BDAT " + lastChunk.length() + " LAST\r\n" + lastChunk).getBytes(StandardCharsets.US_ASCII));
+                out.flush();
+
+                assertThat(reader.readLine()).startsWith("250");
+                assertThat(reader.readLine()).startsWith("250");
+                assertThat(reader.readLine()).startsWith("250");
+                assertThat(reader.readLine()).startsWith("250");
+                writeAndAssertReply(out, reader, "QUIT\r\n", "221");
+            }
+
+            Iterator<MailEnvelope> queued = hook.getQueued().iterator();
+            assertThat(queued.hasNext()).isTrue();
+            checkEnvelope(queued.next(), SENDER, Arrays.asList(RCPT1), message);
+            assertThat(queued.hasNext()).isFalse();
+        } finally {
+            if (server != null) {
+                server.unbind();
+            }
+        }
+    }
+
+    @Test
+    public void testBdatShouldConsumeChunkWhenNoRecipient() throws Exception {
+        TestMessageHook hook = new TestMessageHook();
+        ProtocolServer server = null;
+        try {
+            server = createServer(createProtocol(hook));
+            server.bind();
+
+            InetSocketAddress bindedAddress = new ProtocolServerUtils(server).retrieveBindedAddress();
+
+            try (Socket socket = createSocket(bindedAddress);
+                 BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII))) {
+                OutputStream out = socket.getOutputStream();
+                assertThat(reader.readLine()).startsWith("220");
+
+                writeAndAssertReply(out, reader, "EHLO localhost\r\n", "250");
+                writeAndAssertReply(out, reader, "MAIL FROM:<" + SENDER + ">\r\n", "250");
+                writeAndAssertReply(out, reader, "BDAT " + MSG1.length() + " LAST\r\n" + MSG1, "503");
+                writeAndAssertReply(out, reader, "NOOP\r\n", "250");
+            }
+
+            assertThat(hook.getQueued()).isEmpty();
+        } finally {
+            if (server != null) {
+                server.unbind();
+            }
+        }
+    }
+
+    @Test
+    public void testDataShouldBeRejectedDuringBdat() throws Exception {
+        TestMessageHook hook = new TestMessageHook();
+        ProtocolServer server = null;
+        try {
+            server = createServer(createProtocol(hook));
+            server.bind();
+
+            InetSocketAddress bindedAddress = new ProtocolServerUtils(server).retrieveBindedAddress();
+            String firstChunk = MSG1.substring(0, 22);
+            String lastChunk = MSG1.substring(22);
+
+            try (Socket socket = createSocket(bindedAddress);
+                 BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII))) {
+                OutputStream out = socket.getOutputStream();
+                assertThat(reader.readLine()).startsWith("220");
+
+                writeAndAssertReply(out, reader, "EHLO localhost\r\n", "250");
+                writeAndAssertReply(out, reader, "MAIL FROM:<" + SENDER + ">\r\n", "250");
+                writeAndAssertReply(out, reader, "RCPT TO:<" + RCPT1 + ">\r\n", "250");
+                writeAndAssertReply(out, reader, "BDAT " + firstChunk.length() + "\r\n" + firstChunk, "250");
+                writeAndAssertReply(out, reader, "DATA\r\n", "503");
+                writeAndAssertReply(out, reader, "BDAT " + lastChunk.length() + " LAST\r\n" + lastChunk, "250");
+            }
+
+            Iterator<MailEnvelope> queued = hook.getQueued().iterator();
+            assertThat(queued.hasNext()).isTrue();
+            checkEnvelope(queued.next(), SENDER, Arrays.asList(RCPT1), MSG1);
+            assertThat(queued.hasNext()).isFalse();
+        } finally {
+            if (server != null) {
+                server.unbind();
+            }
+        }
+    }
+
+    private void writeAndAssertReply(OutputStream out, BufferedReader reader, String data, String expectedCode) throws IOException {
+        out.write(data.getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+        String reply = reader.readLine();
+        while (reply.startsWith(expectedCode + "-")) {
+            reply = reader.readLine();
+        }
+        assertThat(reply).startsWith(expectedCode + " ");
+    }
+
     @Test
     public void testStartTlsNotSupported() throws Exception {
         TestMessageHook hook = new TestMessageHook();
@@ -941,6 +1098,10 @@ public abstract class AbstractSMTPServerTest {
         return new SMTPClient();
     }
 
+    protected Socket createSocket(InetSocketAddress address) throws IOException {
+        return new Socket(address.getAddress(), address.getPort());
+    }
+
     protected abstract ProtocolServer createServer(Protocol protocol);
 
     
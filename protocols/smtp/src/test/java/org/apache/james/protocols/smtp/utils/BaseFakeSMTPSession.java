@@ -52,6 +52,26 @@ public class BaseFakeSMTPSession implements SMTPSession {
         throw new UnsupportedOperationException("Unimplemented Stub Method");
     }
 
+    @Override
+    public boolean isReceivingDataContent() {
+        throw new UnsupportedOperationException("Unimplemented Stub Method");
+    }
+
+    @Override
+    public void startReceivingDataContent() {
+        throw new UnsupportedOperationException("Unimplemented Stub Method");
+    }
+
+    @Override
+    public void stopReceivingDataContent() {
+        throw new UnsupportedOperationException("Unimplemented Stub Method");
+    }
+
+    @Override
+    public void writeImmediateResponse(Response response) {
+        throw new UnsupportedOperationException("Unimplemented Stub Method");
+    }
+
     @Override
     public Map<AttachmentKey<?>, Object> getConnectionState() {
         throw new UnsupportedOperationException("Unimplemented Stub Method");
@@ -23,6 +23,8 @@ import java.nio.charset.StandardCharsets;
 
 import org.reactivestreams.Publisher;
 
+import reactor.core.publisher.Mono;
+
 public interface BlobStore {
 
     enum StoragePolicy {
@@ -41,6 +43,16 @@ public interface BlobStore {
 
     Publisher<byte[]> readBytes(BucketName bucketName, BlobId blobId);
 
+    /**
+     * @see BlobStoreDAO#readBytes(BucketName, BlobId, long, long)
+     */
+    default Publisher<byte[]> readBytes(BucketName bucketName, BlobId blobId, long offset, long length) {
+        ByteRange range = ByteRange.of(offset, length);
+
+        return Mono.from(readBytes(bucketName, blobId))
+            .map(range::slice);
+    }
+
     InputStream read(BucketName bucketName, BlobId blobId);
 
     BucketName getDefaultBucketName();
@@ -26,6 +26,8 @@ import org.reactivestreams.Publisher;
 
 import com.google.common.io.ByteSource;
 
+import reactor.core.publisher.Mono;
+
 public interface BlobStoreDAO {
 
     /**
@@ -46,6 +48,23 @@ public interface BlobStoreDAO {
      */
     Publisher<byte[]> readBytes(BucketName bucketName, BlobId blobId);
 
+    /**
+     * Reads <code>length</code> bytes of a Blob, starting at <code>offset</code>.
+     *
+     * Implementations are expected to only retrieve the requested range from their backend. This default
+     * implementation reads the whole Blob.
+     *
+     * @return a Mono containing the requested bytes, fewer if the blob ends before, or
+     *  an ObjectNotFoundException in its error channel when the blobId or the bucket is not found
+     *  or an IOObjectStoreException when an unexpected IO error occurs
+     */
+    default Publisher<byte[]> readBytes(BucketName bucketName, BlobId blobId, long offset, long length) {
+        ByteRange range = ByteRange.of(offset, length);
+
+        return Mono.from(readBytes(bucketName, blobId))
+            .map(range::slice);
+    }
+
 
     /**
      * Save the blob with the provided blob id, and overwrite the previous blob with the same id if it already exists
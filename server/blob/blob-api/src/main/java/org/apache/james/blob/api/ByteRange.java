@@ -0,0 +1,111 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.blob.api;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+
+/**
+ * <code>length</code> bytes of a blob, starting at <code>offset</code>.
+ */
+public final class ByteRange {
+    public static ByteRange of(long offset, long length) {
+        return new ByteRange(offset, length);
+    }
+
+    private final long offset;
+    private final long length;
+
+    private ByteRange(long offset, long length) {
+        Preconditions.checkArgument(offset >= 0, "`offset` cannot be negative");
+        Preconditions.checkArgument(length >= 0, "`length` cannot be negative");
+
+        this.offset = offset;
+        this.length = length;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public long getLength() {
+        return length;
+    }
+
+    /**
+     * @return the position following the last byte of this range, saturated to {@link Long#MAX_VALUE}
+     */
+    public long getEnd() {
+        long end = offset + length;
+        if (end < 0) {
+            return Long.MAX_VALUE;
+        }
+        return end;
+    }
+
+    /**
+     * @return the bytes of this range within the given content, fewer if the content ends before
+     */
+    public byte[] slice(byte[] content) {
+        return slice(content, 0);
+    }
+
+    /**
+     * @param content the bytes of the blob, starting at <code>contentOffset</code>
+     * @return the bytes of this range within the given content, fewer if the content ends before
+     */
+    public byte[] slice(byte[] content, long contentOffset) {
+        Preconditions.checkArgument(contentOffset <= offset, "`content` should start before the range");
+
+        long contentEnd = contentOffset + content.length;
+        int from = (int) (Math.min(offset, contentEnd) - contentOffset);
+        int to = (int) (Math.min(getEnd(), contentEnd) - contentOffset);
+        if (from == 0 && to == content.length) {
+            return content;
+        }
+        return Arrays.copyOfRange(content, from, to);
+    }
+
+    @Override
+    public final boolean equals(Object o) {
+        if (o instanceof ByteRange) {
+            ByteRange that = (ByteRange) o;
+            return Objects.equals(this.offset, that.offset)
+                && Objects.equals(this.length, that.length);
+        }
+        return false;
+    }
+
+    @Override
+    public final int hashCode() {
+        return Objects.hash(offset, length);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("offset", offset)
+            .add("length", length)
+            .toString();
+    }
+}
@@ -0,0 +1,81 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.blob.api;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+import nl.jqno.equalsverifier.EqualsVerifier;
+
+class ByteRangeTest {
+    private static final byte[] CONTENT = "0123456789".getBytes(US_ASCII);
+
+    @Test
+    void shouldMatchBeanContract() {
+        EqualsVerifier.forClass(ByteRange.class)
+            .verify();
+    }
+
+    @Test
+    void ofShouldThrowWhenNegativeOffset() {
+        assertThatThrownBy(() -> ByteRange.of(-1, 10))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void ofShouldThrowWhenNegativeLength() {
+        assertThatThrownBy(() -> ByteRange.of(0, -1))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void getEndShouldNotOverflow() {
+        assertThat(ByteRange.of(10, Long.MAX_VALUE).getEnd()).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void sliceShouldReturnTheBytesOfTheRange() {
+        assertThat(ByteRange.of(2, 3).slice(CONTENT)).isEqualTo("234".getBytes(US_ASCII));
+    }
+
+    @Test
+    void sliceShouldBeTruncatedAtTheEndOfTheContent() {
+        assertThat(ByteRange.of(8, 10).slice(CONTENT)).isEqualTo("89".getBytes(US_ASCII));
+    }
+
+    @Test
+    void sliceShouldBeEmptyWhenStartingAfterTheContent() {
+        assertThat(ByteRange.of(12, 10).slice(CONTENT)).isEmpty();
+    }
+
+    @Test
+    void sliceShouldHandleContentNotStartingAtTheBeginningOfTheBlob() {
+        assertThat(ByteRange.of(105, 3).slice(CONTENT, 100)).isEqualTo("567".getBytes(US_ASCII));
+    }
+
+    @Test
+    void sliceShouldThrowWhenTheContentStartsAfterTheRange() {
+        assertThatThrownBy(() -> ByteRange.of(5, 3).slice(CONTENT, 6))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
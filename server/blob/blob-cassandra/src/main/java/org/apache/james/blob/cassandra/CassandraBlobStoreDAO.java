@@ -32,6 +32,7 @@ import org.apache.james.backends.cassandra.init.configuration.CassandraConfigura
 import org.apache.james.blob.api.BlobId;
 import org.apache.james.blob.api.BlobStoreDAO;
 import org.apache.james.blob.api.BucketName;
+import org.apache.james.blob.api.ByteRange;
 import org.apache.james.blob.api.ObjectNotFoundException;
 import org.apache.james.blob.api.ObjectStoreIOException;
 import org.apache.james.util.DataChunker;
@@ -40,6 +41,7 @@ import org.apache.james.util.ReactorUtils;
 import com.github.fge.lambdas.Throwing;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
 import com.google.common.io.ByteSource;
 
 import reactor.core.publisher.Flux;
@@ -47,6 +49,7 @@ import reactor.core.publisher.Mono;
 
 public class CassandraBlobStoreDAO implements BlobStoreDAO {
     public static final boolean LAZY = false;
+    private static final byte[] EMPTY_BYTES = new byte[0];
 
     private final CassandraDefaultBucketDAO defaultBucketDAO;
     private final CassandraBucketDAO bucketDAO;
@@ -77,6 +80,49 @@ public class CassandraBlobStoreDAO implements BlobStoreDAO {
             .map(this::byteBuffersToBytesArray);
     }
 
+    /**
+     * Only the parts covering the range are read. All parts but the last one having the same size, it is known
+     * from the first part. The part size is not taken from the configuration as it could have changed since the blob
+     * was saved.
+     */
+    @Override
+    public Mono<byte[]> readBytes(BucketName bucketName, BlobId blobId, long offset, long length) {
+        ByteRange range = ByteRange.of(offset, length);
+
+        return selectRowCount(bucketName, blobId)
+            .single()
+            .onErrorMap(NoSuchElementException.class, e ->
+                new ObjectNotFoundException(String.format("Could not retrieve blob metadata for %s", blobId.asString())))
+            .flatMap(rowCount -> {
+                if (rowCount == 0 || range.getLength() == 0) {
+                    return Mono.just(EMPTY_BYTES);
+                }
+                return readPartOrFail(bucketName, blobId, 0)
+                    .flatMap(firstPart -> readRange(bucketName, blobId, range, rowCount, firstPart));
+            });
+    }
+
+    private Mono<byte[]> readRange(BucketName bucketName, BlobId blobId, ByteRange range, int rowCount, ByteBuffer firstPart) {
+        int partSize = firstPart.remaining();
+        if (partSize == 0 || rowCount == 1) {
+            return Mono.just(range.slice(byteBuffersToBytesArray(ImmutableList.of(firstPart))));
+        }
+        long firstIndex = range.getOffset() / partSize;
+        long lastIndex = Math.min((range.getEnd() - 1) / partSize, rowCount - 1);
+        if (firstIndex > lastIndex) {
+            return Mono.just(EMPTY_BYTES);
+        }
+        return Flux.range((int) firstIndex, (int) (lastIndex - firstIndex + 1))
+            .concatMap(partIndex -> {
+                if (partIndex == 0) {
+                    return Mono.just(firstPart);
+                }
+                return readPartOrFail(bucketName, blobId, partIndex);
+            })
+            .collectList()
+            .map(parts -> range.slice(byteBuffersToBytesArray(parts), firstIndex * partSize));
+    }
+
     @Override
     public Mono<Void> save(BucketName bucketName, BlobId blobId, byte[] data) {
         Preconditions.checkNotNull(data);
@@ -184,10 +230,14 @@ public class CassandraBlobStoreDAO implements BlobStoreDAO {
             .onErrorMap(NoSuchElementException.class, e ->
                 new ObjectNotFoundException(String.format("Could not retrieve blob metadata for %s", blobId)))
             .flatMapMany(rowCount -> Flux.range(0, rowCount)
-                .concatMap(partIndex -> readPart(bucketName, blobId, partIndex)
-                    .single()
-                    .onErrorMap(NoSuchElementException.class, e ->
-                        new ObjectNotFoundException(String.format("Missing blob part for blobId %s and position %d", blobId.asString(), partIndex)))));
+                .concatMap(partIndex -> readPartOrFail(bucketName, blobId, partIndex)));
+    }
+
+    private Mono<ByteBuffer> readPartOrFail(BucketName bucketName, BlobId blobId, int partIndex) {
+        return readPart(bucketName, blobId, partIndex)
+            .single()
+            .onErrorMap(NoSuchElementException.class, e ->
+                new ObjectNotFoundException(String.format("Missing blob part for blobId %s and position %d", blobId.asString(), partIndex)));
     }
 
     private byte[] byteBuffersToBytesArray(List<ByteBuffer> byteBuffers) {
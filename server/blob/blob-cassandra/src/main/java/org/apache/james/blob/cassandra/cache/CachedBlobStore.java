@@ -34,6 +34,7 @@ import org.apache.commons.io.IOUtils;
 import org.apache.james.blob.api.BlobId;
 import org.apache.james.blob.api.BlobStore;
 import org.apache.james.blob.api.BucketName;
+import org.apache.james.blob.api.ByteRange;
 import org.apache.james.blob.api.ObjectNotFoundException;
 import org.apache.james.blob.api.ObjectStoreIOException;
 import org.apache.james.metrics.api.Metric;
@@ -172,6 +173,26 @@ public class CachedBlobStore implements BlobStore {
                 }));
     }
 
+    /**
+     * Cached blobs are sliced. Otherwise only the range is read from the backend, and is not cached as
+     * the blob is not fully known.
+     */
+    @Override
+    public Mono<byte[]> readBytes(BucketName bucketName, BlobId blobId, long offset, long length) {
+        ByteRange range = ByteRange.of(offset, length);
+        Mono<byte[]> readRangeFromBackend = Mono.fromCallable(() -> metricFactory.timer(BLOBSTORE_BACKEND_LATENCY_METRIC_NAME))
+            .flatMap(timer -> Mono.from(backend.readBytes(bucketName, blobId, offset, length))
+                .doOnSuccess(any -> timer.stopAndPublish())
+                .doOnError(ObjectNotFoundException.class, any -> timer.stopAndPublish()));
+
+        if (getDefaultBucketName().equals(bucketName)) {
+            return readFromCache(blobId)
+                .map(range::slice)
+                .switchIfEmpty(readRangeFromBackend);
+        }
+        return readRangeFromBackend;
+    }
+
     @Override
     public Mono<BlobId> save(BucketName bucketName, byte[] bytes, StoragePolicy storagePolicy) {
         return Mono.from(backend.save(bucketName, bytes, storagePolicy))
@@ -35,6 +35,7 @@ import org.apache.commons.io.IOUtils;
 import org.apache.james.blob.api.BlobId;
 import org.apache.james.blob.api.BlobStoreDAO;
 import org.apache.james.blob.api.BucketName;
+import org.apache.james.blob.api.ByteRange;
 import org.apache.james.blob.api.ObjectNotFoundException;
 import org.apache.james.blob.api.ObjectStoreIOException;
 import org.apache.james.lifecycle.api.Startable;
@@ -74,6 +75,7 @@ import software.amazon.awssdk.services.s3.model.NoSuchBucketException;
 import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
 import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
 import software.amazon.awssdk.services.s3.model.S3Object;
 
 public class S3BlobStoreDAO implements BlobStoreDAO, Startable, Closeable {
@@ -85,6 +87,7 @@ public class S3BlobStoreDAO implements BlobStoreDAO, Startable, Closeable {
     private static final Duration FOREVER = Duration.ofMillis(Long.MAX_VALUE);
     private static final boolean LAZY = false;
     private static final int MAX_RETRIES = 5;
+    private static final int RANGE_NOT_SATISFIABLE = 416;
 
     private final InstrumentedPool<S3AsyncClient> clientPool;
     private final BucketNameResolver bucketNameResolver;
@@ -196,6 +199,34 @@ public class S3BlobStoreDAO implements BlobStoreDAO, Startable, Closeable {
             .map(BytesWrapper::asByteArray);
     }
 
+    /**
+     * Relies on a HTTP Range request. At least one byte is requested, so that missing blobs are reported even
+     * for empty ranges.
+     */
+    @Override
+    public Mono<byte[]> readBytes(BucketName bucketName, BlobId blobId, long offset, long length) {
+        BucketName resolvedBucketName = bucketNameResolver.resolve(bucketName);
+        ByteRange range = ByteRange.of(offset, length);
+        long lastByte = Math.max(range.getEnd() - 1, offset);
+
+        return clientPool.withPoolable(client -> Mono.fromFuture(() ->
+                client.getObject(
+                    builder -> builder.bucket(resolvedBucketName.asString()).key(blobId.asString())
+                        .range("bytes=" + offset + "-" + lastByte),
+                    AsyncResponseTransformer.toBytes())))
+            .next()
+            .onErrorMap(NoSuchBucketException.class, e -> new ObjectNotFoundException("Bucket not found " + resolvedBucketName.asString(), e))
+            .onErrorMap(NoSuchKeyException.class, e -> new ObjectNotFoundException("Blob not found " + resolvedBucketName.asString(), e))
+            .map(BytesWrapper::asByteArray)
+            .map(bytes -> range.slice(bytes, offset))
+            .onErrorResume(S3Exception.class, e -> {
+                if (e.statusCode() == RANGE_NOT_SATISFIABLE) {
+                    return Mono.just(new byte[0]);
+                }
+                return Mono.error(e);
+            });
+    }
+
     @Override
     public Mono<Void> save(BucketName bucketName, BlobId blobId, byte[] data) {
         BucketName resolvedBucketName = bucketNameResolver.resolve(bucketName);
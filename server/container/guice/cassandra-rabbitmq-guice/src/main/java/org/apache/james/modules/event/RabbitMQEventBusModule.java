@@ -22,6 +22,7 @@ package org.apache.james.modules.event;
 import org.apache.james.event.json.EventSerializer;
 import org.apache.james.mailbox.events.EventBus;
 import org.apache.james.mailbox.events.MailboxIdRegistrationKey;
+import org.apache.james.mailbox.events.MailboxInvalidationRegistrationKey;
 import org.apache.james.mailbox.events.RabbitMQEventBus;
 import org.apache.james.mailbox.events.RegistrationKey;
 import org.apache.james.mailbox.events.RetryBackoffConfiguration;
@@ -42,8 +43,9 @@ public class RabbitMQEventBusModule extends AbstractModule {
         bind(RabbitMQEventBus.class).in(Scopes.SINGLETON);
         bind(EventBus.class).to(RabbitMQEventBus.class);
 
-        Multibinder.newSetBinder(binder(), RegistrationKey.Factory.class)
-            .addBinding().to(MailboxIdRegistrationKey.Factory.class);
+        Multibinder<RegistrationKey.Factory> registrationKeyFactories = Multibinder.newSetBinder(binder(), RegistrationKey.Factory.class);
+        registrationKeyFactories.addBinding().to(MailboxIdRegistrationKey.Factory.class);
+        registrationKeyFactories.addBinding().to(MailboxInvalidationRegistrationKey.Factory.class);
 
         bind(RetryBackoffConfiguration.class).toInstance(RetryBackoffConfiguration.DEFAULT);
     }
@@ -41,6 +41,7 @@ import org.jboss.netty.handler.stream.ChunkedStream;
  * {@link Channel}
  */
 public class ChannelImapResponseWriter implements ImapResponseWriter {
+    private static final int CHUNK_SIZE = 8192;
 
     private final Channel channel;
     private final boolean zeroCopy;
@@ -74,10 +75,12 @@ public class ChannelImapResponseWriter implements ImapResponseWriter {
                 if (zeroCopy && cp.get(SslHandler.class) == null && cp.get(ZlibEncoder.class) == null) {
                     channel.write(new DefaultFileRegion(fc, fc.position(), literal.size()));
                 } else {
-                    channel.write(new ChunkedNioFile(fc, 8192));
+                    channel.write(new ChunkedNioFile(fc, fc.position(), literal.size(), CHUNK_SIZE));
                 }
             } else {
-                channel.write(new ChunkedStream(literal.getInputStream()));
+                // Chunks are only read out of the stream when the channel is writable, see ChunkedWriteHandler. Streams
+                // reading the message content by ranges thus only read the next range once the client consumed the previous one
+                channel.write(new ChunkedStream(in, CHUNK_SIZE));
             }
         }
     }
@@ -38,9 +38,19 @@ public class IMAPMDCContext {
             .addContext(MDCBuilder.PROTOCOL, "IMAP")
             .addContext(MDCBuilder.IP, retrieveIp(ctx))
             .addContext(MDCBuilder.HOST, retrieveHost(ctx))
+            .addContext("outstandingBytes", retrieveOutstandingBytes(ctx))
             .build();
     }
 
+    /**
+     * Bytes written to this connection and not yet flushed, see {@link ImapWriteBackpressureHandler}
+     */
+    private static Long retrieveOutstandingBytes(ChannelHandlerContext ctx) {
+        return Optional.ofNullable(ctx.getPipeline().get(ImapWriteBackpressureHandler.class))
+            .map(ImapWriteBackpressureHandler::getOutstandingBytes)
+            .orElse(null);
+    }
+
     private static String retrieveIp(ChannelHandlerContext ctx) {
         SocketAddress remoteAddress = ctx.getChannel().getRemoteAddress();
         if (remoteAddress instanceof InetSocketAddress) {
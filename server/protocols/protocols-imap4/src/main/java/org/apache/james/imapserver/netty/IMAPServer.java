@@ -38,6 +38,7 @@ import org.apache.james.protocols.netty.ChannelGroupHandler;
 import org.apache.james.protocols.netty.ChannelHandlerFactory;
 import org.apache.james.protocols.netty.ConnectionLimitUpstreamHandler;
 import org.apache.james.protocols.netty.ConnectionPerIpLimitUpstreamHandler;
+import org.jboss.netty.bootstrap.ServerBootstrap;
 import org.jboss.netty.channel.ChannelPipeline;
 import org.jboss.netty.channel.ChannelPipelineFactory;
 import org.jboss.netty.channel.ChannelUpstreamHandler;
@@ -76,11 +77,15 @@ public class IMAPServer extends AbstractConfigurableAsyncServer implements ImapC
     private boolean plainAuthDisallowed;
     private int timeout;
     private int literalSizeLimit;
+    private int writeBufferHighWaterMark;
+    private int writeBufferLowWaterMark;
 
     public static final int DEFAULT_MAX_LINE_LENGTH = 65536; // Use a big default
     public static final int DEFAULT_IN_MEMORY_SIZE_LIMIT = 10485760; // Use 10MB as default
     public static final int DEFAULT_TIMEOUT = 30 * 60; // default timeout is 30 seconds
     public static final int DEFAULT_LITERAL_SIZE_LIMIT = 0;
+    public static final int DEFAULT_WRITE_BUFFER_HIGH_WATER_MARK = 64 * 1024;
+    public static final int DEFAULT_WRITE_BUFFER_LOW_WATER_MARK = 32 * 1024;
 
     public IMAPServer(ImapDecoder decoder, ImapEncoder encoder, ImapProcessor processor, ImapMetrics imapMetrics) {
         this.processor = processor;
@@ -99,6 +104,11 @@ public class IMAPServer extends AbstractConfigurableAsyncServer implements ImapC
         maxLineLength = configuration.getInt("maxLineLength", DEFAULT_MAX_LINE_LENGTH);
         inMemorySizeLimit = configuration.getInt("inMemorySizeLimit", DEFAULT_IN_MEMORY_SIZE_LIMIT);
         literalSizeLimit = configuration.getInt("literalSizeLimit", DEFAULT_LITERAL_SIZE_LIMIT);
+        writeBufferHighWaterMark = configuration.getInt("writeBufferHighWaterMark", DEFAULT_WRITE_BUFFER_HIGH_WATER_MARK);
+        writeBufferLowWaterMark = configuration.getInt("writeBufferLowWaterMark", DEFAULT_WRITE_BUFFER_LOW_WATER_MARK);
+        if (writeBufferLowWaterMark > writeBufferHighWaterMark) {
+            throw new ConfigurationException("writeBufferLowWaterMark can not be greater than writeBufferHighWaterMark");
+        }
 
         plainAuthDisallowed = configuration.getBoolean("plainAuthDisallowed", false);
         timeout = configuration.getInt("timeout", DEFAULT_TIMEOUT);
@@ -143,6 +153,16 @@ public class IMAPServer extends AbstractConfigurableAsyncServer implements ImapC
         return "IMAP Service";
     }
 
+    @Override
+    protected void configureBootstrap(ServerBootstrap bootstrap) {
+        super.configureBootstrap(bootstrap);
+
+        // Literals are written through the ChunkedWriteHandler, which only pulls the next chunk out of the
+        // message content once the channel gets writable again: these marks bound the per connection outbound buffer
+        bootstrap.setOption("child.writeBufferHighWaterMark", writeBufferHighWaterMark);
+        bootstrap.setOption("child.writeBufferLowWaterMark", writeBufferLowWaterMark);
+    }
+
     @Override
     protected ChannelPipelineFactory createPipelineFactory(final ChannelGroup group) {
         
@@ -179,6 +199,9 @@ public class IMAPServer extends AbstractConfigurableAsyncServer implements ImapC
                 }
                 pipeline.addLast(CONNECTION_COUNT_HANDLER, getConnectionCountHandler());
 
+                // Sees the chunks of literals too, and gets writability changes on the I/O thread
+                pipeline.addLast(BACKPRESSURE_HANDLER, new ImapWriteBackpressureHandler(imapMetrics));
+
                 pipeline.addLast(CHUNK_WRITE_HANDLER, new ChunkedWriteHandler());
 
                 ExecutionHandler ehandler = getExecutionHandler();
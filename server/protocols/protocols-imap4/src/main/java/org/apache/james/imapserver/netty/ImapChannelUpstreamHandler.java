@@ -21,6 +21,9 @@ package org.apache.james.imapserver.netty;
 import java.io.Closeable;
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.util.ArrayDeque;
+import java.util.Optional;
+import java.util.Queue;
 
 import javax.net.ssl.SSLContext;
 
@@ -39,6 +42,7 @@ import org.jboss.netty.buffer.ChannelBuffers;
 import org.jboss.netty.channel.Channel;
 import org.jboss.netty.channel.ChannelFutureListener;
 import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.channel.ChannelLocal;
 import org.jboss.netty.channel.ChannelPipeline;
 import org.jboss.netty.channel.ChannelStateEvent;
 import org.jboss.netty.channel.ExceptionEvent;
@@ -72,6 +76,17 @@ public class ImapChannelUpstreamHandler extends SimpleChannelUpstreamHandler imp
 
     private final Metric imapConnectionsMetric;
     private final Metric imapCommandsMetric;
+
+    /**
+     * Commands of a connection received while one of its commands is suspended, see
+     * {@link ImapSession#resumeWhenWritable(Runnable)}
+     */
+    private final ChannelLocal<PendingCommands> pendingCommands = new ChannelLocal<PendingCommands>(true) {
+        @Override
+        protected PendingCommands initialValue(Channel channel) {
+            return new PendingCommands();
+        }
+    };
     
     public ImapChannelUpstreamHandler(String hello, ImapProcessor processor, ImapEncoder encoder, boolean compress,
                                       boolean plainAuthDisallowed, ImapMetrics imapMetrics) {
@@ -182,41 +197,108 @@ public class ImapChannelUpstreamHandler extends SimpleChannelUpstreamHandler imp
     public void messageReceived(ChannelHandlerContext ctx, MessageEvent e) throws Exception {
         try (Closeable closeable = IMAPMDCContext.from(ctx, attributes)) {
             imapCommandsMetric.increment();
-            ImapSession session = (ImapSession) attributes.get(ctx.getChannel());
+            NettyImapSession session = (NettyImapSession) attributes.get(ctx.getChannel());
             ImapResponseComposer response = (ImapResponseComposer) ctx.getAttachment();
             ImapMessage message = (ImapMessage) e.getMessage();
-            ChannelPipeline cp = ctx.getPipeline();
-
-            try {
-                if (cp.get(NettyConstants.EXECUTION_HANDLER) != null) {
-                    cp.addBefore(NettyConstants.EXECUTION_HANDLER, NettyConstants.HEARTBEAT_HANDLER, heartbeatHandler);
-                } else {
-                    cp.addBefore(NettyConstants.CORE_HANDLER, NettyConstants.HEARTBEAT_HANDLER, heartbeatHandler);
+            PendingCommands pending = pendingCommands.get(ctx.getChannel());
 
-                }
+            if (pending.suspended.isPresent()) {
+                // Processed in order once the suspended command completes
+                pending.received.add(message);
+            } else {
                 final ResponseEncoder responseEncoder = new ResponseEncoder(encoder, response);
-                processor.process(message, responseEncoder, session);
-
-                if (session.getState() == ImapSessionState.LOGOUT) {
-                    // Make sure we close the channel after all the buffers were flushed out
-                    Channel channel = ctx.getChannel();
-                    if (channel.isConnected()) {
-                        channel.write(ChannelBuffers.EMPTY_BUFFER).addListener(ChannelFutureListener.CLOSE);
-                    }
+                process(ctx, session, message, responseEncoder, () -> processor.process(message, responseEncoder, session));
+            }
+
+            super.messageReceived(ctx, e);
+        }
+    }
+
+    /**
+     * Resumes the suspended command once the client drained its responses, then processes the commands received
+     * meanwhile. Writability changes are received on the I/O thread, and handed over to the thread processing the
+     * commands of this connection by the {@link org.jboss.netty.handler.execution.ExecutionHandler}.
+     */
+    @Override
+    public void channelInterestChanged(ChannelHandlerContext ctx, ChannelStateEvent e) throws Exception {
+        try (Closeable closeable = IMAPMDCContext.from(ctx, attributes)) {
+            PendingCommands pending = pendingCommands.get(ctx.getChannel());
+
+            if (ctx.getChannel().isWritable() && pending.suspended.isPresent()) {
+                NettyImapSession session = (NettyImapSession) attributes.get(ctx.getChannel());
+                ImapResponseComposer response = (ImapResponseComposer) ctx.getAttachment();
+                SuspendedCommand command = pending.suspended.get();
+                pending.suspended = Optional.empty();
+
+                process(ctx, session, command.message, command.responseEncoder, command.continuation);
+                while (!pending.suspended.isPresent() && !pending.received.isEmpty()) {
+                    ImapMessage message = pending.received.poll();
+                    final ResponseEncoder responseEncoder = new ResponseEncoder(encoder, response);
+                    process(ctx, session, message, responseEncoder, () -> processor.process(message, responseEncoder, session));
                 }
-                final IOException failure = responseEncoder.getFailure();
+            }
 
-                if (failure != null) {
-                    LOGGER.info(failure.getMessage());
-                    LOGGER.debug("Failed to write {}", message, failure);
-                    throw failure;
+            super.channelInterestChanged(ctx, e);
+        }
+    }
+
+    private void process(ChannelHandlerContext ctx, NettyImapSession session, ImapMessage message,
+                         ResponseEncoder responseEncoder, Runnable processing) throws IOException {
+        ChannelPipeline cp = ctx.getPipeline();
+
+        try {
+            if (cp.get(NettyConstants.EXECUTION_HANDLER) != null) {
+                cp.addBefore(NettyConstants.EXECUTION_HANDLER, NettyConstants.HEARTBEAT_HANDLER, heartbeatHandler);
+            } else {
+                cp.addBefore(NettyConstants.CORE_HANDLER, NettyConstants.HEARTBEAT_HANDLER, heartbeatHandler);
+
+            }
+            Optional<Runnable> continuation;
+            // NOTIFY pushes responses from other threads, synchronizing on the session so that responses do not interleave
+            synchronized (session) {
+                processing.run();
+                continuation = session.pollContinuation();
+            }
+
+            if (continuation.isPresent()) {
+                pendingCommands.get(ctx.getChannel()).suspended = Optional.of(new SuspendedCommand(message, responseEncoder, continuation.get()));
+                return;
+            }
+
+            if (session.getState() == ImapSessionState.LOGOUT) {
+                // Make sure we close the channel after all the buffers were flushed out
+                Channel channel = ctx.getChannel();
+                if (channel.isConnected()) {
+                    channel.write(ChannelBuffers.EMPTY_BUFFER).addListener(ChannelFutureListener.CLOSE);
                 }
-            } finally {
-                ctx.getPipeline().remove(NettyConstants.HEARTBEAT_HANDLER);
             }
+            final IOException failure = responseEncoder.getFailure();
 
-            super.messageReceived(ctx, e);
+            if (failure != null) {
+                LOGGER.info(failure.getMessage());
+                LOGGER.debug("Failed to write {}", message, failure);
+                throw failure;
+            }
+        } finally {
+            ctx.getPipeline().remove(NettyConstants.HEARTBEAT_HANDLER);
         }
     }
 
+    private static class SuspendedCommand {
+        private final ImapMessage message;
+        private final ResponseEncoder responseEncoder;
+        private final Runnable continuation;
+
+        SuspendedCommand(ImapMessage message, ResponseEncoder responseEncoder, Runnable continuation) {
+            this.message = message;
+            this.responseEncoder = responseEncoder;
+            this.continuation = continuation;
+        }
+    }
+
+    private static class PendingCommands {
+        private final Queue<ImapMessage> received = new ArrayDeque<>();
+        private Optional<SuspendedCommand> suspended = Optional.empty();
+    }
+
 }
@@ -45,7 +45,8 @@ public class ImapLineHandlerAdapter extends SimpleChannelUpstreamHandler {
     public void messageReceived(ChannelHandlerContext ctx, MessageEvent e) throws Exception {
         ChannelBuffer buf = (ChannelBuffer) e.getMessage();
         byte[] data;
-        if (buf.hasArray()) {
+        // The backing array can only be handed over when the line spans all of it
+        if (buf.hasArray() && buf.arrayOffset() == 0 && buf.readerIndex() == 0 && buf.readableBytes() == buf.array().length) {
             data = buf.array();
         } else {
             data = new byte[buf.readableBytes()];
@@ -25,13 +25,19 @@ import org.apache.james.metrics.api.MetricFactory;
 public class ImapMetrics {
     private static final String IMAP_COMMANDS = "imapCommands";
     private static final String IMAP_CONNECTIONS = "imapConnections";
+    private static final String IMAP_OUTSTANDING_BYTES = "imapOutstandingBytes";
+    private static final String IMAP_BACKPRESSURE_PAUSES = "imapBackpressurePauses";
 
     private final Metric commandsMetric;
     private final Metric connectionsMetric;
+    private final Metric outstandingBytesMetric;
+    private final Metric backpressurePausesMetric;
 
     public ImapMetrics(MetricFactory metricFactory) {
         commandsMetric = metricFactory.generate(IMAP_COMMANDS);
         connectionsMetric = metricFactory.generate(IMAP_CONNECTIONS);
+        outstandingBytesMetric = metricFactory.generate(IMAP_OUTSTANDING_BYTES);
+        backpressurePausesMetric = metricFactory.generate(IMAP_BACKPRESSURE_PAUSES);
     }
 
     public Metric getCommandsMetric() {
@@ -41,4 +47,18 @@ public class ImapMetrics {
     public Metric getConnectionsMetric() {
         return connectionsMetric;
     }
+
+    /**
+     * Bytes written to IMAP connections and not yet flushed to the clients
+     */
+    public Metric getOutstandingBytesMetric() {
+        return outstandingBytesMetric;
+    }
+
+    /**
+     * Count of times reading the commands of a connection was suspended because the client was not draining its responses
+     */
+    public Metric getBackpressurePausesMetric() {
+        return backpressurePausesMetric;
+    }
 }
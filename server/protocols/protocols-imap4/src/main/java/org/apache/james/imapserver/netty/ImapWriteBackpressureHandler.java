@@ -0,0 +1,107 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imapserver.netty;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.james.metrics.api.Metric;
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.channel.ChannelStateEvent;
+import org.jboss.netty.channel.MessageEvent;
+import org.jboss.netty.channel.SimpleChannelHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Stops reading the commands of a connection while its outbound buffer is above the write buffer high watermark, and
+ * resumes once the client drained it under the low watermark. A slow client hence only gets the responses of the
+ * commands already received queued for it, while the literals they contain are streamed by the
+ * {@link org.jboss.netty.handler.stream.ChunkedWriteHandler} as the client reads them. Commands producing many
+ * responses, such as FETCH, are suspended meanwhile, see {@link ImapChannelUpstreamHandler}.
+ *
+ * No thread is ever blocked: the reading is suspended and resumed upon writability changes.
+ *
+ * This handler needs one instance per channel, placed before the {@link org.jboss.netty.handler.execution.ExecutionHandler}
+ * so that writability changes are received on the I/O thread.
+ */
+public class ImapWriteBackpressureHandler extends SimpleChannelHandler {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ImapWriteBackpressureHandler.class);
+
+    private final Metric outstandingBytesMetric;
+    private final Metric pausesMetric;
+    private final AtomicLong outstandingBytes = new AtomicLong();
+    private volatile boolean readingSuspended;
+
+    public ImapWriteBackpressureHandler(ImapMetrics imapMetrics) {
+        this.outstandingBytesMetric = imapMetrics.getOutstandingBytesMetric();
+        this.pausesMetric = imapMetrics.getBackpressurePausesMetric();
+    }
+
+    @Override
+    public void writeRequested(ChannelHandlerContext ctx, MessageEvent e) throws Exception {
+        if (e.getMessage() instanceof ChannelBuffer) {
+            int size = ((ChannelBuffer) e.getMessage()).readableBytes();
+            outstandingBytes.addAndGet(size);
+            outstandingBytesMetric.add(size);
+            e.getFuture().addListener(future -> {
+                outstandingBytes.addAndGet(-size);
+                outstandingBytesMetric.remove(size);
+            });
+        }
+        super.writeRequested(ctx, e);
+    }
+
+    /**
+     * Other handlers, for instance when adding a line handler, re-enable reading for a while: it is suspended again
+     * on the interest change this triggers. Only the reading suspended here is resumed.
+     */
+    @Override
+    public void channelInterestChanged(ChannelHandlerContext ctx, ChannelStateEvent e) throws Exception {
+        Channel channel = ctx.getChannel();
+        if (!channel.isWritable() && channel.isReadable()) {
+            if (!readingSuspended) {
+                pausesMetric.increment();
+                LOGGER.debug("Suspending command reading, {} bytes are waiting to be written", outstandingBytes.get());
+            }
+            readingSuspended = true;
+            channel.setReadable(false);
+        } else if (channel.isWritable() && readingSuspended) {
+            readingSuspended = false;
+            channel.setReadable(true);
+        }
+        super.channelInterestChanged(ctx, e);
+    }
+
+    /**
+     * Unlike the metric, which sums them over all connections, this is the count for this connection only. It is
+     * logged along with each command of the connection, see {@link IMAPMDCContext}.
+     *
+     * @return the count of bytes written to this connection but not yet flushed
+     */
+    public long getOutstandingBytes() {
+        return outstandingBytes.get();
+    }
+
+    public boolean isReadingSuspended() {
+        return readingSuspended;
+    }
+}
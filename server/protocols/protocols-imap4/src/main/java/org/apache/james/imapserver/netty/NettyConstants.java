@@ -36,6 +36,7 @@ public interface NettyConstants {
     String CONNECTION_LIMIT_PER_IP_HANDLER = "connectionPerIpLimitHandler";
     String CONNECTION_COUNT_HANDLER = "connectionCountHandler";
     String CHUNK_WRITE_HANDLER = "chunkWriteHandler";
+    String BACKPRESSURE_HANDLER = "backpressureHandler";
     String EXECUTION_HANDLER = "executionHandler";
     String HEARTBEAT_HANDLER = "heartbeatHandler";
 
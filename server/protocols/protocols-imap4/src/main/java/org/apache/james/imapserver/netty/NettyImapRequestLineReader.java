@@ -21,13 +21,12 @@ package org.apache.james.imapserver.netty;
 
 import java.io.InputStream;
 
-import org.apache.commons.io.input.BoundedInputStream;
+import javax.mail.util.SharedByteArrayInputStream;
+
 import org.apache.james.imap.api.display.HumanReadableText;
 import org.apache.james.imap.decode.DecodingException;
 import org.apache.james.imap.decode.ImapRequestLineReader;
-import org.apache.james.imap.utils.EolInputStream;
 import org.jboss.netty.buffer.ChannelBuffer;
-import org.jboss.netty.buffer.ChannelBufferInputStream;
 import org.jboss.netty.channel.Channel;
 
 /**
@@ -75,9 +74,12 @@ public class NettyImapRequestLineReader extends AbstractNettyImapRequestLineRead
     }
 
     /**
-     * Return a {@link ChannelBufferInputStream} if the wrapped
+     * Return a {@link SharedByteArrayInputStream} if the wrapped
      * {@link ChannelBuffer} contains enough data. If not it will throw a
      * {@link NotEnoughDataException}
+     *
+     * The literal is copied out of the cumulation buffer once, so that consumers needing to re-read it
+     * do not need to spool it again.
      */
     @Override
     public InputStream read(int size, boolean extraCRLF) throws DecodingException {
@@ -100,13 +102,13 @@ public class NettyImapRequestLineReader extends AbstractNettyImapRequestLineRead
         nextSeen = false;
         nextChar = 0;
 
-        // limit the size via commons-io as ChannelBufferInputStream size limiting is buggy
-        InputStream in = new BoundedInputStream(new ChannelBufferInputStream(buffer), size); 
+        byte[] literal = new byte[size];
+        buffer.readBytes(literal);
+        read += size;
         if (extraCRLF) {
-            return new EolInputStream(this, in);
-        } else {
-            return in;
+            eol();
         }
+        return new SharedByteArrayInputStream(literal);
     }
 
     /**
@@ -18,8 +18,11 @@
  ****************************************************************/
 package org.apache.james.imapserver.netty;
 
+import java.io.Closeable;
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 
 import javax.net.ssl.SSLContext;
 
@@ -32,8 +35,14 @@ import org.jboss.netty.handler.codec.compression.ZlibDecoder;
 import org.jboss.netty.handler.codec.compression.ZlibEncoder;
 import org.jboss.netty.handler.codec.compression.ZlibWrapper;
 import org.jboss.netty.handler.ssl.SslHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableList;
 
 public class NettyImapSession implements ImapSession, NettyConstants {
+    private static final Logger LOGGER = LoggerFactory.getLogger(NettyImapSession.class);
+
     private ImapSessionState state = ImapSessionState.NON_AUTHENTICATED;
     private SelectedMailbox selectedMailbox;
     private final Map<String, Object> attributesByKey = new HashMap<>();
@@ -44,6 +53,7 @@ public class NettyImapSession implements ImapSession, NettyConstants {
     private int handlerCount;
     private final boolean plainAuthDisallowed;
     private final SessionId sessionId;
+    private Optional<Runnable> continuation = Optional.empty();
 
     public NettyImapSession(Channel channel, SSLContext sslContext, String[] enabledCipherSuites, boolean compress, boolean plainAuthDisallowed, SessionId sessionId) {
         this.channel = channel;
@@ -62,6 +72,7 @@ public class NettyImapSession implements ImapSession, NettyConstants {
     @Override
     public void logout() {
         closeMailbox();
+        closeAttributes();
         state = ImapSessionState.LOGOUT;
     }
 
@@ -93,6 +104,21 @@ public class NettyImapSession implements ImapSession, NettyConstants {
         return this.state;
     }
 
+    private void closeAttributes() {
+        ImmutableList.copyOf(attributesByKey.values()).stream()
+            .filter(Closeable.class::isInstance)
+            .map(Closeable.class::cast)
+            .forEach(this::closeQuietly);
+    }
+
+    private void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            LOGGER.warn("Failed to close session attribute", e);
+        }
+    }
+
     private void closeMailbox() {
         if (selectedMailbox != null) {
             selectedMailbox.deselect();
@@ -189,6 +215,28 @@ public class NettyImapSession implements ImapSession, NettyConstants {
         return plainAuthDisallowed;
     }
 
+    @Override
+    public boolean isWritable() {
+        return channel.isWritable();
+    }
+
+    /**
+     * The continuation is run by {@link ImapChannelUpstreamHandler} once the channel gets writable again.
+     */
+    @Override
+    public void resumeWhenWritable(Runnable continuation) {
+        this.continuation = Optional.of(continuation);
+    }
+
+    /**
+     * @return the continuation of the suspended command, if any, which is no longer suspended afterward
+     */
+    Optional<Runnable> pollContinuation() {
+        Optional<Runnable> result = continuation;
+        continuation = Optional.empty();
+        return result;
+    }
+
     @Override
     public boolean isTLSActive() {
         return channel.getPipeline().get(SSL_HANDLER) != null;
@@ -19,23 +19,30 @@
 package org.apache.james.imapserver.netty;
 
 import java.io.Closeable;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 
 import org.apache.james.imap.api.display.HumanReadableText;
 import org.apache.james.imap.decode.DecodingException;
-import org.apache.james.imap.utils.EolInputStream;
 import org.jboss.netty.channel.Channel;
 
 import com.google.common.io.ByteStreams;
+import com.google.common.io.CountingInputStream;
 
+/**
+ * Reads a request which was spooled to a temporary file. The file is deleted once both this reader and the
+ * literals it handed out are closed.
+ */
 public class NettyStreamImapRequestLineReader extends AbstractNettyImapRequestLineReader implements Closeable {
 
-    private final InputStream in;
+    private final SpooledRequestFile file;
+    private final CountingInputStream in;
 
-    public NettyStreamImapRequestLineReader(Channel channel, InputStream in, boolean retry) {
+    public NettyStreamImapRequestLineReader(Channel channel, File file, boolean retry) throws IOException {
         super(channel, retry);
-        this.in = in;
+        this.file = new SpooledRequestFile(file);
+        this.in = new CountingInputStream(this.file.newStream());
     }
 
     /**
@@ -71,16 +78,15 @@ public class NettyStreamImapRequestLineReader extends AbstractNettyImapRequestLi
     }
 
     /**
-     * Reads and consumes a number of characters from the underlying reader,
-     * filling the char array provided. TODO: remove unnecessary copying of
-     * bits; line reader should maintain an internal ByteBuffer;
+     * Hands out the next <code>size</code> bytes as a {@link javax.mail.internet.SharedInputStream} reading directly
+     * from the spooled file, so that the literal is neither copied in memory nor spooled again by its consumer.
      * 
      * @param size
      *            number of characters to read and consume
      * @param extraCRLF
-     *            Add extra CRLF
+     *            Expect a CRLF after the literal
      * @throws DecodingException
-     *             If a char can't be read into each array element.
+     *             If the spooled file can not be read
      */
     @Override
     public InputStream read(int size, boolean extraCRLF) throws DecodingException {
@@ -88,18 +94,27 @@ public class NettyStreamImapRequestLineReader extends AbstractNettyImapRequestLi
         // Unset the next char.
         nextSeen = false;
         nextChar = 0;
-        InputStream limited = ByteStreams.limit(this.in, size);
-        if (extraCRLF) {
-            return new EolInputStream(this, limited);
-        } else {
-            return limited;
+        try {
+            long start = in.getCount();
+            ByteStreams.skipFully(in, size);
+            if (extraCRLF) {
+                eol();
+            }
+            return file.slice(start, size);
+        } catch (DecodingException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new DecodingException(HumanReadableText.SOCKET_IO_FAILURE, "Error reading from stream.", e);
         }
-        
     }
 
     @Override
     public void close() throws IOException {
-        in.close();
+        try {
+            in.close();
+        } finally {
+            file.release();
+        }
     }
 
 }
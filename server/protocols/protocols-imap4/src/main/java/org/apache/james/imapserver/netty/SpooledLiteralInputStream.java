@@ -0,0 +1,65 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.imapserver.netty;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.mail.internet.SharedInputStream;
+
+/**
+ * Literal backed by a slice of the temporary file a large request was spooled to.
+ *
+ * The literal holds a reference on the {@link SpooledRequestFile}, hence it stays readable once the request line
+ * reader is closed. Being a {@link SharedInputStream} the mailbox can re-read it without copying it again.
+ * The reference is released when the literal is closed.
+ */
+class SpooledLiteralInputStream extends FilterInputStream implements SharedInputStream {
+    private final SpooledRequestFile file;
+    private final AtomicBoolean closed;
+
+    SpooledLiteralInputStream(SpooledRequestFile file, InputStream slice) {
+        super(slice);
+        this.file = file;
+        this.closed = new AtomicBoolean(false);
+    }
+
+    @Override
+    public long getPosition() {
+        return ((SharedInputStream) in).getPosition();
+    }
+
+    @Override
+    public InputStream newStream(long start, long end) {
+        return ((SharedInputStream) in).newStream(start, end);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed.compareAndSet(false, true)) {
+            try {
+                in.close();
+            } finally {
+                file.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.imapserver.netty;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.mail.util.SharedFileInputStream;
+
+/**
+ * Temporary file a large request was spooled to.
+ *
+ * The request line reader and the literals it hands out all read through a single {@link SharedFileInputStream}.
+ * Each of them holds a reference on the file, which is deleted once the last one is released.
+ */
+class SpooledRequestFile {
+    private final File file;
+    private final SharedFileInputStream content;
+    private final AtomicInteger references;
+
+    SpooledRequestFile(File file) throws IOException {
+        this.file = file;
+        this.content = new SharedFileInputStream(file);
+        this.references = new AtomicInteger(1);
+    }
+
+    /**
+     * Reads the file from its beginning, without taking a reference on it.
+     */
+    InputStream newStream() {
+        return content.newStream(0, -1);
+    }
+
+    /**
+     * Takes a reference on the file, released once the returned literal is closed.
+     */
+    SpooledLiteralInputStream slice(long start, long size) {
+        references.incrementAndGet();
+        return new SpooledLiteralInputStream(this, content.newStream(start, start + size));
+    }
+
+    void release() throws IOException {
+        if (references.decrementAndGet() == 0) {
+            try {
+                content.close();
+            } finally {
+                file.delete();
+            }
+        }
+    }
+}
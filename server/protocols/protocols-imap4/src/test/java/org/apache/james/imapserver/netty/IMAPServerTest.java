@@ -20,13 +20,19 @@
 package org.apache.james.imapserver.netty;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
 
 import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.configuration2.BaseHierarchicalConfiguration;
 import org.apache.commons.configuration2.HierarchicalConfiguration;
+import org.apache.commons.configuration2.ex.ConfigurationException;
 import org.apache.commons.configuration2.tree.ImmutableNode;
 import org.apache.james.imap.api.ImapConfiguration;
+import org.apache.james.imap.api.process.ImapProcessor;
+import org.apache.james.imap.decode.ImapDecoder;
+import org.apache.james.imap.encode.ImapEncoder;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
@@ -69,4 +75,15 @@ public class IMAPServerTest {
 
         assertThat(imapConfiguration).isEqualTo(expectImapConfiguration);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void doConfigureShouldThrowWhenWriteBufferLowWaterMarkIsGreaterThanHighWaterMark() {
+        HierarchicalConfiguration<ImmutableNode> configurationBuilder = new BaseHierarchicalConfiguration();
+        configurationBuilder.addProperty("writeBufferHighWaterMark", "1024");
+        configurationBuilder.addProperty("writeBufferLowWaterMark", "2048");
+        IMAPServer imapServer = new IMAPServer(mock(ImapDecoder.class), mock(ImapEncoder.class), mock(ImapProcessor.class), mock(ImapMetrics.class));
+
+        assertThatThrownBy(() -> imapServer.doConfigure(configurationBuilder))
+            .isInstanceOf(ConfigurationException.class);
+    }
+}
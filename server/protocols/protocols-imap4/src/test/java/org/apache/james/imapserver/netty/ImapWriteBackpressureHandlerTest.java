@@ -0,0 +1,125 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imapserver.netty;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.apache.james.metrics.tests.RecordingMetricFactory;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelFuture;
+import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.channel.ChannelStateEvent;
+import org.jboss.netty.channel.DefaultChannelFuture;
+import org.jboss.netty.channel.DownstreamMessageEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ImapWriteBackpressureHandlerTest {
+    ImapWriteBackpressureHandler testee;
+    RecordingMetricFactory metricFactory;
+    Channel channel;
+    ChannelHandlerContext ctx;
+
+    @BeforeEach
+    void setUp() {
+        metricFactory = new RecordingMetricFactory();
+        testee = new ImapWriteBackpressureHandler(new ImapMetrics(metricFactory));
+        channel = mock(Channel.class);
+        ctx = mock(ChannelHandlerContext.class);
+        when(ctx.getChannel()).thenReturn(channel);
+        when(channel.isConnected()).thenReturn(true);
+        when(channel.isReadable()).thenReturn(true);
+        when(channel.isWritable()).thenReturn(true);
+    }
+
+    @Test
+    void readingShouldNotBeSuspendedWhenTheChannelIsWritable() throws Exception {
+        testee.channelInterestChanged(ctx, mock(ChannelStateEvent.class));
+
+        verify(channel, never()).setReadable(anyBoolean());
+        assertThat(testee.isReadingSuspended()).isFalse();
+    }
+
+    @Test
+    void readingShouldBeSuspendedWhenTheChannelIsNotWritable() throws Exception {
+        when(channel.isWritable()).thenReturn(false);
+
+        testee.channelInterestChanged(ctx, mock(ChannelStateEvent.class));
+
+        verify(channel).setReadable(false);
+        assertThat(testee.isReadingSuspended()).isTrue();
+        assertThat(metricFactory.countFor("imapBackpressurePauses")).isEqualTo(1);
+    }
+
+    @Test
+    void readingShouldBeResumedWhenTheChannelIsWritableAgain() throws Exception {
+        when(channel.isWritable()).thenReturn(false);
+        testee.channelInterestChanged(ctx, mock(ChannelStateEvent.class));
+        when(channel.isWritable()).thenReturn(true);
+        when(channel.isReadable()).thenReturn(false);
+
+        testee.channelInterestChanged(ctx, mock(ChannelStateEvent.class));
+
+        verify(channel).setReadable(true);
+        assertThat(testee.isReadingSuspended()).isFalse();
+    }
+
+    @Test
+    void readingShouldBeSuspendedAgainWhenReenabledByAnotherHandler() throws Exception {
+        when(channel.isWritable()).thenReturn(false);
+        testee.channelInterestChanged(ctx, mock(ChannelStateEvent.class));
+
+        testee.channelInterestChanged(ctx, mock(ChannelStateEvent.class));
+
+        verify(channel, never()).setReadable(true);
+        assertThat(testee.isReadingSuspended()).isTrue();
+        assertThat(metricFactory.countFor("imapBackpressurePauses")).isEqualTo(1);
+    }
+
+    @Test
+    void readingSuspendedByAnotherHandlerShouldNotBeResumed() throws Exception {
+        when(channel.isReadable()).thenReturn(false);
+
+        testee.channelInterestChanged(ctx, mock(ChannelStateEvent.class));
+
+        verify(channel, never()).setReadable(anyBoolean());
+    }
+
+    @Test
+    void outstandingBytesShouldBeTrackedUntilTheWriteCompletes() throws Exception {
+        ChannelFuture future = new DefaultChannelFuture(channel, false);
+        testee.writeRequested(mock(ChannelHandlerContext.class),
+            new DownstreamMessageEvent(channel, future, ChannelBuffers.wrappedBuffer(new byte[12]), null));
+
+        assertThat(testee.getOutstandingBytes()).isEqualTo(12);
+        assertThat(metricFactory.countFor("imapOutstandingBytes")).isEqualTo(12);
+
+        future.setSuccess();
+
+        assertThat(testee.getOutstandingBytes()).isZero();
+        assertThat(metricFactory.countFor("imapOutstandingBytes")).isZero();
+    }
+}
@@ -0,0 +1,81 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.imapserver.netty;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.james.imap.decode.main.DefaultImapDecoder;
+import org.apache.james.imap.decode.parser.ImapParserFactory;
+import org.apache.james.imap.encode.FakeImapSession;
+import org.apache.james.imap.message.request.AppendRequest;
+import org.apache.james.imap.message.response.UnpooledStatusResponseFactory;
+import org.jboss.netty.channel.Channel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class NettyStreamImapRequestLineReaderTest {
+    private static final String APPEND_WITH_LITERAL_MAILBOX_NAME = "a1 APPEND {5+}\r\nINBOX {11+}\r\nHello world\r\n";
+
+    private DefaultImapDecoder decoder;
+    private FakeImapSession session;
+    private File file;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        UnpooledStatusResponseFactory statusResponseFactory = new UnpooledStatusResponseFactory();
+        decoder = new DefaultImapDecoder(statusResponseFactory, new ImapParserFactory(statusResponseFactory));
+        session = new FakeImapSession();
+        session.authenticated();
+        file = File.createTempFile("imap-literal", ".tmp");
+        FileUtils.writeStringToFile(file, APPEND_WITH_LITERAL_MAILBOX_NAME, StandardCharsets.US_ASCII);
+    }
+
+    @Test
+    void appendLiteralShouldBeReadableWhenPrecededByALiteralMailboxName() throws Exception {
+        AppendRequest request;
+        try (NettyStreamImapRequestLineReader reader = new NettyStreamImapRequestLineReader(mock(Channel.class), file, false)) {
+            request = (AppendRequest) decoder.decode(reader, session);
+        }
+
+        try (InputStream message = request.getMessage()) {
+            assertThat(request.getMailboxName()).isEqualTo("INBOX");
+            assertThat(IOUtils.toString(message, StandardCharsets.US_ASCII)).isEqualTo("Hello world");
+        }
+    }
+
+    @Test
+    void spooledFileShouldBeDeletedOnceTheReaderAndTheLiteralsAreClosed() throws Exception {
+        AppendRequest request;
+        try (NettyStreamImapRequestLineReader reader = new NettyStreamImapRequestLineReader(mock(Channel.class), file, false)) {
+            request = (AppendRequest) decoder.decode(reader, session);
+        }
+        assertThat(file).exists();
+
+        request.getMessage().close();
+
+        assertThat(file).doesNotExist();
+    }
+}
@@ -58,7 +58,7 @@ public class LineHandlerStats extends StandardMBean implements HandlerStatsMBean
      */
     public void increment(Response response) {
         all.incrementAndGet();
-        if (response.isEndSession()) {
+        if (response != null && response.isEndSession()) {
             disconnect.incrementAndGet();
         }
     }
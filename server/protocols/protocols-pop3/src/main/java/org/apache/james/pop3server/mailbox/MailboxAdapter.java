@@ -18,8 +18,10 @@
  ****************************************************************/
 package org.apache.james.pop3server.mailbox;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.SequenceInputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
@@ -31,6 +33,7 @@ import org.apache.james.mailbox.MailboxSession;
 import org.apache.james.mailbox.MessageManager;
 import org.apache.james.mailbox.MessageUid;
 import org.apache.james.mailbox.exception.MailboxException;
+import org.apache.james.mailbox.model.Content;
 import org.apache.james.mailbox.model.FetchGroup;
 import org.apache.james.mailbox.model.MessageRange;
 import org.apache.james.mailbox.model.MessageResult;
@@ -40,11 +43,14 @@ import org.apache.james.protocols.pop3.mailbox.MessageMetaData;
 import com.github.steveash.guavate.Guavate;
 import com.google.common.collect.ImmutableList;
 
+import reactor.core.publisher.Mono;
+
 public class MailboxAdapter implements Mailbox {
     private static final FetchGroup FULL_GROUP = FetchGroup.FULL_CONTENT;
     private static final FetchGroup BODY_GROUP = FetchGroup.BODY_CONTENT;
     private static final FetchGroup HEADERS_GROUP = FetchGroup.HEADERS;
     private static final FetchGroup METADATA_GROUP = FetchGroup.MINIMAL;
+    private static final int FIRST_BODY_RANGE_LENGTH = 8 * 1024;
 
     private final MessageManager manager;
     private final MailboxSession session;
@@ -109,6 +115,25 @@ public class MailboxAdapter implements Mailbox {
         }
     }
 
+    @Override
+    public InputStream getMessageReadOnDemand(String uid) throws IOException {
+        MessageUid messageUid = MessageUid.of(Long.parseLong(uid));
+        try {
+            mailboxManager.startProcessingRequest(session);
+            Iterator<MessageResult> results = manager.getMessages(messageUid.toRange(), HEADERS_GROUP, session);
+            if (results.hasNext()) {
+                Content headers = results.next().getHeaders();
+                return new SequenceInputStream(headers.getInputStream(), new BodyInputStream(messageUid, headers.size()));
+            } else {
+                return null;
+            }
+        } catch (MailboxException e) {
+            throw new IOException("Unable to retrieve message for uid " + uid, e);
+        } finally {
+            mailboxManager.endProcessingRequest(session);
+        }
+    }
+
     @Override
     public List<MessageMetaData> getMessages() throws IOException {
         try {
@@ -172,4 +197,62 @@ public class MailboxAdapter implements Mailbox {
             mailboxManager.endProcessingRequest(session);
         }
     }
+
+    /**
+     * Reads the body of a message by ranges of its full content, as it is consumed.
+     *
+     * Mailboxes not supporting ranged reads read the full content of the message for each range. Ranges thus
+     * double in length, bounding the number of reads to the logarithm of the body size.
+     */
+    private class BodyInputStream extends InputStream {
+        private final MessageUid uid;
+        private long nextOctet;
+        private int nextRangeLength;
+        private InputStream range;
+        private boolean ended;
+
+        BodyInputStream(MessageUid uid, long bodyStartOctet) {
+            this.uid = uid;
+            this.nextOctet = bodyStartOctet;
+            this.nextRangeLength = FIRST_BODY_RANGE_LENGTH;
+            this.range = new ByteArrayInputStream(new byte[0]);
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] octet = new byte[1];
+            if (read(octet, 0, 1) == -1) {
+                return -1;
+            }
+            return octet[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            int read = range.read(b, off, len);
+            while (read == -1 && !ended) {
+                range = new ByteArrayInputStream(readNextRange());
+                read = range.read(b, off, len);
+            }
+            return read;
+        }
+
+        private byte[] readNextRange() throws IOException {
+            try {
+                mailboxManager.startProcessingRequest(session);
+                byte[] octets = Mono.from(manager.readFullContent(uid, nextOctet, nextRangeLength, session))
+                    .blockOptional()
+                    .orElseThrow(() -> new IOException("Unable to retrieve message body for uid " + uid.asLong()));
+                ended = octets.length < nextRangeLength;
+                nextOctet += octets.length;
+                nextRangeLength = Math.min(nextRangeLength * 2, Integer.MAX_VALUE / 2);
+                return octets;
+            } finally {
+                mailboxManager.endProcessingRequest(session);
+            }
+        }
+    }
 }
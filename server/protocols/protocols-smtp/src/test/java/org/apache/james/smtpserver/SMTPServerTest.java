@@ -428,7 +428,7 @@ public class SMTPServerTest {
 
         assertThat(capabilitieslist)
             .as("capabilities")
-            .hasSize(3);
+            .hasSize(4);
         assertThat(capabilitieslist.contains("PIPELINING"))
             .as("capabilities present PIPELINING")
             .isTrue();
@@ -438,6 +438,9 @@ public class SMTPServerTest {
         assertThat(capabilitieslist.contains("8BITMIME"))
             .as("capabilities present 8BITMIME")
             .isTrue();
+        assertThat(capabilitieslist.contains("CHUNKING"))
+            .as("capabilities present CHUNKING")
+            .isTrue();
 
         smtpProtocol.setSender("mail@localhost");
         smtpProtocol.addRecipient("mail@localhost");
@@ -540,10 +543,10 @@ public class SMTPServerTest {
 
         assertThat(capabilitieslist)
             .as("capabilities")
-            .hasSize(4);
+            .hasSize(5);
         assertThat(capabilitieslist)
-            .as("capabilities present PIPELINING ENHANCEDSTATUSCODES 8BITMIME STARTTLS")
-            .containsOnly("PIPELINING", "ENHANCEDSTATUSCODES", "8BITMIME", "STARTTLS");
+            .as("capabilities present PIPELINING ENHANCEDSTATUSCODES 8BITMIME CHUNKING STARTTLS")
+            .containsOnly("PIPELINING", "ENHANCEDSTATUSCODES", "8BITMIME", "CHUNKING", "STARTTLS");
 
         smtpProtocol.quit();
         smtpProtocol.disconnect();
@@ -1936,6 +1939,204 @@ public class SMTPServerTest {
         client.close();
     }
 
+    // See http://www.ietf.org/rfc/rfc3030.txt
+    @Test
+    public void testBdatChunksShouldBeSpooled() throws Exception {
+        init(smtpConfiguration);
+        InetSocketAddress bindedAddress = new ProtocolServerUtils(smtpServer).retrieveBindedAddress();
+        Socket client = new Socket(bindedAddress.getAddress().getHostAddress(), bindedAddress.getPort());
+
+        String firstChunk = "Subject: test\r\n\r\nfirst ";
+        String lastChunk = "line\r\n.dotted line\r\n";
+
+        OutputStream out = client.getOutputStream();
+        BufferedReader in = new BufferedReader(new InputStreamReader(client.getInputStream()));
+
+        assertThat(Integer.parseInt(in.readLine().split(" ")[0]))
+            .as("Connection made")
+            .isEqualTo(220);
+        out.write("HELO TEST\r\nMAIL FROM: <test@localhost>\r\nRCPT TO: <test2@localhost>\r\n".getBytes(UTF_8));
+        out.flush();
+        assertThat(Integer.parseInt(in.readLine().split(" ")[0]))
+            .as("HELO accepted")
+            .isEqualTo(250);
+        assertThat(Integer.parseInt(in.readLine().split(" ")[0]))
+            .as("MAIL FROM accepted")
+            .isEqualTo(250);
+        assertThat(Integer.parseInt(in.readLine().split(" ")[0]))
+            .as("RCPT TO accepted")
+            .isEqualTo(250);
+
+        // The first chunk ends in the middle of a line and is not followed by any other command
+        out.write(("BDAT " + firstChunk.length() + "\r\n" + firstChunk).getBytes(UTF_8));
+        out.flush();
+        assertThat(Integer.parseInt(in.readLine().split(" ")[0]))
+            .as("First chunk accepted")
+            .isEqualTo(250);
+
+        out.write(("BDAT " + lastChunk.length() + " LAST\r\n" + lastChunk + "QUIT\r\n").getBytes(UTF_8));
+        out.flush();
+        assertThat(Integer.parseInt(in.readLine().split(" ")[0]))
+            .as("Message accepted")
+            .isEqualTo(250);
+        assertThat(Integer.parseInt(in.readLine().split(" ")[0]))
+            .as("QUIT accepted")
+            .isEqualTo(221);
+
+        in.close();
+        out.close();
+        client.close();
+
+        Mail mail = queue.getLastMail();
+        assertThat(mail)
+            .as("mail received by mail server")
+            .isNotNull();
+        assertThat(mail.getMessage().getSubject()).isEqualTo("test");
+        assertThat(mail.getMessage().getContent().toString()).isEqualTo("first line\r\n.dotted line\r\n");
+    }
+
+    @Test
+    public void testBdatChunksShouldBeSpooledAsReceived() throws Exception {
+        init(smtpConfiguration);
+        InetSocketAddress bindedAddress = new ProtocolServerUtils(smtpServer).retrieveBindedAddress();
+        Socket client = new Socket(bindedAddress.getAddress().getHostAddress(), bindedAddress.getPort());
+
+        // Neither dot-stuffed nor ending with CRLF
+        String chunk = "Subject: test\r\n\r\n..two dots\r\n.\r\nno line delimiter";
+
+        OutputStream out = client.getOutputStream();
+        BufferedReader in = new BufferedReader(new InputStreamReader(client.getInputStream()));
+
+        assertThat(Integer.parseInt(in.readLine().split(" ")[0]))
+            .as("Connection made")
+            .isEqualTo(220);
+        out.write(("HELO TEST\r\nMAIL FROM: <test@localhost>\r\nRCPT TO: <test2@localhost>\r\n"
+            + "BDAT " + chunk.length() + " LAST\r\n" + chunk + "QUIT\r\n").getBytes(UTF_8));
+        out.flush();
+        assertThat(Integer.parseInt(in.readLine().split(" ")[0]))
+            .as("HELO accepted")
+            .isEqualTo(250);
+        assertThat(Integer.parseInt(in.readLine().split(" ")[0]))
+            .as("MAIL FROM accepted")
+            .isEqualTo(250);
+        assertThat(Integer.parseInt(in.readLine().split(" ")[0]))
+            .as("RCPT TO accepted")
+            .isEqualTo(250);
+        assertThat(Integer.parseInt(in.readLine().split(" ")[0]))
+            .as("Message accepted")
+            .isEqualTo(250);
+        assertThat(Integer.parseInt(in.readLine().split(" ")[0]))
+            .as("QUIT accepted")
+            .isEqualTo(221);
+
+        in.close();
+        out.close();
+        client.close();
+
+        Mail mail = queue.getLastMail();
+        assertThat(mail)
+            .as("mail received by mail server")
+            .isNotNull();
+        assertThat(mail.getMessage().getContent().toString()).isEqualTo("..two dots\r\n.\r\nno line delimiter");
+    }
+
+    @Test
+    public void testBdatChunkSpanningSeveralFramesShouldBeSpooled() throws Exception {
+        init(smtpConfiguration);
+        InetSocketAddress bindedAddress = new ProtocolServerUtils(smtpServer).retrieveBindedAddress();
+        Socket client = new Socket(bindedAddress.getAddress().getHostAddress(), bindedAddress.getPort());
+
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            body.append("line ").append(i).append("\r\n");
+        }
+        body.append(".dotted line\r\nBDAT 5\r\n");
+        String chunk = "Subject: test\r\n\r\n" + body;
+
+        OutputStream out = client.getOutputStream();
+        BufferedReader in = new BufferedReader(new InputStreamReader(client.getInputStream()));
+
+        assertThat(Integer.parseInt(in.readLine().split(" ")[0]))
+            .as("Connection made")
+            .isEqualTo(220);
+        out.write(("HELO TEST\r\nMAIL FROM: <test@localhost>\r\nRCPT TO: <test2@localhost>\r\n"
+            + "BDAT " + chunk.length() + " LAST\r\n" + chunk + "QUIT\r\n").getBytes(UTF_8));
+        out.flush();
+        assertThat(Integer.parseInt(in.readLine().split(" ")[0]))
+            .as("HELO accepted")
+            .isEqualTo(250);
+        assertThat(Integer.parseInt(in.readLine().split(" ")[0]))
+            .as("MAIL FROM accepted")
+            .isEqualTo(250);
+        assertThat(Integer.parseInt(in.readLine().split(" ")[0]))
+            .as("RCPT TO accepted")
+            .isEqualTo(250);
+        assertThat(Integer.parseInt(in.readLine().split(" ")[0]))
+            .as("Message accepted")
+            .isEqualTo(250);
+        assertThat(Integer.parseInt(in.readLine().split(" ")[0]))
+            .as("QUIT accepted")
+            .isEqualTo(221);
+
+        in.close();
+        out.close();
+        client.close();
+
+        Mail mail = queue.getLastMail();
+        assertThat(mail)
+            .as("mail received by mail server")
+            .isNotNull();
+        assertThat(mail.getMessage().getSubject()).isEqualTo("test");
+        assertThat(mail.getMessage().getContent().toString()).isEqualTo(body.toString());
+    }
+
+    @Test
+    public void testDataContentShouldNotBeTakenForBdatCommands() throws Exception {
+        init(smtpConfiguration);
+        InetSocketAddress bindedAddress = new ProtocolServerUtils(smtpServer).retrieveBindedAddress();
+        Socket client = new Socket(bindedAddress.getAddress().getHostAddress(), bindedAddress.getPort());
+
+        OutputStream out = client.getOutputStream();
+        BufferedReader in = new BufferedReader(new InputStreamReader(client.getInputStream()));
+
+        assertThat(Integer.parseInt(in.readLine().split(" ")[0]))
+            .as("Connection made")
+            .isEqualTo(220);
+        out.write("HELO TEST\r\nMAIL FROM: <test@localhost>\r\nRCPT TO: <test2@localhost>\r\nDATA\r\n".getBytes(UTF_8));
+        out.flush();
+        assertThat(Integer.parseInt(in.readLine().split(" ")[0]))
+            .as("HELO accepted")
+            .isEqualTo(250);
+        assertThat(Integer.parseInt(in.readLine().split(" ")[0]))
+            .as("MAIL FROM accepted")
+            .isEqualTo(250);
+        assertThat(Integer.parseInt(in.readLine().split(" ")[0]))
+            .as("RCPT TO accepted")
+            .isEqualTo(250);
+        assertThat(Integer.parseInt(in.readLine().split(" ")[0]))
+            .as("DATA accepted")
+            .isEqualTo(354);
+
+        out.write("Subject: test\r\n\r\nBDAT 5\r\nbody\r\n.\r\nQUIT\r\n".getBytes(UTF_8));
+        out.flush();
+        assertThat(Integer.parseInt(in.readLine().split(" ")[0]))
+            .as("Message accepted")
+            .isEqualTo(250);
+        assertThat(Integer.parseInt(in.readLine().split(" ")[0]))
+            .as("QUIT accepted")
+            .isEqualTo(221);
+
+        in.close();
+        out.close();
+        client.close();
+
+        Mail mail = queue.getLastMail();
+        assertThat(mail)
+            .as("mail received by mail server")
+            .isNotNull();
+        assertThat(mail.getMessage().getContent().toString()).isEqualTo("BDAT 5\r\nbody\r\n");
+    }
+
     // See http://www.ietf.org/rfc/rfc2920.txt 4: Examples
     @Test
     public void testRejectAllRCPTPipelining() throws Exception {